@@ -13,6 +13,8 @@ import org.but4reuse.adapters.music.utils.Note;
  */
 public class NoteElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	public Note note;
 
 	public NoteElement(Note note) {
@@ -6,6 +6,8 @@ import org.but4reuse.utils.nlp.similarity.TextSimilarity;
 
 public class ReqElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	private String description;
 	
 	@Override
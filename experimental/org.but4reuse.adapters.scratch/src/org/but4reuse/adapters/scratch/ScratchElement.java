@@ -13,6 +13,8 @@ import org.but4reuse.utils.strings.StringUtils;
  */
 public class ScratchElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	public IElement element;
 
 	public ScratchElement(IElement element) {
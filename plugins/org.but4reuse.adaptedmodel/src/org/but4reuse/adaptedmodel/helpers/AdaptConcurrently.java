@@ -1,12 +1,13 @@
 package org.but4reuse.adaptedmodel.helpers;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.but4reuse.adaptedmodel.AdaptedArtefact;
 import org.but4reuse.adaptedmodel.AdaptedModel;
@@ -15,13 +16,26 @@ import org.but4reuse.adaptedmodel.manager.AdaptedModelManager;
 import org.but4reuse.adapters.IAdapter;
 import org.but4reuse.artefactmodel.Artefact;
 import org.but4reuse.artefactmodel.ArtefactModel;
+import org.but4reuse.utils.emf.EMFUtils;
+import org.but4reuse.utils.workbench.WorkbenchUtils;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 /**
+ * Adapt the artefacts concurrently in a pool with as many threads as available
+ * processors. The adapted artefacts and the registered times keep the same
+ * order as in the sequential adaptation. The user can cancel the adaptation.
+ * As in the sequential adaptation, if an artefact cannot be adapted the
+ * adaptation fails with its exception and the pending artefacts are not
+ * adapted.
+ * 
  * @author github.com/readycyr
  */
 public class AdaptConcurrently {
 
+	// time to wait for a task before checking again if the user canceled
+	private static final long CANCEL_CHECK_MILLIS = 100;
+
 	/**
 	 * Adapt an artefact model to create the list of elements of each artefact
 	 * concurrently
@@ -35,33 +49,41 @@ public class AdaptConcurrently {
 			IProgressMonitor monitor) {
 		// When we adapt we consider that we are starting a new analysis
 		AdaptedModelManager.getElapsedTimeRegistry().clear();
-		ExecutorService exec = Executors.newCachedThreadPool();
-		List<Future<AdaptedArtefact>> listAdaptedArtefact = new LinkedList<Future<AdaptedArtefact>>();
-
 		long startTime = System.currentTimeMillis();
 
 		AdaptedModel adaptedModel = AdaptedModelFactory.eINSTANCE.createAdaptedModel();
 
-		/* This will respect a FIFA (First In First Add) to the EList */
+		// The monitor is shared by the threads
+		IProgressMonitor sharedMonitor = new SynchronizedProgressMonitor(monitor);
+
+		List<Artefact> artefacts = new ArrayList<Artefact>();
 		for (Artefact artefact : artefactModel.getOwnedArtefacts()) {
 			if (artefact.isActive()) {
-				listAdaptedArtefact.add(exec.submit(task(artefact, adapters, monitor)));
+				artefacts.add(artefact);
 			}
 		}
-		for (Future<AdaptedArtefact> futureArtefact : listAdaptedArtefact) {
-			AdaptedArtefact aa = null;
-			try {
-				aa = futureArtefact.get();
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			} catch (ExecutionException e) {
-				e.printStackTrace();
-			}
-			if (aa != null) {
+
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		List<Future<AdaptedArtefact>> futures = new ArrayList<Future<AdaptedArtefact>>();
+		long[] times = new long[artefacts.size()];
+		for (int i = 0; i < artefacts.size(); i++) {
+			futures.add(pool.submit(task(artefacts.get(i), adapters, sharedMonitor, times, i)));
+		}
+
+		// Get the results in the same order as the artefacts
+		try {
+			for (int i = 0; i < futures.size(); i++) {
+				AdaptedArtefact aa = waitForResult(futures.get(i), artefacts.get(i), sharedMonitor);
+				if (sharedMonitor.isCanceled()) {
+					return adaptedModel;
+				}
 				adaptedModel.getOwnedAdaptedArtefacts().add(aa);
+				AdaptedModelManager.registerTime("Adapt " + artefacts.get(i).getName(), times[i]);
 			}
+		} finally {
+			pool.shutdownNow();
 		}
-		exec.shutdown();
+
 		// Add info to the manager
 		AdaptedModelManager.registerTime("Adapt all artefacts", System.currentTimeMillis() - startTime);
 		AdaptedModelManager.setAdaptedModel(adaptedModel);
@@ -69,20 +91,79 @@ public class AdaptConcurrently {
 		return adaptedModel;
 	}
 
+	/**
+	 * Wait for the result of a task checking periodically if the user
+	 * canceled. If the task failed, the error is reported in the problems view
+	 * and the exception of the task is thrown.
+	 * 
+	 * @param future
+	 * @param artefact
+	 * @param monitor
+	 * @return the result or null if canceled
+	 */
+	private static AdaptedArtefact waitForResult(Future<AdaptedArtefact> future, Artefact artefact,
+			IProgressMonitor monitor) {
+		while (!monitor.isCanceled()) {
+			try {
+				return future.get(CANCEL_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// check again
+			} catch (InterruptedException e) {
+				monitor.setCanceled(true);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				reportError(artefact, cause);
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new RuntimeException(cause);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Task to adapt one artefact. The time is stored in the given index of the
+	 * times array.
+	 * 
+	 * @return the adapted artefact or null if canceled
+	 */
 	public static Callable<AdaptedArtefact> task(final Artefact artefact, final List<IAdapter> adapters,
-			final IProgressMonitor monitor) {
+			final IProgressMonitor monitor, final long[] times, final int index) {
 		return new Callable<AdaptedArtefact>() {
 			@Override
 			public AdaptedArtefact call() throws Exception {
+				// user cancel
+				if (monitor.isCanceled()) {
+					return null;
+				}
 				long startTimeArtefact = System.currentTimeMillis();
 				AdaptedArtefact adaptedArtefact = AdaptedModelHelper.adapt(artefact, adapters, monitor);
 				monitor.worked(1);
-				// if (monitor.isCanceled()) { return adaptedModel; }
-				AdaptedModelManager.registerTime("Adapt " + artefact.getName(), System.currentTimeMillis()
-						- startTimeArtefact);
+				times[index] = System.currentTimeMillis() - startTimeArtefact;
 				return adaptedArtefact;
 			}
 		};
 	}
 
+	/**
+	 * Report the error of one artefact in the problems view
+	 * 
+	 * @param artefact
+	 * @param e
+	 */
+	private static void reportError(Artefact artefact, Throwable e) {
+		IResource resource = null;
+		if (artefact.eResource() != null) {
+			resource = EMFUtils.getIResource(artefact.eResource());
+		}
+		if (resource != null) {
+			WorkbenchUtils.reportError(resource, 0, "Error adapting " + AdaptedModelHelper.getArtefactName(artefact)
+					+ ": " + e);
+		}
+	}
+
 }
@@ -75,6 +75,69 @@ public class AdaptedModelHelper {
 		return adaptedModel;
 	}
 
+	/**
+	 * Adapt the artefacts of an adapted model after adding or removing
+	 * artefacts in the artefact model. Only the new active artefacts are
+	 * adapted, the adapted artefacts of the removed or inactive artefacts are
+	 * not in the result and the result follows the order of the artefact model.
+	 * The adapted model is not modified, the adapted artefacts are replaced
+	 * with setAdaptedArtefacts once the blocks are updated.
+	 * 
+	 * @param adaptedModel
+	 * @param artefactModel
+	 * @param adapters
+	 * @param monitor
+	 * @return the adapted artefacts, including the new ones
+	 */
+	public static List<AdaptedArtefact> adaptIncrementally(AdaptedModel adaptedModel, ArtefactModel artefactModel,
+			List<IAdapter> adapters, IProgressMonitor monitor) {
+		AdaptedModelManager.getElapsedTimeRegistry().clear();
+		long startTime = System.currentTimeMillis();
+
+		Map<Artefact, AdaptedArtefact> previous = new HashMap<Artefact, AdaptedArtefact>();
+		for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
+			previous.put(aa.getArtefact(), aa);
+		}
+
+		List<AdaptedArtefact> adaptedArtefacts = new ArrayList<AdaptedArtefact>();
+		for (Artefact artefact : artefactModel.getOwnedArtefacts()) {
+			if (artefact.isActive()) {
+				AdaptedArtefact adaptedArtefact = previous.get(artefact);
+				if (adaptedArtefact == null) {
+					long startTimeArtefact = System.currentTimeMillis();
+					adaptedArtefact = adapt(artefact, adapters, monitor);
+					AdaptedModelManager.registerTime("Adapt " + artefact.getName(),
+							System.currentTimeMillis() - startTimeArtefact);
+				}
+				adaptedArtefacts.add(adaptedArtefact);
+				monitor.worked(1);
+				if (monitor.isCanceled()) {
+					return adaptedArtefacts;
+				}
+			}
+		}
+		AdaptedModelManager.registerTime("Adapt all artefacts", System.currentTimeMillis() - startTime);
+		return adaptedArtefacts;
+	}
+
+	/**
+	 * Replace the adapted artefacts of an adapted model by the ones obtained
+	 * with adaptIncrementally
+	 * 
+	 * @param adaptedModel
+	 * @param adaptedArtefacts
+	 * @param adapters
+	 */
+	public static void setAdaptedArtefacts(AdaptedModel adaptedModel, List<AdaptedArtefact> adaptedArtefacts,
+			List<IAdapter> adapters) {
+		adaptedModel.getOwnedAdaptedArtefacts().clear();
+		adaptedModel.getOwnedAdaptedArtefacts().addAll(adaptedArtefacts);
+
+		// Add info to the manager
+		AdaptedModelManager.setAdaptedModel(adaptedModel);
+		AdaptedModelManager.setAdapters(adapters);
+	}
+
 	/**
 	 * Adapt artefact
 	 * 
@@ -267,33 +330,14 @@ public class AdaptedModelHelper {
 	}
 
 	/**
-	 * Return the list of blocks that are present in an Adapted artefact TODO
-	 * improve
+	 * Return the list of blocks that are present in an Adapted artefact
 	 * 
 	 * @param adaptedArtefact
-	 * @return the list of blocks
+	 * @return the list of blocks in the order of the adapted model
 	 */
 	public static List<Block> getBlocksOfAdaptedArtefact(AdaptedArtefact adaptedArtefact) {
-		List<Block> blocks = new ArrayList<Block>();
-		for (ElementWrapper ew : adaptedArtefact.getOwnedElementWrappers()) {
-			for (BlockElement be : ew.getBlockElements()) {
-				Block block = (Block) be.eContainer();
-				if (!blocks.contains(block)) {
-					blocks.add(block);
-				}
-			}
-		}
-
-		// Sort them
-		List<Block> orderedBlocks = new ArrayList<Block>();
 		AdaptedModel am = (AdaptedModel) adaptedArtefact.eContainer();
-		for (Block block : am.getOwnedBlocks()) {
-			if (blocks.contains(block)) {
-				orderedBlocks.add(block);
-			}
-		}
-
-		return orderedBlocks;
+		return AdaptedModelIndex.get(am).getBlocksOfAdaptedArtefact(adaptedArtefact);
 	}
 
 	/**
@@ -357,24 +401,7 @@ public class AdaptedModelHelper {
 	 * @return a non-empty list
 	 */
 	public static List<Block> getCommonBlocks(AdaptedModel adaptedModel) {
-		// do not modify the adaptedModel
-		List<Block> blocks = adaptedModel.getOwnedBlocks();
-		List<Block> toBeRemoved = new ArrayList<Block>();
-		for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
-			List<Block> aaBlocks = getBlocksOfAdaptedArtefact(aa);
-			for (Block b : blocks) {
-				if (!toBeRemoved.contains(b) && !aaBlocks.contains(b)) {
-					toBeRemoved.add(b);
-				}
-			}
-		}
-		List<Block> common = new ArrayList<Block>();
-		for (Block b : blocks) {
-			if (!toBeRemoved.contains(b)) {
-				common.add(b);
-			}
-		}
-		return common;
+		return AdaptedModelIndex.get(adaptedModel).getCommonBlocks();
 	}
 
 	/**
@@ -473,12 +500,7 @@ public class AdaptedModelHelper {
 	 * @return the adapted artefact or null if not found
 	 */
 	public static AdaptedArtefact getAdaptedArtefact(AdaptedModel adaptedModel, Artefact artefact) {
-		for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
-			if (aa.getArtefact().equals(artefact)) {
-				return aa;
-			}
-		}
-		return null;
+		return AdaptedModelIndex.get(adaptedModel).getAdaptedArtefact(artefact);
 	}
 
 	/**
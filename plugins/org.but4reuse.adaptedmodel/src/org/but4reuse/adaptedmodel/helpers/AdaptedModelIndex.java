@@ -0,0 +1,231 @@
+package org.but4reuse.adaptedmodel.helpers;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.but4reuse.adaptedmodel.AdaptedArtefact;
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.BlockElement;
+import org.but4reuse.adaptedmodel.ElementWrapper;
+import org.but4reuse.artefactmodel.Artefact;
+import org.but4reuse.featurelist.Feature;
+
+/**
+ * Incidence index of the blocks of an adapted model with its adapted artefacts
+ * and with the features of the blocks. The blocks and the adapted artefacts
+ * are identified by their position in the adapted model and the relations are
+ * bit sets. The index is built lazily and it is cached in the adapted model
+ * until the adapted model or its contents change (see ModelCache).
+ * 
+ * @author jabier.martinez
+ */
+public class AdaptedModelIndex {
+
+	private List<Block> blocks;
+
+	private Map<Block, Integer> blockIds = new HashMap<Block, Integer>();
+
+	private List<AdaptedArtefact> adaptedArtefacts;
+
+	private Map<AdaptedArtefact, Integer> adaptedArtefactIds = new HashMap<AdaptedArtefact, Integer>();
+
+	private Map<Artefact, AdaptedArtefact> artefactsMap = new HashMap<Artefact, AdaptedArtefact>();
+
+	// for each adapted artefact, the ids of its blocks
+	private List<BitSet> blocksOfAdaptedArtefacts = new ArrayList<BitSet>();
+
+	// for each block, the ids of the adapted artefacts containing it
+	private List<BitSet> adaptedArtefactsOfBlocks = new ArrayList<BitSet>();
+
+	// for each feature, the ids of its corresponding blocks
+	private Map<Feature, BitSet> blocksOfFeatures = new HashMap<Feature, BitSet>();
+
+	private BitSet commonBlocks;
+
+	private AdaptedModelIndex(AdaptedModel adaptedModel) {
+		adaptedArtefacts = new ArrayList<AdaptedArtefact>(adaptedModel.getOwnedAdaptedArtefacts());
+		for (int i = 0; i < adaptedArtefacts.size(); i++) {
+			AdaptedArtefact aa = adaptedArtefacts.get(i);
+			adaptedArtefactIds.put(aa, i);
+			// the first one as in a linear search
+			if (!artefactsMap.containsKey(aa.getArtefact())) {
+				artefactsMap.put(aa.getArtefact(), aa);
+			}
+			blocksOfAdaptedArtefacts.add(new BitSet());
+		}
+
+		blocks = new ArrayList<Block>(adaptedModel.getOwnedBlocks());
+		commonBlocks = new BitSet();
+		for (int b = 0; b < blocks.size(); b++) {
+			Block block = blocks.get(b);
+			if (!blockIds.containsKey(block)) {
+				blockIds.put(block, b);
+			}
+			BitSet artefacts = new BitSet();
+			for (BlockElement be : block.getOwnedBlockElements()) {
+				for (ElementWrapper ew : be.getElementWrappers()) {
+					Integer aaId = adaptedArtefactIds.get(ew.eContainer());
+					if (aaId != null) {
+						artefacts.set(aaId);
+						blocksOfAdaptedArtefacts.get(aaId).set(b);
+					}
+				}
+			}
+			adaptedArtefactsOfBlocks.add(artefacts);
+			if (artefacts.cardinality() == adaptedArtefacts.size()) {
+				commonBlocks.set(b);
+			}
+			for (Feature feature : block.getCorrespondingFeatures()) {
+				BitSet featureBlocks = blocksOfFeatures.get(feature);
+				if (featureBlocks == null) {
+					featureBlocks = new BitSet();
+					blocksOfFeatures.put(feature, featureBlocks);
+				}
+				featureBlocks.set(b);
+			}
+		}
+	}
+
+	/**
+	 * Get the index of an adapted model, building it if it was not built or if
+	 * the adapted model changed
+	 * 
+	 * @param adaptedModel
+	 * @return the non null index
+	 */
+	public static AdaptedModelIndex get(AdaptedModel adaptedModel) {
+		ModelCache cache = ModelCache.get(adaptedModel, AdaptedModelIndex.class);
+		synchronized (cache) {
+			AdaptedModelIndex index = (AdaptedModelIndex) cache.getValue();
+			if (index == null) {
+				index = new AdaptedModelIndex(adaptedModel);
+				cache.setValue(index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * @return the blocks in the order of the adapted model
+	 */
+	public List<Block> getBlocks() {
+		return Collections.unmodifiableList(blocks);
+	}
+
+	/**
+	 * @return the adapted artefacts in the order of the adapted model
+	 */
+	public List<AdaptedArtefact> getAdaptedArtefacts() {
+		return Collections.unmodifiableList(adaptedArtefacts);
+	}
+
+	/**
+	 * @param block
+	 * @return the position of the block or -1 if it is not in the adapted
+	 *         model
+	 */
+	public int getBlockId(Block block) {
+		Integer id = blockIds.get(block);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param adaptedArtefact
+	 * @return the position of the adapted artefact or -1 if it is not in the
+	 *         adapted model
+	 */
+	public int getAdaptedArtefactId(AdaptedArtefact adaptedArtefact) {
+		Integer id = adaptedArtefactIds.get(adaptedArtefact);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param artefact
+	 * @return the adapted artefact or null if not found
+	 */
+	public AdaptedArtefact getAdaptedArtefact(Artefact artefact) {
+		return artefactsMap.get(artefact);
+	}
+
+	/**
+	 * @param adaptedArtefact
+	 * @return the ids of the blocks present in the adapted artefact. It must
+	 *         not be modified.
+	 */
+	public BitSet getBlockIdsOfAdaptedArtefact(AdaptedArtefact adaptedArtefact) {
+		int id = getAdaptedArtefactId(adaptedArtefact);
+		return id == -1 ? new BitSet() : blocksOfAdaptedArtefacts.get(id);
+	}
+
+	/**
+	 * @param block
+	 * @return the ids of the adapted artefacts containing the block. It must
+	 *         not be modified.
+	 */
+	public BitSet getAdaptedArtefactIdsOfBlock(Block block) {
+		int id = getBlockId(block);
+		return id == -1 ? new BitSet() : adaptedArtefactsOfBlocks.get(id);
+	}
+
+	/**
+	 * @param feature
+	 * @return the ids of the blocks corresponding to the feature. It must not
+	 *         be modified.
+	 */
+	public BitSet getBlockIdsOfFeature(Feature feature) {
+		BitSet featureBlocks = blocksOfFeatures.get(feature);
+		return featureBlocks == null ? new BitSet() : featureBlocks;
+	}
+
+	/**
+	 * @param adaptedArtefact
+	 * @return a new list with the blocks of the adapted artefact in the order
+	 *         of the adapted model
+	 */
+	public List<Block> getBlocksOfAdaptedArtefact(AdaptedArtefact adaptedArtefact) {
+		return getBlocks(getBlockIdsOfAdaptedArtefact(adaptedArtefact));
+	}
+
+	/**
+	 * @param block
+	 * @return a new list with the adapted artefacts containing the block
+	 */
+	public List<AdaptedArtefact> getAdaptedArtefactsOfBlock(Block block) {
+		List<AdaptedArtefact> result = new ArrayList<AdaptedArtefact>();
+		BitSet ids = getAdaptedArtefactIdsOfBlock(block);
+		for (int i = ids.nextSetBit(0); i >= 0; i = ids.nextSetBit(i + 1)) {
+			result.add(adaptedArtefacts.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * @param feature
+	 * @return a new list with the blocks corresponding to the feature in the
+	 *         order of the adapted model
+	 */
+	public List<Block> getBlocksOfFeature(Feature feature) {
+		return getBlocks(getBlockIdsOfFeature(feature));
+	}
+
+	/**
+	 * @return a new list with the blocks present in all the adapted artefacts
+	 */
+	public List<Block> getCommonBlocks() {
+		return getBlocks(commonBlocks);
+	}
+
+	private List<Block> getBlocks(BitSet ids) {
+		List<Block> result = new ArrayList<Block>();
+		for (int i = ids.nextSetBit(0); i >= 0; i = ids.nextSetBit(i + 1)) {
+			result.add(blocks.get(i));
+		}
+		return result;
+	}
+
+}
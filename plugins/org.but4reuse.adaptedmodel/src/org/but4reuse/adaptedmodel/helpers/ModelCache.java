@@ -0,0 +1,138 @@
+package org.but4reuse.adaptedmodel.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.but4reuse.adaptedmodel.ElementWrapper;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * Value calculated from a model and cached as an adapter of the model. The
+ * adapter observes the model and all its contents, so any change discards the
+ * value, for example adding a block, adding an element wrapper to a block
+ * element or setting the constraints of an adapted model, even if it is the
+ * same list. The value is calculated again the next time it is needed.
+ * 
+ * The element wrappers are not observed to avoid one more adapter for each
+ * element. The changes of their block elements are notified by the block
+ * elements as the reference is bidirectional. Changes inside values that are
+ * not EMF objects (the elements or the list of constraints) are not notified,
+ * so the value must be set again after modifying them.
+ * 
+ * Each kind of value is identified by a key, usually the class calculating it.
+ * The value must be read and set while holding the lock of the cache.
+ * 
+ * @author jabier.martinez
+ */
+public class ModelCache extends EContentAdapter {
+
+	private Notifier model;
+
+	private Object key;
+
+	private Object value;
+
+	// other models used to calculate the value
+	private List<Notifier> observed = new ArrayList<Notifier>();
+
+	private ModelCache(Notifier model, Object key) {
+		this.model = model;
+		this.key = key;
+	}
+
+	/**
+	 * Get the cache of a model, attaching a new one the first time
+	 * 
+	 * @param model
+	 * @param key
+	 *            the kind of value
+	 * @return the non null cache
+	 */
+	public static synchronized ModelCache get(Notifier model, Object key) {
+		for (Adapter adapter : model.eAdapters()) {
+			if (adapter instanceof ModelCache && ((ModelCache) adapter).model == model
+					&& ((ModelCache) adapter).key.equals(key)) {
+				return (ModelCache) adapter;
+			}
+		}
+		ModelCache cache = new ModelCache(model, key);
+		model.eAdapters().add(cache);
+		return cache;
+	}
+
+	/**
+	 * Discard the values of all the caches of a model, for example to measure
+	 * their calculation again
+	 * 
+	 * @param model
+	 */
+	public static synchronized void discard(Notifier model) {
+		for (Adapter adapter : model.eAdapters()) {
+			if (adapter instanceof ModelCache && ((ModelCache) adapter).model == model) {
+				ModelCache cache = (ModelCache) adapter;
+				synchronized (cache) {
+					cache.value = null;
+					cache.stopObserving();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the cached value or null if it was discarded
+	 */
+	public synchronized Object getValue() {
+		return value;
+	}
+
+	/**
+	 * Set the value
+	 * 
+	 * @param value
+	 * @param observed
+	 *            other models that discard the value when they change, for
+	 *            example the feature list used to calculate it. They are only
+	 *            observed until the value is discarded.
+	 */
+	public synchronized void setValue(Object value, Notifier... observed) {
+		stopObserving();
+		this.value = value;
+		for (Notifier notifier : observed) {
+			if (notifier != model) {
+				this.observed.add(notifier);
+				notifier.eAdapters().add(this);
+			}
+		}
+	}
+
+	private void stopObserving() {
+		for (Notifier notifier : observed) {
+			notifier.eAdapters().remove(this);
+		}
+		observed.clear();
+	}
+
+	@Override
+	protected void addAdapter(Notifier notifier) {
+		if (!(notifier instanceof ElementWrapper)) {
+			super.addAdapter(notifier);
+		}
+	}
+
+	@Override
+	public void notifyChanged(Notification msg) {
+		super.notifyChanged(msg);
+		// not ignoring the touch notifications because setting the same
+		// constraints list again means that it was modified
+		if (msg.getEventType() != Notification.REMOVING_ADAPTER && msg.getEventType() != Notification.RESOLVE) {
+			synchronized (this) {
+				value = null;
+				stopObserving();
+			}
+		}
+	}
+
+}
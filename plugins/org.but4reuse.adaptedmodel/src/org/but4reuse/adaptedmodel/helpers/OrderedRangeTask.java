@@ -0,0 +1,142 @@
+package org.but4reuse.adaptedmodel.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Task for a range of positions, for example the positions of the blocks or
+ * of the features. The range is split in halves until it is small enough and
+ * the results of the halves are concatenated so the result keeps the order of
+ * the sequential computation. When the user cancels, the results of the
+ * positions already computed are returned.
+ * 
+ * @author jabier.martinez
+ */
+public abstract class OrderedRangeTask<T> extends RecursiveTask<List<T>> {
+
+	private static final long serialVersionUID = 1L;
+
+	// number of positions that are not split anymore
+	private static final int THRESHOLD = 8;
+
+	protected int from;
+
+	protected int to;
+
+	protected IProgressMonitor monitor;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param from
+	 *            first position, inclusive
+	 * @param to
+	 *            last position, exclusive
+	 * @param monitor
+	 *            a monitor that can be shared by several threads
+	 */
+	public OrderedRangeTask(int from, int to, IProgressMonitor monitor) {
+		this.from = from;
+		this.to = to;
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Compute one position
+	 * 
+	 * @param position
+	 * @return the results of the position
+	 */
+	protected abstract List<T> compute(int position);
+
+	/**
+	 * Create the same task for another range
+	 * 
+	 * @param from
+	 * @param to
+	 * @return the task
+	 */
+	protected abstract OrderedRangeTask<T> createTask(int from, int to);
+
+	@Override
+	protected List<T> compute() {
+		if (to - from <= THRESHOLD) {
+			return computeSequentially();
+		}
+		List<T> results = new ArrayList<T>();
+		int middle = (from + to) >>> 1;
+		OrderedRangeTask<T> first = createTask(from, middle);
+		OrderedRangeTask<T> second = createTask(middle, to);
+		first.fork();
+		List<T> secondResults = second.compute();
+		results.addAll(first.join());
+		results.addAll(secondResults);
+		return results;
+	}
+
+	/**
+	 * Compute the whole range in the current thread
+	 * 
+	 * @return the results in the order of the positions
+	 */
+	protected List<T> computeSequentially() {
+		List<T> results = new ArrayList<T>();
+		for (int i = from; i < to; i++) {
+			// user cancel
+			if (monitor.isCanceled()) {
+				return results;
+			}
+			results.addAll(compute(i));
+		}
+		return results;
+	}
+
+	/**
+	 * Run the task in a pool with as many threads as available processors
+	 * 
+	 * @param task
+	 * @return the results in the order of the positions
+	 */
+	public static <T> List<T> invoke(OrderedRangeTask<T> task) {
+		return invoke(task, true);
+	}
+
+	/**
+	 * Run the task in a pool with as many threads as available processors, or
+	 * in the current thread
+	 * 
+	 * @param task
+	 * @param parallel
+	 *            false if the positions cannot be computed by other threads
+	 * @return the results in the order of the positions
+	 */
+	public static <T> List<T> invoke(OrderedRangeTask<T> task, boolean parallel) {
+		if (!parallel) {
+			return task.computeSequentially();
+		}
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		try {
+			return pool.invoke(task);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Get a monitor that can be used by the tasks
+	 * 
+	 * @param monitor
+	 * @return the shared monitor
+	 */
+	public static IProgressMonitor share(IProgressMonitor monitor) {
+		if (monitor instanceof SynchronizedProgressMonitor) {
+			return monitor;
+		}
+		return new SynchronizedProgressMonitor(monitor);
+	}
+
+}
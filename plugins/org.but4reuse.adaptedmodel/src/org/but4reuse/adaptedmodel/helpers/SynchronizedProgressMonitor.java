@@ -0,0 +1,59 @@
+package org.but4reuse.adaptedmodel.helpers;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Progress monitor that can be shared by several threads. All the calls are
+ * synchronized and delegated to the given monitor.
+ * 
+ * @author jabier.martinez
+ */
+public class SynchronizedProgressMonitor implements IProgressMonitor {
+
+	private IProgressMonitor monitor;
+
+	public SynchronizedProgressMonitor(IProgressMonitor monitor) {
+		this.monitor = monitor;
+	}
+
+	@Override
+	public synchronized void beginTask(String name, int totalWork) {
+		monitor.beginTask(name, totalWork);
+	}
+
+	@Override
+	public synchronized void done() {
+		monitor.done();
+	}
+
+	@Override
+	public synchronized void internalWorked(double work) {
+		monitor.internalWorked(work);
+	}
+
+	@Override
+	public synchronized boolean isCanceled() {
+		return monitor.isCanceled();
+	}
+
+	@Override
+	public synchronized void setCanceled(boolean value) {
+		monitor.setCanceled(value);
+	}
+
+	@Override
+	public synchronized void setTaskName(String name) {
+		monitor.setTaskName(name);
+	}
+
+	@Override
+	public synchronized void subTask(String name) {
+		monitor.subTask(name);
+	}
+
+	@Override
+	public synchronized void worked(int work) {
+		monitor.worked(work);
+	}
+
+}
@@ -1,6 +1,7 @@
 package org.but4reuse.adaptedmodel.manager;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,7 +22,8 @@ public class AdaptedModelManager {
 	private static AdaptedModel adaptedModel = null;
 	private static FeatureList featureList = null;
 	private static List<IAdapter> adapters = new ArrayList<IAdapter>();
-	private static Map<String, Long> elapsedTimeRegistry = new LinkedHashMap<String, Long>();
+	private static Map<String, Long> elapsedTimeRegistry = Collections
+			.synchronizedMap(new LinkedHashMap<String, Long>());
 	private static IContainer defaultOutput = null;
 
 	public static AdaptedModel getAdaptedModel() {
@@ -43,7 +45,8 @@ public class AdaptedModelManager {
 	}
 
 	/**
-	 * Register elapsed time. Use milliseconds.
+	 * Register elapsed time. Use milliseconds. It can be called from different
+	 * threads.
 	 * 
 	 * @param text
 	 * @param timestamp
@@ -4,14 +4,17 @@ import java.io.BufferedReader;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import org.but4reuse.adapters.IAdapter;
 import org.but4reuse.adapters.IElement;
-import org.but4reuse.utils.files.CSVUtils;
+import org.but4reuse.utils.files.CSVWriter;
 import org.but4reuse.utils.files.FileUtils;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.swt.graphics.Point;
@@ -88,50 +91,79 @@ public class CSVAdapter implements IAdapter {
 			File file = FileUtils.getFile(uri);
 			FileUtils.createFile(file);
 
-			// Calculate max width and height
-			int maxRow = Integer.MIN_VALUE;
+			// Order the cells by row and column
+			List<CellElement> cells = new ArrayList<CellElement>();
 			int maxColumn = Integer.MIN_VALUE;
 			for (IElement element : elements) {
 				if (element instanceof CellElement) {
 					CellElement cell = (CellElement) element;
-					int row = cell.getRow();
-					int column = cell.getColumn();
-					if (row > maxRow) {
-						maxRow = row;
-					}
-					if (column > maxColumn) {
-						maxColumn = column;
+					cells.add(cell);
+					if (cell.getColumn() > maxColumn) {
+						maxColumn = cell.getColumn();
 					}
 				}
 			}
-
-			// Initialize the matrix
-			List<List<Object>> matrix = new ArrayList<List<Object>>();
-			for (int y = 0; y <= maxRow; y++) {
-				List<Object> row = new ArrayList<Object>();
-				for (int x = 0; x <= maxColumn; x++) {
-					row.add("");
+			Collections.sort(cells, new Comparator<CellElement>() {
+				@Override
+				public int compare(CellElement c1, CellElement c2) {
+					if (c1.getRow() != c2.getRow()) {
+						return c1.getRow() < c2.getRow() ? -1 : 1;
+					}
+					return c1.getColumn() < c2.getColumn() ? -1 : (c1.getColumn() == c2.getColumn() ? 0 : 1);
 				}
-				matrix.add(row);
-			}
+			});
 
-			// Put the values
-			for (IElement element : elements) {
-				if (element instanceof CellElement) {
-					CellElement cell = (CellElement) element;
-					int row = cell.getRow();
-					int column = cell.getColumn();
-					String value = cell.getValue();
-					matrix.get(row).set(column, value);
+			// Export it row by row, the missing cells are empty
+			CSVWriter csv = new CSVWriter(file, false);
+			try {
+				int row = 0;
+				int column = 0;
+				for (int i = 0; i < cells.size(); i++) {
+					CellElement cell = cells.get(i);
+					// the last value is used for repeated positions
+					if (i + 1 < cells.size() && cells.get(i + 1).getRow() == cell.getRow()
+							&& cells.get(i + 1).getColumn() == cell.getColumn()) {
+						continue;
+					}
+					while (row < cell.getRow()) {
+						column = endRow(csv, column, maxColumn);
+						row++;
+					}
+					while (column < cell.getColumn()) {
+						csv.writeCell("");
+						column++;
+					}
+					csv.writeCell(cell.getValue());
+					column++;
+				}
+				if (!cells.isEmpty()) {
+					endRow(csv, column, maxColumn);
 				}
+			} finally {
+				csv.close();
 			}
 
-			// Export it
-			CSVUtils.exportCSV(uri, matrix);
-
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Complete the current row with empty cells
+	 * 
+	 * @param csv
+	 * @param column
+	 *            next column to write
+	 * @param maxColumn
+	 * @return the next column to write in the next row
+	 * @throws IOException
+	 */
+	private static int endRow(CSVWriter csv, int column, int maxColumn) throws IOException {
+		for (int x = column; x <= maxColumn; x++) {
+			csv.writeCell("");
+		}
+		csv.endRow();
+		return 0;
+	}
+
 }
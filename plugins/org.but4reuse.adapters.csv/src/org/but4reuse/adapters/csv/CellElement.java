@@ -2,10 +2,13 @@ package org.but4reuse.adapters.csv;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import org.but4reuse.adapters.ICandidateIndex;
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.impl.AbstractElement;
+import org.but4reuse.adapters.impl.KeyCandidateIndex;
 import org.but4reuse.adapters.markers.IMarkerElement;
 import org.but4reuse.utils.workbench.WorkbenchUtils;
 import org.eclipse.core.resources.IMarker;
@@ -19,6 +22,8 @@ import org.eclipse.core.runtime.CoreException;
  */
 public class CellElement extends AbstractElement implements IMarkerElement {
 
+	private static final long serialVersionUID = 1L;
+
 	private String value;
 	private int row;
 	private int column;
@@ -49,6 +54,17 @@ public class CellElement extends AbstractElement implements IMarkerElement {
 		return "(" + row + "," + column + ") " + value;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		return Arrays.asList(row, column, value);
+	}
+
+	@Override
+	public ICandidateIndex createCandidateIndex(double minimumSimilarity) {
+		// similarity is 1 or 0
+		return new KeyCandidateIndex();
+	}
+
 	public String getValue() {
 		return value;
 	}
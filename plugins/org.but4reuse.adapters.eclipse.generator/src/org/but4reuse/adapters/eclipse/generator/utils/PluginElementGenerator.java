@@ -14,6 +14,8 @@ import org.but4reuse.adapters.eclipse.PluginElement;
  */
 public class PluginElementGenerator extends PluginElement {
 
+	private static final long serialVersionUID = 1L;
+
 	public PluginElementGenerator(PluginElement one_elem) {
 		super();
 		VariantsUtils.copy(one_elem, this);
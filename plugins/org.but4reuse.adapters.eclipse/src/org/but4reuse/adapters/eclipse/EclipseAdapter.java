@@ -27,8 +27,6 @@ import org.eclipse.core.runtime.IProgressMonitor;
  */
 public class EclipseAdapter implements IAdapter {
 
-	private URI rootURI;
-
 	/**
 	 * This method check if the artefact is adaptable with the EclipseAdapter
 	 */
@@ -43,8 +41,6 @@ public class EclipseAdapter implements IAdapter {
 		return false;
 	}
 
-	Map<String, String> bundlesInfoLines;
-
 	/**
 	 * Provides the atomic elements (plugins) this distribution is made of
 	 * 
@@ -57,14 +53,14 @@ public class EclipseAdapter implements IAdapter {
 
 		List<IElement> elements = new ArrayList<IElement>();
 		File file = FileUtils.getFile(uri);
-		rootURI = file.toURI();
+		URI rootURI = file.toURI();
 
 		// A hashmap of bundle symbolic names and the complete line in the
 		// bundles.info file
-		bundlesInfoLines = PluginInfosExtractor.createBundlesInfoMap(uri);
+		Map<String, String> bundlesInfoLines = PluginInfosExtractor.createBundlesInfoMap(uri);
 
 		// start the containment tree traversal, with null as initial container
-		adapt(file, elements, null);
+		adapt(file, rootURI, bundlesInfoLines, elements, null);
 
 		// plugin dependencies
 		for (IElement elem : elements) {
@@ -82,10 +78,13 @@ public class EclipseAdapter implements IAdapter {
 	 * adapt recursively
 	 * 
 	 * @param file
+	 * @param rootURI
+	 * @param bundlesInfoLines
 	 * @param elements
 	 * @param container
 	 */
-	private void adapt(File file, List<IElement> elements, IElement container) {
+	private void adapt(File file, URI rootURI, Map<String, String> bundlesInfoLines, List<IElement> elements,
+			IElement container) {
 		FileElement newElement = null;
 		if (PluginInfosExtractor.isAPlugin(file)) {
 			try {
@@ -138,7 +137,7 @@ public class EclipseAdapter implements IAdapter {
 			if (!newElement.getRelativeURI().toString().equals("features/")) {
 				File[] files = file.listFiles();
 				for (File subFile : files) {
-					adapt(subFile, elements, newElement);
+					adapt(subFile, rootURI, bundlesInfoLines, elements, newElement);
 				}
 			}
 		}
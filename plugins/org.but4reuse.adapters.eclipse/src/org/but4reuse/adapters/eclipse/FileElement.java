@@ -2,6 +2,7 @@ package org.but4reuse.adapters.eclipse;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.but4reuse.adapters.IElement;
@@ -9,6 +10,8 @@ import org.but4reuse.adapters.impl.AbstractElement;
 
 public class FileElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	private URI uri;
 	private URI relativeURI;
 
@@ -40,6 +43,11 @@ public class FileElement extends AbstractElement {
 		return result;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		return Arrays.asList(FileElement.class, getRelativeURI());
+	}
+
 	public URI getRelativeURI() {
 		return relativeURI;
 	}
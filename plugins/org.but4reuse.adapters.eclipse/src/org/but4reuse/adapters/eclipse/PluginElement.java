@@ -1,6 +1,7 @@
 package org.but4reuse.adapters.eclipse;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.but4reuse.adapters.IElement;
@@ -14,6 +15,8 @@ import org.but4reuse.utils.strings.StringUtils;
  */
 public class PluginElement extends FileElement {
 
+	private static final long serialVersionUID = 1L;
+
 	private String pluginSymbName;
 	private String pluginVersion;
 	private String bundleInfoLine;
@@ -133,6 +136,11 @@ public class PluginElement extends FileElement {
 		return result;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		return Arrays.asList(PluginElement.class, getSymbName());
+	}
+
 	@Override
 	public List<String> getWords() {
 		List<String> words = new ArrayList<String>();
@@ -31,9 +31,14 @@ public class PluginInfosExtractor {
 
 	private static final String FRAGMENT_HOST = "Fragment-Host";
 
-	private static String currentLocalization = null;
-
-	private static void fillPluginElementInfo(PluginElement plugin, Manifest manifest) {
+	/**
+	 * Fill the plugin information from the manifest
+	 * 
+	 * @param plugin
+	 * @param manifest
+	 * @return the localization of the plugin
+	 */
+	private static String fillPluginElementInfo(PluginElement plugin, Manifest manifest) {
 		Attributes attributes = manifest.getMainAttributes();
 		String value = attributes.getValue(BUNDLE_SYMBOLIC_NAME);
 		int i = value.indexOf(';');
@@ -58,12 +63,13 @@ public class PluginInfosExtractor {
 		}
 
 		// Name
-		currentLocalization = attributes.getValue(BUNDLE_LOCALIZATION);
-		if (currentLocalization == null) {
-			currentLocalization = DEFAULT_LOCALIZATION;
+		String localization = attributes.getValue(BUNDLE_LOCALIZATION);
+		if (localization == null) {
+			localization = DEFAULT_LOCALIZATION;
 		}
 		String name = attributes.getValue(BUNDLE_NAME);
 		plugin.setName(name);
+		return localization;
 	}
 
 	/*
@@ -86,11 +92,11 @@ public class PluginInfosExtractor {
 		try {
 			InputStream ips = new FileInputStream(manifestFile);
 			Manifest manifest = new Manifest(ips);
-			fillPluginElementInfo(plugin, manifest);
+			String localization = fillPluginElementInfo(plugin, manifest);
 			ips.close();
 			manifest = null;
 			if (plugin.getName() != null && plugin.getName().contains("%")) {
-				File localizationFile = new File(f, currentLocalization + ".properties");
+				File localizationFile = new File(f, localization + ".properties");
 				if (localizationFile.exists()) {
 					Properties prop = new Properties();
 					InputStream input = new FileInputStream(localizationFile);
@@ -126,9 +132,9 @@ public class PluginInfosExtractor {
 		try {
 			File f = new File(jarFile);
 			JarFile jar = new JarFile(f);
-			fillPluginElementInfo(plugin, jar.getManifest());
+			String localization = fillPluginElementInfo(plugin, jar.getManifest());
 			if (plugin.getName() != null && plugin.getName().contains("%")) {
-				ZipEntry zipEntry = jar.getEntry(currentLocalization + ".properties");
+				ZipEntry zipEntry = jar.getEntry(localization + ".properties");
 				if (zipEntry != null) {
 					Properties prop = new Properties();
 					prop.load(jar.getInputStream(zipEntry));
@@ -28,7 +28,8 @@ import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.swt.widgets.Display;
 
 /**
- * EMF Adapter
+ * EMF Adapter. The elements of the artefact being adapted are kept in local
+ * variables so the same instance can adapt several artefacts at the same time.
  * 
  * @author jabier.martinez
  */
@@ -37,7 +38,7 @@ public class EMFAdapter implements IAdapter {
 	public static AdapterFactory ADAPTER_FACTORY = EMFUtils.getAllRegisteredAdapterFactories();
 
 	// This will store the comparison method used during the analysis
-	static IComparisonMethod comparisonMethod = null;
+	static volatile IComparisonMethod comparisonMethod = null;
 
 	/**
 	 * Adaptable if we can load an EObject from the URI
@@ -67,35 +68,33 @@ public class EMFAdapter implements IAdapter {
 		element.eObject = eObject;
 		elements.add(element);
 		// Then we loop the model to add the rest of the construction primitives
-		refElements = new ArrayList<EMFReferenceElement>();
-		eobjectEMFClassElementMap = new HashMap<EObject, EMFClassElement>();
+		List<EMFReferenceElement> refElements = new ArrayList<EMFReferenceElement>();
+		Map<EObject, EMFClassElement> eobjectEMFClassElementMap = new HashMap<EObject, EMFClassElement>();
 		eobjectEMFClassElementMap.put(element.eObject, element);
 
 		// Initialize the comparison method
-		if (getComparisonMethod() == null) {
-			initializeComparisonMethod(element.eObject);
-		}
+		initializeComparisonMethod(element.eObject);
 
-		adapt(eObject, element.eObject, elements);
+		adapt(eObject, element.eObject, elements, refElements, eobjectEMFClassElementMap);
 
 		// After that we add the EReferences dependencies
-		addReferenceDependencies();
+		addReferenceDependencies(refElements, eobjectEMFClassElementMap);
 		return elements;
 	}
 
-	List<EMFReferenceElement> refElements = new ArrayList<EMFReferenceElement>();
-	// TODO list or map? it seems that list is also ok
-	// List<EMFClassElement> classElements = new ArrayList<EMFClassElement>();
-	Map<EObject, EMFClassElement> eobjectEMFClassElementMap = new HashMap<EObject, EMFClassElement>();
-
 	/**
 	 * 
 	 * @param eObject
 	 * @param adaptedEObject
 	 * @param elements
+	 * @param refElements
+	 *            the reference elements found so far
+	 * @param eobjectEMFClassElementMap
+	 *            the class element of each eObject found so far
 	 */
 	@SuppressWarnings("unchecked")
-	private void adapt(EObject eObject, EObject adaptedEObject, List<IElement> elements) {
+	private void adapt(EObject eObject, EObject adaptedEObject, List<IElement> elements,
+			List<EMFReferenceElement> refElements, Map<EObject, EMFClassElement> eobjectEMFClassElementMap) {
 
 		// Current child to set the owner is the last element
 		AbstractElement ownerElement = (AbstractElement) elements.get(elements.size() - 1);
@@ -181,7 +180,7 @@ public class EMFAdapter implements IAdapter {
 						// add maximum dependencies
 						eobjectEMFClassElementMap.put(element.eObject, element);
 						elements.add(element);
-						adapt(child, element.eObject, elements);
+						adapt(child, element.eObject, elements, refElements, eobjectEMFClassElementMap);
 					}
 				}
 			}
@@ -189,13 +188,17 @@ public class EMFAdapter implements IAdapter {
 	}
 
 	/**
-	 * Initialize the comparison method that will be used
+	 * Initialize the comparison method that will be used if it was not
+	 * initialized before
 	 * 
 	 * @param adaptedEObject
 	 */
-	private void initializeComparisonMethod(EObject adaptedEObject) {
+	private static synchronized void initializeComparisonMethod(EObject adaptedEObject) {
 		// TODO once initialised, the same will be used always. It is not
 		// possible to change it, the user will need to relaunch the tool
+		if (comparisonMethod != null) {
+			return;
+		}
 		List<IComparisonMethod> comparisonMethods = DiffMergeUtils.getApplicableComparisonMethods(adaptedEObject,
 				adaptedEObject);
 		if (comparisonMethods.size() == 1) {
@@ -234,9 +237,11 @@ public class EMFAdapter implements IAdapter {
 	/**
 	 * Once we have all the Elements, we prepare the dependencies
 	 * 
-	 * @param refElements2
+	 * @param refElements
+	 * @param eobjectEMFClassElementMap
 	 */
-	private void addReferenceDependencies() {
+	private void addReferenceDependencies(List<EMFReferenceElement> refElements,
+			Map<EObject, EMFClassElement> eobjectEMFClassElementMap) {
 		for (EMFReferenceElement referenceElement : refElements) {
 			// set max and min number of dependencies
 			// if -1 or -2 keep max integer
@@ -249,7 +254,7 @@ public class EMFAdapter implements IAdapter {
 
 			// Now add the dependencies
 			for (EObject referenced : referenceElement.referenced) {
-				EMFClassElement classElement = findClassElement(referenced);
+				EMFClassElement classElement = eobjectEMFClassElementMap.get(referenced);
 				if (classElement == null) {
 					// this must not happen...
 					// Probably the EObject is outside this resource! It
@@ -269,17 +274,6 @@ public class EMFAdapter implements IAdapter {
 		}
 	}
 
-	/**
-	 * Find the Class Element that contains this eObject
-	 * 
-	 * @param classElements2
-	 * @param eObject
-	 * @return an EMFClassElement or null
-	 */
-	public EMFClassElement findClassElement(EObject eObject) {
-		return eobjectEMFClassElementMap.get(eObject);
-	}
-
 	@Override
 	public void construct(URI uri, List<IElement> elements, IProgressMonitor monitor) {
 		// TODO construct fragments. Using CVL extraction for the moment
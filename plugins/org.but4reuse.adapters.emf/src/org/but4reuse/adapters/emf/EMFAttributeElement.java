@@ -17,6 +17,8 @@ import org.eclipse.emf.ecore.EObject;
  */
 public class EMFAttributeElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	public EAttribute eAttribute;
 	public EObject owner;
 	public IElement ownerElement;
@@ -17,6 +17,8 @@ import org.eclipse.emf.ecore.EReference;
  */
 public class EMFReferenceElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	public EObject owner;
 	public EReference eReference;
 	public List<EObject> referenced;
@@ -23,6 +23,8 @@ import org.eclipse.core.runtime.CoreException;
  */
 public class FileElement extends AbstractElement implements IMarkerElement {
 
+	private static final long serialVersionUID = 1L;
+
 	private URI uri;
 	private URI relativeURI;
 
@@ -69,6 +71,15 @@ public class FileElement extends AbstractElement implements IMarkerElement {
 		return result;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		// when checking the content we need to compare the files
+		if (Activator.getDefault().getPreferenceStore().getBoolean(FileStructureAdapterPreferencePage.CONTENT_CHECK)) {
+			return null;
+		}
+		return getRelativeURI();
+	}
+
 	public URI getRelativeURI() {
 		return relativeURI;
 	}
@@ -22,9 +22,6 @@ import org.eclipse.core.runtime.IProgressMonitor;
  */
 public class FileStructureAdapter implements IAdapter {
 
-	private URI rootURI;
-	public boolean ignoreFolders;
-
 	@Override
 	public boolean isAdaptable(URI uri, IProgressMonitor monitor) {
 		// Any folder is adaptable
@@ -37,17 +34,16 @@ public class FileStructureAdapter implements IAdapter {
 
 	@Override
 	public List<IElement> adapt(URI uri, IProgressMonitor monitor) {
-		ignoreFolders = Activator.getDefault().getPreferenceStore().getBoolean(FileStructureAdapterPreferencePage.IGNORE_FOLDERS);
+		boolean ignoreFolders = Activator.getDefault().getPreferenceStore().getBoolean(FileStructureAdapterPreferencePage.IGNORE_FOLDERS);
 		return adapt(uri, monitor, ignoreFolders);
 	}
 	
 	public List<IElement> adapt(URI uri, IProgressMonitor monitor, boolean ignoreFolders){
-		this.ignoreFolders = ignoreFolders;
 		List<IElement> elements = new ArrayList<IElement>();
 		File file = FileUtils.getFile(uri);
-		rootURI = file.toURI();
+		URI rootURI = file.toURI();
 		// start the containment tree traversal, with null as initial container
-		adapt(file, elements, null);
+		adapt(file, rootURI, ignoreFolders, elements, null);
 		// in elements we have the result
 		return elements;
 	}
@@ -56,10 +52,12 @@ public class FileStructureAdapter implements IAdapter {
 	 * adapt recursively
 	 * 
 	 * @param file
+	 * @param rootURI
+	 * @param ignoreFolders
 	 * @param elements
 	 * @param container
 	 */
-	private void adapt(File file, List<IElement> elements, IElement container) {
+	private void adapt(File file, URI rootURI, boolean ignoreFolders, List<IElement> elements, IElement container) {
 		FileElement newElement;
 		// Distinguish between file and folder
 		if (file.isDirectory()) {
@@ -86,7 +84,7 @@ public class FileStructureAdapter implements IAdapter {
 		if (file.isDirectory()) {
 			File[] files = file.listFiles();
 			for (File subFile : files) {
-				adapt(subFile, elements, newElement);
+				adapt(subFile, rootURI, ignoreFolders, elements, newElement);
 			}
 		}
 	}
@@ -6,4 +6,7 @@ package org.but4reuse.adapters.filestructure;
  * @author jabier.martinez
  */
 public class FolderElement extends FileElement {
+
+	private static final long serialVersionUID = 1L;
+
 }
@@ -1,13 +1,16 @@
 package org.but4reuse.adapters.graphs;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
+import org.but4reuse.adapters.ICandidateIndex;
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.graphs.activator.Activator;
 import org.but4reuse.adapters.graphs.preferences.GraphsAdapterPreferencePage;
 import org.but4reuse.adapters.impl.AbstractElement;
+import org.but4reuse.adapters.impl.KeyCandidateIndex;
 
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
@@ -19,6 +22,8 @@ import com.tinkerpop.blueprints.Edge;
  */
 public class EdgeElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	private Edge edge = null;
 
 	@Override
@@ -51,6 +56,25 @@ public class EdgeElement extends AbstractElement {
 				+ edge.getVertex(Direction.IN).getId() + properties;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		String id = Activator.getDefault().getPreferenceStore().getString(GraphsAdapterPreferencePage.EDGE_ID);
+		if (id == null || id.isEmpty()) {
+			return Arrays.asList(EdgeElement.class, edge.getId());
+		}
+		// elements without the id property are never identical
+		if (edge.getProperty(id) == null) {
+			return null;
+		}
+		return Arrays.asList(EdgeElement.class, id, edge.getProperty(id));
+	}
+
+	@Override
+	public ICandidateIndex createCandidateIndex(double minimumSimilarity) {
+		// similarity is 1 or 0
+		return new KeyCandidateIndex();
+	}
+
 	public Edge getEdge() {
 		return edge;
 	}
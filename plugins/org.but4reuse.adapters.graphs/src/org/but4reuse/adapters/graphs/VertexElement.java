@@ -1,13 +1,16 @@
 package org.but4reuse.adapters.graphs;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
+import org.but4reuse.adapters.ICandidateIndex;
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.graphs.activator.Activator;
 import org.but4reuse.adapters.graphs.preferences.GraphsAdapterPreferencePage;
 import org.but4reuse.adapters.impl.AbstractElement;
+import org.but4reuse.adapters.impl.KeyCandidateIndex;
 
 import com.tinkerpop.blueprints.Vertex;
 
@@ -18,6 +21,8 @@ import com.tinkerpop.blueprints.Vertex;
  */
 public class VertexElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	private Vertex vertex = null;
 
 	@Override
@@ -49,6 +54,25 @@ public class VertexElement extends AbstractElement {
 		return "V: id=" + vertex.getId() + properties;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		String id = Activator.getDefault().getPreferenceStore().getString(GraphsAdapterPreferencePage.NODE_ID);
+		if (id == null || id.isEmpty()) {
+			return Arrays.asList(VertexElement.class, vertex.getId());
+		}
+		// elements without the id property are never identical
+		if (vertex.getProperty(id) == null) {
+			return null;
+		}
+		return Arrays.asList(VertexElement.class, id, vertex.getProperty(id));
+	}
+
+	@Override
+	public ICandidateIndex createCandidateIndex(double minimumSimilarity) {
+		// similarity is 1 or 0
+		return new KeyCandidateIndex();
+	}
+
 	public Vertex getVertex() {
 		return vertex;
 	}
@@ -1,6 +1,7 @@
 package org.but4reuse.adapters.images;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.images.utils.ColorUtils;
@@ -18,6 +19,8 @@ import org.eclipse.swt.graphics.RGB;
  */
 public class PixelElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	public RGB color;
 	public int alpha;
 	public Point position;
@@ -37,6 +40,12 @@ public class PixelElement extends AbstractElement {
 		return position.hashCode();
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		// color similarity is 1 only for the same color
+		return Arrays.asList(position, alpha, color);
+	}
+
 	@Override
 	public double similarity(IElement anotherElement) {
 		if (anotherElement instanceof PixelElement) {
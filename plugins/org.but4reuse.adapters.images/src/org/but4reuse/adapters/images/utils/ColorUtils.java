@@ -24,7 +24,7 @@ public class ColorUtils {
 	/**
 	 * This method creates the current ColorUtils(It creates the singleton).
 	 */
-	public static void init() {
+	public static synchronized void init() {
 		if (singleton == null) {
 			singleton = new ColorUtils();
 			singleton.initColorList();
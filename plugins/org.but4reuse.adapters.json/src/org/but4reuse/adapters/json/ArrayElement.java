@@ -1,5 +1,8 @@
 package org.but4reuse.adapters.json;
 
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,6 +11,9 @@ import org.but4reuse.adapters.impl.AbstractElement;
 import org.but4reuse.adapters.json.tools.AdapterTools;
 
 public class ArrayElement extends AbstractElement {
+
+	private static final long serialVersionUID = 1L;
+
 	public IElement parent;
 	public int id;
 	public List<ArrayElement> similarArrays;
@@ -43,8 +49,22 @@ public class ArrayElement extends AbstractElement {
 		return 0;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		// No key, the similarity method must be called to merge the ids used
+		// during the construction
+		return null;
+	}
+
 	@Override
 	public String getText() {
 		return parent.getText() + "_[]";
 	}
+
+	/**
+	 * Not serializable for the same reason as ObjectElement
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		throw new NotSerializableException(getClass().getName());
+	}
 }
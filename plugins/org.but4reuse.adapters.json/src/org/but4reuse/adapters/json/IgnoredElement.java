@@ -2,10 +2,14 @@ package org.but4reuse.adapters.json;
 
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.impl.AbstractElement;
+import org.but4reuse.adapters.json.tools.AdapterTools;
 
 import com.eclipsesource.json.JsonValue;
 
 public class IgnoredElement extends AbstractElement {
+
+	private static final long serialVersionUID = 1L;
+
 	public JsonValue jsonValue;
 	public IElement parent;
 
@@ -23,6 +27,12 @@ public class IgnoredElement extends AbstractElement {
 		return 0;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		// the ignored value is not taken into account
+		return AdapterTools.getIdentityKey(this, parent, null);
+	}
+
 	@Override
 	public String getText() {
 		return parent.getText() + "_/IGNORED/_" + jsonValue.toString();
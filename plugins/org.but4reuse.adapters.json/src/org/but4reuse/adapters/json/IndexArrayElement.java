@@ -1,5 +1,8 @@
 package org.but4reuse.adapters.json;
 
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,6 +11,9 @@ import org.but4reuse.adapters.impl.AbstractElement;
 import org.but4reuse.adapters.json.tools.AdapterTools;
 
 public class IndexArrayElement extends AbstractElement {
+
+	private static final long serialVersionUID = 1L;
+
 	public int id_file;
 	public ArrayElement parent;
 	public int id;
@@ -85,4 +91,11 @@ public class IndexArrayElement extends AbstractElement {
 	public String getText() {
 		return parent.getText();
 	}
+
+	/**
+	 * Not serializable for the same reason as ObjectElement
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		throw new NotSerializableException(getClass().getName());
+	}
 }
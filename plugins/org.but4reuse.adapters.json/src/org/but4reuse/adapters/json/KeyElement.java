@@ -2,8 +2,12 @@ package org.but4reuse.adapters.json;
 
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.impl.AbstractElement;
+import org.but4reuse.adapters.json.tools.AdapterTools;
 
 public class KeyElement extends AbstractElement {
+
+	private static final long serialVersionUID = 1L;
+
 	public String name;
 	public ObjectElement parent;
 
@@ -35,6 +39,11 @@ public class KeyElement extends AbstractElement {
 		return 0;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		return AdapterTools.getStructuralPath(this);
+	}
+
 	@Override
 	public String getText() {
 		if (parent.parent == null) {
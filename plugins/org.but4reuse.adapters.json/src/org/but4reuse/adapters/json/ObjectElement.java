@@ -1,5 +1,8 @@
 package org.but4reuse.adapters.json;
 
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,6 +11,9 @@ import org.but4reuse.adapters.impl.AbstractElement;
 import org.but4reuse.adapters.json.tools.AdapterTools;
 
 public class ObjectElement extends AbstractElement {
+
+	private static final long serialVersionUID = 1L;
+
 	public IElement parent;
 	public int id;
 	public List<ObjectElement> similarObjects;
@@ -47,6 +53,13 @@ public class ObjectElement extends AbstractElement {
 		return 0;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		// No key, the similarity method must be called to merge the ids used
+		// during the construction
+		return null;
+	}
+
 	@Override
 	public String getText() {
 		// return empty string for the root
@@ -55,4 +68,15 @@ public class ObjectElement extends AbstractElement {
 		}
 		return parent.getText() + "_{}";
 	}
+
+	/**
+	 * Not serializable so the elements of the json adapter are not in the
+	 * adapted elements cache. The id comes from a counter that starts again in
+	 * each execution and the similarity merges the ids of the elements of
+	 * different artefacts, so cached ids could be equal to the ids of new
+	 * elements.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		throw new NotSerializableException(getClass().getName());
+	}
 }
@@ -2,10 +2,14 @@ package org.but4reuse.adapters.json;
 
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.impl.AbstractElement;
+import org.but4reuse.adapters.json.tools.AdapterTools;
 
 import com.eclipsesource.json.JsonValue;
 
 public class UnsplittableElement extends AbstractElement {
+
+	private static final long serialVersionUID = 1L;
+
 	public JsonValue content;
 	public JsonValue compare;
 	public IElement parent;
@@ -27,6 +31,11 @@ public class UnsplittableElement extends AbstractElement {
 		return 0;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		return AdapterTools.getIdentityKey(this, parent, compare);
+	}
+
 	@Override
 	public String getText() {
 		return parent.getText() + "_/UNSPLITTABLE/_" + content.toString();
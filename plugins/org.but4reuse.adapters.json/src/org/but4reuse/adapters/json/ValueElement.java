@@ -2,10 +2,14 @@ package org.but4reuse.adapters.json;
 
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.impl.AbstractElement;
+import org.but4reuse.adapters.json.tools.AdapterTools;
 
 import com.eclipsesource.json.JsonValue;
 
 public class ValueElement extends AbstractElement {
+
+	private static final long serialVersionUID = 1L;
+
 	public IElement parent;
 	public JsonValue jsonValue;
 
@@ -25,6 +29,11 @@ public class ValueElement extends AbstractElement {
 		return 0;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		return AdapterTools.getIdentityKey(this, parent, jsonValue);
+	}
+
 	@Override
 	public String getText() {
 		return parent.getText() + "_" + jsonValue.toString();
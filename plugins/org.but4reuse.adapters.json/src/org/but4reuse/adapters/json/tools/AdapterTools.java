@@ -1,9 +1,68 @@
 package org.but4reuse.adapters.json.tools;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.but4reuse.adapters.IElement;
+import org.but4reuse.adapters.json.ArrayElement;
+import org.but4reuse.adapters.json.KeyElement;
+import org.but4reuse.adapters.json.ObjectElement;
+
 public class AdapterTools {
-	private static int id = 0;
+	private static AtomicInteger id = new AtomicInteger();
 
 	public static int getUniqueId() {
-		return id++;
+		return id.getAndIncrement();
+	}
+
+	/**
+	 * Path from the root to an object, array or key element. Two elements with
+	 * the same path are identical. The path is null below an array index
+	 * because the identity of the indexes depends on the compared files.
+	 * 
+	 * @param element
+	 * @return the path or null
+	 */
+	public static List<Object> getStructuralPath(IElement element) {
+		if (element == null) {
+			return new ArrayList<Object>();
+		}
+		List<Object> path;
+		if (element instanceof ObjectElement) {
+			path = getStructuralPath(((ObjectElement) element).parent);
+		} else if (element instanceof ArrayElement) {
+			path = getStructuralPath(((ArrayElement) element).parent);
+		} else if (element instanceof KeyElement) {
+			path = getStructuralPath(((KeyElement) element).parent);
+		} else {
+			return null;
+		}
+		if (path != null) {
+			path.add(element.getClass());
+			if (element instanceof KeyElement) {
+				path.add(((KeyElement) element).name);
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * Identity key of an element that is identified by its value and its
+	 * parent
+	 * 
+	 * @param element
+	 * @param parent
+	 * @param value
+	 * @return the identity key or null
+	 */
+	public static Object getIdentityKey(IElement element, IElement parent, Object value) {
+		List<Object> path = getStructuralPath(parent);
+		if (path == null) {
+			return null;
+		}
+		path.add(element.getClass());
+		path.add(value);
+		return path;
 	}
 }
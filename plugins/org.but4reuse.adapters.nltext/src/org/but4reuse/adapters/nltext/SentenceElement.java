@@ -2,8 +2,10 @@ package org.but4reuse.adapters.nltext;
 
 import java.util.ArrayList;
 
+import org.but4reuse.adapters.ICandidateIndex;
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.impl.AbstractElement;
+import org.but4reuse.adapters.impl.MinHashCandidateIndex;
 import org.but4reuse.utils.nlp.similarity.TextSimilarity;
 import org.but4reuse.utils.strings.StringUtils;
 
@@ -14,6 +16,8 @@ import org.but4reuse.utils.strings.StringUtils;
  */
 public class SentenceElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	private String sentence = null;
 
 	public String getSentence() {
@@ -34,6 +38,12 @@ public class SentenceElement extends AbstractElement {
 		return similarity;
 	}
 
+	@Override
+	public ICandidateIndex createCandidateIndex(double minimumSimilarity) {
+		// not exact, only used if approximate candidates are allowed
+		return new MinHashCandidateIndex(20, 3);
+	}
+
 	@Override
 	public String getText() {
 		return sentence;
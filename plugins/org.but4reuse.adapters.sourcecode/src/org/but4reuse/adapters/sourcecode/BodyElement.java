@@ -11,6 +11,8 @@ import org.but4reuse.adapters.impl.AbstractElement;
  */
 public class BodyElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	private String body;
 
 	private FSTNodeElement parent;
@@ -9,7 +9,7 @@ import java.util.List;
 
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.impl.AbstractElement;
-import org.but4reuse.adapters.sourcecode.adapter.LanguageManager;
+import org.but4reuse.adapters.sourcecode.adapter.ILanguage;
 import org.but4reuse.utils.files.FileUtils;
 import org.but4reuse.utils.strings.StringUtils;
 
@@ -21,6 +21,8 @@ import de.ovgu.cide.fstgen.ast.FSTNonTerminal;
  */
 public abstract class FSTNodeElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	public Path pathToConstructByCopy;
 
 	private FSTNode fstNode;
@@ -31,6 +33,8 @@ public abstract class FSTNodeElement extends AbstractElement {
 
 	private String type;
 
+	private ILanguage language;
+
 	@Override
 	public String getText() {
 		String t = "";
@@ -58,6 +62,14 @@ public abstract class FSTNodeElement extends AbstractElement {
 		this.type = type;
 	}
 
+	public void setLanguage(ILanguage language) {
+		this.language = language;
+	}
+
+	public ILanguage getLanguage() {
+		return language;
+	}
+
 	public FSTNode getNode() {
 		return fstNode;
 	}
@@ -88,7 +100,7 @@ public abstract class FSTNodeElement extends AbstractElement {
 				e.printStackTrace();
 			}
 			// Copy the content
-			LanguageManager.getLanguage().generateCode(this.fstNode, a.getAbsolutePath());
+			language.generateCode(this.fstNode, a.getAbsolutePath());
 		}
 		return true;
 	}
@@ -107,9 +119,8 @@ public abstract class FSTNodeElement extends AbstractElement {
 				&& fstNode.getType().equals(element.getNode().getType())) {
 			// Check same package name
 			if (element.getNode() instanceof FSTNonTerminal && fstNode instanceof FSTNonTerminal) {
-				String anotherElementPackage = LanguageManager.getLanguage()
-						.getPackageName((FSTNonTerminal) element.getNode());
-				String thisPackageName = LanguageManager.getLanguage().getPackageName((FSTNonTerminal) fstNode);
+				String anotherElementPackage = language.getPackageName((FSTNonTerminal) element.getNode());
+				String thisPackageName = language.getPackageName((FSTNonTerminal) fstNode);
 				if (!anotherElementPackage.equals(thisPackageName)) {
 					return 0;
 				}
@@ -2,4 +2,6 @@ package org.but4reuse.adapters.sourcecode;
 
 public class FSTNonTerminalNodeElement extends FSTNodeElement {
 
+	private static final long serialVersionUID = 1L;
+
 }
@@ -1,25 +1,19 @@
 package org.but4reuse.adapters.sourcecode.adapter;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 import de.ovgu.cide.fstgen.ast.FSTNode;
 
 /**
- * The current language
+ * Shared information about the parsed files. The language is not global
+ * anymore, it is given to the readers and kept in each FSTNodeElement so
+ * several artefacts can be adapted at the same time.
  */
 public class LanguageManager {
 
-	private static ILanguage LANGUAGE;
-
 	// TODO seems unused
-	public static HashMap<FSTNode, String> filesNames = new HashMap<FSTNode, String>();
-
-	public static ILanguage getLanguage() {
-		return LANGUAGE;
-	}
-
-	public static void setLanguage(ILanguage iLanguage) {
-		LANGUAGE = iLanguage;
-	}
+	public static Map<FSTNode, String> filesNames = Collections.synchronizedMap(new HashMap<FSTNode, String>());
 
 }
@@ -24,6 +24,12 @@ public class ReadFSTProduct {
 
 	private List<IElement> artefact = null;
 
+	private ILanguage language;
+
+	public ReadFSTProduct(ILanguage language) {
+		this.language = language;
+	}
+
 	public List<IElement> getArtefactElements() {
 		return artefact;
 	}
@@ -31,12 +37,12 @@ public class ReadFSTProduct {
 	public void readProduct(URI uriToExplore) {
 		File file = FileUtils.getFile(uriToExplore);
 		List<File> allFiles = FileUtils.getAllFiles(file);
-		FST2ElementsAdapter fst2elements = new FST2ElementsAdapter();
+		FST2ElementsAdapter fst2elements = new FST2ElementsAdapter(language);
 		List<FSTNode> theNodes = new ArrayList<FSTNode>();
 		for (File f : allFiles) {
 			String fileName = f.toString();
-			if (LanguageManager.getLanguage().isALanguageProgram(fileName)) {
-				FSTNonTerminal node = LanguageManager.getLanguage().parseFile(f);
+			if (language.isALanguageProgram(fileName)) {
+				FSTNonTerminal node = language.parseFile(f);
 				// node is null when there was an exception or error in the
 				// parsing
 				if (node != null) {
@@ -2,6 +2,7 @@ package org.but4reuse.adapters.textlines;
 
 import java.net.URI;
 
+import org.but4reuse.adapters.ICandidateIndex;
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.impl.AbstractElement;
 import org.but4reuse.adapters.markers.IMarkerElement;
@@ -19,6 +20,8 @@ import org.eclipse.core.runtime.CoreException;
  */
 public class LineElement extends AbstractElement implements IMarkerElement {
 
+	private static final long serialVersionUID = 1L;
+
 	public String line;
 
 	// Constructor
@@ -52,6 +55,23 @@ public class LineElement extends AbstractElement implements IMarkerElement {
 		return super.hashCode();
 	}
 
+	/**
+	 * The exact line. The key is stricter than the similarity: it is case
+	 * sensitive while the Levenshtein similarity ignores the case, so two lines
+	 * that only differ in the case have a similarity of 1 but different keys.
+	 * The hashCode of the only identical mode is case sensitive too, so these
+	 * lines were already different in that mode.
+	 */
+	@Override
+	public Object getIdentityKey() {
+		return line;
+	}
+
+	@Override
+	public ICandidateIndex createCandidateIndex(double minimumSimilarity) {
+		return new QGramCandidateIndex(minimumSimilarity);
+	}
+
 	// marker information
 	public URI uri;
 	public int lineNumber;
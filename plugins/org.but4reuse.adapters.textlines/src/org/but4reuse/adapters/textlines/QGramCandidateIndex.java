@@ -0,0 +1,158 @@
+package org.but4reuse.adapters.textlines;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.but4reuse.adapters.ICandidateIndex;
+import org.but4reuse.adapters.IElement;
+
+/**
+ * Exact candidate index for the Levenshtein score of lines. It uses the q-gram
+ * lemma: if the edit distance of two strings is at most k, they share at least
+ * max(length1, length2) - q + 1 - k * q q-grams. The maximum edit distance is
+ * obtained from the minimum similarity.
+ * 
+ * @author jabier.martinez
+ */
+public class QGramCandidateIndex implements ICandidateIndex {
+
+	private static final int Q = 3;
+
+	private double minimumSimilarity;
+
+	// for each q-gram, pairs of id and number of occurrences
+	private Map<String, List<int[]>> postings = new HashMap<String, List<int[]>>();
+
+	private TreeMap<Integer, List<Integer>> idsByLength = new TreeMap<Integer, List<Integer>>();
+
+	private Map<Integer, Integer> lengthById = new HashMap<Integer, Integer>();
+
+	// lines that change their length when lower cased, always candidates
+	private List<Integer> alwaysCandidates = new ArrayList<Integer>();
+
+	private List<Integer> allIds = new ArrayList<Integer>();
+
+	public QGramCandidateIndex(double minimumSimilarity) {
+		this.minimumSimilarity = minimumSimilarity;
+	}
+
+	@Override
+	public void add(IElement element, int id) {
+		allIds.add(id);
+		String line = ((LineElement) element).line;
+		// Levenshtein score ignores the case
+		String lowerCase = line.toLowerCase();
+		if (lowerCase.length() != line.length()) {
+			alwaysCandidates.add(id);
+			return;
+		}
+		List<Integer> ids = idsByLength.get(line.length());
+		if (ids == null) {
+			ids = new ArrayList<Integer>();
+			idsByLength.put(line.length(), ids);
+		}
+		ids.add(id);
+		lengthById.put(id, line.length());
+		for (Entry<String, Integer> entry : getQGrams(lowerCase).entrySet()) {
+			List<int[]> posting = postings.get(entry.getKey());
+			if (posting == null) {
+				posting = new ArrayList<int[]>();
+				postings.put(entry.getKey(), posting);
+			}
+			posting.add(new int[] { id, entry.getValue() });
+		}
+	}
+
+	@Override
+	public List<Integer> getCandidates(IElement element) {
+		String line = ((LineElement) element).line;
+		String lowerCase = line.toLowerCase();
+		if (lowerCase.length() != line.length()) {
+			return new ArrayList<Integer>(allIds);
+		}
+		int length = line.length();
+		Set<Integer> candidates = new TreeSet<Integer>(alwaysCandidates);
+
+		// minimum number of shared q-grams for each length
+		Map<Integer, Integer> minimumByLength = new HashMap<Integer, Integer>();
+		for (Entry<Integer, List<Integer>> entry : getLengthRange(length).entrySet()) {
+			int maxLength = Math.max(length, entry.getKey());
+			int maxDistance = (int) Math.floor((1 - minimumSimilarity) * maxLength + 1e-9);
+			if (Math.abs(length - entry.getKey()) > maxDistance) {
+				continue;
+			}
+			int minimum = maxLength - Q + 1 - maxDistance * Q;
+			if (minimum <= 0) {
+				candidates.addAll(entry.getValue());
+			} else {
+				minimumByLength.put(entry.getKey(), minimum);
+			}
+		}
+
+		if (!minimumByLength.isEmpty()) {
+			// count shared q-grams
+			Map<Integer, Integer> shared = new HashMap<Integer, Integer>();
+			for (Entry<String, Integer> entry : getQGrams(lowerCase).entrySet()) {
+				List<int[]> posting = postings.get(entry.getKey());
+				if (posting != null) {
+					for (int[] idCount : posting) {
+						Integer current = shared.get(idCount[0]);
+						int add = Math.min(entry.getValue(), idCount[1]);
+						shared.put(idCount[0], current == null ? add : current + add);
+					}
+				}
+			}
+			for (Entry<Integer, Integer> entry : shared.entrySet()) {
+				Integer minimum = minimumByLength.get(lengthById.get(entry.getKey()));
+				if (minimum != null && entry.getValue() >= minimum) {
+					candidates.add(entry.getKey());
+				}
+			}
+		}
+		return new ArrayList<Integer>(candidates);
+	}
+
+	@Override
+	public boolean isExact() {
+		return true;
+	}
+
+	/**
+	 * The lengths that could reach the minimum similarity. The score is at
+	 * most the shorter length divided by the longer one.
+	 * 
+	 * @param length
+	 * @return the ids by length
+	 */
+	private Map<Integer, List<Integer>> getLengthRange(int length) {
+		if (minimumSimilarity <= 0) {
+			return idsByLength;
+		}
+		int from = (int) Math.floor(length * minimumSimilarity) - 1;
+		int to = (int) Math.min(Integer.MAX_VALUE - 1, Math.ceil(length / minimumSimilarity)) + 1;
+		return idsByLength.subMap(from, true, to, true);
+	}
+
+	/**
+	 * Get the q-grams of a string
+	 * 
+	 * @param string
+	 * @return the number of occurrences of each q-gram
+	 */
+	private static Map<String, Integer> getQGrams(String string) {
+		Map<String, Integer> qgrams = new HashMap<String, Integer>();
+		for (int i = 0; i + Q <= string.length(); i++) {
+			String qgram = string.substring(i, i + Q);
+			Integer current = qgrams.get(qgram);
+			qgrams.put(qgram, current == null ? 1 : current + 1);
+		}
+		return qgrams;
+	}
+
+}
@@ -99,26 +99,8 @@ public class MergeBlocksAction implements IViewActionDelegate {
 						for (IConstraintsDiscovery constraintsDiscovery : constraintsDiscoveryAlgorithms) {
 							List<IConstraint> discovered = constraintsDiscovery.discover(null, adaptedModel, null,
 									new NullProgressMonitor());
-							if (constraints.isEmpty()) {
-								constraints.addAll(discovered);
-							} else {
-								// Only add the ones that are not
-								// already there
-								List<IConstraint> toBeAdded = new ArrayList<IConstraint>();
-								for (IConstraint d : discovered) {
-									boolean found = false;
-									for (IConstraint c : constraints) {
-										if (ConstraintsHelper.equalsConstraint(d, c)) {
-											found = true;
-											break;
-										}
-									}
-									if (!found) {
-										toBeAdded.add(d);
-									}
-								}
-								constraints.addAll(toBeAdded);
-							}
+							// Only add the ones that are not already there
+							ConstraintsHelper.addNewConstraints(constraints, discovered);
 						}
 						adaptedModel.setConstraints(constraints);
 					}
@@ -28,6 +28,14 @@ public class AdaptersPreferencePage extends FieldEditorPreferencePage implements
 				"Adapt concurrently (Known issue in file-system access. Do not use it for filestructure nor eclipse adapters)",
 				getFieldEditorParent());
 		addField(bfe);
+		BooleanFieldEditor approximate = new BooleanFieldEditor(PreferencesHelper.APPROXIMATE_CANDIDATES,
+				"Approximate candidates (faster comparison of similar elements, some equal elements could be missed)",
+				getFieldEditorParent());
+		addField(approximate);
+		BooleanFieldEditor cache = new BooleanFieldEditor(PreferencesHelper.ADAPTED_ELEMENTS_CACHE,
+				"Cache adapted elements (reuse the elements of unchanged artefacts, only for serializable elements)",
+				getFieldEditorParent());
+		addField(cache);
 	}
 
 	@Override
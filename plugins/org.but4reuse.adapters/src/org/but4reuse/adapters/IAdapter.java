@@ -9,6 +9,12 @@ import org.eclipse.core.runtime.IProgressMonitor;
  * IAdapter that converts an artefact to a set of IElements. Also used to
  * construct a set of IElements to an artefact.
  * 
+ * The same adapter instance is used for all the artefacts and adapt can be
+ * called concurrently for different artefacts. Implementations must be
+ * stateless: keep the information of the artefact being adapted in local
+ * variables or in objects created for each call, never in fields or in static
+ * variables.
+ * 
  * @author jabier.martinez
  */
 public interface IAdapter {
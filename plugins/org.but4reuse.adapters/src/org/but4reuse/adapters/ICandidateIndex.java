@@ -0,0 +1,40 @@
+package org.but4reuse.adapters;
+
+import java.util.List;
+
+/**
+ * Candidate index used to avoid comparing one element with all the other
+ * elements when looking for equal elements. Given an element, it returns the
+ * previously added elements that could be equal to it.
+ * 
+ * @author jabier.martinez
+ */
+public interface ICandidateIndex {
+
+	/**
+	 * Add an element to the index
+	 * 
+	 * @param element
+	 * @param id
+	 *            that will be returned as candidate
+	 */
+	public void add(IElement element, int id);
+
+	/**
+	 * Get the candidates
+	 * 
+	 * @param element
+	 * @return the ids of the added elements that could be equal to the given
+	 *         element in ascending order
+	 */
+	public List<Integer> getCandidates(IElement element);
+
+	/**
+	 * Whether the index is exact
+	 * 
+	 * @return true if all the elements that could be equal are always returned
+	 *         as candidates. False if some of them could be missed (e.g.
+	 *         locality sensitive hashing)
+	 */
+	public boolean isExact();
+}
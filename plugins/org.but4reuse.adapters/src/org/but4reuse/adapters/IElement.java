@@ -52,4 +52,33 @@ public interface IElement extends IDependencyObject {
 	 *         that depends on the element.
 	 */
 	public Map<String, List<IDependencyObject>> getDependants();
+
+	/**
+	 * Identity key used to group identical elements without pairwise
+	 * comparisons. It is opt-in, AbstractElement returns null by default which
+	 * means that the element will only be compared through the similarity
+	 * method. If provided, the key must implement equals and hashCode and two
+	 * elements with equal keys must have a similarity of 1. Elements with a
+	 * similarity of 1 should have equal keys, a key can only be stricter than
+	 * the similarity if the hashCode of the element in the only identical mode
+	 * is also stricter, as those elements are then already different in that
+	 * mode. An element returning null must never be identical to an element
+	 * returning a key.
+	 * 
+	 * @return the identity key or null
+	 */
+	public Object getIdentityKey();
+
+	/**
+	 * Create a candidate index for this kind of elements. It is opt-in,
+	 * AbstractElement returns null by default which means that the element
+	 * will be compared with all the other elements. The created index will be
+	 * shared by all the elements of the same class so elements with an index
+	 * must only be equal to elements of the same class.
+	 * 
+	 * @param minimumSimilarity
+	 *            the minimum similarity for two elements to be equal
+	 * @return the candidate index or null
+	 */
+	public ICandidateIndex createCandidateIndex(double minimumSimilarity);
 }
@@ -0,0 +1,317 @@
+package org.but4reuse.adapters.helper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.but4reuse.adapters.IAdapter;
+import org.but4reuse.adapters.IElement;
+import org.but4reuse.adapters.activator.Activator;
+import org.but4reuse.utils.files.FileUtils;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * On-disk cache of the elements obtained by an adapter for an artefact. The
+ * entry of an (adapter, artefact URI) pair is reused while the fingerprint of
+ * the artefact does not change. The fingerprint is a Merkle hash of the
+ * artefact files using their relative paths, sizes and modification dates,
+ * combined with the version and the preferences of the adapter bundle.
+ * 
+ * The list of elements is stored with Java serialization in a gzip stream. The
+ * elements are classes of each adapter with dependencies between them, so the
+ * serialization keeps the whole object graph without an encoding for each
+ * adapter, and each class description and each shared object is written only
+ * once. Elements that are not serializable are just not cached.
+ * 
+ * @author jabier.martinez
+ */
+public class AdaptedElementsCache {
+
+	private static final String CACHE_FOLDER = "adaptedElementsCache";
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/**
+	 * Get the cached elements
+	 * 
+	 * @param adapter
+	 * @param uri
+	 *            of the artefact
+	 * @param fingerprint
+	 *            the current fingerprint of the artefact
+	 * @return the elements or null if they were not cached or the artefact
+	 *         changed
+	 */
+	public static List<IElement> get(IAdapter adapter, URI uri, String fingerprint) {
+		File cacheFile = getCacheFile(adapter, uri);
+		if (cacheFile == null || fingerprint == null || !cacheFile.exists()) {
+			return null;
+		}
+		ObjectInputStream in = null;
+		boolean broken = false;
+		try {
+			in = new AdapterObjectInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(
+					cacheFile))), adapter);
+			if (!fingerprint.equals(in.readUTF())) {
+				return null;
+			}
+			@SuppressWarnings("unchecked")
+			List<IElement> elements = (List<IElement>) in.readObject();
+			return elements;
+		} catch (Exception e) {
+			// for example, the classes of the elements changed
+			log("The cached elements of " + uri + " could not be read", e);
+			broken = true;
+			return null;
+		} catch (StackOverflowError e) {
+			// too long chain of dependencies
+			broken = true;
+			return null;
+		} finally {
+			close(in);
+			if (broken) {
+				cacheFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Store the elements in the cache. Nothing is stored if the elements are
+	 * not serializable.
+	 * 
+	 * @param adapter
+	 * @param uri
+	 *            of the artefact
+	 * @param fingerprint
+	 *            the fingerprint of the artefact before adapting it
+	 * @param elements
+	 */
+	public static void put(IAdapter adapter, URI uri, String fingerprint, List<IElement> elements) {
+		File cacheFile = getCacheFile(adapter, uri);
+		if (cacheFile == null || fingerprint == null || elements == null) {
+			return;
+		}
+		cacheFile.getParentFile().mkdirs();
+		// write in a temporary file so a failure does not leave a broken entry
+		File tmpFile = new File(cacheFile.getAbsolutePath() + ".tmp");
+		ObjectOutputStream out = null;
+		boolean written = false;
+		try {
+			out = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile))));
+			out.writeUTF(fingerprint);
+			out.writeObject(elements);
+			out.close();
+			out = null;
+			written = true;
+		} catch (IOException e) {
+			// NotSerializableException when the adapter elements do not
+			// support it
+		} catch (StackOverflowError e) {
+			// too long chain of dependencies
+		} finally {
+			close(out);
+		}
+		if (written) {
+			cacheFile.delete();
+			written = tmpFile.renameTo(cacheFile);
+		}
+		if (!written) {
+			tmpFile.delete();
+		}
+	}
+
+	/**
+	 * Remove all the cached elements
+	 */
+	public static void clear() {
+		File folder = getCacheFolder();
+		if (folder != null && folder.exists()) {
+			FileUtils.deleteFile(folder);
+		}
+	}
+
+	/**
+	 * Get the file of the cache entry
+	 * 
+	 * @param adapter
+	 * @param uri
+	 * @return the file or null
+	 */
+	private static File getCacheFile(IAdapter adapter, URI uri) {
+		File folder = getCacheFolder();
+		if (folder == null) {
+			return null;
+		}
+		String name = toHex(digest(adapter.getClass().getName() + "\n" + uri));
+		return new File(folder, name);
+	}
+
+	private static File getCacheFolder() {
+		if (Activator.getDefault() == null) {
+			return null;
+		}
+		return Activator.getDefault().getStateLocation().append(CACHE_FOLDER).toFile();
+	}
+
+	/**
+	 * Fingerprint of the artefact as seen by the adapter
+	 * 
+	 * @param adapter
+	 * @param uri
+	 * @return the fingerprint or null if the artefact is not a file or folder
+	 */
+	public static String getFingerprint(IAdapter adapter, URI uri) {
+		File file = FileUtils.getFile(uri);
+		if (file == null || !file.exists()) {
+			return null;
+		}
+		StringBuilder adapterInfo = new StringBuilder();
+		Bundle bundle = FrameworkUtil.getBundle(adapter.getClass());
+		if (bundle != null) {
+			adapterInfo.append(bundle.getVersion());
+			adapterInfo.append(getPreferences(bundle.getSymbolicName()));
+		}
+		byte[] adapterHash = digest(adapterInfo.toString());
+		byte[] fileHash = getMerkleHash(file, "");
+		return toHex(adapterHash) + toHex(fileHash);
+	}
+
+	/**
+	 * The preferences of a bundle, as they can change the result of the
+	 * adapter
+	 * 
+	 * @param bundleName
+	 * @return a string with the sorted keys and values
+	 */
+	private static String getPreferences(String bundleName) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			IEclipsePreferences prefs = InstanceScope.INSTANCE.getNode(bundleName);
+			String[] keys = prefs.keys();
+			Arrays.sort(keys);
+			for (String key : keys) {
+				sb.append(key + "=" + prefs.get(key, null) + "\n");
+			}
+		} catch (Exception e) {
+			log("The preferences of " + bundleName + " could not be read", e);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Merkle hash of a file or folder. The hash of a folder is calculated from
+	 * the hashes of its children so any change in a file changes the hash of
+	 * its ancestors.
+	 * 
+	 * @param file
+	 * @param relativePath
+	 * @return the hash
+	 */
+	private static byte[] getMerkleHash(File file, String relativePath) {
+		MessageDigest md = createDigest();
+		md.update(relativePath.getBytes(UTF8));
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				Arrays.sort(children);
+				for (File child : children) {
+					md.update(getMerkleHash(child, relativePath + "/" + child.getName()));
+				}
+			}
+		} else {
+			md.update((":" + file.length() + ":" + file.lastModified()).getBytes(UTF8));
+		}
+		return md.digest();
+	}
+
+	private static byte[] digest(String text) {
+		return createDigest().digest(text.getBytes(UTF8));
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-1 is always available in the java platform
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuffer sb = new StringBuffer();
+		for (int i = 0; i < bytes.length; i++) {
+			sb.append(Integer.toString((bytes[i] & 0xff) + 0x100, 16).substring(1));
+		}
+		return sb.toString();
+	}
+
+	private static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				log("A file of the adapted elements cache could not be closed", e);
+			}
+		}
+	}
+
+	/**
+	 * Log a warning in the error log, the cache failures are not errors of the
+	 * adaptation
+	 * 
+	 * @param message
+	 * @param e
+	 */
+	private static void log(String message, Throwable e) {
+		Activator activator = Activator.getDefault();
+		if (activator != null) {
+			activator.getLog().log(
+					new Status(IStatus.WARNING, activator.getBundle().getSymbolicName(), message, e));
+		}
+	}
+
+	/**
+	 * Object input stream that resolves the classes with the class loader of
+	 * the adapter, as the elements are defined in the adapter bundles
+	 */
+	private static class AdapterObjectInputStream extends ObjectInputStream {
+
+		private ClassLoader classLoader;
+
+		public AdapterObjectInputStream(InputStream in, IAdapter adapter) throws IOException {
+			super(in);
+			classLoader = adapter.getClass().getClassLoader();
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			try {
+				return Class.forName(desc.getName(), false, classLoader);
+			} catch (ClassNotFoundException e) {
+				return super.resolveClass(desc);
+			}
+		}
+	}
+
+}
@@ -8,6 +8,7 @@ import java.util.List;
 
 import org.but4reuse.adapters.IAdapter;
 import org.but4reuse.adapters.IElement;
+import org.but4reuse.adapters.preferences.PreferencesHelper;
 import org.but4reuse.artefactmodel.Artefact;
 import org.but4reuse.artefactmodel.ArtefactModel;
 import org.but4reuse.artefactmodel.ComposedArtefact;
@@ -235,7 +236,18 @@ public class AdaptersHelper {
 				e.printStackTrace();
 				return elements;
 			}
+			String fingerprint = null;
+			if (PreferencesHelper.isAdaptedElementsCacheActivated()) {
+				fingerprint = AdaptedElementsCache.getFingerprint(adapter, uri);
+				List<IElement> cached = AdaptedElementsCache.get(adapter, uri, fingerprint);
+				if (cached != null) {
+					return cached;
+				}
+			}
 			elements = adapter.adapt(uri, new NullProgressMonitor());
+			if (fingerprint != null) {
+				AdaptedElementsCache.put(adapter, uri, fingerprint, elements);
+			}
 		}
 		return elements;
 	}
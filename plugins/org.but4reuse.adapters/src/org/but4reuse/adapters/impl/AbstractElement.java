@@ -1,11 +1,13 @@
 package org.but4reuse.adapters.impl;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.but4reuse.adapters.ICandidateIndex;
 import org.but4reuse.adapters.IDependencyObject;
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.preferences.PreferencesHelper;
@@ -13,11 +15,14 @@ import org.but4reuse.utils.strings.StringUtils;
 import org.eclipse.swt.widgets.Display;
 
 /**
- * Abstract Element
+ * Abstract Element. It is serializable so the adapted elements can be cached,
+ * elements with non serializable fields will just not be cached.
  * 
  * @author jabier.martinez
  */
-public abstract class AbstractElement implements IElement, IDependencyObject {
+public abstract class AbstractElement implements IElement, IDependencyObject, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	public static final String MAIN_DEPENDENCY_ID = "depends on";
 	/**
@@ -40,6 +45,26 @@ public abstract class AbstractElement implements IElement, IDependencyObject {
 		return 1;
 	}
 
+	/**
+	 * Identity key default implementation returns null so the element will be
+	 * compared with the similarity method. This method is intended to be
+	 * overridden if a key could be provided to improve performance.
+	 */
+	@Override
+	public Object getIdentityKey() {
+		return null;
+	}
+
+	/**
+	 * Candidate index default implementation returns null so the element will
+	 * be compared with all the other elements. This method is intended to be
+	 * overridden if an index could be provided to improve performance.
+	 */
+	@Override
+	public ICandidateIndex createCandidateIndex(double minimumSimilarity) {
+		return null;
+	}
+
 	@Override
 	public String toString() {
 		return getText();
@@ -0,0 +1,55 @@
+package org.but4reuse.adapters.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.but4reuse.adapters.ICandidateIndex;
+import org.but4reuse.adapters.IElement;
+
+/**
+ * Candidate index based on the identity key of the elements. It is exact for
+ * elements whose similarity is always 1 or 0 so only elements with the same
+ * key can be equal. Elements without key are never candidates.
+ * 
+ * @author jabier.martinez
+ */
+public class KeyCandidateIndex implements ICandidateIndex {
+
+	private Map<Object, List<Integer>> keyIds = new HashMap<Object, List<Integer>>();
+
+	@Override
+	public void add(IElement element, int id) {
+		Object key = element.getIdentityKey();
+		if (key == null) {
+			return;
+		}
+		List<Integer> ids = keyIds.get(key);
+		if (ids == null) {
+			ids = new ArrayList<Integer>();
+			keyIds.put(key, ids);
+		}
+		ids.add(id);
+	}
+
+	@Override
+	public List<Integer> getCandidates(IElement element) {
+		Object key = element.getIdentityKey();
+		if (key == null) {
+			return Collections.emptyList();
+		}
+		List<Integer> ids = keyIds.get(key);
+		if (ids == null) {
+			return Collections.emptyList();
+		}
+		return ids;
+	}
+
+	@Override
+	public boolean isExact() {
+		return true;
+	}
+
+}
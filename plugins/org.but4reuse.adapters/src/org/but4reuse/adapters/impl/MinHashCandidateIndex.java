@@ -0,0 +1,133 @@
+package org.but4reuse.adapters.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.but4reuse.adapters.ICandidateIndex;
+import org.but4reuse.adapters.IElement;
+
+/**
+ * Candidate index using MinHash locality sensitive hashing over the words of
+ * the elements. The signature of the words is divided in bands and two
+ * elements are candidates if they have the same values in at least one band.
+ * It is not exact, the probability of being candidates decreases with the
+ * Jaccard similarity of their words.
+ * 
+ * @author jabier.martinez
+ */
+public class MinHashCandidateIndex implements ICandidateIndex {
+
+	// fixed seed so the candidates are the same in each execution
+	private static final long SEED = 42;
+
+	private int bands;
+	private int rows;
+	private int[] a;
+	private int[] b;
+
+	// for each band, the ids of the elements by band hash
+	private List<Map<Integer, List<Integer>>> buckets = new ArrayList<Map<Integer, List<Integer>>>();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param bands
+	 *            more bands increase the number of candidates
+	 * @param rows
+	 *            more rows per band decrease the number of candidates
+	 */
+	public MinHashCandidateIndex(int bands, int rows) {
+		this.bands = bands;
+		this.rows = rows;
+		Random random = new Random(SEED);
+		a = new int[bands * rows];
+		b = new int[bands * rows];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = random.nextInt() | 1;
+			b[i] = random.nextInt();
+		}
+		for (int i = 0; i < bands; i++) {
+			buckets.add(new HashMap<Integer, List<Integer>>());
+		}
+	}
+
+	@Override
+	public void add(IElement element, int id) {
+		int[] bandHashes = getBandHashes(element);
+		for (int i = 0; i < bands; i++) {
+			Map<Integer, List<Integer>> bucket = buckets.get(i);
+			List<Integer> ids = bucket.get(bandHashes[i]);
+			if (ids == null) {
+				ids = new ArrayList<Integer>();
+				bucket.put(bandHashes[i], ids);
+			}
+			ids.add(id);
+		}
+	}
+
+	@Override
+	public List<Integer> getCandidates(IElement element) {
+		int[] bandHashes = getBandHashes(element);
+		Set<Integer> candidates = new TreeSet<Integer>();
+		for (int i = 0; i < bands; i++) {
+			List<Integer> ids = buckets.get(i).get(bandHashes[i]);
+			if (ids != null) {
+				candidates.addAll(ids);
+			}
+		}
+		if (candidates.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return new ArrayList<Integer>(candidates);
+	}
+
+	@Override
+	public boolean isExact() {
+		return false;
+	}
+
+	/**
+	 * Get the hash of each band of the MinHash signature
+	 * 
+	 * @param element
+	 * @return the band hashes
+	 */
+	private int[] getBandHashes(IElement element) {
+		Set<String> words = new LinkedHashSet<String>();
+		if (element instanceof AbstractElement) {
+			for (String word : ((AbstractElement) element).getWords()) {
+				words.add(word.toLowerCase());
+			}
+		}
+		int[] signature = new int[a.length];
+		for (int i = 0; i < signature.length; i++) {
+			signature[i] = Integer.MAX_VALUE;
+		}
+		for (String word : words) {
+			int h = word.hashCode();
+			for (int i = 0; i < signature.length; i++) {
+				int value = (a[i] * h + b[i]) & Integer.MAX_VALUE;
+				if (value < signature[i]) {
+					signature[i] = value;
+				}
+			}
+		}
+		int[] bandHashes = new int[bands];
+		for (int i = 0; i < bands; i++) {
+			int hash = 1;
+			for (int j = 0; j < rows; j++) {
+				hash = 31 * hash + signature[i * rows + j];
+			}
+			bandHashes[i] = hash;
+		}
+		return bandHashes;
+	}
+
+}
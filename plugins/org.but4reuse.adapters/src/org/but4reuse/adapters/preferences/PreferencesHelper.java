@@ -20,6 +20,8 @@ public class PreferencesHelper {
 	public static final String ASK_USER = "ask_user";
 	public static final String ASK_USER_DEACTIVATED_FOR_THIS_TIME = "ask_user_deactivated_for_this_time";
 	public static final String ADAPT_CONCURRENTLY = "adapt_concurrently";
+	public static final String APPROXIMATE_CANDIDATES = "approximate_candidates";
+	public static final String ADAPTED_ELEMENTS_CACHE = "adapted_elements_cache";
 
 	public static boolean isOnlyIdenticalMode() {
 		if (getAutomaticEqualThreshold() == 1) {
@@ -34,6 +36,20 @@ public class PreferencesHelper {
 		return prefs.getDouble(AUTOMATIC_EQUAL_THRESHOLD, 1.00);
 	}
 
+	/**
+	 * The minimum similarity for two elements to be equal, either
+	 * automatically or by asking the user
+	 * 
+	 * @return the minimum threshold
+	 */
+	public static double getMinimumEqualThreshold() {
+		double threshold = getAutomaticEqualThreshold();
+		if (isManualEqualActivated() && !isDeactivateManualEqualOnlyForThisTime()) {
+			threshold = Math.min(threshold, getManualEqualThreshold());
+		}
+		return threshold;
+	}
+
 	public static double getManualEqualThreshold() {
 		return prefs.getDouble(ASK_USER_THRESHOLD, 0.9);
 	}
@@ -61,4 +77,12 @@ public class PreferencesHelper {
 	public static boolean isAdaptConcurrently() {
 		return prefs.getBoolean(ADAPT_CONCURRENTLY, false);
 	}
+
+	public static boolean isApproximateCandidatesAllowed() {
+		return prefs.getBoolean(APPROXIMATE_CANDIDATES, false);
+	}
+
+	public static boolean isAdaptedElementsCacheActivated() {
+		return prefs.getBoolean(ADAPTED_ELEMENTS_CACHE, false);
+	}
 }
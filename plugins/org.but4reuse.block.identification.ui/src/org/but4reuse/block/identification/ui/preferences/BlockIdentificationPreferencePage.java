@@ -38,6 +38,10 @@ public class BlockIdentificationPreferencePage extends FieldEditorPreferencePage
 			BooleanFieldEditor bfe = new BooleanFieldEditor(algoName, algoName, getFieldEditorParent());
 			addField(bfe);
 		}
+		BooleanFieldEditor incremental = new BooleanFieldEditor(BlockIdentificationHelper.INCREMENTAL_IDENTIFICATION,
+				"Incremental identification (when the same artefact model is analysed again, only adapt the added artefacts and update the blocks. Edited artefacts are not adapted again)",
+				getFieldEditorParent());
+		addField(incremental);
 	}
 
 	@Override
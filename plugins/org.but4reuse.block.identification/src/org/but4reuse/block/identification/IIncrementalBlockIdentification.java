@@ -0,0 +1,38 @@
+package org.but4reuse.block.identification;
+
+import java.util.List;
+
+import org.but4reuse.adaptedmodel.AdaptedArtefact;
+import org.but4reuse.adaptedmodel.Block;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Block identification that can update previously identified blocks when
+ * artefacts are added or removed, without comparing again the elements of the
+ * artefacts that were already analysed.
+ * 
+ * @author jabier.martinez
+ */
+public interface IIncrementalBlockIdentification extends IBlockIdentification {
+
+	/**
+	 * Update the blocks identified by this algorithm. The element wrappers of
+	 * the artefacts that are not in the list of artefacts anymore are removed
+	 * from the blocks, and the elements of the new artefacts are added. The
+	 * blocks that are not affected are kept and, if the new artefacts are at
+	 * the end of the list, the result is the same as identifying the blocks
+	 * from scratch. If the user cancels, the blocks are returned without
+	 * modifications.
+	 * 
+	 * @param blocks
+	 *            identified previously by this algorithm
+	 * @param artefacts
+	 *            all the current artefacts, including the new ones
+	 * @param newArtefacts
+	 *            the artefacts that were not analysed before
+	 * @param monitor
+	 * @return list of updated blocks
+	 */
+	public List<Block> updateBlocks(List<Block> blocks, List<AdaptedArtefact> artefacts,
+			List<AdaptedArtefact> newArtefacts, IProgressMonitor monitor);
+}
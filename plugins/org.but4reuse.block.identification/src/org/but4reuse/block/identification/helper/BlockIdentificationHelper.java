@@ -20,6 +20,9 @@ import org.eclipse.jface.preference.IPreferenceStore;
 public class BlockIdentificationHelper {
 
 	public static final String BLOCKIDENTIFICATION_EXTENSIONPOINT = "org.but4reuse.block.identification";
+	// Only the added and removed artefacts are taken into account, the
+	// contents of the artefacts that were already adapted are not checked
+	public static final String INCREMENTAL_IDENTIFICATION = "incremental_identification";
 
 	private static List<IBlockIdentification> cache_blockidentificationalgorithms;
 
@@ -82,6 +85,10 @@ public class BlockIdentificationHelper {
 		return null;
 	}
 
+	public static boolean isIncrementalIdentification() {
+		return getPreferenceStore().getBoolean(INCREMENTAL_IDENTIFICATION);
+	}
+
 	public static boolean isAlgorithmSelected(IBlockIdentification algo) {
 		String algoName = getAlgorithmName(algo);
 		IPreferenceStore prefs = getPreferenceStore();
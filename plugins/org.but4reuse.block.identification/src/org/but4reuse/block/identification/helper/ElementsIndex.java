@@ -0,0 +1,186 @@
+package org.but4reuse.block.identification.helper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.but4reuse.adapters.ICandidateIndex;
+import org.but4reuse.adapters.IElement;
+import org.but4reuse.adapters.preferences.PreferencesHelper;
+
+/**
+ * Elements index. It assigns an integer id to each group of equal elements.
+ * The ids are given in order of appearance. In only identical mode the
+ * identity keys of the elements are used so identical elements are found with
+ * a hash lookup. Elements without identity key, or any element when we are
+ * not in only identical mode, are found through the equals method of the
+ * element. If the element class provides a candidate index, the element is
+ * only compared with the candidates in ascending id order, which gives the
+ * same result as comparing it with all the elements as long as the index is
+ * exact. Non exact indexes are only used if approximate candidates are
+ * allowed in the preferences.
+ * 
+ * @author jabier.martinez
+ */
+public class ElementsIndex {
+
+	private boolean useIdentityKeys;
+
+	private double minimumSimilarity;
+
+	private boolean allowApproximateCandidates;
+
+	// the first element of each group
+	private List<IElement> elements = new ArrayList<IElement>();
+
+	private Map<Object, Integer> keyIds = new HashMap<Object, Integer>();
+
+	private Map<IElement, Integer> elementIds = new HashMap<IElement, Integer>();
+
+	// candidate index by element class, null if the class does not provide it
+	private Map<Class<?>, ICandidateIndex> candidateIndexes = new HashMap<Class<?>, ICandidateIndex>();
+
+	/**
+	 * Constructor using the similarity preferences
+	 */
+	public ElementsIndex() {
+		this(PreferencesHelper.isOnlyIdenticalMode(), PreferencesHelper.getMinimumEqualThreshold(),
+				PreferencesHelper.isApproximateCandidatesAllowed());
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param useIdentityKeys
+	 *            whether identity keys can be used
+	 * @param minimumSimilarity
+	 *            for two elements to be equal
+	 * @param allowApproximateCandidates
+	 *            whether non exact candidate indexes can be used
+	 */
+	public ElementsIndex(boolean useIdentityKeys, double minimumSimilarity, boolean allowApproximateCandidates) {
+		this.useIdentityKeys = useIdentityKeys;
+		this.minimumSimilarity = minimumSimilarity;
+		this.allowApproximateCandidates = allowApproximateCandidates;
+	}
+
+	/**
+	 * Add an element to the index
+	 * 
+	 * @param element
+	 * @return the id of the group of the element. A new id if it was not
+	 *         equal to any previously added element
+	 */
+	public int add(IElement element) {
+		Object key = null;
+		if (useIdentityKeys) {
+			key = element.getIdentityKey();
+		}
+		if (key != null) {
+			Integer id = keyIds.get(key);
+			if (id == null) {
+				id = addNewId(element);
+				keyIds.put(key, id);
+			}
+			return id;
+		}
+
+		ICandidateIndex candidateIndex = getCandidateIndex(element);
+		if (candidateIndex != null) {
+			for (Integer candidate : candidateIndex.getCandidates(element)) {
+				if (element.equals(elements.get(candidate))) {
+					return candidate;
+				}
+			}
+			int id = addNewId(element);
+			candidateIndex.add(element, id);
+			return id;
+		}
+
+		Integer id = elementIds.get(element);
+		if (id == null) {
+			id = addNewId(element);
+			elementIds.put(element, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Add an element as a new group without comparing it with the groups
+	 * already in the index. Used to restore an index from groups that were
+	 * already calculated.
+	 * 
+	 * @param element
+	 * @return the id of the new group
+	 */
+	public int addGroup(IElement element) {
+		int id = addNewId(element);
+		Object key = null;
+		if (useIdentityKeys) {
+			key = element.getIdentityKey();
+		}
+		if (key != null) {
+			if (!keyIds.containsKey(key)) {
+				keyIds.put(key, id);
+			}
+			return id;
+		}
+		ICandidateIndex candidateIndex = getCandidateIndex(element);
+		if (candidateIndex != null) {
+			candidateIndex.add(element, id);
+			return id;
+		}
+		if (!elementIds.containsKey(element)) {
+			elementIds.put(element, id);
+		}
+		return id;
+	}
+
+	private int addNewId(IElement element) {
+		elements.add(element);
+		return elements.size() - 1;
+	}
+
+	/**
+	 * Get the candidate index shared by the elements of the same class
+	 * 
+	 * @param element
+	 * @return the candidate index or null
+	 */
+	private ICandidateIndex getCandidateIndex(IElement element) {
+		Class<?> elementClass = element.getClass();
+		if (candidateIndexes.containsKey(elementClass)) {
+			return candidateIndexes.get(elementClass);
+		}
+		ICandidateIndex candidateIndex = element.createCandidateIndex(minimumSimilarity);
+		if (candidateIndex != null && !candidateIndex.isExact() && !allowApproximateCandidates) {
+			candidateIndex = null;
+		}
+		candidateIndexes.put(elementClass, candidateIndex);
+		return candidateIndex;
+	}
+
+	/**
+	 * Get the first added element of a group
+	 * 
+	 * @param id
+	 * @return the element
+	 */
+	public IElement getElement(int id) {
+		return elements.get(id);
+	}
+
+	/**
+	 * Number of groups of equal elements
+	 * 
+	 * @return the number of ids
+	 */
+	public int size() {
+		return elements.size();
+	}
+
+	public boolean isUsingIdentityKeys() {
+		return useIdentityKeys;
+	}
+}
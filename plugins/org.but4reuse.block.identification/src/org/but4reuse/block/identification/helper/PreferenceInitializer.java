@@ -24,6 +24,7 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 			boolean isTheDefault = algoName.startsWith("Interdependent elements");
 			store.setDefault(BlockIdentificationHelper.getAlgorithmName(algo), isTheDefault);
 		}
+		store.setDefault(BlockIdentificationHelper.INCREMENTAL_IDENTIFICATION, false);
 	}
 
 }
@@ -1,10 +1,17 @@
 package org.but4reuse.block.identification.impl;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 
 import org.but4reuse.adaptedmodel.AdaptedArtefact;
 import org.but4reuse.adaptedmodel.AdaptedModelFactory;
@@ -12,15 +19,22 @@ import org.but4reuse.adaptedmodel.Block;
 import org.but4reuse.adaptedmodel.BlockElement;
 import org.but4reuse.adaptedmodel.ElementWrapper;
 import org.but4reuse.adapters.IElement;
-import org.but4reuse.block.identification.IBlockIdentification;
+import org.but4reuse.block.identification.IIncrementalBlockIdentification;
+import org.but4reuse.block.identification.helper.ElementsIndex;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 /**
  * Feature identification algorithm as described by Tewfik Ziadi, Luz Frias,
  * Marcos Aurlio Almeida da Silva and Mikal Ziane Implementation and adaptation
  * by jabier.martinez and tewfik.ziadi
+ * 
+ * Each block contains the elements that are present exactly in the same
+ * artefacts. The artefacts of each element are represented as a bitset and
+ * the elements are grouped by identical bitset in one pass. The blocks are
+ * created in order of frequency (number of artefacts) and, for the same
+ * frequency, in order of appearance of their first element.
  */
-public class IntersectionsBlockIdentification implements IBlockIdentification {
+public class IntersectionsBlockIdentification implements IIncrementalBlockIdentification {
 
 	@Override
 	public List<Block> identifyBlocks(List<AdaptedArtefact> adaptedArtefacts, IProgressMonitor monitor) {
@@ -28,14 +42,15 @@ public class IntersectionsBlockIdentification implements IBlockIdentification {
 		// Blocks Empty
 		List<Block> blocks = new ArrayList<Block>();
 
-		// In R we will have, for each element, the indexes of the artefacts
-		// where they appear
-		// LinkedHashMap to maintain elements order
-		Map<IElement, List<Integer>> R = new LinkedHashMap<IElement, List<Integer>>();
+		// Each group of equal elements is identified by an integer id
+		ElementsIndex index = new ElementsIndex();
+
+		// For each element id, the artefacts where they appear
+		List<BitSet> artefactsOfElements = new ArrayList<BitSet>();
 
-		// A map from IElement to the IElementWrappers that contains similar
+		// For each element id, the IElementWrappers that contains similar
 		// IElement
-		Map<IElement, List<ElementWrapper>> eewmap = new HashMap<IElement, List<ElementWrapper>>();
+		List<List<ElementWrapper>> eewmap = new ArrayList<List<ElementWrapper>>();
 		int n = adaptedArtefacts.size();
 		for (int i = 0; i < n; i++) {
 			monitor.subTask("Block Creation. Intersections algorithm. Preparation step " + (i + 1) + "/" + n);
@@ -47,53 +62,38 @@ public class IntersectionsBlockIdentification implements IBlockIdentification {
 					return blocks;
 				}
 
-				IElement e = (IElement) ew.getElement();
-				List<ElementWrapper> ews = eewmap.get(e);
-				if (ews == null) {
-					ews = new ArrayList<ElementWrapper>();
-				}
-				ews.add(ew);
-				eewmap.put(e, ews);
-
-				List<Integer> artefactIndexes = R.get(e);
-				if (artefactIndexes == null) {
-					artefactIndexes = new ArrayList<Integer>();
-				}
-				// the same element can be repeated in an artefact, add only
-				// once
-				if (!artefactIndexes.contains(i)) {
-					artefactIndexes.add(i);
-					R.put(e, artefactIndexes);
+				int e = index.add((IElement) ew.getElement());
+				if (e == eewmap.size()) {
+					eewmap.add(new ArrayList<ElementWrapper>());
+					artefactsOfElements.add(new BitSet(n));
 				}
+				eewmap.get(e).add(ew);
+				// the same element can be repeated in an artefact, it is only
+				// set once
+				artefactsOfElements.get(e).set(i);
 			}
 		}
 
+		monitor.subTask("Block Creation. Intersections algorithm. Grouping elements");
+		PriorityQueue<List<Integer>> queue = groupElements(artefactsOfElements);
+
 		int step = 1;
-		int totalSteps = R.keySet().size();
+		int totalSteps = queue.size();
 
-		// Iterate on R to create blocks with their block elements
-		while (!R.isEmpty()) {
+		// Create blocks with their block elements
+		while (!queue.isEmpty()) {
 			monitor.subTask("Block Creation. Intersections algorithm. Creating Blocks. Step " + step + "/" + totalSteps);
-			// TODO performance can be improved in find methods
-			IElement keyOfMostFrequentElement = findMostFrequentElement(R);
-			List<Integer> artefactIndexes = R.get(keyOfMostFrequentElement);
-			List<IElement> intersection = findElementsContainedInArtefactIndexes(artefactIndexes, R);
+			List<Integer> group = queue.poll();
 
 			// Create Block
 			Block block = AdaptedModelFactory.eINSTANCE.createBlock();
-			for (IElement intersected : intersection) {
+			for (Integer e : group) {
 				BlockElement be = AdaptedModelFactory.eINSTANCE.createBlockElement();
-				List<ElementWrapper> ewlist = eewmap.get(intersected);
-				for (ElementWrapper ewliste : ewlist) {
-					be.getElementWrappers().add(ewliste);
-				}
+				be.getElementWrappers().addAll(eewmap.get(e));
 				block.getOwnedBlockElements().add(be);
-
-				// Remove from R
-				R.remove(intersected);
-				step++;
 			}
 			blocks.add(block);
+			step++;
 
 			// user cancel
 			if (monitor.isCanceled()) {
@@ -105,6 +105,185 @@ public class IntersectionsBlockIdentification implements IBlockIdentification {
 		return blocks;
 	}
 
+	@Override
+	public List<Block> updateBlocks(List<Block> blocks, List<AdaptedArtefact> adaptedArtefacts,
+			List<AdaptedArtefact> newArtefacts, IProgressMonitor monitor) {
+
+		int n = adaptedArtefacts.size();
+		Map<AdaptedArtefact, Integer> artefactIndexes = new IdentityHashMap<AdaptedArtefact, Integer>();
+		for (int i = 0; i < n; i++) {
+			artefactIndexes.put(adaptedArtefacts.get(i), i);
+		}
+		Set<AdaptedArtefact> newArtefactsSet = Collections
+				.newSetFromMap(new IdentityHashMap<AdaptedArtefact, Boolean>());
+		newArtefactsSet.addAll(newArtefacts);
+
+		// Find the element wrappers of the artefacts that were removed. The
+		// blocks are not modified until the update cannot be canceled anymore.
+		monitor.subTask("Block Creation. Intersections algorithm. Removing artefacts");
+		Map<ElementWrapper, BlockElement> blockElementOfWrapper = new IdentityHashMap<ElementWrapper, BlockElement>();
+		Map<BlockElement, Block> previousBlocks = new IdentityHashMap<BlockElement, Block>();
+		List<BlockElement> blockElementsWithRemovedWrappers = new ArrayList<BlockElement>();
+		for (Block block : blocks) {
+			for (BlockElement be : block.getOwnedBlockElements()) {
+				previousBlocks.put(be, block);
+				boolean removedWrappers = false;
+				for (ElementWrapper ew : be.getElementWrappers()) {
+					if (artefactIndexes.get(ew.eContainer()) == null) {
+						removedWrappers = true;
+					} else {
+						blockElementOfWrapper.put(ew, be);
+					}
+				}
+				if (removedWrappers) {
+					blockElementsWithRemovedWrappers.add(be);
+				}
+			}
+		}
+
+		// Restore the index with the previous block elements in order of
+		// appearance. No comparison is needed.
+		ElementsIndex index = new ElementsIndex();
+		List<BitSet> artefactsOfElements = new ArrayList<BitSet>();
+		List<BlockElement> blockElements = new ArrayList<BlockElement>();
+		Map<BlockElement, Integer> blockElementIds = new IdentityHashMap<BlockElement, Integer>();
+		for (int i = 0; i < n; i++) {
+			AdaptedArtefact currentList = adaptedArtefacts.get(i);
+			if (newArtefactsSet.contains(currentList)) {
+				continue;
+			}
+			for (ElementWrapper ew : currentList.getOwnedElementWrappers()) {
+				BlockElement be = blockElementOfWrapper.get(ew);
+				if (be == null) {
+					continue;
+				}
+				Integer e = blockElementIds.get(be);
+				if (e == null) {
+					e = index.addGroup((IElement) ew.getElement());
+					blockElementIds.put(be, e);
+					blockElements.add(be);
+					artefactsOfElements.add(new BitSet(n));
+				}
+				artefactsOfElements.get(e).set(i);
+			}
+		}
+
+		// Add the elements of the new artefacts. The wrappers to add to each
+		// block element are kept aside.
+		Map<Integer, List<ElementWrapper>> addedWrappers = new HashMap<Integer, List<ElementWrapper>>();
+		for (int i = 0; i < n; i++) {
+			AdaptedArtefact currentList = adaptedArtefacts.get(i);
+			if (!newArtefactsSet.contains(currentList)) {
+				continue;
+			}
+			monitor.subTask("Block Creation. Intersections algorithm. Adding artefact " + (i + 1) + "/" + n);
+			for (ElementWrapper ew : currentList.getOwnedElementWrappers()) {
+
+				// user cancel
+				if (monitor.isCanceled()) {
+					return blocks;
+				}
+
+				int e = index.add((IElement) ew.getElement());
+				if (e == blockElements.size()) {
+					blockElements.add(AdaptedModelFactory.eINSTANCE.createBlockElement());
+					artefactsOfElements.add(new BitSet(n));
+				}
+				List<ElementWrapper> wrappers = addedWrappers.get(e);
+				if (wrappers == null) {
+					wrappers = new ArrayList<ElementWrapper>();
+					addedWrappers.put(e, wrappers);
+				}
+				wrappers.add(ew);
+				artefactsOfElements.get(e).set(i);
+			}
+		}
+
+		// Modify the block elements
+		for (BlockElement be : blockElementsWithRemovedWrappers) {
+			Iterator<ElementWrapper> i = be.getElementWrappers().iterator();
+			while (i.hasNext()) {
+				if (artefactIndexes.get(i.next().eContainer()) == null) {
+					i.remove();
+				}
+			}
+		}
+		for (Map.Entry<Integer, List<ElementWrapper>> entry : addedWrappers.entrySet()) {
+			blockElements.get(entry.getKey()).getElementWrappers().addAll(entry.getValue());
+		}
+
+		monitor.subTask("Block Creation. Intersections algorithm. Updating blocks");
+		PriorityQueue<List<Integer>> queue = groupElements(artefactsOfElements);
+
+		// Each group keeps the previous block of its first element if it was
+		// not already taken by another group. Only split or new groups need a
+		// new block.
+		List<Block> updatedBlocks = new ArrayList<Block>();
+		Set<Block> takenBlocks = Collections.newSetFromMap(new IdentityHashMap<Block, Boolean>());
+		while (!queue.isEmpty()) {
+			List<Integer> group = queue.poll();
+			Block block = previousBlocks.get(blockElements.get(group.get(0)));
+			if (block == null || !takenBlocks.add(block)) {
+				block = AdaptedModelFactory.eINSTANCE.createBlock();
+			}
+			block.getOwnedBlockElements().clear();
+			for (Integer e : group) {
+				block.getOwnedBlockElements().add(blockElements.get(e));
+			}
+			updatedBlocks.add(block);
+		}
+		return updatedBlocks;
+	}
+
+	/**
+	 * Group the elements present in exactly the same artefacts
+	 * 
+	 * @param artefactsOfElements
+	 *            the artefacts of each element id
+	 * @return the groups of element ids, most frequent first and then in
+	 *         order of appearance
+	 */
+	private static PriorityQueue<List<Integer>> groupElements(List<BitSet> artefactsOfElements) {
+		// LinkedHashMap to maintain elements order
+		Map<BitSet, List<Integer>> groups = new LinkedHashMap<BitSet, List<Integer>>();
+		for (int e = 0; e < artefactsOfElements.size(); e++) {
+			BitSet artefacts = artefactsOfElements.get(e);
+			List<Integer> group = groups.get(artefacts);
+			if (group == null) {
+				group = new ArrayList<Integer>();
+				groups.put(artefacts, group);
+			}
+			group.add(e);
+		}
+		PriorityQueue<List<Integer>> queue = new PriorityQueue<List<Integer>>(Math.max(1, groups.size()),
+				new GroupComparator(artefactsOfElements));
+		queue.addAll(groups.values());
+		return queue;
+	}
+
+	/**
+	 * Compares groups of element ids by the number of artefacts of their
+	 * elements (descending) and then by their first element id (ascending)
+	 */
+	private static class GroupComparator implements Comparator<List<Integer>> {
+
+		private List<BitSet> artefactsOfElements;
+
+		public GroupComparator(List<BitSet> artefactsOfElements) {
+			this.artefactsOfElements = artefactsOfElements;
+		}
+
+		@Override
+		public int compare(List<Integer> group1, List<Integer> group2) {
+			int frequency1 = artefactsOfElements.get(group1.get(0)).cardinality();
+			int frequency2 = artefactsOfElements.get(group2.get(0)).cardinality();
+			if (frequency1 != frequency2) {
+				return frequency1 > frequency2 ? -1 : 1;
+			}
+			return group1.get(0).compareTo(group2.get(0));
+		}
+	}
+
 	/**
 	 * Find most frequent element in the artefacts.
 	 * 
@@ -113,11 +292,11 @@ public class IntersectionsBlockIdentification implements IBlockIdentification {
 	 *            appears
 	 * @return the artefact indexes
 	 */
-	public static IElement findMostFrequentElement(Map<IElement, List<Integer>> R) {
-		IElement keyOfMostFrequent = null;
+	public static <K> K findMostFrequentElement(Map<K, List<Integer>> R) {
+		K keyOfMostFrequent = null;
 		int sizeOfMostFrequent = -1;
 
-		for (IElement key : R.keySet()) {
+		for (K key : R.keySet()) {
 			int currentSize = R.get(key).size();
 			if (sizeOfMostFrequent < currentSize) {
 				keyOfMostFrequent = key;
@@ -127,25 +306,4 @@ public class IntersectionsBlockIdentification implements IBlockIdentification {
 
 		return keyOfMostFrequent;
 	}
-
-	/**
-	 * Find elements that are contained in the given artefact indexes
-	 * 
-	 * @param artefactIndexes
-	 * @param R
-	 * @return the list of elements that are present exactly in the same
-	 *         artefact indexes
-	 */
-	private static List<IElement> findElementsContainedInArtefactIndexes(List<Integer> artefactIndexes,
-			Map<IElement, List<Integer>> R) {
-
-		List<IElement> result = new ArrayList<IElement>();
-
-		for (IElement key : R.keySet()) {
-			if (R.get(key).containsAll(artefactIndexes)) {
-				result.add(key);
-			}
-		}
-		return result;
-	}
 }
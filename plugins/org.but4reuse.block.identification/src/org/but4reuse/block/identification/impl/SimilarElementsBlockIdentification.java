@@ -1,10 +1,9 @@
 package org.but4reuse.block.identification.impl;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 
 import org.but4reuse.adaptedmodel.AdaptedArtefact;
 import org.but4reuse.adaptedmodel.AdaptedModelFactory;
@@ -13,6 +12,7 @@ import org.but4reuse.adaptedmodel.BlockElement;
 import org.but4reuse.adaptedmodel.ElementWrapper;
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.block.identification.IBlockIdentification;
+import org.but4reuse.block.identification.helper.ElementsIndex;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 /**
@@ -31,13 +31,13 @@ public class SimilarElementsBlockIdentification implements IBlockIdentification
 		// Blocks Empty
 		List<Block> blocks = new ArrayList<Block>();
 
-		// In R we will have, for each element, the indexes of the artefacts
-		// where they appear
-		Map<IElement, List<Integer>> R = new LinkedHashMap<IElement, List<Integer>>();
+		// Each group of equal elements is identified by an integer id
+		ElementsIndex index = new ElementsIndex();
 
-		// A map from IElement to the IElementWrappers that contains similar
-		// IElement
-		Map<IElement, List<ElementWrapper>> eewmap = new HashMap<IElement, List<ElementWrapper>>();
+		// For each element id, the IElementWrappers that contains similar
+		// IElement. The number of wrappers is the number of occurrences of the
+		// element in the artefacts
+		final List<List<ElementWrapper>> eewmap = new ArrayList<List<ElementWrapper>>();
 		int n = adaptedArtefacts.size();
 		for (int i = 0; i < n; i++) {
 			monitor.subTask("Block Creation. Preparation step " + (i + 1) + "/" + n);
@@ -49,37 +49,46 @@ public class SimilarElementsBlockIdentification implements IBlockIdentification
 					return blocks;
 				}
 
-				IElement e = (IElement) ew.getElement();
-				List<ElementWrapper> ews = eewmap.get(e);
-				if (ews == null) {
-					ews = new ArrayList<ElementWrapper>();
+				int e = index.add((IElement) ew.getElement());
+				if (e == eewmap.size()) {
+					eewmap.add(new ArrayList<ElementWrapper>());
 				}
-				ews.add(ew);
-				eewmap.put(e, ews);
-
-				List<Integer> artefactIndexes = R.get(e);
-				if (artefactIndexes == null) {
-					artefactIndexes = new ArrayList<Integer>();
-				}
-				artefactIndexes.add(i);
-				R.put(e, artefactIndexes);
+				eewmap.get(e).add(ew);
 			}
 		}
 
 		monitor.subTask("Block Creation. Creating Blocks");
 
-		// Iterate on eewmap to create blocks with their block elements
-		while (!R.isEmpty()) {
-			IElement e = IntersectionsBlockIdentification.findMostFrequentElement(R);
+		// Sort once, most frequent first. The sort is stable so, for the same
+		// frequency, the order of appearance is maintained
+		List<Integer> ids = new ArrayList<Integer>(eewmap.size());
+		for (int e = 0; e < eewmap.size(); e++) {
+			ids.add(e);
+		}
+		Collections.sort(ids, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer e1, Integer e2) {
+				int frequency1 = eewmap.get(e1).size();
+				int frequency2 = eewmap.get(e2).size();
+				return frequency1 > frequency2 ? -1 : (frequency1 == frequency2 ? 0 : 1);
+			}
+		});
+
+		// Create blocks with their block elements
+		for (Integer e : ids) {
 			// Create Block
 			Block block = AdaptedModelFactory.eINSTANCE.createBlock();
 			BlockElement be = AdaptedModelFactory.eINSTANCE.createBlockElement();
-			for (ElementWrapper ew : eewmap.get(e)) {
-				be.getElementWrappers().add(ew);
-			}
+			be.getElementWrappers().addAll(eewmap.get(e));
 			block.getOwnedBlockElements().add(be);
 			blocks.add(block);
-			R.remove(e);
+			// release it, it is already referenced by the block
+			eewmap.set(e, null);
+
+			// user cancel
+			if (monitor.isCanceled()) {
+				return blocks;
+			}
 		}
 
 		// finished
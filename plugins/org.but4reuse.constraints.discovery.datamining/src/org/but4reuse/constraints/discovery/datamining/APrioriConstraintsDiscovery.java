@@ -1,23 +1,31 @@
 package org.but4reuse.constraints.discovery.datamining;
 
-import java.io.File;
-import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import org.but4reuse.adaptedmodel.AdaptedArtefact;
 import org.but4reuse.adaptedmodel.AdaptedModel;
-import org.but4reuse.constraints.discovery.datamining.utils.ArffUtils;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
+import org.but4reuse.constraints.discovery.datamining.activator.Activator;
+import org.but4reuse.constraints.discovery.datamining.apriori.AprioriMiner;
+import org.but4reuse.constraints.discovery.datamining.apriori.AssociationRule;
+import org.but4reuse.constraints.discovery.datamining.preferences.AprioriPreferencePage;
 import org.but4reuse.feature.constraints.IConstraint;
 import org.but4reuse.feature.constraints.IConstraintsDiscovery;
+import org.but4reuse.feature.constraints.impl.ConstraintImpl;
 import org.but4reuse.featurelist.FeatureList;
-import org.but4reuse.utils.files.FileUtils;
-import org.but4reuse.utils.workbench.WorkbenchUtils;
-import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.emf.common.util.URI;
 
 /**
- * Apriori association rules
+ * Apriori association rules. The artefacts are the transactions and the blocks
+ * are the items. Rules with one block in the antecedent are requires
+ * constraints, rules with more blocks in the antecedent are free text
+ * constraints in the FeatureIDE syntax. The blocks present in all the
+ * artefacts are not used as consequent because any block implies them.
  * 
  * @author jabier.martinez
  */
@@ -26,37 +34,93 @@ public class APrioriConstraintsDiscovery implements IConstraintsDiscovery {
 	public List<IConstraint> discover(FeatureList featureList, final AdaptedModel adaptedModel, Object extra,
 			IProgressMonitor monitor) {
 		monitor.subTask("Constraints discovery with APriori association rules learner");
+		List<IConstraint> constraints = new ArrayList<IConstraint>();
 
-		// TODO improve checks!
-		// Here we try to find the folder to save it
-		URI uri = adaptedModel.getOwnedAdaptedArtefacts().get(0).getArtefact().eResource().getURI();
-		java.net.URI uri2 = null;
-		try {
-			uri2 = new java.net.URI(uri.toString());
-		} catch (URISyntaxException e1) {
-			e1.printStackTrace();
-		}
-		IResource res = WorkbenchUtils.getIResourceFromURI(uri2);
-		File artefactModelFile = WorkbenchUtils.getFileFromIResource(res);
-
-		// create folder
-		File dataminingFolder = new File(artefactModelFile.getParentFile(), "dataminingFolder");
-		dataminingFolder.mkdir();
-
-		String arffFileContent = ArffUtils.createArffFileContent(adaptedModel, false);
-		File data = new File(dataminingFolder, "data.arff");
-		try {
-			FileUtils.writeFile(data, arffFileContent);
-		} catch (Exception e) {
-			e.printStackTrace();
+		double minSupport = Activator.getDefault().getPreferenceStore()
+				.getDouble(AprioriPreferencePage.MIN_SUPPORT);
+		double minConfidence = Activator.getDefault().getPreferenceStore()
+				.getDouble(AprioriPreferencePage.MIN_CONFIDENCE);
+		int maxItemsetSize = Activator.getDefault().getPreferenceStore()
+				.getInt(AprioriPreferencePage.MAX_ITEMSET_SIZE);
+
+		// Each block is an item
+		List<Block> blocks = adaptedModel.getOwnedBlocks();
+		Map<Block, Integer> blockIds = new HashMap<Block, Integer>();
+		for (int i = 0; i < blocks.size(); i++) {
+			blockIds.put(blocks.get(i), i);
 		}
 
-		// Refresh
-		WorkbenchUtils.refreshIResource(res.getParent());
+		// Each artefact is a transaction
+		AprioriMiner miner = new AprioriMiner(blocks.size());
+		for (AdaptedArtefact adaptedArtefact : adaptedModel.getOwnedAdaptedArtefacts()) {
+			// user cancel
+			if (monitor.isCanceled()) {
+				return constraints;
+			}
+			List<Integer> items = new ArrayList<Integer>();
+			for (Block block : AdaptedModelHelper.getBlocksOfAdaptedArtefact(adaptedArtefact)) {
+				items.add(blockIds.get(block));
+			}
+			miner.addTransaction(items);
+		}
 
-		// TODO we rely on another tool
-		List<IConstraint> constraints = new ArrayList<IConstraint>();
+		for (AssociationRule rule : miner.mine(minSupport, minConfidence, maxItemsetSize, monitor)) {
+			// present in all the artefacts
+			if (miner.getSupportCount(rule.getConsequent()) == miner.getNumberOfTransactions()) {
+				continue;
+			}
+			IConstraint constraint = new ConstraintImpl();
+			if (rule.getAntecedent().length == 1) {
+				constraint.setType(IConstraint.REQUIRES);
+				constraint.setBlock1(blocks.get(rule.getAntecedent()[0]));
+				constraint.setBlock2(blocks.get(rule.getConsequent()));
+			} else {
+				constraint.setType(IConstraint.FREETEXT);
+				constraint.setText(getConstraintText(blocks, rule));
+			}
+			List<String> messages = new ArrayList<String>();
+			messages.add(String.format(Locale.US, "Association rule with confidence %.2f and support %.2f"
+					+ " (%d artefacts)", rule.getConfidence(), rule.getSupport(), rule.getSupportCount()));
+			constraint.setExplanations(messages);
+			constraint.setNumberOfReasons(messages.size());
+			constraints.add(constraint);
+		}
 		return constraints;
 	}
 
+	/**
+	 * Get the rule in the FeatureIDE constraints syntax, for example
+	 * "(Block_1 and Block_2) implies Block_3", so it can be added to the
+	 * synthesized feature models
+	 * 
+	 * @param blocks
+	 *            the blocks by item id
+	 * @param rule
+	 * @return the constraint text
+	 */
+	public static String getConstraintText(List<Block> blocks, AssociationRule rule) {
+		StringBuilder text = new StringBuilder("(");
+		for (int item : rule.getAntecedent()) {
+			if (text.length() > 1) {
+				text.append(" and ");
+			}
+			text.append(getFeatureName(blocks.get(item)));
+		}
+		text.append(") implies ");
+		text.append(getFeatureName(blocks.get(rule.getConsequent())));
+		return text.toString();
+	}
+
+	/**
+	 * The feature name of a block in the synthesized feature models. It must
+	 * be the same as FeatureIDEUtils.validFeatureName that is not accessible
+	 * from here.
+	 * 
+	 * @param block
+	 * @return the feature name
+	 */
+	private static String getFeatureName(Block block) {
+		return block.getName().replaceAll(" ", "_");
+	}
+
 }
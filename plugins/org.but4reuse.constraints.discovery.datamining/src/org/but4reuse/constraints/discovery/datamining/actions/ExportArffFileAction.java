@@ -13,6 +13,7 @@ import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.jface.action.IAction;
 import org.eclipse.jface.dialogs.Dialog;
+import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IViewActionDelegate;
@@ -41,14 +42,16 @@ public class ExportArffFileAction implements IViewActionDelegate {
 		String constructionURI = inputDialog.getValue();
 		AdaptedModel adaptedModel = AdaptedModelManager.getAdaptedModel();
 
-		// Create instances
-		String arffFileContent = ArffUtils.createArffFileContent(adaptedModel, false);
+		// Weka reads arff.gz files
+		boolean gzip = constructionURI.endsWith(".gz");
+		boolean sparse = MessageDialog.openQuestion(Display.getCurrent().getActiveShell(), "Arff file format",
+				"Use the sparse Arff format? It is smaller when the artefacts only contain a few of the blocks.");
 
-		// Save it and refresh
+		// Write the instances and refresh
 		try {
 			URI uri = new URI(constructionURI);
 			File file = FileUtils.getFile(uri);
-			FileUtils.writeFile(file, arffFileContent);
+			ArffUtils.writeArffFile(adaptedModel, false, file, gzip, sparse);
 			IResource res = WorkbenchUtils.getIResourceFromURI(uri);
 			if (res != null) {
 				WorkbenchUtils.refreshIResource(res);
@@ -0,0 +1,234 @@
+package org.but4reuse.constraints.discovery.datamining.apriori;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Apriori frequent itemsets and association rules. The transactions are added
+ * one by one and only the bit set of the transactions of each item is kept,
+ * so the support of an itemset is the cardinality of the intersection of the
+ * bit sets of its items.
+ * 
+ * @author jabier.martinez
+ */
+public class AprioriMiner {
+
+	// for each item, the transactions containing it
+	private List<BitSet> tidsets;
+
+	private int numberOfTransactions = 0;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param numberOfItems
+	 *            the item ids go from 0 to numberOfItems - 1
+	 */
+	public AprioriMiner(int numberOfItems) {
+		tidsets = new ArrayList<BitSet>(numberOfItems);
+		for (int i = 0; i < numberOfItems; i++) {
+			tidsets.add(new BitSet());
+		}
+	}
+
+	/**
+	 * Add a transaction
+	 * 
+	 * @param items
+	 *            the item ids of the transaction
+	 */
+	public void addTransaction(Collection<Integer> items) {
+		for (Integer item : items) {
+			tidsets.get(item).set(numberOfTransactions);
+		}
+		numberOfTransactions++;
+	}
+
+	public int getNumberOfTransactions() {
+		return numberOfTransactions;
+	}
+
+	/**
+	 * Get the association rules with only one item in the consequent. A rule
+	 * is not returned if a rule with part of its antecedent and the same
+	 * consequent already has the minimum confidence.
+	 * 
+	 * @param minSupport
+	 *            minimum ratio of transactions containing all the items of
+	 *            the rule
+	 * @param minConfidence
+	 *            minimum confidence of the rule
+	 * @param maxItemsetSize
+	 *            maximum number of items of the rule, antecedent and
+	 *            consequent
+	 * @param monitor
+	 * @return the rules ordered by the size of the itemsets and then by their
+	 *         items
+	 */
+	public List<AssociationRule> mine(double minSupport, double minConfidence, int maxItemsetSize,
+			IProgressMonitor monitor) {
+		List<AssociationRule> rules = new ArrayList<AssociationRule>();
+		if (numberOfTransactions == 0) {
+			return rules;
+		}
+		int minCount = Math.max(1, (int) Math.ceil(minSupport * numberOfTransactions));
+
+		// support count of the frequent itemsets
+		Map<ItemSet, Integer> supports = new HashMap<ItemSet, Integer>();
+		List<int[]> frequent = new ArrayList<int[]>();
+
+		// frequent itemsets of the current size in lexicographic order
+		List<int[]> level = new ArrayList<int[]>();
+		List<BitSet> levelTidsets = new ArrayList<BitSet>();
+		for (int i = 0; i < tidsets.size(); i++) {
+			int count = tidsets.get(i).cardinality();
+			if (count >= minCount) {
+				int[] itemset = new int[] { i };
+				level.add(itemset);
+				levelTidsets.add(tidsets.get(i));
+				supports.put(new ItemSet(itemset), count);
+			}
+		}
+
+		int size = 1;
+		while (!level.isEmpty() && size < maxItemsetSize) {
+			monitor.subTask("Apriori. Frequent itemsets of size " + (size + 1));
+			List<int[]> next = new ArrayList<int[]>();
+			List<BitSet> nextTidsets = new ArrayList<BitSet>();
+			for (int a = 0; a < level.size(); a++) {
+				// user cancel
+				if (monitor.isCanceled()) {
+					return rules;
+				}
+				// join the itemsets with the same prefix
+				for (int b = a + 1; b < level.size() && samePrefix(level.get(a), level.get(b)); b++) {
+					int[] candidate = Arrays.copyOf(level.get(a), size + 1);
+					candidate[size] = level.get(b)[size - 1];
+					if (!allSubsetsFrequent(candidate, supports)) {
+						continue;
+					}
+					BitSet tidset = (BitSet) levelTidsets.get(a).clone();
+					tidset.and(tidsets.get(candidate[size]));
+					int count = tidset.cardinality();
+					if (count >= minCount) {
+						next.add(candidate);
+						nextTidsets.add(tidset);
+						supports.put(new ItemSet(candidate), count);
+					}
+				}
+			}
+			frequent.addAll(next);
+			level = next;
+			levelTidsets = nextTidsets;
+			size++;
+		}
+
+		// rules with one item in the consequent. For each consequent, the
+		// antecedents already implying it
+		Map<Integer, Set<ItemSet>> implying = new HashMap<Integer, Set<ItemSet>>();
+		for (int[] itemset : frequent) {
+			int count = supports.get(new ItemSet(itemset));
+			for (int c = 0; c < itemset.length; c++) {
+				int[] antecedent = remove(itemset, c);
+				Set<ItemSet> antecedents = implying.get(itemset[c]);
+				if (antecedents == null) {
+					antecedents = new HashSet<ItemSet>();
+					implying.put(itemset[c], antecedents);
+				}
+				if (isImplied(antecedent, antecedents)) {
+					// redundant, the bigger antecedents are also redundant
+					antecedents.add(new ItemSet(antecedent));
+					continue;
+				}
+				double confidence = (double) count / supports.get(new ItemSet(antecedent));
+				if (confidence >= minConfidence) {
+					antecedents.add(new ItemSet(antecedent));
+					rules.add(new AssociationRule(antecedent, itemset[c], count, (double) count
+							/ numberOfTransactions, confidence));
+				}
+			}
+		}
+		return rules;
+	}
+
+	/**
+	 * The number of transactions containing an item
+	 * 
+	 * @param item
+	 * @return support count
+	 */
+	public int getSupportCount(int item) {
+		return tidsets.get(item).cardinality();
+	}
+
+	private static boolean isImplied(int[] antecedent, Set<ItemSet> antecedents) {
+		if (antecedent.length < 2) {
+			return false;
+		}
+		// the smaller antecedents were already checked
+		for (int i = 0; i < antecedent.length; i++) {
+			if (antecedents.contains(new ItemSet(remove(antecedent, i)))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean samePrefix(int[] itemset1, int[] itemset2) {
+		for (int i = 0; i < itemset1.length - 1; i++) {
+			if (itemset1[i] != itemset2[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean allSubsetsFrequent(int[] candidate, Map<ItemSet, Integer> supports) {
+		// the subsets without the last two items are the joined itemsets
+		for (int i = 0; i < candidate.length - 2; i++) {
+			if (!supports.containsKey(new ItemSet(remove(candidate, i)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int[] remove(int[] itemset, int position) {
+		int[] result = new int[itemset.length - 1];
+		System.arraycopy(itemset, 0, result, 0, position);
+		System.arraycopy(itemset, position + 1, result, position, itemset.length - position - 1);
+		return result;
+	}
+
+	/**
+	 * Itemset as a hash key
+	 */
+	private static class ItemSet {
+
+		private int[] items;
+
+		public ItemSet(int[] items) {
+			this.items = items;
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(items);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof ItemSet && Arrays.equals(items, ((ItemSet) obj).items);
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+package org.but4reuse.constraints.discovery.datamining.apriori;
+
+import java.util.Arrays;
+
+/**
+ * Association rule antecedent -> consequent where the items are identified by
+ * integer ids
+ * 
+ * @author jabier.martinez
+ */
+public class AssociationRule {
+
+	private int[] antecedent;
+
+	private int consequent;
+
+	private int supportCount;
+
+	private double support;
+
+	private double confidence;
+
+	public AssociationRule(int[] antecedent, int consequent, int supportCount, double support, double confidence) {
+		this.antecedent = antecedent;
+		this.consequent = consequent;
+		this.supportCount = supportCount;
+		this.support = support;
+		this.confidence = confidence;
+	}
+
+	/**
+	 * @return the ordered item ids of the antecedent
+	 */
+	public int[] getAntecedent() {
+		return antecedent;
+	}
+
+	public int getConsequent() {
+		return consequent;
+	}
+
+	/**
+	 * @return number of transactions containing the antecedent and the
+	 *         consequent
+	 */
+	public int getSupportCount() {
+		return supportCount;
+	}
+
+	/**
+	 * @return ratio of transactions containing the antecedent and the
+	 *         consequent
+	 */
+	public double getSupport() {
+		return support;
+	}
+
+	/**
+	 * @return ratio of the transactions containing the antecedent that also
+	 *         contain the consequent
+	 */
+	public double getConfidence() {
+		return confidence;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(antecedent) + " -> " + consequent + " (support " + support + ", confidence "
+				+ confidence + ")";
+	}
+
+}
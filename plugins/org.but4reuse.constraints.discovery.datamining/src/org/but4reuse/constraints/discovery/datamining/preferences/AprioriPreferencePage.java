@@ -0,0 +1,46 @@
+package org.but4reuse.constraints.discovery.datamining.preferences;
+
+import org.but4reuse.constraints.discovery.datamining.activator.Activator;
+import org.but4reuse.utils.ui.preferences.DoubleScaleFieldEditor;
+import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IntegerFieldEditor;
+import org.eclipse.ui.IWorkbench;
+import org.eclipse.ui.IWorkbenchPreferencePage;
+
+/**
+ * Preference page for Apriori association rules
+ * 
+ * @author jabier.martinez
+ */
+public class AprioriPreferencePage extends FieldEditorPreferencePage implements IWorkbenchPreferencePage {
+
+	public static final String MIN_SUPPORT = "MIN_SUPPORT";
+	public static final String MIN_CONFIDENCE = "MIN_CONFIDENCE";
+	public static final String MAX_ITEMSET_SIZE = "MAX_ITEMSET_SIZE";
+
+	public AprioriPreferencePage() {
+		super(GRID);
+		this.setPreferenceStore(Activator.getDefault().getPreferenceStore());
+	}
+
+	/**
+	 * Creates the field editors.
+	 */
+	public void createFieldEditors() {
+		DoubleScaleFieldEditor support = new DoubleScaleFieldEditor(MIN_SUPPORT,
+				"Minimum support (percentage of artefacts): ", getFieldEditorParent());
+		addField(support);
+		DoubleScaleFieldEditor confidence = new DoubleScaleFieldEditor(MIN_CONFIDENCE, "Minimum confidence: ",
+				getFieldEditorParent());
+		addField(confidence);
+		IntegerFieldEditor size = new IntegerFieldEditor(MAX_ITEMSET_SIZE,
+				"Maximum number of blocks in a rule (2 for binary requires): ", getFieldEditorParent());
+		size.setValidRange(2, 10);
+		addField(size);
+	}
+
+	@Override
+	public void init(IWorkbench workbench) {
+	}
+
+}
@@ -1,12 +1,19 @@
 package org.but4reuse.constraints.discovery.datamining.utils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.but4reuse.adaptedmodel.AdaptedArtefact;
 import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.Block;
 import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
+import org.but4reuse.utils.files.FileUtils;
 
 /**
  * Arff utils
@@ -31,58 +38,88 @@ public class ArffUtils {
 	 * @return
 	 */
 	public static String createArffFileContent(AdaptedModel adaptedModel, boolean ignoreCommonBlocks) {
-
-		StringBuilder sb = new StringBuilder();
-		String relationName = AdaptedModelHelper.getName(adaptedModel);
-		if (relationName == null || relationName.length() == 0) {
-			relationName = "ArtefactInstances";
-		} else {
-			relationName = relationName.replaceAll(" ", "");
-		}
-		sb.append("@relation ");
-		sb.append(relationName);
-		sb.append("\n\n");
-		
-		// ignore common
-		List<Block> commonBlocks = new ArrayList<Block>();
-		if (ignoreCommonBlocks) {
-			commonBlocks = AdaptedModelHelper.getCommonBlocks(adaptedModel);
+		StringWriter writer = new StringWriter();
+		try {
+			writeArff(adaptedModel, ignoreCommonBlocks, new ArffWriter(writer, false));
+		} catch (IOException e) {
+			// not expected with a string writer
+			e.printStackTrace();
 		}
+		return writer.toString();
+	}
 
-		// declare attributes (the blocks)
-		for (Block block : adaptedModel.getOwnedBlocks()) {
-			// ignore common
-			if (!commonBlocks.contains(block)) {
-				sb.append("@attribute '");
-				sb.append(block.getName());
-				sb.append("' {0,1}\n");
+	/**
+	 * Write the arff file instance by instance. The instances (rows) are the
+	 * adapted artefacts and the attributes are the blocks.
+	 * 
+	 * @param adaptedModel
+	 * @param ignoreCommonBlocks
+	 * @param file
+	 * @param gzip
+	 *            whether to compress the file with gzip
+	 * @param sparse
+	 *            whether to use the sparse arff format
+	 * @throws IOException
+	 */
+	public static void writeArffFile(AdaptedModel adaptedModel, boolean ignoreCommonBlocks, File file, boolean gzip,
+			boolean sparse) throws IOException {
+		writeArff(adaptedModel, ignoreCommonBlocks, new ArffWriter(FileUtils.getBufferedWriter(file, gzip), sparse));
+	}
+
+	/**
+	 * Write the arff content and close the writer
+	 * 
+	 * @param adaptedModel
+	 * @param ignoreCommonBlocks
+	 * @param arffWriter
+	 * @throws IOException
+	 */
+	private static void writeArff(AdaptedModel adaptedModel, boolean ignoreCommonBlocks, ArffWriter arffWriter)
+			throws IOException {
+		try {
+			String relationName = AdaptedModelHelper.getName(adaptedModel);
+			if (relationName == null || relationName.length() == 0) {
+				relationName = "ArtefactInstances";
+			} else {
+				relationName = relationName.replaceAll(" ", "");
 			}
-		}
-		
-		sb.append("\n@data\n");
+			arffWriter.writeRelation(relationName);
 
-		// feed the instances (the artefacts)
-		for (AdaptedArtefact adaptedArtefact : adaptedModel.getOwnedAdaptedArtefacts()) {
-			// Create the instance
-			List<Block> blocks = AdaptedModelHelper.getBlocksOfAdaptedArtefact(adaptedArtefact);
 			// ignore common
-			blocks.removeAll(commonBlocks);
+			Set<Block> commonBlocks = new HashSet<Block>();
+			if (ignoreCommonBlocks) {
+				commonBlocks.addAll(AdaptedModelHelper.getCommonBlocks(adaptedModel));
+			}
+
+			// declare attributes (the blocks)
+			Map<Block, Integer> attributes = new HashMap<Block, Integer>();
 			for (Block block : adaptedModel.getOwnedBlocks()) {
 				// ignore common
 				if (!commonBlocks.contains(block)) {
-					if (blocks.contains(block)) {
-						sb.append("1,");
-					} else {
-						sb.append("0,");
+					attributes.put(block, attributes.size());
+					arffWriter.writeBinaryAttribute(block.getName());
+				}
+			}
+
+			arffWriter.writeDataHeader();
+
+			// feed the instances (the artefacts)
+			BitSet values = new BitSet(attributes.size());
+			for (AdaptedArtefact adaptedArtefact : adaptedModel.getOwnedAdaptedArtefacts()) {
+				// Create the instance
+				values.clear();
+				for (Block block : AdaptedModelHelper.getBlocksOfAdaptedArtefact(adaptedArtefact)) {
+					Integer attribute = attributes.get(block);
+					// ignore common
+					if (attribute != null) {
+						values.set(attribute);
 					}
 				}
+				arffWriter.writeInstance(values);
 			}
-			// remove last comma
-			sb.setLength(sb.length() - 1);
-			sb.append("\n");
+		} finally {
+			arffWriter.close();
 		}
-		
-		return sb.toString();
 	}
 
 }
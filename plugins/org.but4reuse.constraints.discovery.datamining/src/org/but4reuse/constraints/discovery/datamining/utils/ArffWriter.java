@@ -0,0 +1,97 @@
+package org.but4reuse.constraints.discovery.datamining.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.BitSet;
+
+/**
+ * Write an arff file with binary attributes instance by instance so the whole
+ * content is never in memory. In the sparse format only the attributes with
+ * value 1 are written for each instance.
+ * 
+ * @author jabier.martinez
+ */
+public class ArffWriter implements Closeable {
+
+	private Writer writer;
+
+	private boolean sparse;
+
+	private int numberOfAttributes = 0;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param writer
+	 * @param sparse
+	 *            whether to use the sparse format for the instances
+	 */
+	public ArffWriter(Writer writer, boolean sparse) {
+		this.writer = writer;
+		this.sparse = sparse;
+	}
+
+	public void writeRelation(String relationName) throws IOException {
+		writer.write("@relation ");
+		writer.write(relationName);
+		writer.write("\n\n");
+	}
+
+	/**
+	 * Declare an attribute with values {0,1}
+	 * 
+	 * @param name
+	 * @throws IOException
+	 */
+	public void writeBinaryAttribute(String name) throws IOException {
+		writer.write("@attribute '");
+		writer.write(name);
+		writer.write("' {0,1}\n");
+		numberOfAttributes++;
+	}
+
+	/**
+	 * Finish the declaration of attributes
+	 * 
+	 * @throws IOException
+	 */
+	public void writeDataHeader() throws IOException {
+		writer.write("\n@data\n");
+	}
+
+	/**
+	 * Write an instance
+	 * 
+	 * @param values
+	 *            the positions of the attributes with value 1
+	 * @throws IOException
+	 */
+	public void writeInstance(BitSet values) throws IOException {
+		if (sparse) {
+			writer.write("{");
+			int first = values.nextSetBit(0);
+			for (int i = first; i >= 0; i = values.nextSetBit(i + 1)) {
+				if (i != first) {
+					writer.write(",");
+				}
+				writer.write(i + " 1");
+			}
+			writer.write("}\n");
+		} else {
+			for (int i = 0; i < numberOfAttributes; i++) {
+				if (i > 0) {
+					writer.write(",");
+				}
+				writer.write(values.get(i) ? "1" : "0");
+			}
+			writer.write("\n");
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+}
@@ -0,0 +1,55 @@
+package org.but4reuse.fca.block.identification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.but4reuse.adaptedmodel.AdaptedArtefact;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.ElementWrapper;
+import org.but4reuse.fca.utils.BitSetFormalContext;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Formal Context Analysis block creation computing only the attribute
+ * concepts (AOC-poset) instead of the whole concept lattice. The blocks are
+ * the same as in FCABlockIdentification: the simplified intent of the
+ * attribute concept of an element contains all the elements with the same
+ * extent, so each distinct extent is a block.
+ * 
+ * @author jabier.martinez
+ */
+public class AOCPosetBlockIdentification extends FCABlockIdentification {
+
+	@Override
+	public List<Block> identifyBlocks(List<AdaptedArtefact> adaptedArtefacts, IProgressMonitor monitor) {
+
+		// Blocks Empty
+		List<Block> blocks = new ArrayList<Block>();
+
+		// For each element id, the IElementWrappers that contains similar
+		// IElement
+		List<List<ElementWrapper>> eewmap = new ArrayList<List<ElementWrapper>>();
+		BitSetFormalContext context = createElementsContext(adaptedArtefacts, eewmap, monitor);
+		if (context == null) {
+			return blocks;
+		}
+
+		monitor.subTask("Block Creation. Creating Blocks");
+
+		// One attribute concept for each distinct extent
+		BitSetFormalContext collapsed = context.collapseIdenticalExtents();
+		for (int a = 0; a < collapsed.getAttributesSize(); a++) {
+			// user cancel
+			if (monitor.isCanceled()) {
+				return blocks;
+			}
+			blocks.add(createBlock(collapsed.getOriginalAttributes(a), eewmap));
+		}
+
+		blocks = reorderBlocksByFrequency(blocks);
+
+		// finished
+		return blocks;
+	}
+
+}
@@ -1,11 +1,11 @@
 package org.but4reuse.fca.block.identification;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.but4reuse.adaptedmodel.AdaptedArtefact;
 import org.but4reuse.adaptedmodel.AdaptedModelFactory;
@@ -14,15 +14,14 @@ import org.but4reuse.adaptedmodel.BlockElement;
 import org.but4reuse.adaptedmodel.ElementWrapper;
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.block.identification.IBlockIdentification;
+import org.but4reuse.block.identification.helper.ElementsIndex;
+import org.but4reuse.fca.utils.BitSetFormalContext;
 import org.but4reuse.fca.utils.FCAUtils;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 import fr.labri.galatea.Attribute;
-import fr.labri.galatea.BinaryAttribute;
 import fr.labri.galatea.Concept;
 import fr.labri.galatea.ConceptOrder;
-import fr.labri.galatea.Context;
-import fr.labri.galatea.Entity;
 
 
 /**
@@ -34,115 +33,129 @@ public class FCABlockIdentification implements IBlockIdentification {
 	@Override
 	public List<Block> identifyBlocks(List<AdaptedArtefact> adaptedArtefacts, IProgressMonitor monitor) {
 
-		// Creates a formal context
-		Context fc = new Context();
-
 		// Blocks Empty
 		List<Block> blocks = new ArrayList<Block>();
 
-		// In R we will have, for each element, the indexes of the artefacts
-		// where they appear
-		LinkedHashMap<IElement, List<Integer>> R = new LinkedHashMap<IElement, List<Integer>>();
-
-		Map<Attribute, IElement> attrIElementMap = new HashMap<Attribute, IElement>();
-
-		// A map from IElement to the IElementWrappers that contains similar
+		// For each element id, the IElementWrappers that contains similar
 		// IElement
-		Map<IElement, List<ElementWrapper>> eewmap = new HashMap<IElement, List<ElementWrapper>>();
-		for (int i = 0; i < adaptedArtefacts.size(); i++) {
-
-			// Creates an entity.
-			Entity ent = new Entity("Artefact " + i);
-			fc.addEntity(ent);
-
-			monitor.subTask("Block Creation. Preparation step " + (i + 1) + "/" + adaptedArtefacts.size());
-			AdaptedArtefact currentList = adaptedArtefacts.get(i);
-			for (ElementWrapper ew : currentList.getOwnedElementWrappers()) {
-
-				// user cancel
-				if (monitor.isCanceled()) {
-					return blocks;
-				}
-
-				IElement e = (IElement) ew.getElement();
-				List<ElementWrapper> ews = eewmap.get(e);
-				if (ews == null) {
-					ews = new ArrayList<ElementWrapper>();
-				}
-				ews.add(ew);
-				eewmap.put(e, ews);
-
-				List<Integer> artefactIndexes = R.get(e);
-				if (artefactIndexes == null) {
-					artefactIndexes = new ArrayList<Integer>();
-				}
-				artefactIndexes.add(i);
-				R.put(e, artefactIndexes);
-			}
+		List<List<ElementWrapper>> eewmap = new ArrayList<List<ElementWrapper>>();
+		BitSetFormalContext context = createElementsContext(adaptedArtefacts, eewmap, monitor);
+		if (context == null) {
+			return blocks;
 		}
 
 		monitor.subTask("Block Creation. Creating Blocks");
 
-		// Iterate on eewmap to create blocks with their block elements
-		int ei = 0;
-		while (!R.isEmpty()) {
-			// get first
-			IElement e = R.keySet().iterator().next();
-
-			// Creates a binary attribute.
-			BinaryAttribute attr = new BinaryAttribute("Element " + ei);
-			attrIElementMap.put(attr, e);
-			fc.addAttribute(attr);
-			ei++;
-
-			List<Integer> artIndexes = R.get(e);
-			for (Integer ia : artIndexes) {
-				fc.addPair(fc.getEntity("Artefact " + ia), attr);
-			}
-			R.remove(e);
-		}
+		// The elements that appear in the same artefacts always belong to the
+		// same block so they are collapsed in one attribute
+		BitSetFormalContext collapsed = context.collapseIdenticalExtents();
 
 		// Generate concept lattice
-		ConceptOrder cl = FCAUtils.createConceptLattice(fc);
-		
+		ConceptOrder cl = FCAUtils.createConceptLattice(collapsed.toContext());
+
 		// Add a block for each non empty concept
 		for (Concept c : cl.getConcepts()) {
 			// getIntent returns also the intent of the parents, we are only
 			// interested in the getSimplifiedIntent which is the one that only
 			// belongs to this concept
 			if (!c.getSimplifiedIntent().isEmpty()) {
-				Block block = AdaptedModelFactory.eINSTANCE.createBlock();
-				Set<Attribute> attrs = c.getSimplifiedIntent();
-				for (Attribute attr : attrs) {
-					IElement e = attrIElementMap.get(attr);
-					BlockElement be = AdaptedModelFactory.eINSTANCE.createBlockElement();
-					for (ElementWrapper ew : eewmap.get(e)) {
-						be.getElementWrappers().add(ew);
-					}
-					block.getOwnedBlockElements().add(be);
+				List<Integer> elementIds = new ArrayList<Integer>();
+				for (Attribute attr : c.getSimplifiedIntent()) {
+					elementIds.addAll(collapsed.getOriginalAttributes(collapsed.getAttributeId(attr)));
 				}
-				blocks.add(block);
+				blocks.add(createBlock(elementIds, eewmap));
 			}
 		}
 
-		blocks = reorderBlocksByFrequency(R, blocks);
+		blocks = reorderBlocksByFrequency(blocks);
 
 		// finished
 		return blocks;
 	}
 
-	// insertion sort
-	private List<Block> reorderBlocksByFrequency(LinkedHashMap<IElement, List<Integer>> R, List<Block> blocks) {
-		Block temp;
-		for (int i = 1; i < blocks.size(); i++) {
-			for (int j = i; j > 0; j--) {
-				if(blocks.get(j).getOwnedBlockElements().get(0).getElementWrappers().size() > blocks.get(j-1).getOwnedBlockElements().get(0).getElementWrappers().size()){
-					temp = blocks.get(j);
-					blocks.set(j, blocks.get(j - 1));
-					blocks.set(j - 1, temp);
+	/**
+	 * Create a formal context with the artefacts as objects and the element
+	 * ids as attributes
+	 * 
+	 * @param adaptedArtefacts
+	 * @param eewmap
+	 *            empty list that will contain, for each element id, the
+	 *            element wrappers of the equal elements
+	 * @param monitor
+	 * @return the formal context or null if the user canceled
+	 */
+	protected BitSetFormalContext createElementsContext(List<AdaptedArtefact> adaptedArtefacts,
+			List<List<ElementWrapper>> eewmap, IProgressMonitor monitor) {
+		BitSetFormalContext context = new BitSetFormalContext();
+
+		// Each group of equal elements is identified by an integer id
+		ElementsIndex index = new ElementsIndex();
+
+		for (int i = 0; i < adaptedArtefacts.size(); i++) {
+
+			context.addObject("Artefact " + i);
+
+			monitor.subTask("Block Creation. Preparation step " + (i + 1) + "/" + adaptedArtefacts.size());
+			AdaptedArtefact currentList = adaptedArtefacts.get(i);
+			for (ElementWrapper ew : currentList.getOwnedElementWrappers()) {
+
+				// user cancel
+				if (monitor.isCanceled()) {
+					return null;
 				}
+
+				int e = index.add((IElement) ew.getElement());
+				if (e == eewmap.size()) {
+					eewmap.add(new ArrayList<ElementWrapper>());
+					context.addAttribute("Element " + e);
+				}
+				eewmap.get(e).add(ew);
+				context.addPair(i, e);
+			}
+		}
+		return context;
+	}
+
+	/**
+	 * Create a block with a block element for each element id
+	 * 
+	 * @param elementIds
+	 * @param eewmap
+	 *            for each element id, the element wrappers of the equal
+	 *            elements
+	 * @return the block
+	 */
+	protected Block createBlock(List<Integer> elementIds, List<List<ElementWrapper>> eewmap) {
+		Block block = AdaptedModelFactory.eINSTANCE.createBlock();
+		for (Integer e : elementIds) {
+			BlockElement be = AdaptedModelFactory.eINSTANCE.createBlockElement();
+			for (ElementWrapper ew : eewmap.get(e)) {
+				be.getElementWrappers().add(ew);
 			}
+			block.getOwnedBlockElements().add(be);
 		}
+		return block;
+	}
+
+	/**
+	 * Order the blocks by the number of element wrappers of their first block
+	 * element, from more to less frequent. The sort is stable so the blocks
+	 * with the same frequency keep their order.
+	 * 
+	 * @param blocks
+	 * @return the same list ordered
+	 */
+	protected List<Block> reorderBlocksByFrequency(List<Block> blocks) {
+		final Map<Block, Integer> frequencies = new HashMap<Block, Integer>();
+		for (Block block : blocks) {
+			frequencies.put(block, block.getOwnedBlockElements().get(0).getElementWrappers().size());
+		}
+		Collections.sort(blocks, new Comparator<Block>() {
+			@Override
+			public int compare(Block b1, Block b2) {
+				return frequencies.get(b2).compareTo(frequencies.get(b1));
+			}
+		});
 		return blocks;
 	}
 
@@ -0,0 +1,180 @@
+package org.but4reuse.fca.utils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.labri.galatea.Attribute;
+import fr.labri.galatea.BinaryAttribute;
+import fr.labri.galatea.Context;
+import fr.labri.galatea.Entity;
+
+/**
+ * Formal context where the objects and the attributes are identified by
+ * integer ids and the extent of each attribute is a bit set of object ids. It
+ * is used to prepare the context before creating the galatea Context that is
+ * used to calculate the concepts.
+ * 
+ * @author jabier.martinez
+ */
+public class BitSetFormalContext {
+
+	private List<String> objectNames = new ArrayList<String>();
+
+	private List<String> attributeNames = new ArrayList<String>();
+
+	private List<BitSet> extents = new ArrayList<BitSet>();
+
+	// for each attribute, the ids of the attributes of the original context
+	// that it represents
+	private List<List<Integer>> originalAttributes = new ArrayList<List<Integer>>();
+
+	private Map<String, Integer> attributeIds = new HashMap<String, Integer>();
+
+	/**
+	 * Add an object
+	 * 
+	 * @param name
+	 * @return the object id
+	 */
+	public int addObject(String name) {
+		objectNames.add(name);
+		return objectNames.size() - 1;
+	}
+
+	/**
+	 * Add an attribute
+	 * 
+	 * @param name
+	 *            it should be unique
+	 * @return the attribute id
+	 */
+	public int addAttribute(String name) {
+		int id = attributeNames.size();
+		addAttribute(name, Collections.singletonList(id));
+		return id;
+	}
+
+	private void addAttribute(String name, List<Integer> original) {
+		attributeIds.put(name, attributeNames.size());
+		attributeNames.add(name);
+		extents.add(new BitSet());
+		originalAttributes.add(original);
+	}
+
+	/**
+	 * Add a pair to the binary relation
+	 * 
+	 * @param object
+	 *            id
+	 * @param attribute
+	 *            id
+	 */
+	public void addPair(int object, int attribute) {
+		extents.get(attribute).set(object);
+	}
+
+	public int getObjectsSize() {
+		return objectNames.size();
+	}
+
+	public int getAttributesSize() {
+		return attributeNames.size();
+	}
+
+	public String getObjectName(int object) {
+		return objectNames.get(object);
+	}
+
+	public String getAttributeName(int attribute) {
+		return attributeNames.get(attribute);
+	}
+
+	/**
+	 * The objects that have the attribute. Do not modify it.
+	 * 
+	 * @param attribute
+	 * @return the object ids
+	 */
+	public BitSet getExtent(int attribute) {
+		return extents.get(attribute);
+	}
+
+	/**
+	 * Get the attribute id of an attribute of the Context created with
+	 * toContext
+	 * 
+	 * @param attribute
+	 * @return the attribute id or null if it does not belong to this context
+	 */
+	public Integer getAttributeId(Attribute attribute) {
+		return attributeIds.get(attribute.toString());
+	}
+
+	/**
+	 * Get the ids of the attributes of the original context represented by an
+	 * attribute of a collapsed context
+	 * 
+	 * @param attribute
+	 * @return ordered list of attribute ids
+	 */
+	public List<Integer> getOriginalAttributes(int attribute) {
+		return originalAttributes.get(attribute);
+	}
+
+	/**
+	 * Create a context where the attributes with identical extents are
+	 * collapsed in only one attribute. The concepts of both contexts are the
+	 * same and the attribute concept of a collapsed attribute is the attribute
+	 * concept of all the attributes that it represents. The objects are the
+	 * same.
+	 * 
+	 * @return the collapsed context
+	 */
+	public BitSetFormalContext collapseIdenticalExtents() {
+		BitSetFormalContext collapsed = new BitSetFormalContext();
+		collapsed.objectNames.addAll(objectNames);
+		// the collapsed attribute of each extent
+		Map<BitSet, Integer> collapsedIds = new HashMap<BitSet, Integer>();
+		for (int a = 0; a < extents.size(); a++) {
+			Integer c = collapsedIds.get(extents.get(a));
+			if (c == null) {
+				// it takes the name of the first attribute
+				c = collapsed.attributeNames.size();
+				collapsed.addAttribute(attributeNames.get(a), new ArrayList<Integer>());
+				collapsed.extents.get(c).or(extents.get(a));
+				collapsedIds.put(extents.get(a), c);
+			}
+			collapsed.originalAttributes.get(c).addAll(originalAttributes.get(a));
+		}
+		return collapsed;
+	}
+
+	/**
+	 * Create the galatea Context with the objects as entities and the same
+	 * names
+	 * 
+	 * @return the context
+	 */
+	public Context toContext() {
+		Context fc = new Context();
+		Entity[] entities = new Entity[objectNames.size()];
+		for (int o = 0; o < objectNames.size(); o++) {
+			entities[o] = new Entity(objectNames.get(o));
+			fc.addEntity(entities[o]);
+		}
+		for (int a = 0; a < attributeNames.size(); a++) {
+			BinaryAttribute attr = new BinaryAttribute(attributeNames.get(a));
+			fc.addAttribute(attr);
+			BitSet extent = extents.get(a);
+			for (int o = extent.nextSetBit(0); o >= 0; o = extent.nextSetBit(o + 1)) {
+				fc.addPair(entities[o], attr);
+			}
+		}
+		return fc;
+	}
+
+}
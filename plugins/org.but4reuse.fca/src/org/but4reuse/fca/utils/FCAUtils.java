@@ -1,6 +1,7 @@
 package org.but4reuse.fca.utils;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.but4reuse.adaptedmodel.AdaptedArtefact;
@@ -12,10 +13,8 @@ import org.but4reuse.featurelist.Feature;
 import org.but4reuse.featurelist.FeatureList;
 import org.but4reuse.featurelist.helpers.FeatureListHelper;
 
-import fr.labri.galatea.BinaryAttribute;
 import fr.labri.galatea.ConceptOrder;
 import fr.labri.galatea.Context;
-import fr.labri.galatea.Entity;
 import fr.labri.galatea.algo.Ceres;
 
 /**
@@ -33,33 +32,39 @@ public class FCAUtils {
 	 * @return formal context
 	 */
 	public static Context createArtefactsBlocksFormalContext(AdaptedModel adaptedModel) {
+		return createArtefactsBlocksBitSetFormalContext(adaptedModel).toContext();
+	}
 
-		// Creates a formal context
-		Context fc = new Context();
+	/**
+	 * Create artefacts/blocks formal context with the positions of the
+	 * artefacts and blocks as ids
+	 * 
+	 * @param adaptedModel
+	 * @return formal context
+	 */
+	public static BitSetFormalContext createArtefactsBlocksBitSetFormalContext(AdaptedModel adaptedModel) {
+		BitSetFormalContext context = new BitSetFormalContext();
 
-		// Creates an entity per artefact
+		// Creates an object per artefact
 		for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
-			Entity ent = new Entity(aa.getArtefact().getName());
-			fc.addEntity(ent);
+			context.addObject(aa.getArtefact().getName());
 		}
 
-		Map<String, BinaryAttribute> blockNameMap = new HashMap<String, BinaryAttribute>();
-
-		// Creates a binary attribute per block
+		// Creates an attribute per block
+		Map<Block, Integer> blockIds = new HashMap<Block, Integer>();
 		for (Block block : adaptedModel.getOwnedBlocks()) {
-			BinaryAttribute attr = new BinaryAttribute(block.getName());
-			fc.addAttribute(attr);
-			blockNameMap.put(block.getName(), attr);
+			blockIds.put(block, context.addAttribute(block.getName()));
 		}
 
 		// Add pairs
-		for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
+		for (int i = 0; i < adaptedModel.getOwnedAdaptedArtefacts().size(); i++) {
+			AdaptedArtefact aa = adaptedModel.getOwnedAdaptedArtefacts().get(i);
 			for (Block block : AdaptedModelHelper.getBlocksOfAdaptedArtefact(aa)) {
-				fc.addPair(fc.getEntity(aa.getArtefact().getName()), blockNameMap.get(block.getName()));
+				context.addPair(i, blockIds.get(block));
 			}
 		}
 
-		return fc;
+		return context;
 	}
 
 	/**
@@ -69,33 +74,28 @@ public class FCAUtils {
 	 * @return formal context
 	 */
 	public static Context createBlocksArtefactsFormalContext(AdaptedModel adaptedModel) {
+		BitSetFormalContext context = new BitSetFormalContext();
 
-		// Creates a formal context
-		Context fc = new Context();
-
-		// Creates an entity per block
+		// Creates an object per block
+		Map<Block, Integer> blockIds = new HashMap<Block, Integer>();
 		for (Block b : adaptedModel.getOwnedBlocks()) {
-			Entity ent = new Entity(b.getName());
-			fc.addEntity(ent);
+			blockIds.put(b, context.addObject(b.getName()));
 		}
 
-		Map<String, BinaryAttribute> artefactNameMap = new HashMap<String, BinaryAttribute>();
-
-		// Creates a binary attribute per artefact
+		// Creates an attribute per artefact
 		for (AdaptedArtefact a : adaptedModel.getOwnedAdaptedArtefacts()) {
-			BinaryAttribute attr = new BinaryAttribute(a.getArtefact().getName());
-			fc.addAttribute(attr);
-			artefactNameMap.put(a.getArtefact().getName(), attr);
+			context.addAttribute(a.getArtefact().getName());
 		}
 
 		// Add pairs
-		for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
+		for (int i = 0; i < adaptedModel.getOwnedAdaptedArtefacts().size(); i++) {
+			AdaptedArtefact aa = adaptedModel.getOwnedAdaptedArtefacts().get(i);
 			for (Block block : AdaptedModelHelper.getBlocksOfAdaptedArtefact(aa)) {
-				fc.addPair(fc.getEntity(block.getName()), artefactNameMap.get(aa.getArtefact().getName()));
+				context.addPair(blockIds.get(block), i);
 			}
 		}
 
-		return fc;
+		return context.toContext();
 	}
 
 	/**
@@ -105,33 +105,28 @@ public class FCAUtils {
 	 * @return formal context
 	 */
 	public static Context createArtefactsFeaturesFormalContext(FeatureList featureList) {
+		BitSetFormalContext context = new BitSetFormalContext();
 
-		// Creates a formal context
-		Context fc = new Context();
-
-		// Creates an entity per artefact
-		for (Artefact a : FeatureListHelper.getArtefactModel(featureList).getOwnedArtefacts()) {
-			Entity ent = new Entity(a.getName());
-			fc.addEntity(ent);
+		// Creates an object per artefact
+		List<Artefact> artefacts = FeatureListHelper.getArtefactModel(featureList).getOwnedArtefacts();
+		for (Artefact a : artefacts) {
+			context.addObject(a.getName());
 		}
 
-		Map<String, BinaryAttribute> featureNameMap = new HashMap<String, BinaryAttribute>();
-
-		// Creates a binary attribute per feature
+		// Creates an attribute per feature
+		Map<Feature, Integer> featureIds = new HashMap<Feature, Integer>();
 		for (Feature feature : featureList.getOwnedFeatures()) {
-			BinaryAttribute attr = new BinaryAttribute(feature.getName());
-			fc.addAttribute(attr);
-			featureNameMap.put(feature.getName(), attr);
+			featureIds.put(feature, context.addAttribute(feature.getName()));
 		}
 
 		// Add pairs
-		for (Artefact a : FeatureListHelper.getArtefactModel(featureList).getOwnedArtefacts()) {
-			for (Feature feature : FeatureListHelper.getArtefactFeatures(featureList, a)) {
-				fc.addPair(fc.getEntity(a.getName()), featureNameMap.get(feature.getName()));
+		for (int i = 0; i < artefacts.size(); i++) {
+			for (Feature feature : FeatureListHelper.getArtefactFeatures(featureList, artefacts.get(i))) {
+				context.addPair(i, featureIds.get(feature));
 			}
 		}
 
-		return fc;
+		return context.toContext();
 	}
 
 	/**
@@ -141,35 +136,30 @@ public class FCAUtils {
 	 * @return formal context
 	 */
 	public static Context createFeaturesArtefactsFormalContext(FeatureList featureList) {
+		BitSetFormalContext context = new BitSetFormalContext();
 
-		// Creates a formal context
-		Context fc = new Context();
-
-		// Creates an entity per feature
+		// Creates an object per feature
 		for (Feature f : featureList.getOwnedFeatures()) {
-			Entity ent = new Entity(f.getName());
-			fc.addEntity(ent);
+			context.addObject(f.getName());
 		}
 
-		Map<String, BinaryAttribute> artefactNameMap = new HashMap<String, BinaryAttribute>();
-
-		// Creates a binary attribute per artefact
-		for (Artefact a : FeatureListHelper.getArtefactModel(featureList).getOwnedArtefacts()) {
-			BinaryAttribute attr = new BinaryAttribute(a.getName());
-			fc.addAttribute(attr);
-			artefactNameMap.put(a.getName(), attr);
+		// Creates an attribute per artefact
+		List<Artefact> artefacts = FeatureListHelper.getArtefactModel(featureList).getOwnedArtefacts();
+		for (Artefact a : artefacts) {
+			context.addAttribute(a.getName());
 		}
 
 		// Add pairs
-		for (Feature feature : featureList.getOwnedFeatures()) {
-			for (Artefact a : FeatureListHelper.getArtefactModel(featureList).getOwnedArtefacts()) {
-				if (feature.getImplementedInArtefacts().contains(a)) {
-					fc.addPair(fc.getEntity(feature.getName()), artefactNameMap.get(a.getName()));
+		for (int i = 0; i < featureList.getOwnedFeatures().size(); i++) {
+			Feature feature = featureList.getOwnedFeatures().get(i);
+			for (int j = 0; j < artefacts.size(); j++) {
+				if (feature.getImplementedInArtefacts().contains(artefacts.get(j))) {
+					context.addPair(i, j);
 				}
 			}
 		}
 
-		return fc;
+		return context.toContext();
 	}
 
 	/**
@@ -187,47 +177,45 @@ public class FCAUtils {
 
 	public static Context createArtefactsFeaturesAndBlocksFormalContext(FeatureList featureList,
 			AdaptedModel adaptedModel) {
-		// Creates a formal context
-		Context fc = new Context();
+		BitSetFormalContext context = new BitSetFormalContext();
 
-		// Creates an entity per artefact
+		// Creates an object per artefact, the artefacts of the feature list are
+		// found by name
+		Map<String, Integer> artefactIds = new HashMap<String, Integer>();
 		for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
-			Entity ent = new Entity(aa.getArtefact().getName());
-			fc.addEntity(ent);
+			artefactIds.put(aa.getArtefact().getName(), context.addObject(aa.getArtefact().getName()));
 		}
 
-		Map<String, BinaryAttribute> featureNameMap = new HashMap<String, BinaryAttribute>();
-
-		// Creates a binary attribute per feature
+		// Creates an attribute per feature
+		Map<Feature, Integer> featureIds = new HashMap<Feature, Integer>();
 		for (Feature feature : featureList.getOwnedFeatures()) {
-			BinaryAttribute attr = new BinaryAttribute("F: " + feature.getName());
-			fc.addAttribute(attr);
-			featureNameMap.put("F: " + feature.getName(), attr);
+			featureIds.put(feature, context.addAttribute("F: " + feature.getName()));
 		}
 
 		// Add pairs
 		for (Artefact a : FeatureListHelper.getArtefactModel(featureList).getOwnedArtefacts()) {
-			for (Feature feature : FeatureListHelper.getArtefactFeatures(featureList, a)) {
-				fc.addPair(fc.getEntity(a.getName()), featureNameMap.get("F: " + feature.getName()));
+			Integer artefactId = artefactIds.get(a.getName());
+			if (artefactId != null) {
+				for (Feature feature : FeatureListHelper.getArtefactFeatures(featureList, a)) {
+					context.addPair(artefactId, featureIds.get(feature));
+				}
 			}
 		}
 
-		Map<String, BinaryAttribute> blockNameMap = new HashMap<String, BinaryAttribute>();
-
-		// Creates a binary attribute per block
+		// Creates an attribute per block
+		Map<Block, Integer> blockIds = new HashMap<Block, Integer>();
 		for (Block block : adaptedModel.getOwnedBlocks()) {
-			BinaryAttribute attr = new BinaryAttribute("B: " + block.getName());
-			fc.addAttribute(attr);
-			blockNameMap.put("B: " + block.getName(), attr);
+			blockIds.put(block, context.addAttribute("B: " + block.getName()));
 		}
 
 		// Add pairs
-		for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
+		for (int i = 0; i < adaptedModel.getOwnedAdaptedArtefacts().size(); i++) {
+			AdaptedArtefact aa = adaptedModel.getOwnedAdaptedArtefacts().get(i);
 			for (Block block : AdaptedModelHelper.getBlocksOfAdaptedArtefact(aa)) {
-				fc.addPair(fc.getEntity(aa.getArtefact().getName()), blockNameMap.get("B: " + block.getName()));
+				context.addPair(i, blockIds.get(block));
 			}
 		}
 
-		return fc;
+		return context.toContext();
 	}
 }
@@ -4,20 +4,29 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
 
 import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.Block;
 import org.but4reuse.adaptedmodel.BlockElement;
 import org.but4reuse.adaptedmodel.ElementWrapper;
 import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
+import org.but4reuse.adaptedmodel.helpers.OrderedRangeTask;
 import org.but4reuse.adaptedmodel.manager.AdaptedModelManager;
 import org.but4reuse.adapters.IDependencyObject;
 import org.but4reuse.adapters.IElement;
+import org.but4reuse.adapters.preferences.PreferencesHelper;
 import org.but4reuse.feature.constraints.IConstraint;
 import org.but4reuse.feature.constraints.IConstraintsDiscovery;
 import org.but4reuse.feature.constraints.activator.Activator;
+import org.but4reuse.feature.constraints.impl.BlockElementsIndex.Occurrence;
 import org.but4reuse.feature.constraints.preferences.BinaryRelationPreferencePage;
 import org.but4reuse.featurelist.FeatureList;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -42,7 +51,6 @@ public class BinaryRelationConstraintsDiscovery implements IConstraintsDiscovery
 		// for binary relations we explore the matrix n*n where n is the number
 		// of blocks. We ignore the matrix diagonal so it is n*n - n for
 		// requires and (n*n-n)/2 for mutual exclusion
-		int n = adaptedModel.getOwnedBlocks().size();
 		// TODO monitor is not used, only for reporting messages
 		// monitor.beginTask("Binary Relation Constraints discovery", (n * n -
 		// n) + ((n * n - n) / 2));
@@ -57,32 +65,9 @@ public class BinaryRelationConstraintsDiscovery implements IConstraintsDiscovery
 				.getBoolean(BinaryRelationPreferencePage.REQUIRES);
 		if (requires) {
 			long start = System.currentTimeMillis();
-			for (int y = 0; y < n; y++) {
-				for (int x = 0; x < n; x++) {
-					if (x != y) {
-						Block b1 = adaptedModel.getOwnedBlocks().get(y);
-						Block b2 = adaptedModel.getOwnedBlocks().get(x);
-						monitor.subTask("Checking Requires relations of " + b1.getName() + " with " + b2.getName());
-						// check monitor
-						if (monitor.isCanceled()) {
-							return constraintList;
-						}
-						// here we have all binary combinations A and B, B and A
-						// etc.
-						// requires b1 -> b2
-						List<String> messages = blockRequiresAnotherBlockB(b1, b2);
-						if (messages.size() > 0) {
-							IConstraint constraint = new ConstraintImpl();
-							constraint.setType(IConstraint.REQUIRES);
-							constraint.setBlock1(b1);
-							constraint.setBlock2(b2);
-							constraint.setExplanations(messages);
-							constraint.setNumberOfReasons(messages.size());
-							constraintList.add(constraint);
-						}
-						// monitor.worked(1);
-					}
-				}
+			constraintList.addAll(discoverRequires(adaptedModel.getOwnedBlocks(), monitor));
+			if (monitor.isCanceled()) {
+				return constraintList;
 			}
 			AdaptedModelManager.registerTime("Constraints discovery [Requires]", System.currentTimeMillis() - start);
 		}
@@ -91,34 +76,9 @@ public class BinaryRelationConstraintsDiscovery implements IConstraintsDiscovery
 				.getBoolean(BinaryRelationPreferencePage.EXCLUDES);
 		if (excludes) {
 			long start = System.currentTimeMillis();
-			for (int y = 0; y < n; y++) {
-				for (int x = 0; x < n; x++) {
-					// mutual exclusion, not(b1 and b2), as it is mutual we do
-					// not need to check the opposite
-					if (x != y && y < x) {
-						Block b1 = adaptedModel.getOwnedBlocks().get(y);
-						Block b2 = adaptedModel.getOwnedBlocks().get(x);
-						monitor.subTask("Checking Mutual Exclusion relations of " + b1.getName() + " with "
-								+ b2.getName());
-						// check monitor
-						if (monitor.isCanceled()) {
-							return constraintList;
-						}
-						// mutual exclusion
-						List<String> messages = blockExcludesAnotherBlock(b1, b2);
-						if (messages.size() > 0) {
-							IConstraint constraint = new ConstraintImpl();
-							constraint.setType(IConstraint.MUTUALLY_EXCLUDES);
-							constraint.setBlock1(b1);
-							constraint.setBlock2(b2);
-							constraint.setExplanations(messages);
-							constraint.setNumberOfReasons(messages.size());
-							constraintList.add(constraint);
-						}
-
-						// monitor.worked(1);
-					}
-				}
+			constraintList.addAll(discoverMutualExclusions(adaptedModel.getOwnedBlocks(), monitor));
+			if (monitor.isCanceled()) {
+				return constraintList;
 			}
 			AdaptedModelManager.registerTime("Constraints discovery [Mutual exclusion]", System.currentTimeMillis()
 					- start);
@@ -127,6 +87,109 @@ public class BinaryRelationConstraintsDiscovery implements IConstraintsDiscovery
 		return constraintList;
 	}
 
+	/**
+	 * Requires constraints between all the pairs of blocks. Instead of checking
+	 * each pair, the dependencies of the elements of each block are visited
+	 * once and the blocks containing the dependency objects are obtained from
+	 * an index. The constraints and the explanations are the same as calling
+	 * blockRequiresAnotherBlockB with each pair of blocks. In the identical
+	 * mode the blocks are partitioned and checked in parallel. Otherwise the
+	 * equals of the elements can ask the user in the UI thread and it uses the
+	 * manual equal cache, so they are checked in the current thread.
+	 * 
+	 * @param blocks
+	 * @param monitor
+	 * @return the requires constraints in the order of the pairs of blocks
+	 */
+	public static List<IConstraint> discoverRequires(List<Block> blocks, IProgressMonitor monitor) {
+		BlockElementsIndex index = new BlockElementsIndex(blocks);
+		return OrderedRangeTask.invoke(new RequiresTask(blocks, index, 0, blocks.size(),
+				OrderedRangeTask.share(monitor)), PreferencesHelper.isOnlyIdenticalMode());
+	}
+
+	/**
+	 * Requires constraints of a range of blocks
+	 */
+	private static class RequiresTask extends OrderedRangeTask<IConstraint> {
+
+		private static final long serialVersionUID = 1L;
+
+		private List<Block> blocks;
+
+		private BlockElementsIndex index;
+
+		public RequiresTask(List<Block> blocks, BlockElementsIndex index, int from, int to, IProgressMonitor monitor) {
+			super(from, to, monitor);
+			this.blocks = blocks;
+			this.index = index;
+		}
+
+		@Override
+		protected List<IConstraint> compute(int y) {
+			List<IConstraint> constraints = new ArrayList<IConstraint>();
+			Block b1 = blocks.get(y);
+			monitor.subTask("Checking Requires relations of " + b1.getName());
+			// requires b1 -> b2
+			for (Entry<Integer, List<String>> entry : getRequiredBlocks(b1, y, index).entrySet()) {
+				IConstraint constraint = new ConstraintImpl();
+				constraint.setType(IConstraint.REQUIRES);
+				constraint.setBlock1(b1);
+				constraint.setBlock2(blocks.get(entry.getKey()));
+				constraint.setExplanations(entry.getValue());
+				constraint.setNumberOfReasons(entry.getValue().size());
+				constraints.add(constraint);
+			}
+			return constraints;
+		}
+
+		@Override
+		protected OrderedRangeTask<IConstraint> createTask(int from, int to) {
+			return new RequiresTask(blocks, index, from, to, monitor);
+		}
+	}
+
+	/**
+	 * Get the blocks required by a block
+	 * 
+	 * @param b1
+	 * @param b1Index
+	 *            the position of b1 in the indexed blocks
+	 * @param index
+	 * @return the explanations by the position of the required blocks
+	 */
+	private static SortedMap<Integer, List<String>> getRequiredBlocks(Block b1, int b1Index, BlockElementsIndex index) {
+		SortedMap<Integer, List<String>> messages = new TreeMap<Integer, List<String>>();
+		// Get the elements of B1
+		HashSet<IElement> elementsOfB1 = AdaptedModelHelper.getElementsOfBlockHashSet(b1);
+		for (BlockElement e : b1.getOwnedBlockElements()) {
+			for (IDependencyObject deo : getAllDependencies(e)) {
+				// Check if the dependency object is already in b1
+				if (elementsOfB1.contains(deo)) {
+					continue;
+				}
+				BlockElement previous = null;
+				for (Occurrence occurrence : index.getOccurrences(deo)) {
+					// one message for each block element of the other blocks
+					// using its first element wrapper equal to the dependency
+					if (occurrence.getBlockIndex() == b1Index || occurrence.getBlockElement() == previous) {
+						continue;
+					}
+					previous = occurrence.getBlockElement();
+					List<String> blockMessages = messages.get(occurrence.getBlockIndex());
+					if (blockMessages == null) {
+						blockMessages = new ArrayList<String>();
+						messages.put(occurrence.getBlockIndex(), blockMessages);
+					} else if (onlyOneReason) {
+						continue;
+					}
+					blockMessages.add(((IElement) e.getElementWrappers().get(0).getElement()).getText() + "->"
+							+ occurrence.getElement().getText());
+				}
+			}
+		}
+		return messages;
+	}
+
 	/**
 	 * exists e in b1 : exists de in e.dependencies : de containedIn b2
 	 * 
@@ -139,7 +202,6 @@ public class BinaryRelationConstraintsDiscovery implements IConstraintsDiscovery
 		// Get the elements of B1
 		HashSet<IElement> elementsOfB1 = AdaptedModelHelper.getElementsOfBlockHashSet(b1);
 		for (BlockElement e : b1.getOwnedBlockElements()) {
-			// TODO getAllDependencies is the bottleneck here
 			List<IDependencyObject> de = getAllDependencies(e);
 			// Actually check
 			for (IDependencyObject deo : de) {
@@ -169,6 +231,86 @@ public class BinaryRelationConstraintsDiscovery implements IConstraintsDiscovery
 		return messages;
 	}
 
+	/**
+	 * Mutual exclusion constraints between all the pairs of blocks. The pointed
+	 * objects of each block are calculated once and only the pairs of blocks
+	 * that point to the same object more times than its maximum number of
+	 * dependencies are checked. The constraints and the explanations are the
+	 * same as calling blockExcludesAnotherBlock with each pair of blocks. In
+	 * the identical mode the candidate pairs are partitioned by their first
+	 * block and checked in parallel, otherwise in the current thread.
+	 * 
+	 * @param blocks
+	 * @param monitor
+	 * @return the mutual exclusion constraints in the order of the pairs of
+	 *         blocks
+	 */
+	public static List<IConstraint> discoverMutualExclusions(List<Block> blocks, IProgressMonitor monitor) {
+		monitor.subTask("Checking Mutual Exclusion relations");
+		DependencyCardinalityIndex index = new DependencyCardinalityIndex(blocks);
+		return OrderedRangeTask.invoke(new MutualExclusionsTask(blocks, index, index.getCandidatePairs(), 0,
+				blocks.size(), OrderedRangeTask.share(monitor)), PreferencesHelper.isOnlyIdenticalMode());
+	}
+
+	/**
+	 * Mutual exclusion constraints of the candidate pairs whose first block is
+	 * in a range of blocks
+	 */
+	private static class MutualExclusionsTask extends OrderedRangeTask<IConstraint> {
+
+		private static final long serialVersionUID = 1L;
+
+		private List<Block> blocks;
+
+		private DependencyCardinalityIndex index;
+
+		private SortedMap<Integer, SortedSet<Integer>> pairs;
+
+		public MutualExclusionsTask(List<Block> blocks, DependencyCardinalityIndex index,
+				SortedMap<Integer, SortedSet<Integer>> pairs, int from, int to, IProgressMonitor monitor) {
+			super(from, to, monitor);
+			this.blocks = blocks;
+			this.index = index;
+			this.pairs = pairs;
+		}
+
+		@Override
+		protected List<IConstraint> compute(int y) {
+			List<IConstraint> constraints = new ArrayList<IConstraint>();
+			SortedSet<Integer> others = pairs.get(y);
+			if (others == null) {
+				return constraints;
+			}
+			// mutual exclusion, not(b1 and b2), as it is mutual we do not need
+			// to check the opposite
+			Block b1 = blocks.get(y);
+			for (Integer x : others) {
+				Block b2 = blocks.get(x);
+				monitor.subTask("Checking Mutual Exclusion relations of " + b1.getName() + " with " + b2.getName());
+				// check monitor
+				if (monitor.isCanceled()) {
+					return constraints;
+				}
+				List<String> messages = index.getExclusionMessages(y, x, onlyOneReason);
+				if (messages.size() > 0) {
+					IConstraint constraint = new ConstraintImpl();
+					constraint.setType(IConstraint.MUTUALLY_EXCLUDES);
+					constraint.setBlock1(b1);
+					constraint.setBlock2(b2);
+					constraint.setExplanations(messages);
+					constraint.setNumberOfReasons(messages.size());
+					constraints.add(constraint);
+				}
+			}
+			return constraints;
+		}
+
+		@Override
+		protected OrderedRangeTask<IConstraint> createTask(int from, int to) {
+			return new MutualExclusionsTask(blocks, index, pairs, from, to, monitor);
+		}
+	}
+
 	/**
 	 * exists e1 in b1, exists e2 in b2 : exists de in (e1.dependencies
 	 * intersection e2.dependencies) and de.maxDependencies <=1
@@ -242,19 +384,16 @@ public class BinaryRelationConstraintsDiscovery implements IConstraintsDiscovery
 	 * @return non empty list of dependency objects
 	 */
 	public static List<IDependencyObject> getAllDependencies(BlockElement blockElement) {
-		List<IDependencyObject> result = new ArrayList<IDependencyObject>();
+		// keep the order of appearance
+		Set<IDependencyObject> result = new LinkedHashSet<IDependencyObject>();
 		for (ElementWrapper elementW1 : blockElement.getElementWrappers()) {
 			IElement element = (IElement) elementW1.getElement();
 			Map<String, List<IDependencyObject>> map = element.getDependencies();
 			for (List<IDependencyObject> dependencies : map.values()) {
-				for (IDependencyObject o : dependencies) {
-					if (!result.contains(o)) {
-						result.add(o);
-					}
-				}
+				result.addAll(dependencies);
 			}
 		}
-		return result;
+		return new ArrayList<IDependencyObject>(result);
 	}
 
 }
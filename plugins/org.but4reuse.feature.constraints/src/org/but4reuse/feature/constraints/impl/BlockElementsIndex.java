@@ -0,0 +1,148 @@
+package org.but4reuse.feature.constraints.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.BlockElement;
+import org.but4reuse.adaptedmodel.ElementWrapper;
+import org.but4reuse.adapters.IDependencyObject;
+import org.but4reuse.adapters.IElement;
+import org.but4reuse.adapters.preferences.PreferencesHelper;
+
+/**
+ * Index of the elements of a list of blocks. It finds the element wrappers
+ * whose element is equal to a dependency object with a hash lookup instead of
+ * scanning all the element wrappers of the blocks. In only identical mode the
+ * identity keys of the elements are used, otherwise the hashCode of the
+ * elements. The equals method of the dependency object is always checked.
+ * 
+ * @author jabier.martinez
+ */
+public class BlockElementsIndex {
+
+	/**
+	 * An element wrapper of a block element of the block at a given position
+	 */
+	public static class Occurrence {
+
+		private int blockIndex;
+
+		private BlockElement blockElement;
+
+		private ElementWrapper elementWrapper;
+
+		public Occurrence(int blockIndex, BlockElement blockElement, ElementWrapper elementWrapper) {
+			this.blockIndex = blockIndex;
+			this.blockElement = blockElement;
+			this.elementWrapper = elementWrapper;
+		}
+
+		public int getBlockIndex() {
+			return blockIndex;
+		}
+
+		public BlockElement getBlockElement() {
+			return blockElement;
+		}
+
+		public ElementWrapper getElementWrapper() {
+			return elementWrapper;
+		}
+
+		public IElement getElement() {
+			return (IElement) elementWrapper.getElement();
+		}
+	}
+
+	private boolean useIdentityKeys;
+
+	private Map<Object, List<Occurrence>> occurrencesByIdentityKey = new HashMap<Object, List<Occurrence>>();
+
+	private Map<Object, List<Occurrence>> occurrencesByElement = new HashMap<Object, List<Occurrence>>();
+
+	/**
+	 * Constructor using the similarity preferences
+	 * 
+	 * @param blocks
+	 */
+	public BlockElementsIndex(List<Block> blocks) {
+		this(blocks, PreferencesHelper.isOnlyIdenticalMode());
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param blocks
+	 * @param useIdentityKeys
+	 *            whether identity keys can be used
+	 */
+	public BlockElementsIndex(List<Block> blocks, boolean useIdentityKeys) {
+		this.useIdentityKeys = useIdentityKeys;
+		for (int i = 0; i < blocks.size(); i++) {
+			for (BlockElement blockElement : blocks.get(i).getOwnedBlockElements()) {
+				for (ElementWrapper elementWrapper : blockElement.getElementWrappers()) {
+					add(new Occurrence(i, blockElement, elementWrapper));
+				}
+			}
+		}
+	}
+
+	private void add(Occurrence occurrence) {
+		Object element = occurrence.getElementWrapper().getElement();
+		Object key = getIdentityKey(element);
+		List<Occurrence> occurrences;
+		if (key != null) {
+			occurrences = occurrencesByIdentityKey.get(key);
+			if (occurrences == null) {
+				occurrences = new ArrayList<Occurrence>();
+				occurrencesByIdentityKey.put(key, occurrences);
+			}
+		} else {
+			occurrences = occurrencesByElement.get(element);
+			if (occurrences == null) {
+				occurrences = new ArrayList<Occurrence>();
+				occurrencesByElement.put(element, occurrences);
+			}
+		}
+		occurrences.add(occurrence);
+	}
+
+	/**
+	 * Get the element wrappers whose element is equal to a dependency object
+	 * 
+	 * @param dependencyObject
+	 * @return the occurrences in the order of the blocks, block elements and
+	 *         element wrappers
+	 */
+	public List<Occurrence> getOccurrences(IDependencyObject dependencyObject) {
+		Object key = getIdentityKey(dependencyObject);
+		List<Occurrence> candidates;
+		if (key != null) {
+			candidates = occurrencesByIdentityKey.get(key);
+		} else {
+			candidates = occurrencesByElement.get(dependencyObject);
+		}
+		if (candidates == null) {
+			return Collections.emptyList();
+		}
+		List<Occurrence> occurrences = new ArrayList<Occurrence>();
+		for (Occurrence candidate : candidates) {
+			if (dependencyObject.equals(candidate.getElementWrapper().getElement())) {
+				occurrences.add(candidate);
+			}
+		}
+		return occurrences;
+	}
+
+	private Object getIdentityKey(Object object) {
+		if (useIdentityKeys && object instanceof IElement) {
+			return ((IElement) object).getIdentityKey();
+		}
+		return null;
+	}
+
+}
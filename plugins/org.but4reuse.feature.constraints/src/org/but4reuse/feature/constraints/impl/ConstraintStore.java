@@ -0,0 +1,179 @@
+package org.but4reuse.feature.constraints.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelIndex;
+import org.but4reuse.adaptedmodel.helpers.ModelCache;
+import org.but4reuse.feature.constraints.IConstraint;
+import org.but4reuse.featurelist.Feature;
+
+/**
+ * Typed view of the constraints of an adapted model indexed by type and block.
+ * The lists of the index keep the order of the constraints of the adapted
+ * model. It is cached in the adapted model and it is discarded when the
+ * adapted model or its contents change (see ModelCache). The list of
+ * constraints is not an EMF object, so after modifying it or its constraints
+ * it must be set again in the adapted model with setConstraints.
+ * 
+ * @author jabier.martinez
+ */
+public class ConstraintStore {
+
+	private Object source;
+
+	private List<IConstraint> constraints = new ArrayList<IConstraint>();
+
+	// type, block1, constraints
+	private Map<String, Map<Block, List<IConstraint>>> byBlock1 = new HashMap<String, Map<Block, List<IConstraint>>>();
+
+	// type, block2, constraints
+	private Map<String, Map<Block, List<IConstraint>>> byBlock2 = new HashMap<String, Map<Block, List<IConstraint>>>();
+
+	// number of reasons of the requires constraints between features
+	private Map<Feature, Map<Feature, Integer>> requiresReasons;
+
+	// the block features used to calculate requiresReasons
+	private AdaptedModelIndex requiresReasonsIndex;
+
+	private ConstraintStore(Object source) {
+		this.source = source;
+		if (source instanceof List<?>) {
+			for (Object o : (List<?>) source) {
+				if (o instanceof IConstraint) {
+					add((IConstraint) o);
+				}
+			}
+		}
+	}
+
+	private void add(IConstraint constraint) {
+		constraints.add(constraint);
+		if (constraint.getBlock1() != null) {
+			getList(byBlock1, constraint.getType(), constraint.getBlock1()).add(constraint);
+		}
+		if (constraint.getBlock2() != null) {
+			getList(byBlock2, constraint.getType(), constraint.getBlock2()).add(constraint);
+		}
+	}
+
+	private static List<IConstraint> getList(Map<String, Map<Block, List<IConstraint>>> map, String type,
+			Block block) {
+		Map<Block, List<IConstraint>> ofType = map.get(type);
+		if (ofType == null) {
+			ofType = new HashMap<Block, List<IConstraint>>();
+			map.put(type, ofType);
+		}
+		List<IConstraint> list = ofType.get(block);
+		if (list == null) {
+			list = new ArrayList<IConstraint>();
+			ofType.put(block, list);
+		}
+		return list;
+	}
+
+	private static List<IConstraint> find(Map<String, Map<Block, List<IConstraint>>> map, String type, Block block) {
+		Map<Block, List<IConstraint>> ofType = map.get(type);
+		if (ofType == null || !ofType.containsKey(block)) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(ofType.get(block));
+	}
+
+	/**
+	 * Get the constraint store of the adapted model, creating it if the
+	 * constraints changed
+	 * 
+	 * @param adaptedModel
+	 * @return the non null store
+	 */
+	public static ConstraintStore get(AdaptedModel adaptedModel) {
+		ModelCache cache = ModelCache.get(adaptedModel, ConstraintStore.class);
+		synchronized (cache) {
+			ConstraintStore store = (ConstraintStore) cache.getValue();
+			Object source = adaptedModel.getConstraints();
+			if (store == null || store.source != source) {
+				store = new ConstraintStore(source);
+				cache.setValue(store);
+			}
+			return store;
+		}
+	}
+
+	/**
+	 * @return the constraints. It must not be modified.
+	 */
+	public List<IConstraint> getConstraints() {
+		return Collections.unmodifiableList(constraints);
+	}
+
+	/**
+	 * @param type
+	 * @param block1
+	 * @return the constraints of this type with this block as first block
+	 */
+	public List<IConstraint> getConstraintsWithBlock1(String type, Block block1) {
+		return find(byBlock1, type, block1);
+	}
+
+	/**
+	 * @param type
+	 * @param block2
+	 * @return the constraints of this type with this block as second block
+	 */
+	public List<IConstraint> getConstraintsWithBlock2(String type, Block block2) {
+		return find(byBlock2, type, block2);
+	}
+
+	/**
+	 * Sum of the number of reasons of the requires constraints between the
+	 * blocks of two features
+	 * 
+	 * @param adaptedModel
+	 * @param f1
+	 * @param f2
+	 * @return the number of reasons
+	 */
+	public synchronized int getNumberOfReasonsOfRequires(AdaptedModel adaptedModel, Feature f1, Feature f2) {
+		// the block features could have changed
+		AdaptedModelIndex index = AdaptedModelIndex.get(adaptedModel);
+		if (requiresReasons == null || requiresReasonsIndex != index) {
+			requiresReasonsIndex = index;
+			requiresReasons = new HashMap<Feature, Map<Feature, Integer>>();
+			for (IConstraint constraint : constraints) {
+				// only the requires between blocks of the adapted model
+				if (!IConstraint.REQUIRES.equals(constraint.getType())
+						|| index.getBlockId(constraint.getBlock1()) == -1
+						|| index.getBlockId(constraint.getBlock2()) == -1) {
+					continue;
+				}
+				Set<Feature> features1 = new HashSet<Feature>(constraint.getBlock1().getCorrespondingFeatures());
+				Set<Feature> features2 = new HashSet<Feature>(constraint.getBlock2().getCorrespondingFeatures());
+				for (Feature feature1 : features1) {
+					Map<Feature, Integer> reasons = requiresReasons.get(feature1);
+					if (reasons == null) {
+						reasons = new HashMap<Feature, Integer>();
+						requiresReasons.put(feature1, reasons);
+					}
+					for (Feature feature2 : features2) {
+						Integer previous = reasons.get(feature2);
+						reasons.put(feature2, (previous == null ? 0 : previous) + constraint.getNumberOfReasons());
+					}
+				}
+			}
+		}
+		Map<Feature, Integer> reasons = requiresReasons.get(f1);
+		if (reasons == null || !reasons.containsKey(f2)) {
+			return 0;
+		}
+		return reasons.get(f2);
+	}
+
+}
@@ -3,12 +3,14 @@ package org.but4reuse.feature.constraints.impl;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.but4reuse.adaptedmodel.AdaptedArtefact;
 import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.Block;
 import org.but4reuse.adaptedmodel.BlockElement;
 import org.but4reuse.adaptedmodel.ElementWrapper;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelIndex;
 import org.but4reuse.artefactmodel.Artefact;
 import org.but4reuse.feature.constraints.IConstraint;
 import org.but4reuse.featurelist.Feature;
@@ -50,59 +52,49 @@ public class ConstraintsHelper {
 	}
 
 	/**
-	 * Provisional method to perform the casting
+	 * Provisional method to perform the casting. Use getConstraintStore to
+	 * avoid the copy and to look for the constraints of a block.
 	 * 
 	 * @param adaptedModel
-	 * @return
+	 * @return a new list with the constraints
 	 */
 	public static List<IConstraint> getCalculatedConstraints(AdaptedModel adaptedModel) {
-		List<IConstraint> constraints = new ArrayList<IConstraint>();
-		Object o = adaptedModel.getConstraints();
-		if (o != null && o instanceof List<?>) {
-			List<?> list = (List<?>) o;
-			for (Object e : list) {
-				if (e instanceof IConstraint) {
-					constraints.add((IConstraint) e);
-				}
-			}
-		}
-		return constraints;
+		return new ArrayList<IConstraint>(getConstraintStore(adaptedModel).getConstraints());
 	}
 
 	/**
-	 * Create matrix
+	 * Get the constraints of the adapted model indexed by type and block
+	 * 
+	 * @param adaptedModel
+	 * @return the non null constraint store cached in the adapted model
+	 */
+	public static ConstraintStore getConstraintStore(AdaptedModel adaptedModel) {
+		return ConstraintStore.get(adaptedModel);
+	}
+
+	/**
+	 * Create matrix of Strings. Use getMatrixOfPresenceOfBlocksInFeatures to
+	 * get the values without parsing them.
 	 * 
 	 * @param featureList
 	 * @param adaptedModel
 	 * @return
 	 */
 	public static String[][] createMatrixOfPresenceOfBlocksInFeatures(FeatureList featureList, AdaptedModel adaptedModel) {
-		String[][] matrix = null;
-		int featuresSize = featureList.getOwnedFeatures().size() + 1;
-		int blocksSize = adaptedModel.getOwnedBlocks().size() + 1;
-		if (featuresSize > 1 && blocksSize > 1) {
-			// initialize matrix sizes
-			matrix = new String[featuresSize][];
-			for (int i = 0; i < featuresSize; i++) {
-				matrix[i] = new String[blocksSize];
-			}
-			// first row with block names
-			for (int i = 1; i < blocksSize; i++) {
-				matrix[0][i] = adaptedModel.getOwnedBlocks().get(i - 1).getName();
-			}
-			// first column with feature names
-			for (int i = 1; i < featuresSize; i++) {
-				matrix[i][0] = featureList.getOwnedFeatures().get(i - 1).getName();
-			}
-			// calculate feature-specific heuristic
-			for (int r = 1; r < featuresSize; r++) {
-				for (int c = 1; c < blocksSize; c++) {
-					matrix[r][c] = new Double(percentageOfBlockInFeature(adaptedModel.getOwnedBlocks().get(c - 1),
-							featureList.getOwnedFeatures().get(r - 1))).toString();
-				}
-			}
-		}
-		return matrix;
+		return getMatrixOfPresenceOfBlocksInFeatures(featureList, adaptedModel).toStringMatrix();
+	}
+
+	/**
+	 * Get the matrix of presence of blocks in features cached in the adapted
+	 * model
+	 * 
+	 * @param featureList
+	 * @param adaptedModel
+	 * @return the non null matrix
+	 */
+	public static PresenceMatrix getMatrixOfPresenceOfBlocksInFeatures(FeatureList featureList,
+			AdaptedModel adaptedModel) {
+		return PresenceMatrix.get(featureList, adaptedModel);
 	}
 
 	/**
@@ -197,18 +189,11 @@ public class ConstraintsHelper {
 	 * @return
 	 */
 	public static List<Block> getCorrespondingBlocks(AdaptedModel adaptedModel, Feature feature) {
-		List<Block> correspondingBlocks = new ArrayList<Block>();
-		for (Block block : adaptedModel.getOwnedBlocks()) {
-			List<Feature> features = block.getCorrespondingFeatures();
-			if (features != null && features.contains(feature) && !correspondingBlocks.contains(block)) {
-				correspondingBlocks.add(block);
-			}
-		}
-		return correspondingBlocks;
+		return AdaptedModelIndex.get(adaptedModel).getBlocksOfFeature(feature);
 	}
 
 	/**
-	 * TODO another way for this
+	 * Use addNewConstraints to add several constraints without duplicates
 	 * 
 	 * @param c1
 	 * @param c2
@@ -238,6 +223,99 @@ public class ConstraintsHelper {
 		return false;
 	}
 
+	/**
+	 * Add the discovered constraints that are not equal to any of the
+	 * constraints, in the sense of equalsConstraint, using a hash set of keys
+	 * instead of comparing all the constraints. As before, the discovered
+	 * constraints are not compared among them.
+	 * 
+	 * @param constraints
+	 *            the constraints that will be extended
+	 * @param discovered
+	 *            the new constraints
+	 */
+	public static void addNewConstraints(List<IConstraint> constraints, List<IConstraint> discovered) {
+		Set<ConstraintKey> keys = new HashSet<ConstraintKey>();
+		for (IConstraint c : constraints) {
+			ConstraintKey key = ConstraintKey.create(c);
+			if (key != null) {
+				keys.add(key);
+			}
+		}
+		List<IConstraint> toBeAdded = new ArrayList<IConstraint>();
+		for (IConstraint d : discovered) {
+			ConstraintKey key = ConstraintKey.create(d);
+			if (key == null || !keys.contains(key)) {
+				toBeAdded.add(d);
+			}
+		}
+		constraints.addAll(toBeAdded);
+	}
+
+	/**
+	 * Key of a constraint with the same equality as equalsConstraint. The
+	 * blocks of a mutual exclusion are not ordered.
+	 */
+	private static class ConstraintKey {
+
+		private String type;
+
+		private Object first;
+
+		private Object second;
+
+		private ConstraintKey(String type, Object first, Object second) {
+			this.type = type;
+			this.first = first;
+			this.second = second;
+		}
+
+		/**
+		 * @param constraint
+		 * @return the key or null if the constraint type can not be compared
+		 */
+		public static ConstraintKey create(IConstraint constraint) {
+			String type = constraint.getType();
+			if (IConstraint.FREETEXT.equals(type)) {
+				return new ConstraintKey(type, constraint.getText(), null);
+			} else if (IConstraint.REQUIRES.equals(type) || IConstraint.MUTUALLY_EXCLUDES.equals(type)) {
+				return new ConstraintKey(type, constraint.getBlock1(), constraint.getBlock2());
+			}
+			return null;
+		}
+
+		@Override
+		public int hashCode() {
+			// symmetric so it is the same for both orders of the blocks
+			return type.hashCode() + hashCode(first) + hashCode(second);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ConstraintKey)) {
+				return false;
+			}
+			ConstraintKey other = (ConstraintKey) obj;
+			if (!type.equals(other.type)) {
+				return false;
+			}
+			if (equals(first, other.first) && equals(second, other.second)) {
+				return true;
+			}
+			// non directional
+			return type.equals(IConstraint.MUTUALLY_EXCLUDES) && equals(first, other.second)
+					&& equals(second, other.first);
+		}
+
+		private static int hashCode(Object o) {
+			return o == null ? 0 : o.hashCode();
+		}
+
+		private static boolean equals(Object o1, Object o2) {
+			return o1 == null ? o2 == null : o1.equals(o2);
+		}
+	}
+
 	/**
 	 * Number of reasons of requires constraint
 	 * 
@@ -247,19 +325,8 @@ public class ConstraintsHelper {
 	 * @return
 	 */
 	public static int getNumberOfReasonsOfRequiresConstraint(AdaptedModel adaptedModel, Feature f1, Feature f2) {
-		int numberOfReasons = 0;
-		for (IConstraint constraint : ConstraintsHelper.getCalculatedConstraints(adaptedModel)) {
-			// Only requires, no excludes for the moment
-			if (constraint.getType().equals(IConstraint.REQUIRES)) {
-				// The blocks corresponds to the features
-				if (getBlocksOfFeature(f1, adaptedModel).contains(constraint.getBlock1())
-						&& getBlocksOfFeature(f2, adaptedModel).contains(constraint.getBlock2())) {
-					// increase the number of reasons
-					numberOfReasons += constraint.getNumberOfReasons();
-				}
-			}
-		}
-		return numberOfReasons;
+		// Only requires, no excludes for the moment
+		return getConstraintStore(adaptedModel).getNumberOfReasonsOfRequires(adaptedModel, f1, f2);
 	}
 
 	/**
@@ -272,14 +339,12 @@ public class ConstraintsHelper {
 	 */
 	public static int getNumberOfReasonsOfRequiresConstraint(AdaptedModel adaptedModel, Block b1, Block b2) {
 		int numberOfReasons = 0;
-		for (IConstraint constraint : ConstraintsHelper.getCalculatedConstraints(adaptedModel)) {
-			// Only requires, no excludes for the moment
-			if (constraint.getType().equals(IConstraint.REQUIRES)) {
-				// The blocks corresponds to the features
-				if (constraint.getBlock1().equals(b1) && constraint.getBlock2().equals(b2)) {
-					// increase the number of reasons
-					numberOfReasons += constraint.getNumberOfReasons();
-				}
+		// Only requires, no excludes for the moment
+		for (IConstraint constraint : getConstraintStore(adaptedModel).getConstraintsWithBlock1(IConstraint.REQUIRES,
+				b1)) {
+			if (constraint.getBlock2().equals(b2)) {
+				// increase the number of reasons
+				numberOfReasons += constraint.getNumberOfReasons();
 			}
 		}
 		return numberOfReasons;
@@ -293,12 +358,6 @@ public class ConstraintsHelper {
 	 * @return a non null list of blocks
 	 */
 	public static List<Block> getBlocksOfFeature(Feature feature, AdaptedModel adaptedModel) {
-		List<Block> blocks = new ArrayList<Block>();
-		for (Block block : adaptedModel.getOwnedBlocks()) {
-			if (block.getCorrespondingFeatures().contains(feature)) {
-				blocks.add(block);
-			}
-		}
-		return blocks;
+		return AdaptedModelIndex.get(adaptedModel).getBlocksOfFeature(feature);
 	}
 }
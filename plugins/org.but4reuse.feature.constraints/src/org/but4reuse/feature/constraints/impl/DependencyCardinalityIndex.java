@@ -0,0 +1,162 @@
+package org.but4reuse.feature.constraints.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.BlockElement;
+import org.but4reuse.adapters.IDependencyObject;
+
+/**
+ * Inverted index from a dependency id and a pointed object to the number of
+ * times that each block points to it. It is built once for all the blocks so
+ * only the pairs of blocks that point to the same object, and exceed its
+ * maximum number of dependencies, are checked for mutual exclusion. The
+ * pointed objects are counted with hash maps so their hashCode must be
+ * consistent with their equals method.
+ * 
+ * @author jabier.martinez
+ */
+public class DependencyCardinalityIndex {
+
+	// by block, the pointed objects of each dependency id
+	private List<Map<String, List<IDependencyObject>>> pointedObjects;
+
+	// by block, the number of times each object is pointed for each
+	// dependency id
+	private List<Map<String, Map<IDependencyObject, Integer>>> counts;
+
+	// the blocks pointing to an object and how many times
+	private Map<String, Map<IDependencyObject, SortedMap<Integer, Integer>>> index;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param blocks
+	 */
+	public DependencyCardinalityIndex(List<Block> blocks) {
+		pointedObjects = new ArrayList<Map<String, List<IDependencyObject>>>();
+		counts = new ArrayList<Map<String, Map<IDependencyObject, Integer>>>();
+		index = new HashMap<String, Map<IDependencyObject, SortedMap<Integer, Integer>>>();
+		for (int i = 0; i < blocks.size(); i++) {
+			Map<String, List<IDependencyObject>> map = new HashMap<String, List<IDependencyObject>>();
+			for (BlockElement blockElement : blocks.get(i).getOwnedBlockElements()) {
+				map = BinaryRelationConstraintsDiscovery.getDepedencyTypesAndPointedObjects(map, blockElement);
+			}
+			pointedObjects.add(map);
+
+			Map<String, Map<IDependencyObject, Integer>> blockCounts;
+			blockCounts = new HashMap<String, Map<IDependencyObject, Integer>>();
+			for (Entry<String, List<IDependencyObject>> entry : map.entrySet()) {
+				Map<IDependencyObject, Integer> objectCounts = new HashMap<IDependencyObject, Integer>();
+				for (IDependencyObject o : entry.getValue()) {
+					Integer count = objectCounts.get(o);
+					objectCounts.put(o, count == null ? 1 : count + 1);
+				}
+				blockCounts.put(entry.getKey(), objectCounts);
+
+				Map<IDependencyObject, SortedMap<Integer, Integer>> objects = index.get(entry.getKey());
+				if (objects == null) {
+					objects = new HashMap<IDependencyObject, SortedMap<Integer, Integer>>();
+					index.put(entry.getKey(), objects);
+				}
+				for (Entry<IDependencyObject, Integer> objectCount : objectCounts.entrySet()) {
+					SortedMap<Integer, Integer> blocksCount = objects.get(objectCount.getKey());
+					if (blocksCount == null) {
+						blocksCount = new TreeMap<Integer, Integer>();
+						objects.put(objectCount.getKey(), blocksCount);
+					}
+					blocksCount.put(i, objectCount.getValue());
+				}
+			}
+			counts.add(blockCounts);
+		}
+	}
+
+	/**
+	 * Get the pairs of blocks pointing to the same object more times than its
+	 * maximum number of dependencies
+	 * 
+	 * @return for each block position, the positions of the blocks after it
+	 */
+	public SortedMap<Integer, SortedSet<Integer>> getCandidatePairs() {
+		SortedMap<Integer, SortedSet<Integer>> pairs = new TreeMap<Integer, SortedSet<Integer>>();
+		for (Entry<String, Map<IDependencyObject, SortedMap<Integer, Integer>>> entry : index.entrySet()) {
+			for (Entry<IDependencyObject, SortedMap<Integer, Integer>> object : entry.getValue().entrySet()) {
+				SortedMap<Integer, Integer> blocksCount = object.getValue();
+				if (blocksCount.size() < 2) {
+					continue;
+				}
+				int max = object.getKey().getMaxDependencies(entry.getKey());
+				// discard the object if even the two highest counts are allowed
+				int highest = 0;
+				int second = 0;
+				for (Integer count : blocksCount.values()) {
+					if (count > highest) {
+						second = highest;
+						highest = count;
+					} else if (count > second) {
+						second = count;
+					}
+				}
+				if (max >= highest + second) {
+					continue;
+				}
+				List<Entry<Integer, Integer>> list = new ArrayList<Entry<Integer, Integer>>(blocksCount.entrySet());
+				for (int a = 0; a < list.size(); a++) {
+					for (int b = a + 1; b < list.size(); b++) {
+						if (max < list.get(a).getValue() + list.get(b).getValue()) {
+							SortedSet<Integer> others = pairs.get(list.get(a).getKey());
+							if (others == null) {
+								others = new TreeSet<Integer>();
+								pairs.put(list.get(a).getKey(), others);
+							}
+							others.add(list.get(b).getKey());
+						}
+					}
+				}
+			}
+		}
+		return pairs;
+	}
+
+	/**
+	 * Get the explanations of the mutual exclusion of two blocks. The same as
+	 * BinaryRelationConstraintsDiscovery.blockExcludesAnotherBlock without
+	 * recalculating the pointed objects of the blocks.
+	 * 
+	 * @param b1Index
+	 * @param b2Index
+	 * @param onlyOneReason
+	 * @return the explanations, empty if they are not mutually exclusive
+	 */
+	public List<String> getExclusionMessages(int b1Index, int b2Index, boolean onlyOneReason) {
+		List<String> messages = new ArrayList<String>();
+		Map<String, List<IDependencyObject>> map1 = pointedObjects.get(b1Index);
+		for (String key : map1.keySet()) {
+			Map<IDependencyObject, Integer> counts2 = counts.get(b2Index).get(key);
+			if (counts2 == null) {
+				continue;
+			}
+			Map<IDependencyObject, Integer> counts1 = counts.get(b1Index).get(key);
+			for (IDependencyObject o : map1.get(key)) {
+				Integer count2 = counts2.get(o);
+				if (count2 != null && o.getMaxDependencies(key) < counts1.get(o) + count2) {
+					messages.add(o.getDependencyObjectText());
+					if (onlyOneReason) {
+						return messages;
+					}
+				}
+			}
+		}
+		return messages;
+	}
+
+}
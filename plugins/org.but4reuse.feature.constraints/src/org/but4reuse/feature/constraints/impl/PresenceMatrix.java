@@ -0,0 +1,165 @@
+package org.but4reuse.feature.constraints.impl;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.but4reuse.adaptedmodel.AdaptedArtefact;
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelIndex;
+import org.but4reuse.adaptedmodel.helpers.ModelCache;
+import org.but4reuse.artefactmodel.Artefact;
+import org.but4reuse.featurelist.Feature;
+import org.but4reuse.featurelist.FeatureList;
+
+/**
+ * Matrix of presence of blocks in features. Each value is the ratio of the
+ * artefacts implementing the feature where the block appears, the same as
+ * ConstraintsHelper.percentageOfBlockInFeature. It is calculated with the bit
+ * sets of artefacts of the AdaptedModelIndex, and it is cached in the adapted
+ * model until the adapted model, the feature list or their contents change
+ * (see ModelCache).
+ * 
+ * @author jabier.martinez
+ */
+public class PresenceMatrix {
+
+	private FeatureList featureList;
+
+	private List<Feature> features;
+
+	private List<Block> blocks;
+
+	// rows are features and columns are blocks
+	private double[] values;
+
+	private PresenceMatrix(FeatureList featureList, List<Feature> features, List<Block> blocks) {
+		this.featureList = featureList;
+		this.features = features;
+		this.blocks = blocks;
+		this.values = new double[features.size() * blocks.size()];
+	}
+
+	/**
+	 * Get the matrix of presence, calculating it only if it is not cached or
+	 * if something changed since the last time
+	 * 
+	 * @param featureList
+	 * @param adaptedModel
+	 * @return the non null matrix
+	 */
+	public static PresenceMatrix get(FeatureList featureList, AdaptedModel adaptedModel) {
+		ModelCache cache = ModelCache.get(adaptedModel, PresenceMatrix.class);
+		synchronized (cache) {
+			PresenceMatrix matrix = (PresenceMatrix) cache.getValue();
+			if (matrix == null || matrix.featureList != featureList) {
+				matrix = create(featureList, adaptedModel);
+				cache.setValue(matrix, featureList);
+			}
+			return matrix;
+		}
+	}
+
+	/**
+	 * Calculate the matrix of presence
+	 * 
+	 * @param featureList
+	 * @param adaptedModel
+	 * @return the non null matrix
+	 */
+	public static PresenceMatrix create(FeatureList featureList, AdaptedModel adaptedModel) {
+		PresenceMatrix matrix = new PresenceMatrix(featureList, new ArrayList<Feature>(
+				featureList.getOwnedFeatures()), new ArrayList<Block>(adaptedModel.getOwnedBlocks()));
+
+		// artefacts of each block
+		AdaptedModelIndex index = AdaptedModelIndex.get(adaptedModel);
+		List<BitSet> blockArtefacts = new ArrayList<BitSet>();
+		for (Block block : matrix.blocks) {
+			blockArtefacts.add(index.getAdaptedArtefactIdsOfBlock(block));
+		}
+
+		// artefacts of each feature and the intersection with each block
+		int blocksSize = matrix.blocks.size();
+		for (int f = 0; f < matrix.features.size(); f++) {
+			List<Artefact> implementedInArtefacts = matrix.features.get(f).getImplementedInArtefacts();
+			BitSet featureArtefacts = new BitSet();
+			for (Artefact a : implementedInArtefacts) {
+				// the artefacts that are not adapted only count in the total
+				AdaptedArtefact aa = index.getAdaptedArtefact(a);
+				if (aa != null) {
+					featureArtefacts.set(index.getAdaptedArtefactId(aa));
+				}
+			}
+			double size = implementedInArtefacts.size();
+			for (int b = 0; b < blocksSize; b++) {
+				BitSet found = (BitSet) blockArtefacts.get(b).clone();
+				found.and(featureArtefacts);
+				matrix.values[f * blocksSize + b] = found.cardinality() / size;
+			}
+		}
+		return matrix;
+	}
+
+	public List<Feature> getFeatures() {
+		return features;
+	}
+
+	public List<Block> getBlocks() {
+		return blocks;
+	}
+
+	/**
+	 * Percentage of one block appearing in a given feature
+	 * 
+	 * @param featureIndex
+	 * @param blockIndex
+	 * @return the ratio, NaN if the feature is not implemented in any artefact
+	 */
+	public double getValue(int featureIndex, int blockIndex) {
+		return values[featureIndex * blocks.size() + blockIndex];
+	}
+
+	/**
+	 * Percentage of one block appearing in a given feature
+	 * 
+	 * @param feature
+	 * @param block
+	 * @return the ratio or 0 if the feature or the block are not in the
+	 *         matrix
+	 */
+	public double getValue(Feature feature, Block block) {
+		int f = features.indexOf(feature);
+		int b = blocks.indexOf(block);
+		if (f == -1 || b == -1) {
+			return 0;
+		}
+		return getValue(f, b);
+	}
+
+	/**
+	 * Matrix of Strings with a first row with the block names and a first
+	 * column with the feature names
+	 * 
+	 * @return the matrix or null if there are no features or no blocks
+	 */
+	public String[][] toStringMatrix() {
+		if (features.isEmpty() || blocks.isEmpty()) {
+			return null;
+		}
+		String[][] matrix = new String[features.size() + 1][blocks.size() + 1];
+		// first row with block names
+		for (int b = 0; b < blocks.size(); b++) {
+			matrix[0][b + 1] = blocks.get(b).getName();
+		}
+		for (int f = 0; f < features.size(); f++) {
+			// first column with feature names
+			matrix[f + 1][0] = features.get(f).getName();
+			for (int b = 0; b < blocks.size(); b++) {
+				matrix[f + 1][b + 1] = Double.toString(getValue(f, b));
+			}
+		}
+		return matrix;
+	}
+
+}
@@ -5,6 +5,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.but4reuse.adaptedmodel.AdaptedArtefact;
 import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.Block;
 import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
@@ -17,6 +18,7 @@ import org.but4reuse.artefactmodel.Artefact;
 import org.but4reuse.artefactmodel.ArtefactModel;
 import org.but4reuse.artefactmodel.ArtefactModelFactory;
 import org.but4reuse.block.identification.IBlockIdentification;
+import org.but4reuse.block.identification.IIncrementalBlockIdentification;
 import org.but4reuse.block.identification.helper.BlockIdentificationHelper;
 import org.but4reuse.feature.constraints.IConstraint;
 import org.but4reuse.feature.constraints.IConstraintsDiscovery;
@@ -48,6 +50,11 @@ public class FeatureIdentificationAction implements IObjectActionDelegate, IView
 	ArtefactModel artefactModel;
 	List<IAdapter> adapters;
 
+	// the last analysis, to check if an incremental update is possible
+	static AdaptedModel lastAdaptedModel;
+	static IBlockIdentification lastBlockIdentification;
+	static String lastEqualityPreferences;
+
 	@Override
 	public void run(IAction action) {
 		if (selection instanceof IStructuredSelection) {
@@ -105,14 +112,50 @@ public class FeatureIdentificationAction implements IObjectActionDelegate, IView
 								int totalWork = AdaptersHelper.getActiveArtefacts(artefactModel).size() + 1 + 1
 										+ VisualisationsHelper.getSelectedVisualisations().size();
 								monitor.beginTask("Feature Identification", totalWork);
-								AdaptedModel adaptedModel = AdaptedModelHelper.adapt(artefactModel, adapters, monitor);
+								IBlockIdentification a = BlockIdentificationHelper.getSelectedBlockIdentification();
+								AdaptedModel adaptedModel;
+								List<Block> blocks;
+								long startTime;
+								if (isIncrementalUpdatePossible(a)) {
+									// Only the added artefacts are adapted and
+									// the existing blocks are updated
+									adaptedModel = AdaptedModelManager.getAdaptedModel();
+									List<AdaptedArtefact> adaptedArtefacts = AdaptedModelHelper.adaptIncrementally(
+											adaptedModel, artefactModel, adapters, monitor);
+									if (monitor.isCanceled()) {
+										return;
+									}
+									List<AdaptedArtefact> newArtefacts = new ArrayList<AdaptedArtefact>(
+											adaptedArtefacts);
+									newArtefacts.removeAll(adaptedModel.getOwnedAdaptedArtefacts());
 
-								monitor.subTask("Calculating existing blocks");
-								PreferencesHelper.setDeactivateManualEqualOnlyForThisTime(false);
+									monitor.subTask("Updating existing blocks");
+									PreferencesHelper.setDeactivateManualEqualOnlyForThisTime(false);
+									startTime = System.currentTimeMillis();
+									blocks = ((IIncrementalBlockIdentification) a).updateBlocks(
+											new ArrayList<Block>(adaptedModel.getOwnedBlocks()), adaptedArtefacts,
+											newArtefacts, monitor);
+									// the adapted model is only modified once the
+									// update cannot be canceled anymore
+									if (monitor.isCanceled()) {
+										return;
+									}
+									AdaptedModelHelper.setAdaptedArtefacts(adaptedModel, adaptedArtefacts, adapters);
+									adaptedModel.getOwnedBlocks().clear();
+									// the automatic names are given again
+									for (Block block : blocks) {
+										if (block.getName() != null && block.getName().matches("Block \\d+")) {
+											block.setName(null);
+										}
+									}
+								} else {
+									adaptedModel = AdaptedModelHelper.adapt(artefactModel, adapters, monitor);
 
-								IBlockIdentification a = BlockIdentificationHelper.getSelectedBlockIdentification();
-								long startTime = System.currentTimeMillis();
-								List<Block> blocks = a.identifyBlocks(adaptedModel.getOwnedAdaptedArtefacts(), monitor);
+									monitor.subTask("Calculating existing blocks");
+									PreferencesHelper.setDeactivateManualEqualOnlyForThisTime(false);
+									startTime = System.currentTimeMillis();
+									blocks = a.identifyBlocks(adaptedModel.getOwnedAdaptedArtefacts(), monitor);
+								}
 								long stopTime = System.currentTimeMillis();
 								long elapsedTime = stopTime - startTime;
 								AdaptedModelManager.registerTime("Block identification " + a.getClass().getSimpleName(),
@@ -121,6 +164,14 @@ public class FeatureIdentificationAction implements IObjectActionDelegate, IView
 								blocks = AdaptedModelHelper.checkBlockNames(blocks);
 
 								adaptedModel.getOwnedBlocks().addAll(blocks);
+								// canceled blocks cannot be updated later
+								if (monitor.isCanceled()) {
+									lastAdaptedModel = null;
+								} else {
+									lastAdaptedModel = adaptedModel;
+									lastBlockIdentification = a;
+									lastEqualityPreferences = getEqualityPreferences();
+								}
 								monitor.worked(1);
 
 								monitor.subTask("Constraints discovery");
@@ -137,26 +188,8 @@ public class FeatureIdentificationAction implements IObjectActionDelegate, IView
 											"Constraints discovery " + constraintsDiscovery.getClass().getSimpleName(),
 											elapsedTime);
 									// System.out.println(elapsedTime / 1000.0);
-									if (constraints.isEmpty()) {
-										constraints.addAll(discovered);
-									} else {
-										// Only add the ones that are not
-										// already there
-										List<IConstraint> toBeAdded = new ArrayList<IConstraint>();
-										for (IConstraint d : discovered) {
-											boolean found = false;
-											for (IConstraint c : constraints) {
-												if (ConstraintsHelper.equalsConstraint(d, c)) {
-													found = true;
-													break;
-												}
-											}
-											if (!found) {
-												toBeAdded.add(d);
-											}
-										}
-										constraints.addAll(toBeAdded);
-									}
+									// Only add the ones that are not already there
+									ConstraintsHelper.addNewConstraints(constraints, discovered);
 								}
 								adaptedModel.setConstraints(constraints);
 								monitor.worked(1);
@@ -177,6 +210,48 @@ public class FeatureIdentificationAction implements IObjectActionDelegate, IView
 		}
 	}
 
+	/**
+	 * An incremental update is possible if it is activated in the preferences
+	 * and the last analysis was done with the same artefact model, adapters,
+	 * block identification algorithm and equality preferences. The contents of
+	 * the artefacts are not checked: an artefact that was edited since the
+	 * last analysis is not adapted again, so the user must deactivate the
+	 * preference or remove and add the artefact in that case.
+	 * 
+	 * @param blockIdentification
+	 * @return true if the last analysis can be updated
+	 */
+	private boolean isIncrementalUpdatePossible(IBlockIdentification blockIdentification) {
+		if (!BlockIdentificationHelper.isIncrementalIdentification()
+				|| !(blockIdentification instanceof IIncrementalBlockIdentification)
+				|| blockIdentification != lastBlockIdentification
+				|| !getEqualityPreferences().equals(lastEqualityPreferences)) {
+			return false;
+		}
+		AdaptedModel adaptedModel = AdaptedModelManager.getAdaptedModel();
+		if (adaptedModel == null || adaptedModel != lastAdaptedModel
+				|| !adapters.equals(AdaptedModelManager.getAdapters())) {
+			return false;
+		}
+		for (AdaptedArtefact adaptedArtefact : adaptedModel.getOwnedAdaptedArtefacts()) {
+			if (adaptedArtefact.getArtefact().eContainer() != artefactModel) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The preferences that decide if two elements are equal
+	 * 
+	 * @return a text with the values of the preferences
+	 */
+	private static String getEqualityPreferences() {
+		return PreferencesHelper.getAutomaticEqualThreshold() + " " + PreferencesHelper.isManualEqualActivated() + " "
+				+ PreferencesHelper.getManualEqualThreshold() + " "
+				+ PreferencesHelper.isApproximateCandidatesAllowed();
+	}
+
 	ISelection selection;
 
 	@Override
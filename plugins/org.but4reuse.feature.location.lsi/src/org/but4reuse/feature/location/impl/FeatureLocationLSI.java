@@ -3,46 +3,53 @@ package org.but4reuse.feature.location.impl;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
 
 import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.Block;
-import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
-import org.but4reuse.adapters.IElement;
-import org.but4reuse.adapters.impl.AbstractElement;
-import org.but4reuse.feature.location.IFeatureLocation;
+import org.but4reuse.feature.location.FeatureLocationExecutor;
+import org.but4reuse.feature.location.ILocationPartition;
+import org.but4reuse.feature.location.IParallelFeatureLocation;
 import org.but4reuse.feature.location.LocatedFeature;
 import org.but4reuse.feature.location.lsi.activator.Activator;
+import org.but4reuse.feature.location.lsi.engine.LSIEngine;
+import org.but4reuse.feature.location.lsi.engine.TermBlockMatrix;
 import org.but4reuse.feature.location.lsi.location.preferences.LSIPreferencePage;
 import org.but4reuse.featurelist.Feature;
 import org.but4reuse.featurelist.FeatureList;
+import org.but4reuse.wordclouds.util.TermIndex;
 import org.eclipse.core.runtime.IProgressMonitor;
 
-import Jama.Matrix;
-import Jama.SingularValueDecomposition;
-
-public class FeatureLocationLSI implements IFeatureLocation {
+public class FeatureLocationLSI implements IParallelFeatureLocation {
 
 	@Override
 	public List<LocatedFeature> locateFeatures(FeatureList featureList, AdaptedModel adaptedModel,
 			IProgressMonitor monitor) {
+		return FeatureLocationExecutor.execute(this, featureList, adaptedModel, monitor);
+	}
+
+	@Override
+	public ILocationPartition prepare(FeatureList featureList, AdaptedModel adaptedModel, IProgressMonitor monitor) {
 
-		List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
 		ArrayList<HashMap<String, Integer>> list = new ArrayList<HashMap<String, Integer>>();
 		ArrayList<Block> featureBlocks = new ArrayList<Block>();
 
 		/*
 		 * We gather all words for each block
 		 */
+		TermIndex index = TermIndex.get(adaptedModel);
 
 		for (Block b : adaptedModel.getOwnedBlocks()) {
 
 			featureBlocks.add(b);
 			HashMap<String, Integer> t = new HashMap<String, Integer>();
 
-			for (IElement e : AdaptedModelHelper.getElementsOfBlock(b)) {
-				List<String> words = ((AbstractElement) e).getWords();
+			int blockId = index.getBlockId(b);
+			for (int e = index.getBlockStart(blockId); e < index.getBlockEnd(blockId); e++) {
+				List<String> words = index.getWords(e);
 				for (String w : words) {
 					String tmp = w.toLowerCase();
 					if (t.containsKey(tmp))
@@ -62,72 +69,106 @@ public class FeatureLocationLSI implements IFeatureLocation {
 		 * feature so it's not necessary to continue with the feature
 		 */
 		if (list.size() == 0)
-			return locatedFeatures;
+			return FeatureLocationExecutor.EMPTY_PARTITION;
 
-		for (Feature f : featureList.getOwnedFeatures()) {
+		/*
+		 * Here we use the LSI for comparing words from the feature and words
+		 * form the block
+		 * https://fr.wikipedia.org/wiki/Analyse_s%C3%A9mantique_latente
+		 */
+		TermBlockMatrix m = new TermBlockMatrix(list);
+		if (m.getNumberOfTerms() == 0)
+			return FeatureLocationExecutor.EMPTY_PARTITION;
 
-			double vecQ[] = createQuery(list, getFeatureWords(f));
+		/*
+		 * Here we get the number of dimensions
+		 */
+		boolean fixed = Activator.getDefault().getPreferenceStore().getBoolean(LSIPreferencePage.FIXED);
+		int nbDim;
+		// as the singular values of the Jama decomposition, one per block. The
+		// engine ignores the dimensions above the rank of the matrix.
+		int nbSingularValues = m.getNumberOfBlocks();
+
+		double dim = Activator.getDefault().getPreferenceStore().getDouble(LSIPreferencePage.DIM);
+		if (fixed)
+			nbDim = (int) dim;
+		else {
+			nbDim = (int) (dim * nbSingularValues);
+		}
 
-			/*
-			 * Here we use the LSI for comparing words from the feature and
-			 * words form the block
-			 * https://fr.wikipedia.org/wiki/Analyse_s%C3%A9mantique_latente
-			 */
+		// We check if the matrix is not to small, and update the number of
+		// dimensions
+		nbDim = Math.min(nbDim, nbSingularValues);
 
-			Matrix m = new Matrix(createMatrix(list));
-			SingularValueDecomposition svd = m.svd();
+		/*
+		 * Here, rand-reduce. The SVD is truncated to the highest singular
+		 * values and it is the same for all the features
+		 */
+		LSIEngine engine = new LSIEngine(m, nbDim);
+		if (engine.getNumberOfDimensions() == 0)
+			return FeatureLocationExecutor.EMPTY_PARTITION;
+
+		// The words of the features are gathered before the parallel location
+		List<Feature> features = new ArrayList<Feature>(featureList.getOwnedFeatures());
+		List<HashMap<String, Integer>> featuresWords = new ArrayList<HashMap<String, Integer>>();
+		for (Feature f : features) {
+			featuresWords.add(getFeatureWords(f));
+		}
 
-			// Here we get the singular value matix
-			Matrix s = svd.getS();
-			// Here the U matrix from SVD -> M = U*S*V
-			Matrix u = svd.getU();
+		return new Partition(features, featuresWords, featureBlocks, engine);
+	}
 
-			/*
-			 * Here we get the number of dimensions
-			 */
-			boolean fixed = Activator.getDefault().getPreferenceStore().getBoolean(LSIPreferencePage.FIXED);
-			int nbDim;
-
-			double dim = Activator.getDefault().getPreferenceStore().getDouble(LSIPreferencePage.DIM);
-			if (fixed)
-				nbDim = (int) dim;
-			else {
-				nbDim = (int) (dim * s.getRowDimension());
-			}
+	/**
+	 * One position per feature, compared with all the blocks
+	 */
+	private static class Partition implements ILocationPartition {
 
-			// We check if the matrix is not to small, and update the number of
-			// dimensions
-			nbDim = Math.min(nbDim, s.getRowDimension());
+		private List<Feature> features;
 
-			/*
-			 * Here, rand-reduce The the U and S matrix are sorted by singular
-			 * value the highest to the smallest so we just remove the last rows
-			 * and columns.
-			 */
-			Matrix sk = s.getMatrix(0, nbDim - 1, 0, nbDim - 1);
-			Matrix uk = u.getMatrix(0, u.getRowDimension() - 1, 0, nbDim - 1);
+		private List<HashMap<String, Integer>> featuresWords;
+
+		private List<Block> featureBlocks;
 
-			Matrix q = new Matrix(vecQ, vecQ.length);
+		private LSIEngine engine;
+
+		public Partition(List<Feature> features, List<HashMap<String, Integer>> featuresWords,
+				List<Block> featureBlocks, LSIEngine engine) {
+			this.features = features;
+			this.featuresWords = featuresWords;
+			this.featureBlocks = featureBlocks;
+			this.engine = engine;
+		}
+
+		@Override
+		public int size() {
+			return features.size();
+		}
+
+		@Override
+		public String getName(int featureIndex) {
+			return features.get(featureIndex).getName();
+		}
+
+		@Override
+		public List<LocatedFeature> locate(int featureIndex) {
+			List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
+			Feature f = features.get(featureIndex);
 
 			/*
 			 * Here we define the new query vector in the new space. Formula For
 			 * the query q (column vector) : qk = Sk^-1 * Uk^t * q
 			 */
-			q = (sk.inverse().times(uk.transpose()).times(q));
+			double[] q = engine.project(featuresWords.get(featureIndex));
 
-			for (int i = 0; i < m.getColumnDimension(); i++) {
+			for (int i = 0; i < featureBlocks.size(); i++) {
 				Block b = featureBlocks.get(i);
-				// Here we get the document vector
-				Matrix ve = m.getMatrix(0, m.getRowDimension() - 1, i, i);
 				/*
-				 * Here we difine the document vector in the new space Formula
-				 * For a document d (columns vector) : dk = Sk^-1 * Uk^t * d
+				 * Here we get the document vector in the new space Formula For
+				 * a document d (columns vector) : dk = Sk^-1 * Uk^t * d
 				 */
-				Matrix vector = sk.inverse().times(uk.transpose()).times(ve);
-
-				double vecDoc[] = vector.getColumnPackedCopy();
+				double vecDoc[] = engine.getBlockVector(i);
 
-				double cos = cosine(q.getColumnPackedCopy(), vecDoc);
+				double cos = cosine(q, vecDoc);
 				/*
 				 * If the cosine between the feature vector and the block vector
 				 * is > 0 it means that it's relevant to think that there are
@@ -141,9 +182,8 @@ public class FeatureLocationLSI implements IFeatureLocation {
 				if (cos > 0.0)
 					locatedFeatures.add(new LocatedFeature(f, b, cos));
 			}
-
+			return locatedFeatures;
 		}
-		return locatedFeatures;
 	}
 
 	/**
@@ -192,26 +232,8 @@ public class FeatureLocationLSI implements IFeatureLocation {
 	}
 
 	static public double[] createQuery(ArrayList<HashMap<String, Integer>> list, HashMap<String, Integer> map) {
-		ArrayList<String> words = new ArrayList<String>();
-
-		/*
-		 * We count all different words In the matrix we must have for each
-		 * words how many times it was found in the document even if it's 0
-		 */
-		int cpt = 0;
-		for (HashMap<String, Integer> t : list) {
-			for (String s : t.keySet()) {
-				if (!words.contains(s)) {
-					cpt++;
-					words.add(s);
-				}
-			}
-		}
-
-		/*
-		 * We sort the words list ( From LSI not necessary but made generally)
-		 */
-		Collections.sort(words);
+		List<String> words = getSortedWords(list);
+		int cpt = words.size();
 		if (cpt == 0)
 			return null;
 
@@ -242,26 +264,8 @@ public class FeatureLocationLSI implements IFeatureLocation {
 	 * @return A matrix
 	 */
 	public static double[][] createMatrix(ArrayList<HashMap<String, Integer>> list) {
-		ArrayList<String> words = new ArrayList<String>();
-
-		/*
-		 * We count all different words In the matrix we must have for each
-		 * words how many times it was found in the document even if it's 0
-		 */
-		int cpt = 0;
-		for (HashMap<String, Integer> t : list) {
-			for (String s : t.keySet()) {
-				if (!words.contains(s)) {
-					cpt++;
-					words.add(s);
-				}
-			}
-		}
-
-		/*
-		 * We sort the words list ( From LSI not necessary but made generally)
-		 */
-		Collections.sort(words);
+		List<String> words = getSortedWords(list);
+		int cpt = words.size();
 		if (cpt == 0)
 			return null;
 
@@ -269,16 +273,17 @@ public class FeatureLocationLSI implements IFeatureLocation {
 		 * We fill the matrix we have one HashMap per document In the HashMap we
 		 * have a words and how many times it was found
 		 */
+		HashMap<String, Integer> wordIds = new HashMap<String, Integer>();
+		for (String w : words) {
+			wordIds.put(w, wordIds.size());
+		}
+		// If a words isn't in the HashMap it means that the word did appear in
+		// the document so we see it time, the matrix is initialized to 0
 		double matrix[][] = new double[cpt][list.size()];
 		int i = 0;
 		for (HashMap<String, Integer> t : list) {
-			for (String w : words) {
-				if (t.containsKey(w))
-					matrix[words.indexOf(w)][i] = t.get(w);
-				else
-					// If a words isn't in the HashMap it means that the word
-					// did appear in the document so we see it time
-					matrix[words.indexOf(w)][i] = 0;
+			for (Map.Entry<String, Integer> entry : t.entrySet()) {
+				matrix[wordIds.get(entry.getKey())][i] = entry.getValue();
 			}
 			i++;
 		}
@@ -286,6 +291,26 @@ public class FeatureLocationLSI implements IFeatureLocation {
 		return matrix;
 	}
 
+	/**
+	 * We count all different words In the matrix we must have for each words
+	 * how many times it was found in the document even if it's 0
+	 * 
+	 * @param list
+	 *            HashMap which contains for each document, words found and how
+	 *            many times each word was found.
+	 * @return the different words sorted (From LSI not necessary but made
+	 *         generally)
+	 */
+	private static List<String> getSortedWords(ArrayList<HashMap<String, Integer>> list) {
+		HashSet<String> words = new HashSet<String>();
+		for (HashMap<String, Integer> t : list) {
+			words.addAll(t.keySet());
+		}
+		List<String> sorted = new ArrayList<String>(words);
+		Collections.sort(sorted);
+		return sorted;
+	}
+
 	/**
 	 * Calculate the cosine between two vector
 	 * 
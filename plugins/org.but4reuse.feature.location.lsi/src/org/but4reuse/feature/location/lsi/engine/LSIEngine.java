@@ -0,0 +1,159 @@
+package org.but4reuse.feature.location.lsi.engine;
+
+import java.util.Map;
+import java.util.Random;
+
+import Jama.EigenvalueDecomposition;
+import Jama.Matrix;
+import Jama.QRDecomposition;
+
+/**
+ * Latent Semantic Indexing with a truncated singular value decomposition of a
+ * term-block matrix M = U * S * V^t. The decomposition is calculated once and
+ * then it is used for all the queries.
+ * 
+ * The right singular vectors are the eigenvectors of the gram matrix M^t * M
+ * and the singular values are the square roots of its eigenvalues. When the
+ * gram matrix is small the decomposition is exact, otherwise the eigenvectors
+ * are approximated in a random subspace of the dimensions plus an oversampling
+ * refined with power iterations (randomized SVD).
+ * 
+ * In the reduced space a document d is Sk^-1 * Uk^t * d, that is the row of
+ * the block in Vk, and a query q is Sk^-1 * Uk^t * q = Sk^-2 * Vk^t * M^t * q
+ * so Uk, with one row per term, is never created.
+ * 
+ * @author jabier.martinez
+ */
+public class LSIEngine {
+
+	// number of blocks until which the decomposition is exact
+	private static final int EXACT_BLOCKS = 500;
+
+	// additional dimensions of the random subspace
+	private static final int OVERSAMPLING = 10;
+
+	private static final int POWER_ITERATIONS = 4;
+
+	// fixed seed so the location is repeatable
+	private static final long SEED = 0;
+
+	// eigenvalues smaller than this relative to the highest are ignored
+	private static final double TOLERANCE = 1e-10;
+
+	private TermBlockMatrix matrix;
+
+	// block, vector in the reduced space
+	private double[][] blockVectors;
+
+	// Sk^-2
+	private double[] inverseSquaredSingularValues;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param matrix
+	 *            the term-block matrix
+	 * @param nbDim
+	 *            number of dimensions of the reduced space. There will be less
+	 *            if the rank of the matrix is lower.
+	 */
+	public LSIEngine(TermBlockMatrix matrix, int nbDim) {
+		this.matrix = matrix;
+		int nbBlocks = matrix.getNumberOfBlocks();
+		nbDim = Math.max(0, Math.min(nbDim, Math.min(nbBlocks, matrix.getNumberOfTerms())));
+
+		// Orthonormal basis of the subspace where the eigenvectors are looked
+		// for
+		Matrix q;
+		int subspace = nbDim + OVERSAMPLING;
+		if (nbBlocks <= EXACT_BLOCKS || subspace >= nbBlocks) {
+			q = Matrix.identity(nbBlocks, nbBlocks);
+		} else {
+			Random random = new Random(SEED);
+			double[][] omega = new double[nbBlocks][subspace];
+			for (int i = 0; i < nbBlocks; i++) {
+				for (int k = 0; k < subspace; k++) {
+					omega[i][k] = random.nextGaussian();
+				}
+			}
+			q = orthonormalize(matrix.gramTimes(omega));
+			for (int i = 0; i < POWER_ITERATIONS; i++) {
+				q = orthonormalize(matrix.gramTimes(q.getArray()));
+			}
+		}
+
+		// Project the gram matrix in the subspace and decompose it
+		Matrix h = q.transpose().times(new Matrix(matrix.gramTimes(q.getArray())));
+		// symmetric so the decomposition uses the symmetric algorithm
+		h = h.plus(h.transpose()).times(0.5);
+		EigenvalueDecomposition eig = h.eig();
+		double[] eigenvalues = eig.getRealEigenvalues();
+
+		// Eigenvalues are in ascending order, keep the highest ones
+		int last = eigenvalues.length - 1;
+		int dimensions = 0;
+		while (dimensions < nbDim && eigenvalues[last - dimensions] > 0
+				&& eigenvalues[last - dimensions] > eigenvalues[last] * TOLERANCE) {
+			dimensions++;
+		}
+		inverseSquaredSingularValues = new double[dimensions];
+		int[] selected = new int[dimensions];
+		for (int k = 0; k < dimensions; k++) {
+			inverseSquaredSingularValues[k] = 1 / eigenvalues[last - k];
+			selected[k] = last - k;
+		}
+
+		// Vk, one row per block
+		if (dimensions == 0) {
+			blockVectors = new double[nbBlocks][0];
+		} else {
+			Matrix w = eig.getV().getMatrix(0, h.getRowDimension() - 1, selected);
+			blockVectors = q.times(w).getArray();
+		}
+	}
+
+	private static Matrix orthonormalize(double[][] y) {
+		return new QRDecomposition(new Matrix(y)).getQ();
+	}
+
+	/**
+	 * @return the number of dimensions of the reduced space
+	 */
+	public int getNumberOfDimensions() {
+		return inverseSquaredSingularValues.length;
+	}
+
+	/**
+	 * @param block
+	 *            the column of the block in the term-block matrix
+	 * @return the block in the reduced space. It must not be modified.
+	 */
+	public double[] getBlockVector(int block) {
+		return blockVectors[block];
+	}
+
+	/**
+	 * Define the query in the reduced space
+	 * 
+	 * @param queryWords
+	 *            the words and how many times each word was found
+	 * @return the query in the reduced space
+	 */
+	public double[] project(Map<String, Integer> queryWords) {
+		double[] mtq = matrix.transposeTimes(queryWords);
+		double[] result = new double[inverseSquaredSingularValues.length];
+		for (int i = 0; i < mtq.length; i++) {
+			if (mtq[i] != 0) {
+				double[] row = blockVectors[i];
+				for (int k = 0; k < result.length; k++) {
+					result[k] += row[k] * mtq[i];
+				}
+			}
+		}
+		for (int k = 0; k < result.length; k++) {
+			result[k] *= inverseSquaredSingularValues[k];
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,170 @@
+package org.but4reuse.feature.location.lsi.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse term-block matrix in compressed sparse row format. Each row is a term
+ * of the vocabulary and each column is a block, the values are the number of
+ * times the term was found in the block. Only the non zero values are stored
+ * so the memory depends on the number of different words of each block and not
+ * on the size of the vocabulary.
+ * 
+ * @author jabier.martinez
+ */
+public class TermBlockMatrix {
+
+	// sorted vocabulary
+	private List<String> terms;
+
+	// term, row
+	private Map<String, Integer> termIds;
+
+	private int numberOfBlocks;
+
+	// the values of row t are in positions rowPointers[t] to
+	// rowPointers[t + 1] - 1
+	private int[] rowPointers;
+
+	// block of each value, ascending inside a row
+	private int[] columns;
+
+	private double[] values;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param blocksWords
+	 *            for each block, the words found and how many times each word
+	 *            was found
+	 */
+	public TermBlockMatrix(List<? extends Map<String, Integer>> blocksWords) {
+		numberOfBlocks = blocksWords.size();
+
+		// The vocabulary is sorted (from LSI not necessary but made generally)
+		termIds = new HashMap<String, Integer>();
+		int nonZeros = 0;
+		for (Map<String, Integer> blockWords : blocksWords) {
+			for (String w : blockWords.keySet()) {
+				termIds.put(w, null);
+			}
+			nonZeros += blockWords.size();
+		}
+		terms = new ArrayList<String>(termIds.keySet());
+		Collections.sort(terms);
+		for (int t = 0; t < terms.size(); t++) {
+			termIds.put(terms.get(t), t);
+		}
+
+		// Count the values of each row
+		rowPointers = new int[terms.size() + 1];
+		for (Map<String, Integer> blockWords : blocksWords) {
+			for (String w : blockWords.keySet()) {
+				rowPointers[termIds.get(w) + 1]++;
+			}
+		}
+		for (int t = 0; t < terms.size(); t++) {
+			rowPointers[t + 1] += rowPointers[t];
+		}
+
+		// Fill the rows, blocks are visited in order so the columns of each
+		// row are ascending
+		columns = new int[nonZeros];
+		values = new double[nonZeros];
+		int[] next = new int[terms.size()];
+		System.arraycopy(rowPointers, 0, next, 0, terms.size());
+		for (int b = 0; b < numberOfBlocks; b++) {
+			for (Map.Entry<String, Integer> entry : blocksWords.get(b).entrySet()) {
+				int position = next[termIds.get(entry.getKey())]++;
+				columns[position] = b;
+				values[position] = entry.getValue();
+			}
+		}
+	}
+
+	public int getNumberOfTerms() {
+		return terms.size();
+	}
+
+	public int getNumberOfBlocks() {
+		return numberOfBlocks;
+	}
+
+	/**
+	 * @return the sorted vocabulary. It must not be modified.
+	 */
+	public List<String> getTerms() {
+		return Collections.unmodifiableList(terms);
+	}
+
+	/**
+	 * @param term
+	 * @return the row of the term or -1 if it is not in the vocabulary
+	 */
+	public int getTermId(String term) {
+		Integer id = termIds.get(term);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Multiply the transpose of the matrix by a query vector given as the
+	 * words of the query. Words outside the vocabulary are ignored as they
+	 * would be multiplied by zero.
+	 * 
+	 * @param queryWords
+	 *            the words and how many times each word was found
+	 * @return a vector with one value per block
+	 */
+	public double[] transposeTimes(Map<String, Integer> queryWords) {
+		double[] result = new double[numberOfBlocks];
+		for (Map.Entry<String, Integer> entry : queryWords.entrySet()) {
+			int t = getTermId(entry.getKey());
+			if (t != -1) {
+				double q = entry.getValue();
+				for (int i = rowPointers[t]; i < rowPointers[t + 1]; i++) {
+					result[columns[i]] += values[i] * q;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Multiply the gram matrix (the transpose of this matrix by this matrix) by
+	 * several vectors. The gram matrix is never created, each row of this
+	 * matrix is visited once.
+	 * 
+	 * @param x
+	 *            matrix with one row per block
+	 * @return a new matrix with the same dimensions than x
+	 */
+	public double[][] gramTimes(double[][] x) {
+		int nbVectors = x.length == 0 ? 0 : x[0].length;
+		double[][] result = new double[numberOfBlocks][nbVectors];
+		double[] rowTimesX = new double[nbVectors];
+		for (int t = 0; t < terms.size(); t++) {
+			// the row of the term by x
+			for (int k = 0; k < nbVectors; k++) {
+				rowTimesX[k] = 0;
+			}
+			for (int i = rowPointers[t]; i < rowPointers[t + 1]; i++) {
+				double[] xRow = x[columns[i]];
+				for (int k = 0; k < nbVectors; k++) {
+					rowTimesX[k] += values[i] * xRow[k];
+				}
+			}
+			// add the contribution of the transpose of the row
+			for (int i = rowPointers[t]; i < rowPointers[t + 1]; i++) {
+				double[] resultRow = result[columns[i]];
+				for (int k = 0; k < nbVectors; k++) {
+					resultRow[k] += values[i] * rowTimesX[k];
+				}
+			}
+		}
+		return result;
+	}
+
+}
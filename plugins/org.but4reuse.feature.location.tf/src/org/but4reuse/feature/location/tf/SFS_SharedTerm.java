@@ -1,67 +1,129 @@
 package org.but4reuse.feature.location.tf;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.Block;
-import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
-import org.but4reuse.adapters.IElement;
-import org.but4reuse.feature.location.IFeatureLocation;
+import org.but4reuse.feature.location.FeatureLocationExecutor;
+import org.but4reuse.feature.location.ILocationPartition;
+import org.but4reuse.feature.location.IParallelFeatureLocation;
 import org.but4reuse.feature.location.LocatedFeature;
 import org.but4reuse.feature.location.LocatedFeaturesUtils;
 import org.but4reuse.feature.location.impl.StrictFeatureSpecificFeatureLocation;
 import org.but4reuse.featurelist.Feature;
 import org.but4reuse.featurelist.FeatureList;
-import org.but4reuse.wordclouds.util.TermFrequencyUtils;
+import org.but4reuse.wordclouds.util.TermIndex;
+import org.but4reuse.wordclouds.util.TermVector;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 
-public class SFS_SharedTerm implements IFeatureLocation {
+public class SFS_SharedTerm implements IParallelFeatureLocation {
 
 	@Override
 	public List<LocatedFeature> locateFeatures(FeatureList featureList, AdaptedModel adaptedModel,
 			IProgressMonitor monitor) {
+		return FeatureLocationExecutor.execute(this, featureList, adaptedModel, monitor);
+	}
+
+	@Override
+	public ILocationPartition prepare(FeatureList featureList, AdaptedModel adaptedModel, IProgressMonitor monitor) {
 
-		// Get SFS results, all located feature are 1 confidence
+		// Get SFS results, all located feature are 1 confidence. The monitor
+		// is used later by the executor.
 		StrictFeatureSpecificFeatureLocation sfs = new StrictFeatureSpecificFeatureLocation();
-		List<LocatedFeature> sfsLocatedBlocks = sfs.locateFeatures(featureList, adaptedModel, monitor);
+		List<LocatedFeature> sfsLocatedBlocks = sfs.locateFeatures(featureList, adaptedModel,
+				new NullProgressMonitor());
 
-		List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
+		// Terms of the elements
+		TermIndex index = TermIndex.get(adaptedModel);
 
-		// Get all the features of a given block and all its elements
-		for (Block block : adaptedModel.getOwnedBlocks()) {
-			monitor.subTask("Feature location FCA SFS and Shared Term. Checking Elements at " + block.getName());
+		// Get all the features of a given block and the terms of each feature
+		List<List<Feature>> blocksFeatures = new ArrayList<List<Feature>>();
+		Map<Feature, TermVector> fVectorMap = new HashMap<Feature, TermVector>();
+		for (Block block : index.getBlocks()) {
 			List<Feature> blockFeatures = LocatedFeaturesUtils.getFeaturesOfBlock(sfsLocatedBlocks, block);
-			List<IElement> blockElements = AdaptedModelHelper.getElementsOfBlock(block);
-
-			// Cache of feature words
-			Map<Feature,List<String>> fWordsMap = new HashMap<Feature,List<String>>();
-			// For each element, we associate it to the feature with has at least one shared term
-			for (IElement e : blockElements) {
-				List<Feature> maxFeatures = new ArrayList<Feature>();
-				for (Feature f : blockFeatures) {
-					List<String> featureWords = fWordsMap.get(f);
-					if (featureWords == null) {
-						featureWords = TermFrequencyUtils.getFeatureWords(f);
-						fWordsMap.put(f, featureWords);
+			for (Feature f : blockFeatures) {
+				if (!fVectorMap.containsKey(f)) {
+					fVectorMap.put(f, index.getFeatureVector(f));
+				}
+			}
+			blocksFeatures.add(blockFeatures);
+		}
+
+		return new BlocksPartition(blocksFeatures, fVectorMap, index);
+	}
+
+	/**
+	 * One position per block, the elements of the block are checked with the
+	 * features of the block
+	 */
+	private static class BlocksPartition implements ILocationPartition {
+
+		private List<List<Feature>> blocksFeatures;
+
+		private Map<Feature, TermVector> fVectorMap;
+
+		private TermIndex index;
+
+		public BlocksPartition(List<List<Feature>> blocksFeatures, Map<Feature, TermVector> fVectorMap,
+				TermIndex index) {
+			this.blocksFeatures = blocksFeatures;
+			this.fVectorMap = fVectorMap;
+			this.index = index;
+		}
+
+		@Override
+		public int size() {
+			return blocksFeatures.size();
+		}
+
+		@Override
+		public String getName(int blockId) {
+			return index.getBlocks().get(blockId).getName();
+		}
+
+		@Override
+		public List<LocatedFeature> locate(int blockId) {
+			List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
+			List<Feature> blockFeatures = blocksFeatures.get(blockId);
+			int start = index.getBlockStart(blockId);
+			int end = index.getBlockEnd(blockId);
+
+			// For each feature, the elements of the block with at least one
+			// shared term. Only the postings of the terms of the feature
+			// inside the block are visited.
+			List<BitSet> featuresElements = new ArrayList<BitSet>();
+			for (Feature f : blockFeatures) {
+				BitSet featureElements = new BitSet(end - start);
+				TermVector vector = fVectorMap.get(f);
+				for (int i = 0; i < vector.size(); i++) {
+					int[] posting = index.getPostingElements(vector.getTerm(i));
+					int p = Arrays.binarySearch(posting, start);
+					if (p < 0) {
+						p = -p - 1;
 					}
-					List<String> elementWords = TermFrequencyUtils.getElementWords(e);
-					int tf = TermFrequencyUtils.calculateTermFrequency(featureWords, elementWords);
-					if (tf > 0) {
-						maxFeatures.add(f);
+					for (; p < posting.length && posting[p] < end; p++) {
+						featureElements.set(posting[p] - start);
 					}
 				}
-				// Add to the located features
-				for (Feature f : maxFeatures) {
-					locatedFeatures.add(new LocatedFeature(f, e, 1));
+				featuresElements.add(featureElements);
+			}
+
+			// Add to the located features in the order of the elements
+			for (int e = start; e < end; e++) {
+				for (int i = 0; i < blockFeatures.size(); i++) {
+					if (featuresElements.get(i).get(e - start)) {
+						locatedFeatures.add(new LocatedFeature(blockFeatures.get(i), index.getElement(e), 1));
+					}
 				}
 			}
+			return locatedFeatures;
 		}
-
-		// System.out.println(locatedFeatures.size());
-		return locatedFeatures;
 	}
 
-}
\ No newline at end of file
+}
@@ -7,50 +7,95 @@ import java.util.Map;
 
 import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.Block;
-import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
-import org.but4reuse.adapters.IElement;
-import org.but4reuse.feature.location.IFeatureLocation;
+import org.but4reuse.feature.location.FeatureLocationExecutor;
+import org.but4reuse.feature.location.ILocationPartition;
+import org.but4reuse.feature.location.IParallelFeatureLocation;
 import org.but4reuse.feature.location.LocatedFeature;
 import org.but4reuse.feature.location.LocatedFeaturesUtils;
 import org.but4reuse.feature.location.impl.StrictFeatureSpecificFeatureLocation;
 import org.but4reuse.featurelist.Feature;
 import org.but4reuse.featurelist.FeatureList;
-import org.but4reuse.wordclouds.util.TermFrequencyUtils;
+import org.but4reuse.wordclouds.util.TermIndex;
+import org.but4reuse.wordclouds.util.TermVector;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 
-public class SFS_TF implements IFeatureLocation {
+public class SFS_TF implements IParallelFeatureLocation {
 
 	@Override
 	public List<LocatedFeature> locateFeatures(FeatureList featureList, AdaptedModel adaptedModel,
 			IProgressMonitor monitor) {
+		return FeatureLocationExecutor.execute(this, featureList, adaptedModel, monitor);
+	}
+
+	@Override
+	public ILocationPartition prepare(FeatureList featureList, AdaptedModel adaptedModel, IProgressMonitor monitor) {
 
-		// Get SFS results, all located feature are 1 confidence
+		// Get SFS results, all located feature are 1 confidence. The monitor
+		// is used later by the executor.
 		StrictFeatureSpecificFeatureLocation sfs = new StrictFeatureSpecificFeatureLocation();
-		List<LocatedFeature> sfsLocatedBlocks = sfs.locateFeatures(featureList, adaptedModel, monitor);
+		List<LocatedFeature> sfsLocatedBlocks = sfs.locateFeatures(featureList, adaptedModel,
+				new NullProgressMonitor());
 
-		List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
+		// Terms of the elements
+		TermIndex index = TermIndex.get(adaptedModel);
 
-		// Get all the features of a given block and all its elements
-		for (Block block : adaptedModel.getOwnedBlocks()) {
-			monitor.subTask("Feature location FCA SFS and Term Frequency. Features competing for Elements at "
-					+ block.getName());
+		// Get all the features of a given block and the terms of each feature
+		List<List<Feature>> blocksFeatures = new ArrayList<List<Feature>>();
+		Map<Feature, TermVector> fVectorMap = new HashMap<Feature, TermVector>();
+		for (Block block : index.getBlocks()) {
 			List<Feature> blockFeatures = LocatedFeaturesUtils.getFeaturesOfBlock(sfsLocatedBlocks, block);
-			List<IElement> blockElements = AdaptedModelHelper.getElementsOfBlock(block);
+			for (Feature f : blockFeatures) {
+				if (!fVectorMap.containsKey(f)) {
+					fVectorMap.put(f, index.getFeatureVector(f));
+				}
+			}
+			blocksFeatures.add(blockFeatures);
+		}
+
+		return new BlocksPartition(blocksFeatures, fVectorMap, index);
+	}
+
+	/**
+	 * One position per block, the features of the block compete for its
+	 * elements
+	 */
+	private static class BlocksPartition implements ILocationPartition {
+
+		private List<List<Feature>> blocksFeatures;
+
+		private Map<Feature, TermVector> fVectorMap;
+
+		private TermIndex index;
+
+		public BlocksPartition(List<List<Feature>> blocksFeatures, Map<Feature, TermVector> fVectorMap,
+				TermIndex index) {
+			this.blocksFeatures = blocksFeatures;
+			this.fVectorMap = fVectorMap;
+			this.index = index;
+		}
+
+		@Override
+		public int size() {
+			return blocksFeatures.size();
+		}
+
+		@Override
+		public String getName(int blockId) {
+			return index.getBlocks().get(blockId).getName();
+		}
+
+		@Override
+		public List<LocatedFeature> locate(int blockId) {
+			List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
+			List<Feature> blockFeatures = blocksFeatures.get(blockId);
 
-			// Cache of feature words
-			Map<Feature, List<String>> fWordsMap = new HashMap<Feature, List<String>>();
 			// For each element, we associate it to the feature with higher tf
-			for (IElement e : blockElements) {
+			for (int e = index.getBlockStart(blockId); e < index.getBlockEnd(blockId); e++) {
 				int maxTFfound = 0;
 				List<Feature> maxFeatures = new ArrayList<Feature>();
 				for (Feature f : blockFeatures) {
-					List<String> featureWords = fWordsMap.get(f);
-					if (featureWords == null) {
-						featureWords = TermFrequencyUtils.getFeatureWords(f);
-						fWordsMap.put(f, featureWords);
-					}
-					List<String> elementWords = TermFrequencyUtils.getElementWords(e);
-					int tf = TermFrequencyUtils.calculateTermFrequency(featureWords, elementWords);
+					int tf = (int) fVectorMap.get(f).dot(index.getElementVector(e));
 					if (tf == maxTFfound) {
 						maxFeatures.add(f);
 					} else if (tf > maxTFfound) {
@@ -61,12 +106,11 @@ public class SFS_TF implements IFeatureLocation {
 				}
 				// Add to the located features
 				for (Feature f : maxFeatures) {
-					locatedFeatures.add(new LocatedFeature(f, e, 1));
+					locatedFeatures.add(new LocatedFeature(f, index.getElement(e), 1));
 				}
 			}
+			return locatedFeatures;
 		}
-
-		return locatedFeatures;
 	}
 
-}
\ No newline at end of file
+}
@@ -7,70 +7,123 @@ import java.util.Map;
 
 import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.Block;
-import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
-import org.but4reuse.adapters.IElement;
-import org.but4reuse.feature.location.IFeatureLocation;
+import org.but4reuse.feature.location.FeatureLocationExecutor;
+import org.but4reuse.feature.location.ILocationPartition;
+import org.but4reuse.feature.location.IParallelFeatureLocation;
 import org.but4reuse.feature.location.LocatedFeature;
 import org.but4reuse.feature.location.LocatedFeaturesUtils;
 import org.but4reuse.feature.location.impl.StrictFeatureSpecificFeatureLocation;
 import org.but4reuse.featurelist.Feature;
 import org.but4reuse.featurelist.FeatureList;
 import org.but4reuse.wordclouds.util.TermFrequencyUtils;
+import org.but4reuse.wordclouds.util.TermIndex;
+import org.but4reuse.wordclouds.util.TermVector;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.mcavallo.opencloud.Cloud;
+import org.eclipse.core.runtime.NullProgressMonitor;
 
-public class SFS_TFIDF implements IFeatureLocation {
+public class SFS_TFIDF implements IParallelFeatureLocation {
 
 	@Override
 	public List<LocatedFeature> locateFeatures(FeatureList featureList, AdaptedModel adaptedModel,
 			IProgressMonitor monitor) {
+		return FeatureLocationExecutor.execute(this, featureList, adaptedModel, monitor);
+	}
+
+	@Override
+	public ILocationPartition prepare(FeatureList featureList, AdaptedModel adaptedModel, IProgressMonitor monitor) {
 
-		// Get SFS results, all located feature are 1 confidence
+		// Get SFS results, all located feature are 1 confidence. The monitor
+		// is used later by the executor.
 		StrictFeatureSpecificFeatureLocation sfs = new StrictFeatureSpecificFeatureLocation();
-		List<LocatedFeature> sfsLocatedBlocks = sfs.locateFeatures(featureList, adaptedModel, monitor);
+		List<LocatedFeature> sfsLocatedBlocks = sfs.locateFeatures(featureList, adaptedModel,
+				new NullProgressMonitor());
 
-		List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
+		// Terms of the elements
+		TermIndex index = TermIndex.get(adaptedModel);
 
-		// Get all the features of a given block and all its elements
-		for (Block block : adaptedModel.getOwnedBlocks()) {
-			// user cancel
-			if (monitor.isCanceled()) {
-				return locatedFeatures;
-			}
-			
-			monitor.subTask("Feature location FCA SFS and tf-idf. Features competing for Elements at "
-					+ block.getName() + " /" + adaptedModel.getOwnedBlocks().size());
+		// Get all the features of a given block. The words of each feature are
+		// processed only once.
+		List<Block> blocks = index.getBlocks();
+		List<List<Feature>> blocksFeatures = new ArrayList<List<Feature>>();
+		Map<Feature, List<String>> fWordsMap = new HashMap<Feature, List<String>>();
+		for (Block block : blocks) {
 			List<Feature> blockFeatures = LocatedFeaturesUtils.getFeaturesOfBlock(sfsLocatedBlocks, block);
-			List<IElement> blockElements = AdaptedModelHelper.getElementsOfBlock(block);
+			for (Feature f : blockFeatures) {
+				if (!fWordsMap.containsKey(f)) {
+					fWordsMap.put(f, TermFrequencyUtils.getFeatureTfIdfWords(f));
+				}
+			}
+			blocksFeatures.add(blockFeatures);
+		}
+
+		return new BlocksPartition(blocksFeatures, fWordsMap, index);
+	}
+
+	/**
+	 * One position per block, the features of the block compete for its
+	 * elements
+	 */
+	private static class BlocksPartition implements ILocationPartition {
+
+		private List<List<Feature>> blocksFeatures;
+
+		private Map<Feature, List<String>> fWordsMap;
 
-			// cache for feature tfidf clouds
-			Map<Feature, Cloud> fCloudMap = new HashMap<Feature, Cloud>();
-			// For each element, we associate it to the feature with higher tf
-			for (IElement e : blockElements) {
+		private TermIndex index;
+
+		public BlocksPartition(List<List<Feature>> blocksFeatures, Map<Feature, List<String>> fWordsMap,
+				TermIndex index) {
+			this.blocksFeatures = blocksFeatures;
+			this.fWordsMap = fWordsMap;
+			this.index = index;
+		}
+
+		@Override
+		public int size() {
+			return blocksFeatures.size();
+		}
+
+		@Override
+		public String getName(int blockId) {
+			return index.getBlocks().get(blockId).getName();
+		}
+
+		@Override
+		public List<LocatedFeature> locate(int blockId) {
+			List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
+
+			// tf-idf vectors of the features of the block, the idf is
+			// calculated with the features of the block
+			List<Feature> blockFeatures = blocksFeatures.get(blockId);
+			List<List<String>> featuresWords = new ArrayList<List<String>>();
+			for (Feature f : blockFeatures) {
+				featuresWords.add(fWordsMap.get(f));
+			}
+			List<TermVector> fVectors = TermFrequencyUtils.createFeaturesTfIdfVectors(featuresWords, index);
+
+			// For each element, we associate it to the feature with higher
+			// tf-idf
+			for (int e = index.getBlockStart(blockId); e < index.getBlockEnd(blockId); e++) {
+				TermVector elementVector = index.getElementVector(e);
 				double maxTFIDFfound = 0.0;
 				List<Feature> maxFeatures = new ArrayList<Feature>();
-				for (Feature f : blockFeatures) {
-					Cloud tfidfFCloud = fCloudMap.get(f);
-					if (tfidfFCloud == null) {
-						tfidfFCloud = TermFrequencyUtils.createFeatureTfIdfCloud(f, blockFeatures);
-						fCloudMap.put(f, tfidfFCloud);
-					}
-					double tfidf = TermFrequencyUtils.calculateTfIdf(tfidfFCloud, e);
+				for (int i = 0; i < blockFeatures.size(); i++) {
+					double tfidf = fVectors.get(i).dot(elementVector);
 					if (tfidf == maxTFIDFfound) {
-						maxFeatures.add(f);
+						maxFeatures.add(blockFeatures.get(i));
 					} else if (tfidf > maxTFIDFfound) {
 						maxFeatures.clear();
-						maxFeatures.add(f);
+						maxFeatures.add(blockFeatures.get(i));
 						maxTFIDFfound = tfidf;
 					}
 				}
 				// Add to the located features
 				for (Feature f : maxFeatures) {
-					locatedFeatures.add(new LocatedFeature(f, e, 1));
+					locatedFeatures.add(new LocatedFeature(f, index.getElement(e), 1));
 				}
 			}
+			return locatedFeatures;
 		}
-		return locatedFeatures;
 	}
 
-}
\ No newline at end of file
+}
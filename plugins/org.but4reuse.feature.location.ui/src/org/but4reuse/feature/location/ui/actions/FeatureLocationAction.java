@@ -28,6 +28,7 @@ import org.but4reuse.featurelist.helpers.FeatureListHelper;
 import org.but4reuse.utils.emf.EMFUtils;
 import org.but4reuse.visualisation.helpers.VisualisationsHelper;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.jface.action.IAction;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.dialogs.ProgressMonitorDialog;
@@ -116,26 +117,8 @@ public class FeatureLocationAction implements IObjectActionDelegate {
 								for (IConstraintsDiscovery constraintsDiscovery : constraintsDiscoveryAlgorithms) {
 									List<IConstraint> discovered = constraintsDiscovery.discover(null, adaptedModel,
 											null, monitor);
-									if (constraints.isEmpty()) {
-										constraints.addAll(discovered);
-									} else {
-										// Only add the ones that are not
-										// already there
-										List<IConstraint> toBeAdded = new ArrayList<IConstraint>();
-										for (IConstraint d : discovered) {
-											boolean found = false;
-											for (IConstraint c : constraints) {
-												if (ConstraintsHelper.equalsConstraint(d, c)) {
-													found = true;
-													break;
-												}
-											}
-											if (!found) {
-												toBeAdded.add(d);
-											}
-										}
-										constraints.addAll(toBeAdded);
-									}
+									// Only add the ones that are not already there
+									ConstraintsHelper.addNewConstraints(constraints, discovered);
 								}
 								adaptedModel.setConstraints(constraints);
 								monitor.worked(1);
@@ -144,8 +127,12 @@ public class FeatureLocationAction implements IObjectActionDelegate {
 								IFeatureLocation featureLocationAlgorithm = FeatureLocationHelper
 										.getSelectedFeatureLocation();
 								startTime = System.currentTimeMillis();
+								// the feature location has its own monitor for
+								// its unit of work
+								IProgressMonitor locationMonitor = new SubProgressMonitor(monitor, 1);
 								List<LocatedFeature> locatedFeatures = featureLocationAlgorithm.locateFeatures(
-										featureList, adaptedModel, monitor);
+										featureList, adaptedModel, locationMonitor);
+								locationMonitor.done();
 								stopTime = System.currentTimeMillis();
 								elapsedTime = stopTime - startTime;
 								AdaptedModelManager.registerTime("Feature location "
@@ -175,7 +162,6 @@ public class FeatureLocationAction implements IObjectActionDelegate {
 										}
 									}
 								}
-								monitor.worked(1);
 
 								monitor.subTask("Preparing visualisations");
 								VisualisationsHelper.notifyVisualisations(featureList, adaptedModel, null, monitor);
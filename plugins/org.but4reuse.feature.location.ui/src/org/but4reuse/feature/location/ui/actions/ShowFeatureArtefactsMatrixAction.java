@@ -1,5 +1,7 @@
 package org.but4reuse.feature.location.ui.actions;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.List;
 
 import org.but4reuse.adapters.IAdapter;
@@ -8,6 +10,7 @@ import org.but4reuse.artefactmodel.ArtefactModel;
 import org.but4reuse.featurelist.Feature;
 import org.but4reuse.featurelist.FeatureList;
 import org.but4reuse.featurelist.helpers.FeatureListHelper;
+import org.but4reuse.utils.files.CSVWriter;
 import org.but4reuse.utils.ui.dialogs.ScrollableMessageDialog;
 import org.eclipse.jface.action.IAction;
 import org.eclipse.jface.viewers.ISelection;
@@ -33,28 +36,33 @@ public class ShowFeatureArtefactsMatrixAction implements IObjectActionDelegate {
 			Object featureListObject = ((IStructuredSelection) selection).getFirstElement();
 			if (featureListObject instanceof FeatureList) {
 				FeatureList fl = (FeatureList) featureListObject;
-				StringBuffer sb = new StringBuffer();
+				StringWriter sw = new StringWriter();
+				CSVWriter csv = new CSVWriter(sw);
 				ArtefactModel am = FeatureListHelper.getArtefactModel(fl);
-				sb.append(";");
-				for (Artefact a : am.getOwnedArtefacts()) {
-					sb.append(a.getName() + ";");
-				}
-				sb.setLength(sb.length() - 1);
-				sb.append("\n");
-				for (Feature f : fl.getOwnedFeatures()) {
-					sb.append(f.getId() + ";");
+				try {
+					csv.writeCell("");
 					for (Artefact a : am.getOwnedArtefacts()) {
-						if (f.getImplementedInArtefacts().contains(a)) {
-							sb.append("1;");
-						} else {
-							sb.append("0;");
+						csv.writeCell(a.getName());
+					}
+					csv.endRow();
+					for (Feature f : fl.getOwnedFeatures()) {
+						csv.writeCell(f.getId());
+						for (Artefact a : am.getOwnedArtefacts()) {
+							if (f.getImplementedInArtefacts().contains(a)) {
+								csv.writeCell("1");
+							} else {
+								csv.writeCell("0");
+							}
 						}
+						csv.endRow();
 					}
-					sb.setLength(sb.length() - 1);
-					sb.append("\n");
+					csv.close();
+				} catch (IOException e) {
+					// not expected with a string writer
+					e.printStackTrace();
 				}
 				ScrollableMessageDialog dialog = new ScrollableMessageDialog(Display.getCurrent().getActiveShell(), "",
-						"", sb.toString());
+						"", sw.toString());
 				dialog.open();
 			}
 		}
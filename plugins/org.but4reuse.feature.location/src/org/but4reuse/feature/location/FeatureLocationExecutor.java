@@ -0,0 +1,121 @@
+package org.but4reuse.feature.location;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.adaptedmodel.helpers.OrderedRangeTask;
+import org.but4reuse.featurelist.FeatureList;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+
+/**
+ * Executor of feature locations. The positions of the partition of a parallel
+ * feature location are located using all the processors and the located
+ * features are merged in the order of the positions, so the result is the same
+ * as locating the positions one after the other. The progress is informed with
+ * one unit of work and the name of each located position, and the user can
+ * cancel it, then the located features of the positions already located are
+ * returned.
+ * 
+ * @author jabier.martinez
+ */
+public class FeatureLocationExecutor {
+
+	/**
+	 * Partition without positions, when there is nothing to locate
+	 */
+	public static final ILocationPartition EMPTY_PARTITION = new ILocationPartition() {
+
+		@Override
+		public int size() {
+			return 0;
+		}
+
+		@Override
+		public String getName(int position) {
+			return null;
+		}
+
+		@Override
+		public List<LocatedFeature> locate(int position) {
+			return new ArrayList<LocatedFeature>();
+		}
+	};
+
+	/**
+	 * Prepare and execute a parallel feature location
+	 * 
+	 * @param featureLocation
+	 * @param featureList
+	 * @param adaptedModel
+	 * @param monitor
+	 *            a monitor without a begun task, for example a
+	 *            SubProgressMonitor of the caller
+	 * @return the located features
+	 */
+	public static List<LocatedFeature> execute(IParallelFeatureLocation featureLocation, FeatureList featureList,
+			AdaptedModel adaptedModel, IProgressMonitor monitor) {
+		ILocationPartition partition = featureLocation.prepare(featureList, adaptedModel, monitor);
+		return execute(featureLocation.getClass().getSimpleName(), partition, monitor);
+	}
+
+	/**
+	 * Locate all the positions of a partition
+	 * 
+	 * @param name
+	 *            the name of the feature location to inform the user
+	 * @param partition
+	 * @param monitor
+	 *            a monitor without a begun task, for example a
+	 *            SubProgressMonitor of the caller
+	 * @return the located features in the order of the positions
+	 */
+	public static List<LocatedFeature> execute(String name, ILocationPartition partition, IProgressMonitor monitor) {
+		// one unit of work for each position
+		SubMonitor positionsMonitor = SubMonitor.convert(monitor, "Feature location " + name, partition.size());
+		List<LocatedFeature> locatedFeatures = OrderedRangeTask.invoke(new PositionsTask(0, partition.size(),
+				OrderedRangeTask.share(positionsMonitor), name, partition, new AtomicInteger()));
+		positionsMonitor.done();
+		return locatedFeatures;
+	}
+
+	/**
+	 * Locate a range of positions of the partition
+	 */
+	private static class PositionsTask extends OrderedRangeTask<LocatedFeature> {
+
+		private static final long serialVersionUID = 1L;
+
+		private String name;
+
+		private ILocationPartition partition;
+
+		// number of located positions by all the tasks
+		private AtomicInteger located;
+
+		public PositionsTask(int from, int to, IProgressMonitor monitor, String name, ILocationPartition partition,
+				AtomicInteger located) {
+			super(from, to, monitor);
+			this.name = name;
+			this.partition = partition;
+			this.located = located;
+		}
+
+		@Override
+		protected List<LocatedFeature> compute(int position) {
+			List<LocatedFeature> locatedFeatures = partition.locate(position);
+			monitor.subTask("Feature location " + name + ". " + located.incrementAndGet() + "/" + partition.size()
+					+ " " + partition.getName(position));
+			monitor.worked(1);
+			return locatedFeatures;
+		}
+
+		@Override
+		protected OrderedRangeTask<LocatedFeature> createTask(int from, int to) {
+			return new PositionsTask(from, to, monitor, name, partition, located);
+		}
+	}
+
+}
@@ -0,0 +1,35 @@
+package org.but4reuse.feature.location;
+
+import java.util.List;
+
+/**
+ * The work of a feature location divided in positions, for example one
+ * position per feature or one position per block. The positions are located
+ * independently by several threads so locate must be thread safe.
+ * 
+ * @author jabier.martinez
+ */
+public interface ILocationPartition {
+
+	/**
+	 * @return the number of positions
+	 */
+	public int size();
+
+	/**
+	 * Name of a position to inform the user, for example the name of the
+	 * feature or of the block
+	 * 
+	 * @param position
+	 * @return the name
+	 */
+	public String getName(int position);
+
+	/**
+	 * Locate the features of a position
+	 * 
+	 * @param position
+	 * @return the located features
+	 */
+	public List<LocatedFeature> locate(int position);
+}
@@ -0,0 +1,29 @@
+package org.but4reuse.feature.location;
+
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.featurelist.FeatureList;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Feature location that can be executed in parallel. The location is prepared
+ * in the calling thread and then the FeatureLocationExecutor locates the
+ * positions of the partition using all the processors. The implementations
+ * usually implement locateFeatures by calling FeatureLocationExecutor.execute.
+ * 
+ * @author jabier.martinez
+ */
+public interface IParallelFeatureLocation extends IFeatureLocation {
+
+	/**
+	 * Prepare the feature location. It can use the adapted model, the
+	 * partition should only read what was prepared.
+	 * 
+	 * @param featureList
+	 * @param adaptedModel
+	 * @param monitor
+	 *            to inform and to check if the user cancels. A task must not
+	 *            be begun on it because the executor begins it later.
+	 * @return the partition of the work
+	 */
+	public ILocationPartition prepare(FeatureList featureList, AdaptedModel adaptedModel, IProgressMonitor monitor);
+}
@@ -7,7 +7,10 @@ import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.Block;
 import org.but4reuse.feature.constraints.IConstraint;
 import org.but4reuse.feature.constraints.impl.ConstraintsHelper;
-import org.but4reuse.feature.location.IFeatureLocation;
+import org.but4reuse.feature.constraints.impl.PresenceMatrix;
+import org.but4reuse.feature.location.FeatureLocationExecutor;
+import org.but4reuse.feature.location.ILocationPartition;
+import org.but4reuse.feature.location.IParallelFeatureLocation;
 import org.but4reuse.feature.location.LocatedFeature;
 import org.but4reuse.featurelist.Feature;
 import org.but4reuse.featurelist.FeatureList;
@@ -15,50 +18,71 @@ import org.eclipse.core.runtime.IProgressMonitor;
 
 /**
  * Feature-Specific feature location heuristic Only those Blocks that are ALWAYS
- * for a given Feature are interesting.
+ * for a given Feature are interesting. The features are located in parallel.
  * 
  * @author jabier.martinez
  */
-public class FeatureSpecificHeuristicFeatureLocation implements IFeatureLocation {
+public class FeatureSpecificHeuristicFeatureLocation implements IParallelFeatureLocation {
 
 	@Override
 	public List<LocatedFeature> locateFeatures(FeatureList featureList, AdaptedModel adaptedModel,
 			IProgressMonitor monitor) {
-		List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
-		String[][] matrix = ConstraintsHelper.createMatrixOfPresenceOfBlocksInFeatures(featureList, adaptedModel);
-		List<IConstraint> constraints = ConstraintsHelper.getCalculatedConstraints(adaptedModel);
-		// for each feature
-		for (int r = 1; r < matrix.length; r++) {
-			if (monitor.isCanceled()) {
-				return locatedFeatures;
+		return FeatureLocationExecutor.execute(this, featureList, adaptedModel, monitor);
+	}
+
+	@Override
+	public ILocationPartition prepare(FeatureList featureList, AdaptedModel adaptedModel, IProgressMonitor monitor) {
+		final PresenceMatrix matrix = ConstraintsHelper.getMatrixOfPresenceOfBlocksInFeatures(featureList,
+				adaptedModel);
+		final List<IConstraint> constraints = ConstraintsHelper.getCalculatedConstraints(adaptedModel);
+		// one position for each feature
+		return new ILocationPartition() {
+
+			@Override
+			public int size() {
+				return matrix.getFeatures().size();
 			}
-			Feature feature = featureList.getOwnedFeatures().get(r - 1);
-			monitor.subTask("Locating " + feature.getName());
 
-			List<Block> blocks = new ArrayList<Block>();
+			@Override
+			public String getName(int r) {
+				return matrix.getFeatures().get(r).getName();
+			}
 
-			String[] cells = matrix[r];
-			for (int ce = cells.length - 1; ce > 0; ce--) {
-				// Only those Blocks that are ALWAYS
-				if (Double.parseDouble(matrix[r][ce]) == 1) {
-					Block block = adaptedModel.getOwnedBlocks().get(ce - 1);
-					blocks.add(block);
-				}
+			@Override
+			public List<LocatedFeature> locate(int r) {
+				return locateFeature(matrix, constraints, r);
 			}
+		};
+	}
+
+	private List<LocatedFeature> locateFeature(PresenceMatrix matrix, List<IConstraint> constraints, int r) {
+		List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
+		Feature feature = matrix.getFeatures().get(r);
 
-			// This is a hook for the non conservative version
-			post(constraints, blocks);
+		List<Block> blocks = new ArrayList<Block>();
 
-			for (Block b : blocks) {
-				// add the located features
-				locatedFeatures.add(new LocatedFeature(feature, b, 1));
+		for (int ce = matrix.getBlocks().size() - 1; ce >= 0; ce--) {
+			// Only those Blocks that are ALWAYS
+			if (matrix.getValue(r, ce) == 1) {
+				Block block = matrix.getBlocks().get(ce);
+				blocks.add(block);
 			}
 		}
+
+		// This is a hook for the non conservative version
+		post(constraints, blocks);
+
+		for (Block b : blocks) {
+			// add the located features
+			locatedFeatures.add(new LocatedFeature(feature, b, 1));
+		}
 		return locatedFeatures;
 	}
 
 	/**
-	 * This method is intended to be overriden
+	 * This method is intended to be overriden. The features are located in
+	 * parallel so it must be thread safe, the list of constraints must not be
+	 * modified.
 	 * 
 	 * @param constraints
 	 * @param blocks
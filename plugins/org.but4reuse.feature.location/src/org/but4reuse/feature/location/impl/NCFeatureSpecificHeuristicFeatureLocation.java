@@ -1,7 +1,8 @@
 package org.but4reuse.feature.location.impl;
 
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.but4reuse.adaptedmodel.Block;
 import org.but4reuse.feature.constraints.IConstraint;
@@ -17,15 +18,13 @@ public class NCFeatureSpecificHeuristicFeatureLocation extends FeatureSpecificHe
 
 	@Override
 	public void post(List<IConstraint> constraints, List<Block> blocks) {
-		// Calculate reduced list
-		List<Block> toBeRemoved = new ArrayList<Block>();
-		for (Block block : blocks) {
-			for (IConstraint c : constraints) {
-				if (c.getType().equals(IConstraint.REQUIRES)) {
-					if (c.getBlock2().equals(block) && blocks.contains(c.getBlock1())) {
-						toBeRemoved.add(block);
-						break;
-					}
+		// Calculate reduced list, the required blocks of the list are removed
+		Set<Block> blocksSet = new HashSet<Block>(blocks);
+		Set<Block> toBeRemoved = new HashSet<Block>();
+		for (IConstraint c : constraints) {
+			if (c.getType().equals(IConstraint.REQUIRES)) {
+				if (blocksSet.contains(c.getBlock2()) && blocksSet.contains(c.getBlock1())) {
+					toBeRemoved.add(c.getBlock2());
 				}
 			}
 		}
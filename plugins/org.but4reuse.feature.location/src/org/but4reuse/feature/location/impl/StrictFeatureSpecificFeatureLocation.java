@@ -1,67 +1,134 @@
 package org.but4reuse.feature.location.impl;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 import org.but4reuse.adaptedmodel.AdaptedArtefact;
 import org.but4reuse.adaptedmodel.AdaptedModel;
-import org.but4reuse.adaptedmodel.Block;
-import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelIndex;
 import org.but4reuse.artefactmodel.Artefact;
-import org.but4reuse.feature.location.IFeatureLocation;
+import org.but4reuse.feature.location.FeatureLocationExecutor;
+import org.but4reuse.feature.location.ILocationPartition;
+import org.but4reuse.feature.location.IParallelFeatureLocation;
 import org.but4reuse.feature.location.LocatedFeature;
 import org.but4reuse.featurelist.Feature;
 import org.but4reuse.featurelist.FeatureList;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 /**
- * Feature Specific Feature Location
+ * Feature Specific Feature Location. The blocks of a feature are the blocks
+ * present in all the artefacts implementing the feature and absent in all the
+ * other artefacts. The blocks of each artefact are bit sets so the blocks of
+ * each feature are calculated with and / and not operations, and the features
+ * are located in parallel, one position of the partition per feature.
  * 
  * @author jabier.martinez
  */
-public class StrictFeatureSpecificFeatureLocation implements IFeatureLocation {
+public class StrictFeatureSpecificFeatureLocation implements IParallelFeatureLocation {
 
 	@Override
 	public List<LocatedFeature> locateFeatures(FeatureList featureList, AdaptedModel adaptedModel,
 			IProgressMonitor monitor) {
-		List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
-		for (Feature f : featureList.getOwnedFeatures()) {
-			// user cancel
-			if (monitor.isCanceled()) {
-				return locatedFeatures;
+		return FeatureLocationExecutor.execute(this, featureList, adaptedModel, monitor);
+	}
+
+	@Override
+	public ILocationPartition prepare(FeatureList featureList, AdaptedModel adaptedModel, IProgressMonitor monitor) {
+		AdaptedModelIndex index = AdaptedModelIndex.get(adaptedModel);
+		List<AdaptedArtefact> adaptedArtefacts = index.getAdaptedArtefacts();
+
+		// Ids of the adapted artefacts implementing each feature. Calculated
+		// before the parallel location because getting the artefacts of a
+		// feature could resolve proxies.
+		List<Feature> features = new ArrayList<Feature>(featureList.getOwnedFeatures());
+		List<BitSet> implementing = new ArrayList<BitSet>();
+		for (Feature f : features) {
+			BitSet ids = null;
+			for (Artefact a : f.getImplementedInArtefacts()) {
+				// the artefacts that are not adapted are ignored
+				AdaptedArtefact aa = index.getAdaptedArtefact(a);
+				if (aa != null) {
+					if (ids == null) {
+						ids = new BitSet();
+					}
+					ids.set(index.getAdaptedArtefactId(aa));
+				}
 			}
+			implementing.add(ids);
+		}
+
+		// The blocks of each adapted artefact
+		List<BitSet> blocksOfAdaptedArtefacts = new ArrayList<BitSet>();
+		for (AdaptedArtefact aa : adaptedArtefacts) {
+			blocksOfAdaptedArtefacts.add(index.getBlockIdsOfAdaptedArtefact(aa));
+		}
+
+		return new Partition(features, implementing, blocksOfAdaptedArtefacts, index);
+	}
+
+	/**
+	 * One position per feature
+	 */
+	private static class Partition implements ILocationPartition {
+
+		private List<Feature> features;
 
-			List<Block> featureBlocks = null;
+		private List<BitSet> implementing;
+
+		private List<BitSet> blocksOfAdaptedArtefacts;
+
+		private AdaptedModelIndex index;
+
+		public Partition(List<Feature> features, List<BitSet> implementing, List<BitSet> blocksOfAdaptedArtefacts,
+				AdaptedModelIndex index) {
+			this.features = features;
+			this.implementing = implementing;
+			this.blocksOfAdaptedArtefacts = blocksOfAdaptedArtefacts;
+			this.index = index;
+		}
+
+		@Override
+		public int size() {
+			return features.size();
+		}
+
+		@Override
+		public String getName(int featureIndex) {
+			return features.get(featureIndex).getName();
+		}
+
+		@Override
+		public List<LocatedFeature> locate(int featureIndex) {
+			List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
+			BitSet implementingIds = implementing.get(featureIndex);
+			if (implementingIds == null) {
+				return locatedFeatures;
+			}
 			// Here we calculate the common blocks of the artefacts that
 			// implements the features
-			for (Artefact a : f.getImplementedInArtefacts()) {
-				AdaptedArtefact aa = AdaptedModelHelper.getAdaptedArtefact(adaptedModel, a);
+			BitSet featureBlocks = null;
+			for (int aa = implementingIds.nextSetBit(0); aa >= 0; aa = implementingIds.nextSetBit(aa + 1)) {
 				if (featureBlocks == null) {
-					featureBlocks = new ArrayList<Block>();
-					featureBlocks = AdaptedModelHelper.getBlocksOfAdaptedArtefact(aa);
+					featureBlocks = (BitSet) blocksOfAdaptedArtefacts.get(aa).clone();
 				} else {
-					List<Block> blocksOfAA = AdaptedModelHelper.getBlocksOfAdaptedArtefact(aa);
-					featureBlocks.retainAll(blocksOfAA);
+					featureBlocks.and(blocksOfAdaptedArtefacts.get(aa));
 				}
 			}
 			// Remove the Blocks that are already present in other artefacts
 			// that do not implement the feature
-			for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
-				if (!f.getImplementedInArtefacts().contains(aa.getArtefact())) {
-					List<Block> blocksOfAA = AdaptedModelHelper.getBlocksOfAdaptedArtefact(aa);
-					if (featureBlocks != null) {
-						featureBlocks.removeAll(blocksOfAA);
-					}
+			for (int aa = 0; aa < blocksOfAdaptedArtefacts.size(); aa++) {
+				if (!implementingIds.get(aa)) {
+					featureBlocks.andNot(blocksOfAdaptedArtefacts.get(aa));
 				}
 			}
-			if (featureBlocks != null) {
-				for (Block commonBlock : featureBlocks) {
-					// Add the located features
-					locatedFeatures.add(new LocatedFeature(f, commonBlock, 1));
-				}
+			Feature f = features.get(featureIndex);
+			for (int b = featureBlocks.nextSetBit(0); b >= 0; b = featureBlocks.nextSetBit(b + 1)) {
+				// Add the located features
+				locatedFeatures.add(new LocatedFeature(f, index.getBlocks().get(b), 1));
 			}
+			return locatedFeatures;
 		}
-		return locatedFeatures;
 	}
 
 }
@@ -4,9 +4,11 @@ import java.io.File;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.Block;
@@ -15,6 +17,7 @@ import org.but4reuse.adaptedmodel.manager.AdaptedModelManager;
 import org.but4reuse.feature.constraints.IConstraint;
 import org.but4reuse.feature.constraints.impl.ConstraintsHelper;
 import org.but4reuse.featuremodel.synthesis.IFeatureModelSynthesis;
+import org.but4reuse.featuremodel.synthesis.utils.FeatureConstraintsIndex;
 import org.but4reuse.featuremodel.synthesis.utils.FeatureIDEUtils;
 import org.but4reuse.utils.files.FileUtils;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -76,7 +79,7 @@ public class AlternativesBeforeHierarchyFMSynthesis implements IFeatureModelSynt
 		fmFeatures.add(root);
 
 		// Common blocks (probably mandatory)
-		List<Block> common = AdaptedModelHelper.getCommonBlocks(adaptedModel);
+		Set<Block> common = new HashSet<Block>(AdaptedModelHelper.getCommonBlocks(adaptedModel));
 
 		// Add blocks as features
 		for (Block block : adaptedModel.getOwnedBlocks()) {
@@ -93,13 +96,14 @@ public class AlternativesBeforeHierarchyFMSynthesis implements IFeatureModelSynt
 
 		// Add constraints, maybe redundant after hierarchical fm creation but
 		// it is better to keep them if the user wants to move them
-		for (IConstraint constraint : ConstraintsHelper.getCalculatedConstraints(adaptedModel)) {
+		List<IConstraint> constraints = ConstraintsHelper.getConstraintStore(adaptedModel).getConstraints();
+		for (IConstraint constraint : constraints) {
 			FeatureIDEUtils.addConstraint(fm, FeatureIDEUtils.getConstraintString(constraint));
 		}
+		FeatureConstraintsIndex constraintsIndex = new FeatureConstraintsIndex(constraints);
 
 		// Identify alt groups
 		AltGroupList altGroupList = new AltGroupList();
-		List<IConstraint> constraints = ConstraintsHelper.getCalculatedConstraints(adaptedModel);
 		for (IConstraint constraint : constraints) {
 			if (constraint.getType().equals(IConstraint.MUTUALLY_EXCLUDES)) {
 				IFeature feature1 = fm.getFeature(FeatureIDEUtils.validFeatureName(constraint.getBlock1().getName()));
@@ -117,7 +121,7 @@ public class AlternativesBeforeHierarchyFMSynthesis implements IFeatureModelSynt
 					boolean allFound = true;
 					for (IFeature f : altF2.features) {
 						if (!f.equals(feature2)) {
-							if (!FeatureIDEUtils.existsExcludeConstraint(constraints, f, feature1)) {
+							if (!constraintsIndex.existsExcludeConstraint(f, feature1)) {
 								allFound = false;
 								break;
 							}
@@ -132,7 +136,7 @@ public class AlternativesBeforeHierarchyFMSynthesis implements IFeatureModelSynt
 					boolean allFound = true;
 					for (IFeature f : altF1.features) {
 						if (!f.equals(feature1)) {
-							if (!FeatureIDEUtils.existsExcludeConstraint(constraints, f, feature2)) {
+							if (!constraintsIndex.existsExcludeConstraint(f, feature2)) {
 								allFound = false;
 								break;
 							}
@@ -167,14 +171,14 @@ public class AlternativesBeforeHierarchyFMSynthesis implements IFeatureModelSynt
 			List<IFeature> parentCandidates;
 			if (altGroup == null) {
 				// normal feature
-				parentCandidates = FeatureIDEUtils.getFeatureRequiredFeatures(fm, constraints, f);
+				parentCandidates = constraintsIndex.getFeatureRequiredFeatures(fm, f);
 			} else {
 				// feature inside an alt group
 				// the parent candidates will be those that are shared parent
 				// candidates for all the alt group
-				parentCandidates = FeatureIDEUtils.getFeatureRequiredFeatures(fm, constraints, f);
+				parentCandidates = constraintsIndex.getFeatureRequiredFeatures(fm, f);
 				for (IFeature altf : altGroup.features) {
-					parentCandidates.retainAll(FeatureIDEUtils.getFeatureRequiredFeatures(fm, constraints, altf));
+					parentCandidates.retainAll(constraintsIndex.getFeatureRequiredFeatures(fm, altf));
 				}
 			}
 			List<IFeature> definitiveList = new ArrayList<IFeature>();
@@ -186,9 +190,9 @@ public class AlternativesBeforeHierarchyFMSynthesis implements IFeatureModelSynt
 			for (IFeature pc1 : parentCandidates) {
 				for (IFeature pc2 : parentCandidates) {
 					if (pc1 != pc2) {
-						if (FeatureIDEUtils.isAncestorFeature1ofFeature2(fm, constraints, pc1, pc2)) {
+						if (constraintsIndex.isAncestorFeature1ofFeature2(fm, pc1, pc2)) {
 							definitiveList.remove(pc1);
-						} else if (FeatureIDEUtils.isAncestorFeature1ofFeature2(fm, constraints, pc2, pc1)) {
+						} else if (constraintsIndex.isAncestorFeature1ofFeature2(fm, pc2, pc1)) {
 							definitiveList.remove(pc2);
 						}
 					}
@@ -214,7 +218,7 @@ public class AlternativesBeforeHierarchyFMSynthesis implements IFeatureModelSynt
 				if (parent == null) {
 					int maximumReasons = Integer.MIN_VALUE;
 					for (IFeature dp : definitiveList) {
-						int reasons = FeatureIDEUtils.getNumberOfReasonsOfRequiresConstraint(constraints, f, dp);
+						int reasons = constraintsIndex.getNumberOfReasonsOfRequiresConstraint(f, dp);
 						if (reasons > maximumReasons) {
 							parent = dp;
 						}
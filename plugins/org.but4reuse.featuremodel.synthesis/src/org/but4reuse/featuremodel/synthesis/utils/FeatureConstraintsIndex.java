@@ -0,0 +1,135 @@
+package org.but4reuse.featuremodel.synthesis.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.but4reuse.feature.constraints.IConstraint;
+
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.impl.FeatureModel;
+
+/**
+ * Block constraints indexed by the valid feature names of their blocks. It
+ * provides the same queries as the FeatureIDEUtils methods with a list of
+ * constraints, without scanning all the constraints for each query.
+ * 
+ * @author jabier.martinez
+ */
+public class FeatureConstraintsIndex {
+
+	// first feature name, second feature names of the requires constraints
+	private Map<String, List<String>> requiredNames = new HashMap<String, List<String>>();
+
+	// first feature name, requires constraints
+	private Map<String, List<IConstraint>> requires = new HashMap<String, List<IConstraint>>();
+
+	// both orders of the feature names of the excludes constraints
+	private Map<String, Set<String>> excludes = new HashMap<String, Set<String>>();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param constraints
+	 */
+	public FeatureConstraintsIndex(List<IConstraint> constraints) {
+		for (IConstraint constraint : constraints) {
+			if (constraint.getType().equals(IConstraint.REQUIRES)) {
+				String name1 = FeatureIDEUtils.validFeatureName(constraint.getBlock1().getName());
+				String name2 = FeatureIDEUtils.validFeatureName(constraint.getBlock2().getName());
+				getList(requiredNames, name1).add(name2);
+				getList(requires, name1).add(constraint);
+			} else if (constraint.getType().equals(IConstraint.MUTUALLY_EXCLUDES)) {
+				String name1 = FeatureIDEUtils.validFeatureName(constraint.getBlock1().getName());
+				String name2 = FeatureIDEUtils.validFeatureName(constraint.getBlock2().getName());
+				getSet(excludes, name1).add(name2);
+				getSet(excludes, name2).add(name1);
+			}
+		}
+	}
+
+	private static <T> List<T> getList(Map<String, List<T>> map, String key) {
+		List<T> list = map.get(key);
+		if (list == null) {
+			list = new ArrayList<T>();
+			map.put(key, list);
+		}
+		return list;
+	}
+
+	private static Set<String> getSet(Map<String, Set<String>> map, String key) {
+		Set<String> set = map.get(key);
+		if (set == null) {
+			set = new HashSet<String>();
+			map.put(key, set);
+		}
+		return set;
+	}
+
+	public boolean existsExcludeConstraint(IFeature f1, IFeature f2) {
+		Set<String> excluded = excludes.get(f1.getName());
+		return excluded != null && excluded.contains(f2.getName());
+	}
+
+	public boolean existsRequiresConstraint(IFeature f1, IFeature f2) {
+		List<String> required = requiredNames.get(f1.getName());
+		return required != null && required.contains(f2.getName());
+	}
+
+	/**
+	 * Get the required features in the order of the constraints
+	 * 
+	 * @param fm
+	 * @param f1
+	 * @return a new list
+	 */
+	public List<IFeature> getFeatureRequiredFeatures(FeatureModel fm, IFeature f1) {
+		List<IFeature> required = new ArrayList<IFeature>();
+		List<String> names = requiredNames.get(f1.getName());
+		if (names != null) {
+			for (String name : names) {
+				required.add(fm.getFeature(name));
+			}
+		}
+		return required;
+	}
+
+	// For example 3 requires 2 (3 is child of 2). Then 2 requires 1. isAncestor
+	// 1 of 3 is true.
+	public boolean isAncestorFeature1ofFeature2(FeatureModel fm, IFeature f1, IFeature f2) {
+		List<IFeature> directRequired = getFeatureRequiredFeatures(fm, f2);
+		if (directRequired.contains(f1)) {
+			return true;
+		}
+		for (IFeature direct : directRequired) {
+			if (isAncestorFeature1ofFeature2(fm, f1, direct)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Number of reasons of the first requires constraint between the features
+	 * 
+	 * @param f1
+	 * @param f2
+	 * @return the number of reasons or -1 if there is no requires constraint
+	 */
+	public int getNumberOfReasonsOfRequiresConstraint(IFeature f1, IFeature f2) {
+		List<IConstraint> constraints = requires.get(f1.getName());
+		if (constraints != null) {
+			List<String> names = requiredNames.get(f1.getName());
+			for (int i = 0; i < constraints.size(); i++) {
+				if (f2.getName().equals(names.get(i))) {
+					return constraints.get(i).getNumberOfReasons();
+				}
+			}
+		}
+		return -1;
+	}
+
+}
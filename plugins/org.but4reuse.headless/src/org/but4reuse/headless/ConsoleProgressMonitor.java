@@ -0,0 +1,45 @@
+package org.but4reuse.headless;
+
+import java.io.PrintStream;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * Progress monitor that prints the tasks and subtasks in the console
+ * 
+ * @author jabier.martinez
+ */
+public class ConsoleProgressMonitor extends NullProgressMonitor {
+
+	private PrintStream out;
+
+	public ConsoleProgressMonitor() {
+		this(System.out);
+	}
+
+	public ConsoleProgressMonitor(PrintStream out) {
+		this.out = out;
+	}
+
+	@Override
+	public void beginTask(String name, int totalWork) {
+		if (name != null && !name.isEmpty()) {
+			out.println(name);
+		}
+	}
+
+	@Override
+	public void setTaskName(String name) {
+		if (name != null && !name.isEmpty()) {
+			out.println(name);
+		}
+	}
+
+	@Override
+	public void subTask(String name) {
+		if (name != null && !name.isEmpty()) {
+			out.println("  " + name);
+		}
+	}
+
+}
@@ -0,0 +1,503 @@
+package org.but4reuse.headless;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.but4reuse.adaptedmodel.AdaptedArtefact;
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.ElementWrapper;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
+import org.but4reuse.adaptedmodel.manager.AdaptedModelManager;
+import org.but4reuse.adapters.IAdapter;
+import org.but4reuse.adapters.IElement;
+import org.but4reuse.adapters.helper.AdaptersHelper;
+import org.but4reuse.adapters.preferences.PreferencesHelper;
+import org.but4reuse.artefactmodel.ArtefactModel;
+import org.but4reuse.block.identification.IBlockIdentification;
+import org.but4reuse.block.identification.helper.BlockIdentificationHelper;
+import org.but4reuse.feature.constraints.IConstraint;
+import org.but4reuse.feature.constraints.IConstraintsDiscovery;
+import org.but4reuse.feature.constraints.helper.ConstraintsDiscoveryHelper;
+import org.but4reuse.feature.constraints.impl.ConstraintsHelper;
+import org.but4reuse.feature.location.IFeatureLocation;
+import org.but4reuse.feature.location.LocatedFeature;
+import org.but4reuse.feature.location.LocatedFeaturesManager;
+import org.but4reuse.feature.location.helper.FeatureLocationHelper;
+import org.but4reuse.featurelist.FeatureList;
+import org.but4reuse.featuremodel.synthesis.IFeatureModelSynthesis;
+import org.but4reuse.featuremodel.synthesis.helper.FeatureModelSynthesisHelper;
+import org.but4reuse.utils.emf.EMFUtils;
+import org.but4reuse.utils.files.FileUtils;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+/**
+ * Headless application to run the feature identification pipeline without
+ * the workbench: adaptation, block identification, constraints discovery,
+ * feature location (if a feature list is provided) and feature model
+ * synthesis. Example:
+ * 
+ * eclipse -nosplash -application org.but4reuse.headless.application
+ * -artefactModel /path/variants.artefactmodel -output /path/output -adapters
+ * eclipse -blockIdentification "Interdependent Elements"
+ * 
+ * Algorithms are selected by the name of their extension or by their class
+ * name. The ones selected in the preferences are used when the option is not
+ * provided. The value "none" skips the step. The output folder will contain
+ * the adapted model, the constraints, the located features and the times.
+ * 
+ * @author jabier.martinez
+ */
+public class HeadlessApplication implements IApplication {
+
+	public static final String ARTEFACT_MODEL = "artefactModel";
+	public static final String OUTPUT = "output";
+	public static final String ADAPTERS = "adapters";
+	public static final String BLOCK_IDENTIFICATION = "blockIdentification";
+	public static final String CONSTRAINTS_DISCOVERY = "constraintsDiscovery";
+	public static final String FEATURE_LIST = "featureList";
+	public static final String FEATURE_LOCATION = "featureLocation";
+	public static final String FEATURE_LOCATION_THRESHOLD = "featureLocationThreshold";
+	public static final String FEATURE_MODEL_SYNTHESIS = "featureModelSynthesis";
+
+	public static final String NONE = "none";
+
+	public static final Integer EXIT_ERROR = 1;
+
+	private static final String USAGE = "Usage: -" + ARTEFACT_MODEL + " <file or uri> -" + OUTPUT + " <folder>\n"
+			+ "  [-" + ADAPTERS + " <id1,id2>]\n" + "  [-" + BLOCK_IDENTIFICATION + " <name>]\n" + "  [-"
+			+ CONSTRAINTS_DISCOVERY + " <name1,name2|none>]\n" + "  [-" + FEATURE_LIST + " <file or uri>]\n" + "  [-"
+			+ FEATURE_LOCATION + " <name>]\n" + "  [-" + FEATURE_LOCATION_THRESHOLD + " <0..1>]\n" + "  [-"
+			+ FEATURE_MODEL_SYNTHESIS + " <name1,name2|none>]";
+
+	@Override
+	public Object start(IApplicationContext context) throws Exception {
+		String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		Map<String, String> options;
+		try {
+			options = parseOptions(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			return EXIT_ERROR;
+		}
+		try {
+			run(options, new ConsoleProgressMonitor());
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			return EXIT_ERROR;
+		}
+		return EXIT_OK;
+	}
+
+	@Override
+	public void stop() {
+		// nothing to do
+	}
+
+	/**
+	 * Parse the command line options
+	 * 
+	 * @param args
+	 * @return the value of each option
+	 * @throws IllegalArgumentException
+	 *             if an option is unknown, has no value or a required one is
+	 *             missing
+	 */
+	public static Map<String, String> parseOptions(String[] args) {
+		Set<String> known = new HashSet<String>();
+		known.add(ARTEFACT_MODEL);
+		known.add(OUTPUT);
+		known.add(ADAPTERS);
+		known.add(BLOCK_IDENTIFICATION);
+		known.add(CONSTRAINTS_DISCOVERY);
+		known.add(FEATURE_LIST);
+		known.add(FEATURE_LOCATION);
+		known.add(FEATURE_LOCATION_THRESHOLD);
+		known.add(FEATURE_MODEL_SYNTHESIS);
+
+		Map<String, String> options = new LinkedHashMap<String, String>();
+		if (args != null) {
+			for (int i = 0; i < args.length; i++) {
+				if (!args[i].startsWith("-") || !known.contains(args[i].substring(1))) {
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+				if (i + 1 == args.length) {
+					throw new IllegalArgumentException("Missing value for option " + args[i]);
+				}
+				options.put(args[i].substring(1), args[i + 1]);
+				i++;
+			}
+		}
+		if (!options.containsKey(ARTEFACT_MODEL) || !options.containsKey(OUTPUT)) {
+			throw new IllegalArgumentException("The options -" + ARTEFACT_MODEL + " and -" + OUTPUT
+					+ " are required");
+		}
+		return options;
+	}
+
+	/**
+	 * Run the pipeline and write the results in the output folder
+	 * 
+	 * @param options
+	 * @param monitor
+	 * @return the adapted model or null if it was cancelled
+	 * @throws IllegalArgumentException
+	 *             if the inputs or the algorithms cannot be found
+	 * @throws Exception
+	 *             if the results cannot be written
+	 */
+	public static AdaptedModel run(Map<String, String> options, IProgressMonitor monitor) throws Exception {
+		long pipelineStartTime = System.currentTimeMillis();
+
+		// Load the inputs and find the algorithms before starting
+		ArtefactModel artefactModel = (ArtefactModel) load(options.get(ARTEFACT_MODEL));
+		List<IAdapter> adapters = getAdapters(artefactModel, options.get(ADAPTERS), monitor);
+		IBlockIdentification blockIdentification = getBlockIdentification(options.get(BLOCK_IDENTIFICATION));
+		List<IConstraintsDiscovery> constraintsDiscoveryAlgorithms = getConstraintsDiscoveryAlgorithms(options
+				.get(CONSTRAINTS_DISCOVERY));
+		FeatureList featureList = null;
+		IFeatureLocation featureLocation = null;
+		if (options.containsKey(FEATURE_LIST)) {
+			featureList = (FeatureList) load(options.get(FEATURE_LIST));
+			featureLocation = getFeatureLocation(options.get(FEATURE_LOCATION));
+		}
+		double threshold = FeatureLocationHelper.getPreferenceStore().getDouble(
+				FeatureLocationHelper.LOCATION_THRESHOLD_PREFERENCE);
+		if (options.containsKey(FEATURE_LOCATION_THRESHOLD)) {
+			threshold = Double.parseDouble(options.get(FEATURE_LOCATION_THRESHOLD));
+		}
+		List<IFeatureModelSynthesis> featureModelCreators = getFeatureModelCreators(options
+				.get(FEATURE_MODEL_SYNTHESIS));
+
+		File outputFolder = new File(options.get(OUTPUT)).getAbsoluteFile();
+		outputFolder.mkdirs();
+
+		// Adapting each active artefact + calculating blocks + constraints
+		// discovery + feature location + feature model synthesis
+		int totalWork = AdaptersHelper.getActiveArtefacts(artefactModel).size() + 1 + 1 + 1 + 1;
+		monitor.beginTask("Feature identification", totalWork);
+
+		// nobody can answer the manual equal questions
+		PreferencesHelper.setDeactivateManualEqualOnlyForThisTime(true);
+
+		AdaptedModel adaptedModel = AdaptedModelHelper.adapt(artefactModel, adapters, monitor);
+		if (monitor.isCanceled()) {
+			return null;
+		}
+		AdaptedModelManager.setFeatureList(featureList);
+
+		// Blocks
+		monitor.subTask("Calculating existing blocks");
+		long startTime = System.currentTimeMillis();
+		List<Block> blocks = blockIdentification.identifyBlocks(adaptedModel.getOwnedAdaptedArtefacts(), monitor);
+		long stopTime = System.currentTimeMillis();
+		AdaptedModelManager.registerTime("Block identification " + blockIdentification.getClass().getSimpleName(),
+				stopTime - startTime);
+		blocks = AdaptedModelHelper.checkBlockNames(blocks);
+		adaptedModel.getOwnedBlocks().addAll(blocks);
+		monitor.worked(1);
+		if (monitor.isCanceled()) {
+			return null;
+		}
+
+		// Constraints
+		monitor.subTask("Constraints discovery");
+		List<IConstraint> constraints = new ArrayList<IConstraint>();
+		for (IConstraintsDiscovery constraintsDiscovery : constraintsDiscoveryAlgorithms) {
+			startTime = System.currentTimeMillis();
+			List<IConstraint> discovered = constraintsDiscovery.discover(null, adaptedModel, null, monitor);
+			stopTime = System.currentTimeMillis();
+			AdaptedModelManager.registerTime("Constraints discovery "
+					+ constraintsDiscovery.getClass().getSimpleName(), stopTime - startTime);
+			// Only add the ones that are not already there
+			ConstraintsHelper.addNewConstraints(constraints, discovered);
+		}
+		adaptedModel.setConstraints(constraints);
+		monitor.worked(1);
+		if (monitor.isCanceled()) {
+			return null;
+		}
+
+		// Feature location
+		LocatedFeaturesManager.setLocatedFeatures(new ArrayList<LocatedFeature>());
+		if (featureLocation != null) {
+			monitor.subTask("Feature location");
+			startTime = System.currentTimeMillis();
+			// the feature location has its own monitor for its unit of work
+			IProgressMonitor locationMonitor = new SubProgressMonitor(monitor, 1);
+			List<LocatedFeature> locatedFeatures = featureLocation.locateFeatures(featureList, adaptedModel,
+					locationMonitor);
+			locationMonitor.done();
+			stopTime = System.currentTimeMillis();
+			AdaptedModelManager.registerTime("Feature location " + featureLocation.getClass().getSimpleName(),
+					stopTime - startTime);
+			for (LocatedFeature locatedFeature : locatedFeatures) {
+				if (locatedFeature.getConfidence() >= threshold) {
+					LocatedFeaturesManager.addLocatedFeature(locatedFeature);
+					for (Block block : locatedFeature.getBlocks()) {
+						if (!block.getCorrespondingFeatures().contains(locatedFeature.getFeature())) {
+							block.getCorrespondingFeatures().add(locatedFeature.getFeature());
+						}
+					}
+				}
+			}
+		} else {
+			monitor.worked(1);
+		}
+		if (monitor.isCanceled()) {
+			return null;
+		}
+
+		// Feature models
+		URI featureModelsURI = new File(outputFolder, "featureModels").toURI();
+		for (IFeatureModelSynthesis featureModelCreator : featureModelCreators) {
+			monitor.subTask("Feature model synthesis "
+					+ FeatureModelSynthesisHelper.getAlgorithmName(featureModelCreator));
+			startTime = System.currentTimeMillis();
+			featureModelCreator.createFeatureModel(featureModelsURI, monitor);
+			stopTime = System.currentTimeMillis();
+			AdaptedModelManager.registerTime("Feature model synthesis "
+					+ featureModelCreator.getClass().getSimpleName(), stopTime - startTime);
+		}
+		monitor.worked(1);
+
+		AdaptedModelManager.registerTime("Headless pipeline", System.currentTimeMillis() - pipelineStartTime);
+
+		// Results
+		monitor.subTask("Saving results in " + outputFolder.getAbsolutePath());
+		saveAdaptedModel(adaptedModel, artefactModel, outputFolder);
+		FileUtils.writeFile(new File(outputFolder, "constraints.txt"),
+				ConstraintsHelper.getTextWithExplanations(constraints));
+		if (featureLocation != null) {
+			FileUtils.writeFile(new File(outputFolder, "locatedFeatures.csv"),
+					getLocatedFeaturesText(LocatedFeaturesManager.getLocatedFeatures()));
+		}
+		FileUtils.writeFile(new File(outputFolder, "times.csv"), getTimesText());
+		monitor.done();
+		return adaptedModel;
+	}
+
+	/**
+	 * Load a model from a file path or an uri
+	 * 
+	 * @param location
+	 * @return the root of the model
+	 * @throws IllegalArgumentException
+	 *             if it cannot be loaded
+	 */
+	private static Object load(String location) {
+		URI uri = toURI(location);
+		Object eObject = EMFUtils.getEObject(uri);
+		if (eObject == null) {
+			throw new IllegalArgumentException("Model not found " + uri);
+		}
+		return eObject;
+	}
+
+	/**
+	 * Get the uri of a location. Locations without a scheme are file paths.
+	 * One letter schemes are Windows drives.
+	 * 
+	 * @param location
+	 * @return the uri
+	 */
+	private static URI toURI(String location) {
+		int colon = location.indexOf(':');
+		if (colon > 1) {
+			try {
+				return new URI(location);
+			} catch (Exception e) {
+				// try it as a file
+			}
+		}
+		return new File(location).getAbsoluteFile().toURI();
+	}
+
+	private static List<IAdapter> getAdapters(ArtefactModel artefactModel, String ids, IProgressMonitor monitor) {
+		if (ids == null) {
+			List<IAdapter> adapters = AdaptersHelper.getAdaptersByIds(artefactModel.getAdapters());
+			if (adapters.isEmpty()) {
+				adapters = AdaptersHelper.getAdapters(artefactModel, monitor);
+			}
+			if (adapters.isEmpty()) {
+				throw new IllegalArgumentException("No adapter found for the artefact model. Use -" + ADAPTERS);
+			}
+			return adapters;
+		}
+		List<IAdapter> adapters = new ArrayList<IAdapter>();
+		for (String id : ids.split(",")) {
+			IAdapter adapter = AdaptersHelper.getAdapterById(id.trim());
+			if (adapter == null) {
+				List<String> available = new ArrayList<String>();
+				for (IAdapter a : AdaptersHelper.getAllAdapters()) {
+					available.add(AdaptersHelper.getAdapterId(a));
+				}
+				throw new IllegalArgumentException("Adapter not found " + id + ". Available: " + available);
+			}
+			adapters.add(adapter);
+		}
+		return adapters;
+	}
+
+	private static IBlockIdentification getBlockIdentification(String name) {
+		if (name == null) {
+			return BlockIdentificationHelper.getSelectedBlockIdentification();
+		}
+		List<String> available = new ArrayList<String>();
+		for (IBlockIdentification algo : BlockIdentificationHelper.getAllBlockIdentificationAlgorithms()) {
+			String algoName = BlockIdentificationHelper.getAlgorithmName(algo);
+			if (matches(name, algo, algoName)) {
+				return algo;
+			}
+			available.add(algoName);
+		}
+		throw new IllegalArgumentException("Block identification not found " + name + ". Available: " + available);
+	}
+
+	private static List<IConstraintsDiscovery> getConstraintsDiscoveryAlgorithms(String names) {
+		if (names == null) {
+			return ConstraintsDiscoveryHelper.getSelectedConstraintsDiscoveryAlgorithms();
+		}
+		List<IConstraintsDiscovery> selected = new ArrayList<IConstraintsDiscovery>();
+		if (names.equalsIgnoreCase(NONE)) {
+			return selected;
+		}
+		for (String name : names.split(",")) {
+			IConstraintsDiscovery found = null;
+			List<String> available = new ArrayList<String>();
+			for (IConstraintsDiscovery algo : ConstraintsDiscoveryHelper.getAllConstraintsDiscoveryAlgorithms()) {
+				String algoName = ConstraintsDiscoveryHelper.getAlgorithmName(algo);
+				if (matches(name.trim(), algo, algoName)) {
+					found = algo;
+					break;
+				}
+				available.add(algoName);
+			}
+			if (found == null) {
+				throw new IllegalArgumentException("Constraints discovery not found " + name + ". Available: "
+						+ available);
+			}
+			selected.add(found);
+		}
+		return selected;
+	}
+
+	private static IFeatureLocation getFeatureLocation(String name) {
+		if (name == null) {
+			return FeatureLocationHelper.getSelectedFeatureLocation();
+		}
+		List<String> available = new ArrayList<String>();
+		for (IFeatureLocation algo : FeatureLocationHelper.getAllFeatureLocation()) {
+			String algoName = FeatureLocationHelper.getAlgorithmName(algo);
+			if (matches(name, algo, algoName)) {
+				return algo;
+			}
+			available.add(algoName);
+		}
+		throw new IllegalArgumentException("Feature location not found " + name + ". Available: " + available);
+	}
+
+	private static List<IFeatureModelSynthesis> getFeatureModelCreators(String names) {
+		List<IFeatureModelSynthesis> selected = new ArrayList<IFeatureModelSynthesis>();
+		if (names == null || names.equalsIgnoreCase(NONE)) {
+			return selected;
+		}
+		for (String name : names.split(",")) {
+			IFeatureModelSynthesis found = null;
+			List<String> available = new ArrayList<String>();
+			for (IFeatureModelSynthesis algo : FeatureModelSynthesisHelper.getAllFeatureModelCreators()) {
+				String algoName = FeatureModelSynthesisHelper.getAlgorithmName(algo);
+				if (matches(name.trim(), algo, algoName)) {
+					found = algo;
+					break;
+				}
+				available.add(algoName);
+			}
+			if (found == null) {
+				throw new IllegalArgumentException("Feature model synthesis not found " + name + ". Available: "
+						+ available);
+			}
+			selected.add(found);
+		}
+		return selected;
+	}
+
+	/**
+	 * Algorithms do not have ids so we check the name of the extension, the
+	 * simple class name and the qualified class name
+	 * 
+	 * @param name
+	 * @param algo
+	 * @param algoName
+	 * @return true if it is the algorithm
+	 */
+	private static boolean matches(String name, Object algo, String algoName) {
+		return name.equalsIgnoreCase(algoName) || name.equalsIgnoreCase(algo.getClass().getSimpleName())
+				|| name.equals(algo.getClass().getName());
+	}
+
+	/**
+	 * Save the adapted model, and the artefact model if it was not saved,
+	 * including the texts of the elements
+	 * 
+	 * @param adaptedModel
+	 * @param artefactModel
+	 * @param outputFolder
+	 * @throws Exception
+	 */
+	private static void saveAdaptedModel(AdaptedModel adaptedModel, ArtefactModel artefactModel, File outputFolder)
+			throws Exception {
+		if (artefactModel.eResource() == null) {
+			EMFUtils.saveEObject(new File(outputFolder, "analysis.artefactmodel").toURI(), artefactModel);
+		}
+		for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
+			for (ElementWrapper ew : aa.getOwnedElementWrappers()) {
+				ew.setText(((IElement) ew.getElement()).getText());
+			}
+		}
+		EMFUtils.saveEObject(new File(outputFolder, "analysis.adaptedmodel").toURI(), adaptedModel);
+	}
+
+	private static String getLocatedFeaturesText(List<LocatedFeature> locatedFeatures) {
+		StringBuilder text = new StringBuilder();
+		text.append("Feature;Located;Confidence\n");
+		for (LocatedFeature locatedFeature : locatedFeatures) {
+			String feature = locatedFeature.getFeature().getId();
+			if (feature == null) {
+				feature = locatedFeature.getFeature().getName();
+			}
+			// located in blocks or directly in elements
+			for (Block block : locatedFeature.getBlocks()) {
+				text.append(feature + ";" + block.getName() + ";" + locatedFeature.getConfidence() + "\n");
+			}
+			for (IElement element : locatedFeature.getElements()) {
+				text.append(feature + ";" + element.getText().replace(";", ",").replace("\n", " ") + ";"
+						+ locatedFeature.getConfidence() + "\n");
+			}
+		}
+		return text.toString();
+	}
+
+	private static String getTimesText() {
+		StringBuilder text = new StringBuilder();
+		text.append("Task;Milliseconds\n");
+		synchronized (AdaptedModelManager.getElapsedTimeRegistry()) {
+			for (Entry<String, Long> entry : AdaptedModelManager.getElapsedTimeRegistry().entrySet()) {
+				text.append(entry.getKey() + ";" + entry.getValue() + "\n");
+			}
+		}
+		return text.toString();
+	}
+
+}
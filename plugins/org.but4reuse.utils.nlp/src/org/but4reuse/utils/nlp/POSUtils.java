@@ -20,19 +20,55 @@ import opennlp.tools.postag.POSTaggerME;
  */
 public class POSUtils {
 
-	public static POSTaggerME tagger = null;
+	private static POSModel model = null;
+
+	// the tagger is not thread safe, one tagger per thread sharing the model
+	private static ThreadLocal<POSTaggerME> taggers = new ThreadLocal<POSTaggerME>();
+
+	// the model is not distributed with the plugin, it is only searched once
+	private static volatile boolean modelNotFound = false;
+
+	/**
+	 * Load the model only once, expensive otherwise
+	 */
+	private static synchronized POSModel getModel() throws IOException {
+		if (model == null) {
+			InputStream modelIn = null;
+			try {
+				modelIn = new POSUtils().getClass().getClassLoader().getResourceAsStream("en-pos-maxent.bin");
+				if (modelIn == null) {
+					modelNotFound = true;
+					throw new IOException("en-pos-maxent.bin not found, the words are not tagged");
+				}
+				model = new POSModel(modelIn);
+			} finally {
+				if (modelIn != null) {
+					try {
+						modelIn.close();
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+				}
+			}
+		}
+		return model;
+	}
 
 	/**
-	 * get the tags in the same order as the words
+	 * get the tags in the same order as the words. It can be called by
+	 * several threads.
+	 * 
+	 * @return the tags or null if the model is not available
 	 */
 	public static String[] getTags(List<String> words) {
-		InputStream modelIn = null;
+		if (modelNotFound) {
+			return null;
+		}
 		try {
-			// Create it only once, expensive otherwise
+			POSTaggerME tagger = taggers.get();
 			if (tagger == null) {
-				modelIn = new POSUtils().getClass().getClassLoader().getResourceAsStream("en-pos-maxent.bin");
-				POSModel model = new POSModel(modelIn);
-				tagger = new POSTaggerME(model);
+				tagger = new POSTaggerME(getModel());
+				taggers.set(tagger);
 			}
 			String in[] = new String[words.size()];
 			for (int i = 0; i < words.size(); i++) {
@@ -43,14 +79,6 @@ public class POSUtils {
 			// Model loading failed, handle the error
 			e.printStackTrace();
 			return null;
-		} finally {
-			if (modelIn != null) {
-				try {
-					modelIn.close();
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-			}
 		}
 	}
 
@@ -70,6 +98,9 @@ public class POSUtils {
 		// WDT WH-determiner that what whatever which whichever
 		List<String> tagsToRemoveList = Arrays.asList("IN", "DT", "TO", "CC", "WDT");
 		String[] out = getTags(words);
+		if (out == null) {
+			return;
+		}
 		int cpt = 0;
 		for (int i = 0; i < out.length; i++) {
 			if (tagsToRemoveList.contains(out[i])) {
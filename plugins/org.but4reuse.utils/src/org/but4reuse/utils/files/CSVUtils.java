@@ -2,11 +2,9 @@ package org.but4reuse.utils.files;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -27,26 +25,17 @@ public class CSVUtils {
 	 *            matrix (line, columns) of objects
 	 */
 	public static void exportCSV(URI uri, List<List<Object>> texts) {
-		// Create csv file
-		StringBuilder csvText = new StringBuilder();
-		for (List<?> list : texts) {
-			for (Object text : list) {
-				String a = "";
-				if (text != null) {
-					a = text.toString();
-				}
-				csvText.append(a + ";");
-			}
-			csvText.setLength(csvText.length() - 1);
-			csvText.append("\n");
-		}
-		// Save file
+		// Save file row by row
 		File f = FileUtils.getFile(uri);
 		try {
-			FileUtils.createFile(f);
-			BufferedWriter output = new BufferedWriter(new FileWriter(f));
-			output.append(csvText.toString());
-			output.close();
+			CSVWriter output = new CSVWriter(f, false);
+			try {
+				for (List<?> list : texts) {
+					output.writeRow(list);
+				}
+			} finally {
+				output.close();
+			}
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -60,26 +49,17 @@ public class CSVUtils {
 	 *            matrix (line, columns) of objects
 	 */
 	public static void exportCSV(URI uri, Object[][] texts) {
-		// Create csv file
-		StringBuilder csvText = new StringBuilder();
-		for (Object[] list : texts) {
-			for (Object text : list) {
-				String a = "";
-				if (text != null) {
-					a = text.toString();
-				}
-				csvText.append(a + ";");
-			}
-			csvText.setLength(csvText.length() - 1);
-			csvText.append("\n");
-		}
-		// Save file
+		// Save file row by row
 		File f = FileUtils.getFile(uri);
 		try {
-			FileUtils.createFile(f);
-			BufferedWriter output = new BufferedWriter(new FileWriter(f));
-			output.append(csvText.toString());
-			output.close();
+			CSVWriter output = new CSVWriter(f, false);
+			try {
+				for (Object[] list : texts) {
+					output.writeRow(list);
+				}
+			} finally {
+				output.close();
+			}
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
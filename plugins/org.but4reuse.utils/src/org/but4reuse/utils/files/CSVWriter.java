@@ -0,0 +1,102 @@
+package org.but4reuse.utils.files;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Write a semicolon separated values file row by row so the whole content is
+ * never in memory
+ * 
+ * @author jabier.martinez
+ */
+public class CSVWriter implements Closeable {
+
+	public static final String SEPARATOR = ";";
+
+	private Writer writer;
+
+	private boolean firstCell = true;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param writer
+	 */
+	public CSVWriter(Writer writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Constructor for a file
+	 * 
+	 * @param file
+	 * @param gzip
+	 *            whether to compress the content with gzip
+	 * @throws IOException
+	 */
+	public CSVWriter(File file, boolean gzip) throws IOException {
+		this(FileUtils.getBufferedWriter(file, gzip));
+	}
+
+	/**
+	 * Write a cell in the current row
+	 * 
+	 * @param value
+	 *            null is written as an empty cell
+	 * @throws IOException
+	 */
+	public void writeCell(Object value) throws IOException {
+		if (!firstCell) {
+			writer.write(SEPARATOR);
+		}
+		if (value != null) {
+			writer.write(value.toString());
+		}
+		firstCell = false;
+	}
+
+	/**
+	 * Finish the current row
+	 * 
+	 * @throws IOException
+	 */
+	public void endRow() throws IOException {
+		writer.write("\n");
+		firstCell = true;
+	}
+
+	/**
+	 * Write a whole row
+	 * 
+	 * @param values
+	 * @throws IOException
+	 */
+	public void writeRow(List<?> values) throws IOException {
+		for (Object value : values) {
+			writeCell(value);
+		}
+		endRow();
+	}
+
+	/**
+	 * Write a whole row
+	 * 
+	 * @param values
+	 * @throws IOException
+	 */
+	public void writeRow(Object[] values) throws IOException {
+		for (Object value : values) {
+			writeCell(value);
+		}
+		endRow();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+}
@@ -10,19 +10,27 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import org.but4reuse.utils.workbench.WorkbenchUtils;
 import org.eclipse.core.resources.IResource;
@@ -40,6 +48,8 @@ import org.osgi.framework.Bundle;
  */
 public class FileUtils {
 
+	private static final int BUFFER_SIZE = 64 * 1024;
+
 	/**
 	 * Try to return a file related to a uri
 	 * 
@@ -121,6 +131,26 @@ public class FileUtils {
 		output.close();
 	}
 
+	/**
+	 * Buffered writer over a file channel. The file is created if it does not
+	 * exist and overwritten otherwise.
+	 * 
+	 * @param file
+	 * @param gzip
+	 *            whether to compress the content with gzip
+	 * @return the writer that must be closed by the caller
+	 * @throws IOException
+	 */
+	public static Writer getBufferedWriter(File file, boolean gzip) throws IOException {
+		createFile(file);
+		OutputStream out = Channels.newOutputStream(FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING));
+		if (gzip) {
+			out = new GZIPOutputStream(out, BUFFER_SIZE);
+		}
+		return new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()), BUFFER_SIZE);
+	}
+
 	/**
 	 * Creation date of a file
 	 * 
@@ -6,6 +6,7 @@ import java.net.URISyntaxException;
 import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.Block;
 import org.but4reuse.feature.constraints.impl.ConstraintsHelper;
+import org.but4reuse.feature.constraints.impl.PresenceMatrix;
 import org.but4reuse.featurelist.Feature;
 import org.but4reuse.featurelist.FeatureList;
 import org.but4reuse.utils.files.CSVUtils;
@@ -31,6 +32,7 @@ import org.eclipse.swt.widgets.TableItem;
  * @author jabier.martinez
  */
 public class BlocksOnFeaturesHeatMapVisualisation implements IVisualisation {
+	PresenceMatrix presenceMatrix;
 	String[][] matrix;
 	Boolean[][] locatedMatrix;
 	URI adaptedModelURI;
@@ -48,7 +50,8 @@ public class BlocksOnFeaturesHeatMapVisualisation implements IVisualisation {
 			adaptedModelURI = adaptedModel.getOwnedAdaptedArtefacts().get(0).getArtefact().eResource().getURI();
 
 			// calculate the matrix
-			matrix = ConstraintsHelper.createMatrixOfPresenceOfBlocksInFeatures(featureList, adaptedModel);
+			presenceMatrix = ConstraintsHelper.getMatrixOfPresenceOfBlocksInFeatures(featureList, adaptedModel);
+			matrix = presenceMatrix.toStringMatrix();
 
 			locatedMatrix = createLocatedMatrix();
 			if (location == null) {
@@ -111,7 +114,7 @@ public class BlocksOnFeaturesHeatMapVisualisation implements IVisualisation {
 						if (r != 0) {
 							for (int ce = 1; ce < cells.length; ce++) {
 								if (cells[ce] != null) {
-									double value = Double.parseDouble(cells[ce]);
+									double value = presenceMatrix.getValue(r - 1, ce - 1);
 									item.setBackground(ce, getGradientColor(value));
 									if (locatedMatrix[r][ce] != null) {
 										item.setImage(ce, location);
@@ -1,7 +1,11 @@
 package org.but4reuse.wordclouds.util;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.but4reuse.wordclouds.activator.Activator;
 import org.but4reuse.wordclouds.filters.IWordsProcessing;
@@ -15,10 +19,7 @@ public class Cloudifier {
 
 	public static Cloud cloudify(List<String> words, IProgressMonitor monitor) {
 		List<String> tags = processWords(words, monitor);
-		Cloud c = new Cloud();
-		c.setMaxTagsToDisplay(Activator.getDefault().getPreferenceStore().getInt(WordCloudPreferences.WORDCLOUD_NB_W));
-		c.setMaxWeight(50);
-		c.setMinWeight(5);
+		Cloud c = createCloud();
 		for (String s : tags) {
 			c.addTag(s);
 		}
@@ -38,10 +39,7 @@ public class Cloudifier {
 			words = cachedProcessedWords;
 		}
 
-		Cloud c = new Cloud();
-		c.setMaxTagsToDisplay(Activator.getDefault().getPreferenceStore().getInt(WordCloudPreferences.WORDCLOUD_NB_W));
-		c.setMaxWeight(50);
-		c.setMinWeight(5);
+		Cloud c = createCloud();
 
 		List<String> wordsChecked = new ArrayList<String>();
 
@@ -73,6 +71,61 @@ public class Cloudifier {
 		return c;
 	}
 
+	/**
+	 * Same as cloudifyTFIDF for each list of words but the words must be
+	 * already processed and the number of lists containing each word is
+	 * calculated only once
+	 * 
+	 * @param processedWords
+	 * @return the cloud of each list of words
+	 */
+	public static List<Cloud> cloudifyTFIDF(List<List<String>> processedWords) {
+		// Frequency of each word ignoring the case, in the order of the first
+		// occurrences
+		List<Map<String, Integer>> frequencies = new ArrayList<Map<String, Integer>>();
+		// Number of lists containing each word
+		Map<String, Integer> nbDocContainsWords = new HashMap<String, Integer>();
+		for (List<String> words : processedWords) {
+			Map<String, Integer> frequency = new LinkedHashMap<String, Integer>();
+			for (String w : words) {
+				String key = w.toLowerCase();
+				Integer previous = frequency.get(key);
+				frequency.put(key, previous == null ? 1 : previous + 1);
+			}
+			for (String key : frequency.keySet()) {
+				Integer previous = nbDocContainsWords.get(key);
+				nbDocContainsWords.put(key, previous == null ? 1 : previous + 1);
+			}
+			frequencies.add(frequency);
+		}
+
+		List<Cloud> clouds = new ArrayList<Cloud>();
+		double nbBlock = processedWords.size();
+		for (int i = 0; i < processedWords.size(); i++) {
+			Cloud c = createCloud();
+			double nbWords = processedWords.get(i).size();
+			for (Entry<String, Integer> entry : frequencies.get(i).entrySet()) {
+				// Formula TF-IDF ( https://fr.wikipedia.org/wiki/TF-IDF )
+				double nbBlock_isPresent = nbDocContainsWords.get(entry.getKey());
+				double nbTimeW = entry.getValue();
+				double idf = Math.log(nbBlock / nbBlock_isPresent);
+				double td = (nbTimeW / nbWords);
+				double score = td * idf;
+				c.addTag(new Tag(entry.getKey(), score));
+			}
+			clouds.add(c);
+		}
+		return clouds;
+	}
+
+	private static Cloud createCloud() {
+		Cloud c = new Cloud();
+		c.setMaxTagsToDisplay(Activator.getDefault().getPreferenceStore().getInt(WordCloudPreferences.WORDCLOUD_NB_W));
+		c.setMaxWeight(50);
+		c.setMinWeight(5);
+		return c;
+	}
+
 	public static List<String> processWords(List<String> words, IProgressMonitor monitor) {
 		List<IWordsProcessing> processors = WordCloudFiltersHelper.getSortedSelectedFilters();
 		return processWords(words, processors, monitor);
@@ -2,6 +2,9 @@ package org.but4reuse.wordclouds.util;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
 
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.adapters.impl.AbstractElement;
@@ -68,6 +71,15 @@ public class TermFrequencyUtils {
 		return featureCloud;
 	}
 
+	/**
+	 * The tf-idf score of an element. To score the elements of an adapted
+	 * model use the term index instead, the score of each element is the dot
+	 * product of its term vector with the vector of createFeaturesTfIdfVectors.
+	 * 
+	 * @param featureTfIdfCloud
+	 * @param targetElement
+	 * @return the score
+	 */
 	public static double calculateTfIdf(Cloud featureTfIdfCloud, IElement targetElement) {
 		double score = 0;
 		List<String> elementWords = getElementWords(targetElement);
@@ -81,6 +93,51 @@ public class TermFrequencyUtils {
 		return score;
 	}
 
+	/**
+	 * Words of a feature processed as in createFeatureTfIdfCloud
+	 * 
+	 * @param f
+	 * @return the processed words
+	 */
+	public static List<String> getFeatureTfIdfWords(Feature f) {
+		return Cloudifier.processWords(getFeatureWords(f), new NullProgressMonitor());
+	}
+
+	/**
+	 * The tf-idf vectors of several features with the terms of a term index.
+	 * The values are the scores of the tags of the tf-idf clouds, the tags that
+	 * are not terms of the index are ignored because no element contains them.
+	 * The tf-idf score of an element is the dot product of the vectors.
+	 * 
+	 * @param featuresTfIdfWords
+	 *            the words of each feature obtained with getFeatureTfIdfWords
+	 * @param index
+	 * @return the vector of each feature
+	 */
+	public static List<TermVector> createFeaturesTfIdfVectors(List<List<String>> featuresTfIdfWords,
+			TermIndex index) {
+		List<TermVector> vectors = new ArrayList<TermVector>();
+		for (Cloud cloud : Cloudifier.cloudifyTFIDF(featuresTfIdfWords)) {
+			Map<Integer, Double> scores = new TreeMap<Integer, Double>();
+			for (Tag tag : cloud.tags()) {
+				int termId = index.getTermId(tag.getName().toLowerCase());
+				if (termId != -1) {
+					scores.put(termId, tag.getScore());
+				}
+			}
+			int[] terms = new int[scores.size()];
+			double[] values = new double[scores.size()];
+			int i = 0;
+			for (Entry<Integer, Double> entry : scores.entrySet()) {
+				terms[i] = entry.getKey();
+				values[i] = entry.getValue();
+				i++;
+			}
+			vectors.add(new TermVector(terms, values));
+		}
+		return vectors;
+	}
+
 	public static List<IWordsProcessing> getBasicProcessors() {
 		List<IWordsProcessing> processors = new ArrayList<IWordsProcessing>();
 		processors.add(new IgnoreUpperCaseProcessing());
@@ -0,0 +1,265 @@
+package org.but4reuse.wordclouds.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelIndex;
+import org.but4reuse.adaptedmodel.helpers.ModelCache;
+import org.but4reuse.adaptedmodel.helpers.OrderedRangeTask;
+import org.but4reuse.adapters.IElement;
+import org.but4reuse.adapters.impl.AbstractElement;
+import org.but4reuse.featurelist.Feature;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * Inverted index of the terms of the elements of an adapted model. The
+ * elements are identified by their position, the elements of each block are
+ * consecutive and the blocks are in the order of the adapted model. For each
+ * element it keeps its words and the frequencies of its terms, that is, its
+ * words processed with the basic processors of TermFrequencyUtils. For each
+ * term it keeps the elements containing it.
+ * 
+ * The words are obtained sequentially because some elements use EMF item
+ * providers to get them and then they are processed in parallel. The index is
+ * cached in the adapted model and it is built again when the adapted model or
+ * its contents change (see ModelCache).
+ * 
+ * @author jabier.martinez
+ */
+public class TermIndex {
+
+	private AdaptedModelIndex modelIndex;
+
+	private List<IElement> elements = new ArrayList<IElement>();
+
+	// the elements of block b are from blockStarts[b] to blockStarts[b + 1] - 1
+	private int[] blockStarts;
+
+	private List<List<String>> words = new ArrayList<List<String>>();
+
+	private List<String> terms = new ArrayList<String>();
+
+	private Map<String, Integer> termIds = new HashMap<String, Integer>();
+
+	// frequencies of the terms of each element
+	private TermVector[] elementVectors;
+
+	// for each term, the elements containing it in ascending order
+	private int[][] postingElements;
+
+	private TermIndex(AdaptedModelIndex modelIndex) {
+		this.modelIndex = modelIndex;
+		List<Block> blocks = modelIndex.getBlocks();
+		blockStarts = new int[blocks.size() + 1];
+		for (int b = 0; b < blocks.size(); b++) {
+			blockStarts[b] = elements.size();
+			for (IElement e : AdaptedModelHelper.getElementsOfBlock(blocks.get(b))) {
+				elements.add(e);
+				words.add(Collections.unmodifiableList(((AbstractElement) e).getWords()));
+			}
+		}
+		blockStarts[blocks.size()] = elements.size();
+
+		// Process the words in parallel
+		List<List<String>> processed = OrderedRangeTask.invoke(new ProcessTask(0, elements.size(), words));
+
+		// Term ids and frequencies of each element
+		elementVectors = new TermVector[elements.size()];
+		List<Integer> postingSizes = new ArrayList<Integer>();
+		for (int e = 0; e < elements.size(); e++) {
+			List<String> elementTerms = processed.get(e);
+			int[] ids = new int[elementTerms.size()];
+			for (int i = 0; i < ids.length; i++) {
+				String term = elementTerms.get(i);
+				Integer id = termIds.get(term);
+				if (id == null) {
+					id = terms.size();
+					terms.add(term);
+					termIds.put(term, id);
+					postingSizes.add(0);
+				}
+				ids[i] = id;
+			}
+			elementVectors[e] = TermVector.count(ids);
+			for (int i = 0; i < elementVectors[e].size(); i++) {
+				int t = elementVectors[e].getTerm(i);
+				postingSizes.set(t, postingSizes.get(t) + 1);
+			}
+		}
+
+		// Postings of each term
+		postingElements = new int[terms.size()][];
+		for (int t = 0; t < terms.size(); t++) {
+			postingElements[t] = new int[postingSizes.get(t)];
+		}
+		int[] next = new int[terms.size()];
+		for (int e = 0; e < elements.size(); e++) {
+			TermVector vector = elementVectors[e];
+			for (int i = 0; i < vector.size(); i++) {
+				int t = vector.getTerm(i);
+				postingElements[t][next[t]] = e;
+				next[t]++;
+			}
+		}
+	}
+
+	/**
+	 * Get the term index of an adapted model, building it if it was not built
+	 * or if the blocks of the adapted model changed
+	 * 
+	 * @param adaptedModel
+	 * @return the non null index
+	 */
+	public static TermIndex get(AdaptedModel adaptedModel) {
+		ModelCache cache = ModelCache.get(adaptedModel, TermIndex.class);
+		synchronized (cache) {
+			TermIndex index = (TermIndex) cache.getValue();
+			AdaptedModelIndex modelIndex = AdaptedModelIndex.get(adaptedModel);
+			if (index == null || index.modelIndex != modelIndex) {
+				index = new TermIndex(modelIndex);
+				cache.setValue(index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * @return the blocks in the order of the adapted model
+	 */
+	public List<Block> getBlocks() {
+		return modelIndex.getBlocks();
+	}
+
+	/**
+	 * @param block
+	 * @return the position of the block or -1 if it is not in the adapted
+	 *         model
+	 */
+	public int getBlockId(Block block) {
+		return modelIndex.getBlockId(block);
+	}
+
+	/**
+	 * @param blockId
+	 * @return the id of the first element of the block
+	 */
+	public int getBlockStart(int blockId) {
+		return blockStarts[blockId];
+	}
+
+	/**
+	 * @param blockId
+	 * @return the id after the last element of the block
+	 */
+	public int getBlockEnd(int blockId) {
+		return blockStarts[blockId + 1];
+	}
+
+	public int getNumberOfElements() {
+		return elements.size();
+	}
+
+	public IElement getElement(int elementId) {
+		return elements.get(elementId);
+	}
+
+	/**
+	 * @param elementId
+	 * @return the words of the element without processing. It must not be
+	 *         modified.
+	 */
+	public List<String> getWords(int elementId) {
+		return words.get(elementId);
+	}
+
+	/**
+	 * @param elementId
+	 * @return the frequencies of the terms of the element
+	 */
+	public TermVector getElementVector(int elementId) {
+		return elementVectors[elementId];
+	}
+
+	public int getNumberOfTerms() {
+		return terms.size();
+	}
+
+	public String getTerm(int termId) {
+		return terms.get(termId);
+	}
+
+	/**
+	 * @param term
+	 *            a processed word
+	 * @return the id of the term or -1 if no element contains it
+	 */
+	public int getTermId(String term) {
+		Integer id = termIds.get(term);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param termId
+	 * @return the elements containing the term in ascending order. It must not
+	 *         be modified.
+	 */
+	public int[] getPostingElements(int termId) {
+		return postingElements[termId];
+	}
+
+	/**
+	 * Frequencies of processed words. The words that are not contained in any
+	 * element are ignored.
+	 * 
+	 * @param processedWords
+	 * @return the vector
+	 */
+	private TermVector getTermVector(List<String> processedWords) {
+		int[] ids = new int[processedWords.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = getTermId(processedWords.get(i));
+		}
+		return TermVector.count(ids);
+	}
+
+	/**
+	 * @param feature
+	 * @return the frequencies of the terms of the feature name and description
+	 */
+	public TermVector getFeatureVector(Feature feature) {
+		return getTermVector(TermFrequencyUtils.getFeatureWords(feature));
+	}
+
+	/**
+	 * Process the words of a range of elements
+	 */
+	private static class ProcessTask extends OrderedRangeTask<List<String>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private List<List<String>> words;
+
+		public ProcessTask(int from, int to, List<List<String>> words) {
+			super(from, to, new NullProgressMonitor());
+			this.words = words;
+		}
+
+		@Override
+		protected List<List<String>> compute(int position) {
+			return Collections.singletonList(Cloudifier.processWords(new ArrayList<String>(words.get(position)),
+					TermFrequencyUtils.getBasicProcessors(), new NullProgressMonitor()));
+		}
+
+		@Override
+		protected OrderedRangeTask<List<String>> createTask(int from, int to) {
+			return new ProcessTask(from, to, words);
+		}
+	}
+
+}
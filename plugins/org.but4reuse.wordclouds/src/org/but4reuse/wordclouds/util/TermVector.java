@@ -0,0 +1,114 @@
+package org.but4reuse.wordclouds.util;
+
+import java.util.Arrays;
+
+/**
+ * Sparse vector of term ids and values. The term ids are in ascending order so
+ * the dot product of two vectors is a merge of both.
+ * 
+ * @author jabier.martinez
+ */
+public class TermVector {
+
+	private int[] terms;
+
+	private double[] values;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param terms
+	 *            term ids in ascending order without repetitions
+	 * @param values
+	 *            the value of each term
+	 */
+	public TermVector(int[] terms, double[] values) {
+		this.terms = terms;
+		this.values = values;
+	}
+
+	/**
+	 * Create a vector with the number of times each term appears
+	 * 
+	 * @param termIds
+	 *            the term id of each word. Negative ids are ignored.
+	 * @return the vector of frequencies
+	 */
+	public static TermVector count(int[] termIds) {
+		int[] sorted = termIds.clone();
+		Arrays.sort(sorted);
+		int[] terms = new int[sorted.length];
+		double[] values = new double[sorted.length];
+		int size = 0;
+		for (int id : sorted) {
+			if (id < 0) {
+				continue;
+			}
+			if (size > 0 && terms[size - 1] == id) {
+				values[size - 1]++;
+			} else {
+				terms[size] = id;
+				values[size] = 1;
+				size++;
+			}
+		}
+		return new TermVector(Arrays.copyOf(terms, size), Arrays.copyOf(values, size));
+	}
+
+	/**
+	 * @return the number of terms with a value
+	 */
+	public int size() {
+		return terms.length;
+	}
+
+	/**
+	 * @param i
+	 *            position from 0 to size - 1
+	 * @return the term id at this position
+	 */
+	public int getTerm(int i) {
+		return terms[i];
+	}
+
+	/**
+	 * @param i
+	 *            position from 0 to size - 1
+	 * @return the value at this position
+	 */
+	public double getValue(int i) {
+		return values[i];
+	}
+
+	/**
+	 * @param term
+	 * @return the value of the term or 0 if it is not in the vector
+	 */
+	public double get(int term) {
+		int i = Arrays.binarySearch(terms, term);
+		return i < 0 ? 0 : values[i];
+	}
+
+	/**
+	 * @param other
+	 * @return the dot product of both vectors
+	 */
+	public double dot(TermVector other) {
+		double result = 0;
+		int i = 0;
+		int j = 0;
+		while (i < terms.length && j < other.terms.length) {
+			if (terms[i] < other.terms[j]) {
+				i++;
+			} else if (terms[i] > other.terms[j]) {
+				j++;
+			} else {
+				result += values[i] * other.values[j];
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+}
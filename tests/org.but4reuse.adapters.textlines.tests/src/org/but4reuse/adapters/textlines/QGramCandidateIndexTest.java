@@ -0,0 +1,98 @@
+package org.but4reuse.adapters.textlines;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The q-gram candidate index must be exact: filtering its candidates with the
+ * similarity gives the same lines as comparing all the pairs
+ * 
+ * @author jabier.martinez
+ */
+public class QGramCandidateIndexTest {
+
+	private static final String ALPHABET = "abcdeABCDE ;(";
+
+	@Test
+	public void sameMatchesAsAllPairs() {
+		Random random = new Random(0);
+		List<LineElement> lines = createLines(random);
+		int candidatesCount = 0;
+		for (double minimumSimilarity : new double[] { 0.5, 0.7, 0.75, 0.8, 0.9, 1 }) {
+			QGramCandidateIndex index = new QGramCandidateIndex(minimumSimilarity);
+			for (int id = 0; id < lines.size(); id++) {
+				LineElement line = lines.get(id);
+				List<Integer> candidates = index.getCandidates(line);
+				candidatesCount += candidates.size();
+				Set<Integer> expected = new HashSet<Integer>();
+				for (int other = 0; other < id; other++) {
+					if (line.similarity(lines.get(other)) >= minimumSimilarity) {
+						expected.add(other);
+					}
+				}
+				Set<Integer> actual = new HashSet<Integer>();
+				for (Integer candidate : candidates) {
+					if (line.similarity(lines.get(candidate)) >= minimumSimilarity) {
+						actual.add(candidate);
+					}
+				}
+				Assert.assertEquals("Line " + id + " \"" + line.line + "\" with minimum similarity "
+						+ minimumSimilarity, expected, actual);
+				index.add(line, id);
+			}
+		}
+		// the filter must discard pairs
+		Assert.assertTrue(candidatesCount < 6 * lines.size() * (lines.size() - 1) / 2);
+	}
+
+	/**
+	 * Random lines and copies with a few edits and case changes so that many
+	 * pairs are close to the minimum similarity
+	 */
+	private List<LineElement> createLines(Random random) {
+		List<LineElement> lines = new ArrayList<LineElement>();
+		for (int i = 0; i < 40; i++) {
+			StringBuilder line = new StringBuilder();
+			int length = random.nextInt(25);
+			for (int c = 0; c < length; c++) {
+				line.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+			}
+			lines.add(new LineElement(line.toString()));
+			for (int copy = 0; copy < 4; copy++) {
+				lines.add(new LineElement(edit(random, line.toString(), random.nextInt(5))));
+			}
+		}
+		// the lower case of this character is longer
+		lines.add(new LineElement("\u0130abc"));
+		lines.add(new LineElement("iabc"));
+		return lines;
+	}
+
+	private String edit(Random random, String line, int edits) {
+		StringBuilder edited = new StringBuilder(line);
+		for (int i = 0; i < edits; i++) {
+			int operation = random.nextInt(4);
+			char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+			if (operation == 0 || edited.length() == 0) {
+				edited.insert(random.nextInt(edited.length() + 1), c);
+			} else if (operation == 1) {
+				edited.deleteCharAt(random.nextInt(edited.length()));
+			} else if (operation == 2) {
+				edited.setCharAt(random.nextInt(edited.length()), c);
+			} else {
+				int position = random.nextInt(edited.length());
+				char current = edited.charAt(position);
+				edited.setCharAt(position, Character.isUpperCase(current) ? Character.toLowerCase(current)
+						: Character.toUpperCase(current));
+			}
+		}
+		return edited.toString();
+	}
+
+}
@@ -0,0 +1,102 @@
+package org.but4reuse.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.but4reuse.utils.files.FileUtils;
+
+/**
+ * Save benchmark scores and compare them with a baseline. Times are only
+ * comparable if the baseline was obtained in the same machine so the
+ * baseline should be recorded in the build server that checks the
+ * regressions. Allocated bytes per operation are more stable.
+ * 
+ * @author jabier.martinez
+ */
+public class BaselineComparator {
+
+	private static final String SEPARATOR = ";";
+
+	private static final String HEADER = "Benchmark" + SEPARATOR + "Score" + SEPARATOR + "Unit" + SEPARATOR
+			+ "Allocated bytes per operation";
+
+	/**
+	 * Save the scores in a csv file
+	 * 
+	 * @param file
+	 * @param scores
+	 * @throws Exception
+	 */
+	public static void save(File file, List<BenchmarkScore> scores) throws Exception {
+		StringBuilder text = new StringBuilder();
+		text.append(HEADER + "\n");
+		for (BenchmarkScore score : scores) {
+			text.append(score.getName() + SEPARATOR + String.format(Locale.US, "%.6f", score.getScore()) + SEPARATOR
+					+ score.getUnit() + SEPARATOR + String.format(Locale.US, "%.1f", score.getAllocatedBytes()) + "\n");
+		}
+		FileUtils.writeFile(file, text.toString());
+	}
+
+	/**
+	 * Load the scores from a csv file created with the save method
+	 * 
+	 * @param file
+	 * @return the scores
+	 */
+	public static List<BenchmarkScore> load(File file) {
+		List<BenchmarkScore> scores = new ArrayList<BenchmarkScore>();
+		for (String line : FileUtils.getLinesOfFile(file)) {
+			if (line.trim().isEmpty() || line.equals(HEADER)) {
+				continue;
+			}
+			String[] columns = line.split(SEPARATOR);
+			scores.add(new BenchmarkScore(columns[0], Double.parseDouble(columns[1]), columns[2], Double
+					.parseDouble(columns[3])));
+		}
+		return scores;
+	}
+
+	/**
+	 * Compare the scores with the baseline. Benchmarks that are not in the
+	 * baseline are ignored. Lower scores are considered better.
+	 * 
+	 * @param baseline
+	 * @param scores
+	 * @param tolerance
+	 *            for example 0.2 to allow scores 20% worse than the baseline
+	 * @return the description of the regressions, empty if there are no
+	 *         regressions
+	 */
+	public static List<String> compare(List<BenchmarkScore> baseline, List<BenchmarkScore> scores, double tolerance) {
+		Map<String, BenchmarkScore> baselineByName = new LinkedHashMap<String, BenchmarkScore>();
+		for (BenchmarkScore score : baseline) {
+			baselineByName.put(score.getName(), score);
+		}
+		List<String> regressions = new ArrayList<String>();
+		for (BenchmarkScore score : scores) {
+			BenchmarkScore base = baselineByName.get(score.getName());
+			if (base == null) {
+				continue;
+			}
+			if (base.getUnit().equals(score.getUnit()) && isWorse(base.getScore(), score.getScore(), tolerance)) {
+				regressions.add(score.getName() + " score " + base.getScore() + " -> " + score.getScore() + " "
+						+ score.getUnit());
+			}
+			if (base.getAllocatedBytes() >= 0 && score.getAllocatedBytes() >= 0
+					&& isWorse(base.getAllocatedBytes(), score.getAllocatedBytes(), tolerance)) {
+				regressions.add(score.getName() + " allocation " + base.getAllocatedBytes() + " -> "
+						+ score.getAllocatedBytes() + " B/op");
+			}
+		}
+		return regressions;
+	}
+
+	private static boolean isWorse(double base, double value, double tolerance) {
+		return value > base * (1 + tolerance);
+	}
+
+}
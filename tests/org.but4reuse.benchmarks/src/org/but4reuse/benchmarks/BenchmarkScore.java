@@ -0,0 +1,42 @@
+package org.but4reuse.benchmarks;
+
+/**
+ * Score of a benchmark with its parameters
+ * 
+ * @author jabier.martinez
+ */
+public class BenchmarkScore {
+
+	private String name;
+
+	private double score;
+
+	private String unit;
+
+	// allocated bytes per operation, -1 if unknown
+	private double allocatedBytes;
+
+	public BenchmarkScore(String name, double score, String unit, double allocatedBytes) {
+		this.name = name;
+		this.score = score;
+		this.unit = unit;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public String getUnit() {
+		return unit;
+	}
+
+	public double getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+}
@@ -0,0 +1,77 @@
+package org.but4reuse.benchmarks;
+
+import java.util.List;
+
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
+import org.but4reuse.benchmarks.generator.SyntheticVariants;
+import org.but4reuse.benchmarks.generator.SyntheticVariantsGenerator;
+import org.but4reuse.block.identification.IBlockIdentification;
+import org.but4reuse.block.identification.helper.BlockIdentificationHelper;
+import org.but4reuse.block.identification.impl.IntersectionsBlockIdentification;
+import org.but4reuse.feature.constraints.IConstraintsDiscovery;
+import org.but4reuse.feature.constraints.helper.ConstraintsDiscoveryHelper;
+import org.but4reuse.feature.location.IFeatureLocation;
+import org.but4reuse.feature.location.helper.FeatureLocationHelper;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * Benchmark utils. The algorithms are obtained from the extension registry
+ * using the simple name of their class because their packages are not always
+ * exported.
+ * 
+ * @author jabier.martinez
+ */
+public class BenchmarkUtils {
+
+	public static IBlockIdentification getBlockIdentification(String className) {
+		for (IBlockIdentification algo : BlockIdentificationHelper.getAllBlockIdentificationAlgorithms()) {
+			if (algo.getClass().getSimpleName().equals(className)) {
+				return algo;
+			}
+		}
+		throw new IllegalArgumentException("Block identification not found " + className);
+	}
+
+	public static IConstraintsDiscovery getConstraintsDiscovery(String className) {
+		for (IConstraintsDiscovery algo : ConstraintsDiscoveryHelper.getAllConstraintsDiscoveryAlgorithms()) {
+			if (algo.getClass().getSimpleName().equals(className)) {
+				return algo;
+			}
+		}
+		throw new IllegalArgumentException("Constraints discovery not found " + className);
+	}
+
+	public static IFeatureLocation getFeatureLocation(String className) {
+		for (IFeatureLocation algo : FeatureLocationHelper.getAllFeatureLocation()) {
+			if (algo.getClass().getSimpleName().equals(className)) {
+				return algo;
+			}
+		}
+		throw new IllegalArgumentException("Feature location not found " + className);
+	}
+
+	/**
+	 * Generate a family of variants and identify its blocks with the
+	 * intersections algorithm
+	 * 
+	 * @param variants
+	 * @param elements
+	 * @param overlap
+	 * @param dependencyDensity
+	 * @return the variants with the blocks in the adapted model
+	 */
+	public static SyntheticVariants createVariantsWithBlocks(int variants, int elements, double overlap,
+			double dependencyDensity) {
+		SyntheticVariants family = new SyntheticVariantsGenerator(variants, elements, overlap, dependencyDensity)
+				.generate();
+		AdaptedModel adaptedModel = family.getAdaptedModel();
+		List<Block> blocks = new IntersectionsBlockIdentification().identifyBlocks(
+				adaptedModel.getOwnedAdaptedArtefacts(), new NullProgressMonitor());
+		blocks = AdaptedModelHelper.checkBlockNames(blocks);
+		adaptedModel.getOwnedBlocks().addAll(blocks);
+		return family;
+	}
+
+}
@@ -0,0 +1,138 @@
+package org.but4reuse.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Application to run the JMH benchmarks inside the platform, as the
+ * algorithms need the extension registry and the preferences. Example:
+ * 
+ * eclipse -nosplash -application org.but4reuse.benchmarks.application
+ * -include FeatureLocation -output results.csv -baseline
+ * baseline/benchmarks-baseline.csv
+ * 
+ * The JMH jars (jmh-core, jopt-simple and commons-math3) are in the libs
+ * folder and jmh-generator-annprocess is in the annotation processing factory
+ * path so the benchmark classes are generated. The benchmarks are run without
+ * forks and with the GC profiler to get the allocated bytes per operation. The
+ * exit code is 1 if there are regressions with respect to the baseline.
+ * 
+ * The baseline folder has results obtained with -warmupIterations 2
+ * -measurementIterations 3, the benchmarks that are not in it are not checked.
+ * The allocated bytes can be compared in any machine but the times only in a
+ * similar one, use -saveBaseline to update the baseline in the machine that
+ * checks the regressions.
+ * 
+ * @author jabier.martinez
+ */
+public class BenchmarksApplication implements IApplication {
+
+	public static final Integer EXIT_REGRESSION = 1;
+
+	@Override
+	public Object start(IApplicationContext context) throws Exception {
+		String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		String include = ".*Benchmark.*";
+		File output = new File("benchmarks.csv");
+		File baseline = null;
+		boolean saveBaseline = false;
+		double tolerance = 0.2;
+		int warmupIterations = 3;
+		int measurementIterations = 5;
+		for (int i = 0; args != null && i < args.length; i++) {
+			if (args[i].equals("-saveBaseline")) {
+				saveBaseline = true;
+			} else if (i + 1 < args.length) {
+				if (args[i].equals("-include")) {
+					include = args[++i];
+				} else if (args[i].equals("-output")) {
+					output = new File(args[++i]);
+				} else if (args[i].equals("-baseline")) {
+					baseline = new File(args[++i]);
+				} else if (args[i].equals("-tolerance")) {
+					tolerance = Double.parseDouble(args[++i]);
+				} else if (args[i].equals("-warmupIterations")) {
+					warmupIterations = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-measurementIterations")) {
+					measurementIterations = Integer.parseInt(args[++i]);
+				}
+			}
+		}
+
+		Options options = new OptionsBuilder().include(include).forks(0).warmupIterations(warmupIterations)
+				.measurementIterations(measurementIterations).addProfiler(GCProfiler.class).build();
+		Collection<RunResult> results = new Runner(options).run();
+		List<BenchmarkScore> scores = getScores(results);
+		BaselineComparator.save(output, scores);
+		System.out.println("Results saved in " + output.getAbsolutePath());
+
+		if (baseline != null) {
+			if (saveBaseline || !baseline.exists()) {
+				BaselineComparator.save(baseline, scores);
+				System.out.println("Baseline saved in " + baseline.getAbsolutePath());
+			} else {
+				List<String> regressions = BaselineComparator.compare(BaselineComparator.load(baseline), scores,
+						tolerance);
+				for (String regression : regressions) {
+					System.err.println("Regression: " + regression);
+				}
+				if (!regressions.isEmpty()) {
+					return EXIT_REGRESSION;
+				}
+			}
+		}
+		return EXIT_OK;
+	}
+
+	@Override
+	public void stop() {
+		// nothing to do
+	}
+
+	/**
+	 * Get the scores of the JMH results
+	 * 
+	 * @param results
+	 * @return the scores
+	 */
+	public static List<BenchmarkScore> getScores(Collection<RunResult> results) {
+		List<BenchmarkScore> scores = new ArrayList<BenchmarkScore>();
+		for (RunResult result : results) {
+			StringBuilder name = new StringBuilder(result.getParams().getBenchmark());
+			List<String> params = new ArrayList<String>();
+			for (String key : result.getParams().getParamsKeys()) {
+				params.add(key + "=" + result.getParams().getParam(key));
+			}
+			if (!params.isEmpty()) {
+				name.append(params.toString().replace('[', '(').replace(']', ')'));
+			}
+			double allocatedBytes = -1;
+			// JMH declares the secondary results with the raw Result type
+			Map<String, ?> secondaryResults = result.getSecondaryResults();
+			for (Entry<String, ?> secondary : secondaryResults.entrySet()) {
+				// the GC profiler label starts with a middle dot in some JMH
+				// versions
+				if (secondary.getKey().endsWith("gc.alloc.rate.norm")) {
+					allocatedBytes = ((Result<?>) secondary.getValue()).getScore();
+				}
+			}
+			Result<?> primary = result.getPrimaryResult();
+			scores.add(new BenchmarkScore(name.toString(), primary.getScore(), primary.getScoreUnit(), allocatedBytes));
+		}
+		return scores;
+	}
+
+}
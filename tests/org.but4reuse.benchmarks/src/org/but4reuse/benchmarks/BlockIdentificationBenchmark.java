@@ -0,0 +1,68 @@
+package org.but4reuse.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.benchmarks.generator.SyntheticVariants;
+import org.but4reuse.benchmarks.generator.SyntheticVariantsGenerator;
+import org.but4reuse.block.identification.IBlockIdentification;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Block identification benchmark. The variants are generated again before
+ * each invocation because the identification changes the element wrappers.
+ * 
+ * @author jabier.martinez
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class BlockIdentificationBenchmark {
+
+	@Param({ "IntersectionsBlockIdentification", "SimilarElementsBlockIdentification", "FCABlockIdentification",
+			"AOCPosetBlockIdentification" })
+	public String algorithm;
+
+	@Param({ "10", "40" })
+	public int variants;
+
+	@Param({ "500" })
+	public int elements;
+
+	@Param({ "0.5" })
+	public double overlap;
+
+	@Param({ "0.1" })
+	public double dependencyDensity;
+
+	private IBlockIdentification blockIdentification;
+
+	private SyntheticVariants family;
+
+	@Setup(Level.Trial)
+	public void setupAlgorithm() {
+		blockIdentification = BenchmarkUtils.getBlockIdentification(algorithm);
+	}
+
+	@Setup(Level.Invocation)
+	public void setupVariants() {
+		family = new SyntheticVariantsGenerator(variants, elements, overlap, dependencyDensity).generate();
+	}
+
+	@Benchmark
+	public List<Block> identifyBlocks() {
+		return blockIdentification.identifyBlocks(family.getAdaptedModel().getOwnedAdaptedArtefacts(),
+				new NullProgressMonitor());
+	}
+
+}
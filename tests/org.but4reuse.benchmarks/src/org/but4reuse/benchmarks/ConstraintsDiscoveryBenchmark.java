@@ -0,0 +1,68 @@
+package org.but4reuse.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.but4reuse.adaptedmodel.helpers.ModelCache;
+import org.but4reuse.benchmarks.generator.SyntheticVariants;
+import org.but4reuse.feature.constraints.IConstraint;
+import org.but4reuse.feature.constraints.IConstraintsDiscovery;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Constraints discovery benchmark on the blocks of the synthetic variants.
+ * The values cached in the adapted model, like the block index, are discarded
+ * before each invocation so they are calculated again.
+ * 
+ * @author jabier.martinez
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class ConstraintsDiscoveryBenchmark {
+
+	@Param({ "BinaryRelationConstraintsDiscovery", "APrioriConstraintsDiscovery" })
+	public String algorithm;
+
+	@Param({ "10", "40" })
+	public int variants;
+
+	@Param({ "500" })
+	public int elements;
+
+	@Param({ "0.5" })
+	public double overlap;
+
+	@Param({ "0.01", "0.1" })
+	public double dependencyDensity;
+
+	private IConstraintsDiscovery constraintsDiscovery;
+
+	private SyntheticVariants family;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		constraintsDiscovery = BenchmarkUtils.getConstraintsDiscovery(algorithm);
+		family = BenchmarkUtils.createVariantsWithBlocks(variants, elements, overlap, dependencyDensity);
+	}
+
+	@Setup(Level.Invocation)
+	public void discardCaches() {
+		ModelCache.discard(family.getAdaptedModel());
+	}
+
+	@Benchmark
+	public List<IConstraint> discover() {
+		return constraintsDiscovery.discover(null, family.getAdaptedModel(), null, new NullProgressMonitor());
+	}
+
+}
@@ -0,0 +1,69 @@
+package org.but4reuse.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.but4reuse.adaptedmodel.helpers.ModelCache;
+import org.but4reuse.benchmarks.generator.SyntheticVariants;
+import org.but4reuse.feature.location.IFeatureLocation;
+import org.but4reuse.feature.location.LocatedFeature;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Feature location benchmark on the blocks of the synthetic variants. The
+ * values cached in the adapted model, like the block index or the term index,
+ * are discarded before each invocation so they are calculated again.
+ * 
+ * @author jabier.martinez
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class FeatureLocationBenchmark {
+
+	@Param({ "StrictFeatureSpecificFeatureLocation", "SFS_TFIDF", "FeatureLocationLSI" })
+	public String algorithm;
+
+	@Param({ "10", "40" })
+	public int variants;
+
+	@Param({ "500" })
+	public int elements;
+
+	@Param({ "0.5" })
+	public double overlap;
+
+	@Param({ "0.1" })
+	public double dependencyDensity;
+
+	private IFeatureLocation featureLocation;
+
+	private SyntheticVariants family;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		featureLocation = BenchmarkUtils.getFeatureLocation(algorithm);
+		family = BenchmarkUtils.createVariantsWithBlocks(variants, elements, overlap, dependencyDensity);
+	}
+
+	@Setup(Level.Invocation)
+	public void discardCaches() {
+		ModelCache.discard(family.getAdaptedModel());
+	}
+
+	@Benchmark
+	public List<LocatedFeature> locateFeatures() {
+		return featureLocation.locateFeatures(family.getFeatureList(), family.getAdaptedModel(),
+				new NullProgressMonitor());
+	}
+
+}
@@ -0,0 +1,54 @@
+package org.but4reuse.benchmarks.generator;
+
+import org.but4reuse.adapters.IElement;
+import org.but4reuse.adapters.impl.AbstractElement;
+
+/**
+ * Element of a synthetic variant. Two elements are equal if they have the
+ * same id. The text is used by the text based feature location techniques.
+ * 
+ * @author jabier.martinez
+ */
+public class SyntheticElement extends AbstractElement {
+
+	private static final long serialVersionUID = 1L;
+
+	private int id;
+
+	private String text;
+
+	public SyntheticElement(int id, String text) {
+		this.id = id;
+		this.text = text;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	@Override
+	public double similarity(IElement anotherElement) {
+		if (anotherElement instanceof SyntheticElement) {
+			if (id == ((SyntheticElement) anotherElement).id) {
+				return 1;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return id;
+	}
+
+	@Override
+	public Object getIdentityKey() {
+		return id;
+	}
+
+	@Override
+	public String getText() {
+		return text;
+	}
+
+}
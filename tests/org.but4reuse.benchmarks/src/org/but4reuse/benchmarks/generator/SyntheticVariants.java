@@ -0,0 +1,38 @@
+package org.but4reuse.benchmarks.generator;
+
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.artefactmodel.ArtefactModel;
+import org.but4reuse.featurelist.FeatureList;
+
+/**
+ * A synthetic family of variants with its feature list
+ * 
+ * @author jabier.martinez
+ */
+public class SyntheticVariants {
+
+	private ArtefactModel artefactModel;
+
+	private AdaptedModel adaptedModel;
+
+	private FeatureList featureList;
+
+	public SyntheticVariants(ArtefactModel artefactModel, AdaptedModel adaptedModel, FeatureList featureList) {
+		this.artefactModel = artefactModel;
+		this.adaptedModel = adaptedModel;
+		this.featureList = featureList;
+	}
+
+	public ArtefactModel getArtefactModel() {
+		return artefactModel;
+	}
+
+	public AdaptedModel getAdaptedModel() {
+		return adaptedModel;
+	}
+
+	public FeatureList getFeatureList() {
+		return featureList;
+	}
+
+}
@@ -0,0 +1,215 @@
+package org.but4reuse.benchmarks.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.but4reuse.adaptedmodel.AdaptedArtefact;
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.adaptedmodel.AdaptedModelFactory;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
+import org.but4reuse.adapters.IElement;
+import org.but4reuse.artefactmodel.Artefact;
+import org.but4reuse.artefactmodel.ArtefactModel;
+import org.but4reuse.artefactmodel.ArtefactModelFactory;
+import org.but4reuse.featurelist.Feature;
+import org.but4reuse.featurelist.FeatureList;
+import org.but4reuse.featurelist.FeatureListFactory;
+
+/**
+ * Generator of synthetic families of variants. The first feature is the core
+ * and it is present in all the variants. Each optional feature is present in
+ * a variant with a probability of 0.5. A variant contains all the elements of
+ * its features so the feature list is the ground truth.
+ * 
+ * The overlap ratio is the proportion of the elements of a variant that
+ * belong to the core. The rest of the elements are distributed among the
+ * optional features so each variant has around the number of elements
+ * requested. The dependency density is the probability, for each element, of
+ * each of its potential dependencies to another random element. Dependencies
+ * to elements that are not in the variant are ignored. The text of each
+ * element uses words from the vocabulary of its feature, which is also the
+ * description of the feature, and a shared vocabulary.
+ * 
+ * The generation is deterministic for a given seed.
+ * 
+ * @author jabier.martinez
+ */
+public class SyntheticVariantsGenerator {
+
+	public static final int MAX_DEPENDENCIES_PER_ELEMENT = 3;
+
+	public static final int VOCABULARY_PER_FEATURE = 10;
+
+	public static final int SHARED_VOCABULARY = 50;
+
+	public static final int WORDS_PER_ELEMENT = 4;
+
+	private int numberOfVariants;
+
+	private int numberOfElements;
+
+	private double overlapRatio;
+
+	private double dependencyDensity;
+
+	private int numberOfFeatures = 20;
+
+	private long seed = 1;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param numberOfVariants
+	 * @param numberOfElements
+	 *            approximate number of elements of each variant
+	 * @param overlapRatio
+	 *            between 0 and 1
+	 * @param dependencyDensity
+	 *            between 0 and 1
+	 */
+	public SyntheticVariantsGenerator(int numberOfVariants, int numberOfElements, double overlapRatio,
+			double dependencyDensity) {
+		this.numberOfVariants = numberOfVariants;
+		this.numberOfElements = numberOfElements;
+		this.overlapRatio = overlapRatio;
+		this.dependencyDensity = dependencyDensity;
+	}
+
+	public void setNumberOfFeatures(int numberOfFeatures) {
+		this.numberOfFeatures = numberOfFeatures;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Generate a family of variants
+	 * 
+	 * @return the artefact model, the adapted model and the feature list
+	 */
+	public SyntheticVariants generate() {
+		Random random = new Random(seed);
+
+		// elements of each feature
+		int coreElements = (int) Math.round(numberOfElements * overlapRatio);
+		int optionalFeatures = numberOfFeatures - 1;
+		int elementsPerOptionalFeature = 0;
+		if (optionalFeatures > 0) {
+			// a variant has half of the optional features on average
+			elementsPerOptionalFeature = (int) Math.ceil((numberOfElements - coreElements)
+					/ (optionalFeatures / 2.0));
+		}
+		List<List<Integer>> featureElements = new ArrayList<List<Integer>>();
+		List<String> texts = new ArrayList<String>();
+		for (int f = 0; f < numberOfFeatures; f++) {
+			List<Integer> ids = new ArrayList<Integer>();
+			int size = f == 0 ? coreElements : elementsPerOptionalFeature;
+			for (int i = 0; i < size; i++) {
+				ids.add(texts.size());
+				texts.add(createText(f, random));
+			}
+			featureElements.add(ids);
+		}
+
+		// dependencies between the elements
+		int totalElements = texts.size();
+		List<List<Integer>> dependencies = new ArrayList<List<Integer>>();
+		for (int id = 0; id < totalElements; id++) {
+			List<Integer> targets = new ArrayList<Integer>();
+			for (int d = 0; d < MAX_DEPENDENCIES_PER_ELEMENT; d++) {
+				if (random.nextDouble() < dependencyDensity) {
+					int target = random.nextInt(totalElements);
+					if (target != id && !targets.contains(target)) {
+						targets.add(target);
+					}
+				}
+			}
+			dependencies.add(targets);
+		}
+
+		// feature list
+		ArtefactModel artefactModel = ArtefactModelFactory.eINSTANCE.createArtefactModel();
+		artefactModel.setName("Synthetic variants");
+		FeatureList featureList = FeatureListFactory.eINSTANCE.createFeatureList();
+		featureList.setName("Synthetic features");
+		featureList.setArtefactModel(artefactModel);
+		for (int f = 0; f < numberOfFeatures; f++) {
+			Feature feature = FeatureListFactory.eINSTANCE.createFeature();
+			feature.setId("feature" + f);
+			feature.setName("Feature " + f);
+			StringBuilder description = new StringBuilder();
+			for (int w = 0; w < VOCABULARY_PER_FEATURE; w++) {
+				description.append(getWord(f * VOCABULARY_PER_FEATURE + w) + " ");
+			}
+			feature.setDescription(description.toString().trim());
+			featureList.getOwnedFeatures().add(feature);
+		}
+
+		// variants
+		AdaptedModel adaptedModel = AdaptedModelFactory.eINSTANCE.createAdaptedModel();
+		for (int v = 0; v < numberOfVariants; v++) {
+			Artefact artefact = ArtefactModelFactory.eINSTANCE.createArtefact();
+			artefact.setName("Variant " + v);
+			artefactModel.getOwnedArtefacts().add(artefact);
+
+			SyntheticElement[] elementsById = new SyntheticElement[totalElements];
+			List<IElement> elements = new ArrayList<IElement>();
+			for (int f = 0; f < numberOfFeatures; f++) {
+				if (f == 0 || random.nextBoolean()) {
+					featureList.getOwnedFeatures().get(f).getImplementedInArtefacts().add(artefact);
+					for (Integer id : featureElements.get(f)) {
+						SyntheticElement element = new SyntheticElement(id, texts.get(id));
+						elementsById[id] = element;
+						elements.add(element);
+					}
+				}
+			}
+			for (IElement element : elements) {
+				for (Integer target : dependencies.get(((SyntheticElement) element).getId())) {
+					if (elementsById[target] != null) {
+						((SyntheticElement) element).addDependency(elementsById[target]);
+					}
+				}
+			}
+
+			AdaptedArtefact adaptedArtefact = AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(elements);
+			adaptedArtefact.setArtefact(artefact);
+			adaptedModel.getOwnedAdaptedArtefacts().add(adaptedArtefact);
+		}
+		return new SyntheticVariants(artefactModel, adaptedModel, featureList);
+	}
+
+	/**
+	 * Text of an element of a feature
+	 * 
+	 * @param feature
+	 * @param random
+	 * @return the words separated by spaces
+	 */
+	private static String createText(int feature, Random random) {
+		StringBuilder text = new StringBuilder();
+		for (int w = 0; w < WORDS_PER_ELEMENT - 1; w++) {
+			text.append(getWord(feature * VOCABULARY_PER_FEATURE + random.nextInt(VOCABULARY_PER_FEATURE)) + " ");
+		}
+		text.append("shared" + getWord(random.nextInt(SHARED_VOCABULARY)));
+		return text.toString();
+	}
+
+	/**
+	 * Get a word only made of letters so it is not split by the tokenizers
+	 * 
+	 * @param number
+	 * @return the word
+	 */
+	private static String getWord(int number) {
+		StringBuilder word = new StringBuilder("word");
+		do {
+			word.append((char) ('a' + number % 26));
+			number = number / 26;
+		} while (number > 0);
+		return word.toString();
+	}
+
+}
@@ -7,9 +7,11 @@ import org.but4reuse.adaptedmodel.AdaptedArtefact;
 import org.but4reuse.adaptedmodel.AdaptedModel;
 import org.but4reuse.adaptedmodel.AdaptedModelFactory;
 import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.BlockElement;
 import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
 import org.but4reuse.adapters.IElement;
 import org.but4reuse.block.identification.IBlockIdentification;
+import org.but4reuse.block.identification.IIncrementalBlockIdentification;
 import org.but4reuse.tests.utils.TestElement;
 import org.but4reuse.tests.utils.TestElementsCreator;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -79,4 +81,105 @@ public class IntersectionsBlockIdentificationTest {
 		}
 	}
 
+	/**
+	 * Adding and removing artefacts with the incremental update must give the
+	 * same blocks as identifying them from scratch, and the blocks that are
+	 * not affected must be kept
+	 */
+	@Test
+	public void incrementalUpdate() {
+		IIncrementalBlockIdentification algo = new IntersectionsBlockIdentification();
+		AdaptedArtefact a1 = AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(TestElementsCreator
+				.createElements(10));
+		AdaptedArtefact a2 = AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(TestElementsCreator
+				.createElements(30));
+		AdaptedArtefact a3 = AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(TestElementsCreator
+				.createElements(100));
+		List<AdaptedArtefact> adaptedArtefacts = new ArrayList<AdaptedArtefact>();
+		adaptedArtefacts.add(a1);
+		adaptedArtefacts.add(a2);
+		List<Block> blocks = algo.identifyBlocks(adaptedArtefacts, new NullProgressMonitor());
+		Assert.assertEquals(2, blocks.size());
+		Block common = blocks.get(0);
+
+		// Add a3
+		adaptedArtefacts.add(a3);
+		List<AdaptedArtefact> newArtefacts = new ArrayList<AdaptedArtefact>();
+		newArtefacts.add(a3);
+		blocks = algo.updateBlocks(blocks, adaptedArtefacts, newArtefacts, new NullProgressMonitor());
+		assertSameBlocks(algo.identifyBlocks(adaptedArtefacts, new NullProgressMonitor()), blocks);
+		Assert.assertEquals(3, blocks.size());
+		Assert.assertSame(common, blocks.get(0));
+
+		// Remove a2
+		adaptedArtefacts.remove(a2);
+		blocks = algo.updateBlocks(blocks, adaptedArtefacts, new ArrayList<AdaptedArtefact>(),
+				new NullProgressMonitor());
+		assertSameBlocks(algo.identifyBlocks(adaptedArtefacts, new NullProgressMonitor()), blocks);
+		Assert.assertEquals(2, blocks.size());
+		Assert.assertSame(common, blocks.get(0));
+	}
+
+	/**
+	 * A canceled update must not modify the blocks
+	 */
+	@Test
+	public void canceledIncrementalUpdate() {
+		IIncrementalBlockIdentification algo = new IntersectionsBlockIdentification();
+		AdaptedArtefact a1 = AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(TestElementsCreator
+				.createElements(10));
+		AdaptedArtefact a2 = AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(TestElementsCreator
+				.createElements(30));
+		AdaptedArtefact a3 = AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(TestElementsCreator
+				.createElements(100));
+		List<AdaptedArtefact> adaptedArtefacts = new ArrayList<AdaptedArtefact>();
+		adaptedArtefacts.add(a1);
+		adaptedArtefacts.add(a2);
+		List<Block> blocks = algo.identifyBlocks(adaptedArtefacts, new NullProgressMonitor());
+		List<Integer> sizes = new ArrayList<Integer>();
+		for (Block block : blocks) {
+			for (BlockElement be : block.getOwnedBlockElements()) {
+				sizes.add(be.getElementWrappers().size());
+			}
+		}
+
+		// Remove a1 and add a3
+		adaptedArtefacts.remove(a1);
+		adaptedArtefacts.add(a3);
+		List<AdaptedArtefact> newArtefacts = new ArrayList<AdaptedArtefact>();
+		newArtefacts.add(a3);
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		List<Block> result = algo.updateBlocks(blocks, adaptedArtefacts, newArtefacts, monitor);
+
+		Assert.assertSame(blocks, result);
+		int i = 0;
+		for (Block block : blocks) {
+			for (BlockElement be : block.getOwnedBlockElements()) {
+				Assert.assertEquals(sizes.get(i).intValue(), be.getElementWrappers().size());
+				i++;
+			}
+		}
+		Assert.assertEquals(sizes.size(), i);
+	}
+
+	/**
+	 * Check that the blocks have the same elements in the same order
+	 */
+	private void assertSameBlocks(List<Block> expected, List<Block> actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			List<IElement> expectedElements = AdaptedModelHelper.getElementsOfBlock(expected.get(i));
+			List<IElement> actualElements = AdaptedModelHelper.getElementsOfBlock(actual.get(i));
+			Assert.assertEquals(expectedElements.size(), actualElements.size());
+			for (int j = 0; j < expectedElements.size(); j++) {
+				Assert.assertEquals(((TestElement) expectedElements.get(j)).id,
+						((TestElement) actualElements.get(j)).id);
+			}
+			// same number of artefacts
+			Assert.assertEquals(expected.get(i).getOwnedBlockElements().get(0).getElementWrappers().size(), actual
+					.get(i).getOwnedBlockElements().get(0).getElementWrappers().size());
+		}
+	}
+
 }
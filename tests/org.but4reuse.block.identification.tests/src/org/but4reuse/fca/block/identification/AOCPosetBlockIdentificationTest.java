@@ -0,0 +1,103 @@
+package org.but4reuse.fca.block.identification;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.but4reuse.adaptedmodel.AdaptedArtefact;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
+import org.but4reuse.adapters.IElement;
+import org.but4reuse.tests.utils.TestElement;
+import org.but4reuse.tests.utils.TestElementsCreator;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the attribute concepts (AOC-poset) block identification
+ * 
+ * @author jabier.martinez
+ */
+public class AOCPosetBlockIdentificationTest {
+
+	/**
+	 * Each block must contain the elements that appear in exactly the same
+	 * artefacts, and the blocks must be the same as the ones of the whole
+	 * concept lattice
+	 */
+	@Test
+	public void blocksAreDistinctExtents() {
+		List<Block> blocks = new AOCPosetBlockIdentification().identifyBlocks(createAdaptedArtefacts(),
+				new NullProgressMonitor());
+
+		// elements by their artefacts, from more to less frequent and with
+		// the ties in the order of the first element of each extent
+		// 5..9 in a1, a2, a3, a4
+		// 0..4 in a1, a2, a3
+		// 10..14 in a2, a3, a4
+		// 15..29 in a2, a3
+		// 30..99 in a3
+		// 200..204 in a4
+		int[][] expected = { { 5, 10 }, { 0, 5 }, { 10, 15 }, { 15, 30 }, { 30, 100 }, { 200, 205 } };
+		Assert.assertEquals(expected.length, blocks.size());
+		for (int i = 0; i < expected.length; i++) {
+			List<IElement> elements = AdaptedModelHelper.getElementsOfBlock(blocks.get(i));
+			Assert.assertEquals(expected[i][1] - expected[i][0], elements.size());
+			for (int j = 0; j < elements.size(); j++) {
+				Assert.assertEquals(expected[i][0] + j, ((TestElement) elements.get(j)).id);
+			}
+		}
+
+		// Same blocks as with the concept lattice, the order of the concepts
+		// of the lattice is not defined so the ties can be in other order
+		List<Block> latticeBlocks = new FCABlockIdentification().identifyBlocks(createAdaptedArtefacts(),
+				new NullProgressMonitor());
+		Assert.assertEquals(getIds(latticeBlocks), getIds(blocks));
+	}
+
+	/**
+	 * @return the element ids of each block
+	 */
+	private Set<List<Integer>> getIds(List<Block> blocks) {
+		Set<List<Integer>> ids = new HashSet<List<Integer>>();
+		for (Block block : blocks) {
+			List<Integer> blockIds = new ArrayList<Integer>();
+			for (IElement e : AdaptedModelHelper.getElementsOfBlock(block)) {
+				blockIds.add(((TestElement) e).id);
+			}
+			ids.add(blockIds);
+		}
+		return ids;
+	}
+
+	/**
+	 * Four artefacts where the extents of the elements are not nested
+	 */
+	private List<AdaptedArtefact> createAdaptedArtefacts() {
+		List<AdaptedArtefact> adaptedArtefacts = new ArrayList<AdaptedArtefact>();
+		adaptedArtefacts.add(AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(TestElementsCreator
+				.createElements(10)));
+		adaptedArtefacts.add(AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(TestElementsCreator
+				.createElements(30)));
+		adaptedArtefacts.add(AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(TestElementsCreator
+				.createElements(100)));
+		List<IElement> elements = new ArrayList<IElement>();
+		for (int i = 5; i < 15; i++) {
+			elements.add(createElement(i));
+		}
+		for (int i = 200; i < 205; i++) {
+			elements.add(createElement(i));
+		}
+		adaptedArtefacts.add(AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(elements));
+		return adaptedArtefacts;
+	}
+
+	private IElement createElement(int id) {
+		TestElement e = new TestElement();
+		e.id = id;
+		return e;
+	}
+
+}
@@ -0,0 +1,173 @@
+package org.but4reuse.fca.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.but4reuse.adaptedmodel.AdaptedArtefact;
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.adaptedmodel.AdaptedModelFactory;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
+import org.but4reuse.artefactmodel.Artefact;
+import org.but4reuse.artefactmodel.ArtefactModelFactory;
+import org.but4reuse.block.identification.impl.IntersectionsBlockIdentification;
+import org.but4reuse.tests.utils.TestElementsCreator;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.labri.galatea.Attribute;
+import fr.labri.galatea.BinaryAttribute;
+import fr.labri.galatea.Concept;
+import fr.labri.galatea.ConceptOrder;
+import fr.labri.galatea.Context;
+import fr.labri.galatea.Entity;
+
+/**
+ * Test for the bit set formal context
+ * 
+ * @author jabier.martinez
+ */
+public class BitSetFormalContextTest {
+
+	/**
+	 * The artefacts/blocks context must be the same as the one created
+	 * directly with galatea by name
+	 */
+	@Test
+	public void sameContextAsGalatea() {
+		AdaptedModel adaptedModel = createAdaptedModel();
+		Context expected = createGalateaArtefactsBlocksFormalContext(adaptedModel);
+		Context actual = FCAUtils.createArtefactsBlocksFormalContext(adaptedModel);
+		assertSameContext(expected, actual);
+	}
+
+	/**
+	 * The concepts of the collapsed context must be the concepts of the
+	 * original context, and each collapsed attribute must represent the
+	 * original attributes of the same simplified intent
+	 */
+	@Test
+	public void collapsedContextHasSameConcepts() {
+		// 4 objects and the attributes 0, 1 and 4 have the same extent
+		int[][] extents = { { 0, 1 }, { 0, 1 }, { 1, 2, 3 }, { 3 }, { 0, 1 }, { 2, 3 }, { 1, 2, 3 } };
+		BitSetFormalContext context = new BitSetFormalContext();
+		for (int o = 0; o < 4; o++) {
+			context.addObject("Object " + o);
+		}
+		for (int a = 0; a < extents.length; a++) {
+			context.addAttribute("Attribute " + a);
+			for (int o : extents[a]) {
+				context.addPair(o, a);
+			}
+		}
+
+		BitSetFormalContext collapsed = context.collapseIdenticalExtents();
+		Assert.assertEquals(context.getObjectsSize(), collapsed.getObjectsSize());
+		Assert.assertEquals(4, collapsed.getAttributesSize());
+		Assert.assertEquals("[0, 1, 4]", collapsed.getOriginalAttributes(0).toString());
+		Assert.assertEquals("[2, 6]", collapsed.getOriginalAttributes(1).toString());
+		Assert.assertEquals("[3]", collapsed.getOriginalAttributes(2).toString());
+		Assert.assertEquals("[5]", collapsed.getOriginalAttributes(3).toString());
+
+		// Same concepts with the same simplified intents
+		Map<Set<String>, Set<String>> expected = getSimplifiedIntents(FCAUtils.createConceptLattice(context
+				.toContext()));
+		Map<Set<String>, Set<String>> actual = new HashMap<Set<String>, Set<String>>();
+		for (Concept c : FCAUtils.createConceptLattice(collapsed.toContext()).getConcepts()) {
+			Set<String> intent = new HashSet<String>();
+			for (Attribute attr : c.getSimplifiedIntent()) {
+				for (Integer a : collapsed.getOriginalAttributes(collapsed.getAttributeId(attr))) {
+					intent.add(context.getAttributeName(a));
+				}
+			}
+			actual.put(getNames(c.getExtent()), intent);
+		}
+		Assert.assertEquals(expected, actual);
+	}
+
+	/**
+	 * Three artefacts with shared elements and their blocks
+	 */
+	private AdaptedModel createAdaptedModel() {
+		List<AdaptedArtefact> adaptedArtefacts = new ArrayList<AdaptedArtefact>();
+		int[] sizes = { 10, 30, 100 };
+		for (int i = 0; i < sizes.length; i++) {
+			AdaptedArtefact aa = AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(TestElementsCreator
+					.createElements(sizes[i]));
+			Artefact artefact = ArtefactModelFactory.eINSTANCE.createArtefact();
+			artefact.setName("Artefact " + i);
+			aa.setArtefact(artefact);
+			adaptedArtefacts.add(aa);
+		}
+		List<Block> blocks = new IntersectionsBlockIdentification().identifyBlocks(adaptedArtefacts,
+				new NullProgressMonitor());
+		for (int i = 0; i < blocks.size(); i++) {
+			blocks.get(i).setName("Block " + i);
+		}
+		AdaptedModel adaptedModel = AdaptedModelFactory.eINSTANCE.createAdaptedModel();
+		adaptedModel.getOwnedAdaptedArtefacts().addAll(adaptedArtefacts);
+		adaptedModel.getOwnedBlocks().addAll(blocks);
+		return adaptedModel;
+	}
+
+	/**
+	 * Artefacts/blocks context created with galatea entities and attributes
+	 * found by name
+	 */
+	private Context createGalateaArtefactsBlocksFormalContext(AdaptedModel adaptedModel) {
+		Context fc = new Context();
+		for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
+			fc.addEntity(new Entity(aa.getArtefact().getName()));
+		}
+		Map<String, BinaryAttribute> blockNameMap = new HashMap<String, BinaryAttribute>();
+		for (Block block : adaptedModel.getOwnedBlocks()) {
+			BinaryAttribute attr = new BinaryAttribute(block.getName());
+			fc.addAttribute(attr);
+			blockNameMap.put(block.getName(), attr);
+		}
+		for (AdaptedArtefact aa : adaptedModel.getOwnedAdaptedArtefacts()) {
+			for (Block block : AdaptedModelHelper.getBlocksOfAdaptedArtefact(aa)) {
+				fc.addPair(fc.getEntity(aa.getArtefact().getName()), blockNameMap.get(block.getName()));
+			}
+		}
+		return fc;
+	}
+
+	/**
+	 * Check that both contexts have the same entities, attributes and pairs
+	 */
+	private void assertSameContext(Context expected, Context actual) {
+		Assert.assertEquals(getNames(expected.getEntities()), getNames(actual.getEntities()));
+		Assert.assertEquals(getNames(expected.getAttributes()), getNames(actual.getAttributes()));
+		Assert.assertEquals(expected.getPairNb(), actual.getPairNb());
+		for (Entity entity : expected.getEntities()) {
+			Assert.assertEquals(getNames(expected.getAttributes(entity)),
+					getNames(actual.getAttributes(actual.getEntity(entity.getName()))));
+		}
+	}
+
+	/**
+	 * @return the simplified intent names by the extent names of each concept
+	 */
+	private Map<Set<String>, Set<String>> getSimplifiedIntents(ConceptOrder conceptOrder) {
+		Map<Set<String>, Set<String>> intents = new HashMap<Set<String>, Set<String>>();
+		for (Concept c : conceptOrder.getConcepts()) {
+			intents.put(getNames(c.getExtent()), getNames(c.getSimplifiedIntent()));
+		}
+		return intents;
+	}
+
+	private Set<String> getNames(Set<?> entitiesOrAttributes) {
+		Set<String> names = new HashSet<String>();
+		for (Object o : entitiesOrAttributes) {
+			names.add(o.toString());
+		}
+		return names;
+	}
+
+}
@@ -0,0 +1,39 @@
+package org.but4reuse.constraints.discovery.datamining;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.but4reuse.adaptedmodel.AdaptedModelFactory;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.constraints.discovery.datamining.apriori.AssociationRule;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the Apriori constraints discovery
+ * 
+ * @author jabier.martinez
+ */
+public class APrioriConstraintsDiscoveryTest {
+
+	/**
+	 * The rules with several blocks in the antecedent must use the feature
+	 * names of the synthesized feature models
+	 */
+	@Test
+	public void featureIDEConstraintText() {
+		List<Block> blocks = new ArrayList<Block>();
+		for (int i = 0; i < 4; i++) {
+			Block block = AdaptedModelFactory.eINSTANCE.createBlock();
+			block.setName("Block " + i);
+			blocks.add(block);
+		}
+		AssociationRule rule = new AssociationRule(new int[] { 1, 2 }, 3, 2, 0.5, 1);
+		Assert.assertEquals("(Block_1 and Block_2) implies Block_3",
+				APrioriConstraintsDiscovery.getConstraintText(blocks, rule));
+		rule = new AssociationRule(new int[] { 0, 1, 3 }, 2, 2, 0.5, 1);
+		Assert.assertEquals("(Block_0 and Block_1 and Block_3) implies Block_2",
+				APrioriConstraintsDiscovery.getConstraintText(blocks, rule));
+	}
+
+}
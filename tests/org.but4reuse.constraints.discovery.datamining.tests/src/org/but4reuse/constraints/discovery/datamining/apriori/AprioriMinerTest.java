@@ -0,0 +1,192 @@
+package org.but4reuse.constraints.discovery.datamining.apriori;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the Apriori association rules miner
+ * 
+ * @author jabier.martinez
+ */
+public class AprioriMinerTest {
+
+	/**
+	 * Only the itemsets with the minimum support are used and the rules have
+	 * the support and confidence of their itemsets
+	 */
+	@Test
+	public void supportThreshold() {
+		// supports 0:4, 1:3, 2:3, 3:2, {0,1}:3, {0,2}:2, the other pairs 1
+		AprioriMiner miner = createMiner(new int[][] { { 0, 1, 2 }, { 0, 1 }, { 0, 1, 3 }, { 2, 3 }, { 0, 2 } }, 4);
+		Assert.assertEquals(5, miner.getNumberOfTransactions());
+		Assert.assertEquals(4, miner.getSupportCount(0));
+
+		List<AssociationRule> rules = miner.mine(0.4, 0, 3, new NullProgressMonitor());
+		Assert.assertEquals("[[1] -> 0, [0] -> 1, [2] -> 0, [0] -> 2]", toString(rules));
+		Assert.assertEquals(3, rules.get(0).getSupportCount());
+		Assert.assertEquals(0.6, rules.get(0).getSupport(), 0);
+		Assert.assertEquals(1, rules.get(0).getConfidence(), 0);
+		Assert.assertEquals(0.75, rules.get(1).getConfidence(), 0);
+		Assert.assertEquals(2, rules.get(2).getSupportCount());
+		Assert.assertEquals(2.0 / 3, rules.get(2).getConfidence(), 1e-9);
+
+		// Only {0,1} has a support of 0.6
+		Assert.assertEquals("[[1] -> 0, [0] -> 1]", toString(miner.mine(0.6, 0, 3, new NullProgressMonitor())));
+		Assert.assertEquals("[]", toString(miner.mine(0.8, 0, 3, new NullProgressMonitor())));
+	}
+
+	/**
+	 * Only the rules with the minimum confidence are returned
+	 */
+	@Test
+	public void confidenceThreshold() {
+		AprioriMiner miner = createMiner(new int[][] { { 0, 1, 2 }, { 0, 1 }, { 0, 1, 3 }, { 2, 3 }, { 0, 2 } }, 4);
+		Assert.assertEquals("[[1] -> 0, [0] -> 1, [2] -> 0]", toString(miner.mine(0.4, 0.6, 3,
+				new NullProgressMonitor())));
+		Assert.assertEquals("[[1] -> 0]", toString(miner.mine(0.4, 1, 3, new NullProgressMonitor())));
+	}
+
+	/**
+	 * A rule is not returned if part of its antecedent already implies the
+	 * consequent with the minimum confidence
+	 */
+	@Test
+	public void minimalRules() {
+		// 0 and 2 always appear together, so {1,2} -> 0 and {0,1} -> 2 are not
+		// minimal even if their confidence is 1
+		AprioriMiner miner = createMiner(new int[][] { { 0, 1, 2 }, { 0, 1, 2 }, { 0, 2 }, { 1 } }, 3);
+		Assert.assertEquals("[[2] -> 0, [0] -> 2]", toString(miner.mine(0.5, 1, 3, new NullProgressMonitor())));
+		// with a lower confidence all the rules of the pairs are minimal and
+		// the rules of the triple are implied
+		Assert.assertEquals("[[1] -> 0, [0] -> 1, [2] -> 0, [0] -> 2, [2] -> 1, [1] -> 2]", toString(miner.mine(
+				0.5, 0.5, 3, new NullProgressMonitor())));
+	}
+
+	/**
+	 * The rules must be the same as the ones obtained by enumerating all the
+	 * itemsets, with join and prune the candidates are only a reduction
+	 */
+	@Test
+	public void sameRulesAsAllItemsets() {
+		Random random = new Random(0);
+		int numberOfItems = 8;
+		int[][] transactions = new int[30][];
+		for (int t = 0; t < transactions.length; t++) {
+			List<Integer> items = new ArrayList<Integer>();
+			for (int i = 0; i < numberOfItems; i++) {
+				if (random.nextDouble() < 0.5) {
+					items.add(i);
+				}
+			}
+			transactions[t] = new int[items.size()];
+			for (int i = 0; i < items.size(); i++) {
+				transactions[t][i] = items.get(i);
+			}
+		}
+		AprioriMiner miner = createMiner(transactions, numberOfItems);
+		double[][] thresholds = { { 0.1, 0.5 }, { 0.2, 0.7 }, { 0.3, 0.9 }, { 0.05, 1 } };
+		for (double[] threshold : thresholds) {
+			for (int maxItemsetSize = 2; maxItemsetSize <= 4; maxItemsetSize++) {
+				List<AssociationRule> rules = miner.mine(threshold[0], threshold[1], maxItemsetSize,
+						new NullProgressMonitor());
+				List<String> expected = getRules(transactions, numberOfItems, threshold[0], threshold[1],
+						maxItemsetSize);
+				List<String> actual = new ArrayList<String>();
+				for (AssociationRule rule : rules) {
+					actual.add(toString(rule));
+				}
+				Assert.assertEquals(expected.size(), actual.size());
+				Assert.assertTrue(actual.containsAll(expected));
+			}
+		}
+	}
+
+	/**
+	 * Rules by definition, checking all the itemsets and for each rule all the
+	 * smaller antecedents
+	 */
+	private List<String> getRules(int[][] transactions, int numberOfItems, double minSupport,
+			double minConfidence, int maxItemsetSize) {
+		int minCount = Math.max(1, (int) Math.ceil(minSupport * transactions.length));
+		List<String> rules = new ArrayList<String>();
+		for (int itemset = 1; itemset < 1 << numberOfItems; itemset++) {
+			int size = Integer.bitCount(itemset);
+			int count = count(transactions, itemset);
+			if (size < 2 || size > maxItemsetSize || count < minCount) {
+				continue;
+			}
+			for (int c = 0; c < numberOfItems; c++) {
+				int antecedent = itemset & ~(1 << c);
+				if (antecedent == itemset
+						|| (double) count / count(transactions, antecedent) < minConfidence) {
+					continue;
+				}
+				// non empty proper subsets of the antecedent
+				boolean minimal = true;
+				for (int sub = (antecedent - 1) & antecedent; sub > 0 && minimal; sub = (sub - 1) & antecedent) {
+					if ((double) count(transactions, sub | 1 << c) / count(transactions, sub) >= minConfidence) {
+						minimal = false;
+					}
+				}
+				if (minimal) {
+					List<Integer> items = new ArrayList<Integer>();
+					for (int i = 0; i < numberOfItems; i++) {
+						if ((antecedent & 1 << i) != 0) {
+							items.add(i);
+						}
+					}
+					rules.add(items + " -> " + c);
+				}
+			}
+		}
+		return rules;
+	}
+
+	/**
+	 * @return the number of transactions containing the items of the bit mask
+	 */
+	private int count(int[][] transactions, int itemset) {
+		int count = 0;
+		for (int[] transaction : transactions) {
+			int mask = 0;
+			for (int item : transaction) {
+				mask |= 1 << item;
+			}
+			if ((mask & itemset) == itemset) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private AprioriMiner createMiner(int[][] transactions, int numberOfItems) {
+		AprioriMiner miner = new AprioriMiner(numberOfItems);
+		for (int[] transaction : transactions) {
+			List<Integer> items = new ArrayList<Integer>();
+			for (int item : transaction) {
+				items.add(item);
+			}
+			miner.addTransaction(items);
+		}
+		return miner;
+	}
+
+	private String toString(AssociationRule rule) {
+		return Arrays.toString(rule.getAntecedent()) + " -> " + rule.getConsequent();
+	}
+
+	private String toString(List<AssociationRule> rules) {
+		List<String> result = new ArrayList<String>();
+		for (AssociationRule rule : rules) {
+			result.add(toString(rule));
+		}
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,120 @@
+package org.but4reuse.feature.location;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.but4reuse.featurelist.Feature;
+import org.but4reuse.featurelist.FeatureListFactory;
+import org.but4reuse.tests.utils.TestElementsCreator;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Feature location executor with more positions than the ones located
+ * sequentially by one task
+ * 
+ * @author jabier.martinez
+ */
+public class FeatureLocationExecutorTest {
+
+	private static final int POSITIONS = 100;
+
+	@Test
+	public void sameOrderAsSequential() {
+		TestPartition partition = new TestPartition(new NullProgressMonitor(), Integer.MAX_VALUE);
+		List<String> expected = new ArrayList<String>();
+		for (int position = 0; position < partition.size(); position++) {
+			expected.addAll(getNames(partition.create(position)));
+		}
+		List<LocatedFeature> locatedFeatures = FeatureLocationExecutor.execute("Test", partition,
+				new NullProgressMonitor());
+		Assert.assertEquals(expected, getNames(locatedFeatures));
+	}
+
+	@Test
+	public void partialResultsWhenCanceled() {
+		IProgressMonitor monitor = new NullProgressMonitor();
+		TestPartition partition = new TestPartition(monitor, 20);
+		List<String> locatedFeatures = getNames(FeatureLocationExecutor.execute("Test", partition, monitor));
+
+		// the results of all the located positions in the order of the
+		// positions
+		List<String> expected = new ArrayList<String>();
+		int locatedPositions = 0;
+		for (int position = 0; position < partition.size(); position++) {
+			List<String> positionFeatures = getNames(partition.create(position));
+			if (locatedFeatures.containsAll(positionFeatures)) {
+				expected.addAll(positionFeatures);
+				locatedPositions++;
+			}
+		}
+		Assert.assertEquals(expected, locatedFeatures);
+		Assert.assertEquals(partition.located.get(), locatedPositions);
+		Assert.assertTrue(locatedPositions >= 20);
+		Assert.assertTrue(locatedPositions < POSITIONS);
+	}
+
+	private List<String> getNames(List<LocatedFeature> locatedFeatures) {
+		List<String> names = new ArrayList<String>();
+		for (LocatedFeature locatedFeature : locatedFeatures) {
+			names.add(locatedFeature.getFeature().getName() + " " + locatedFeature.getConfidence());
+		}
+		return names;
+	}
+
+	/**
+	 * Partition where each position locates its feature a number of times
+	 * from 1 to 3. The user cancels after locating some positions.
+	 */
+	private static class TestPartition implements ILocationPartition {
+
+		private IProgressMonitor monitor;
+
+		private int cancelAfter;
+
+		private AtomicInteger located = new AtomicInteger();
+
+		private List<Feature> features = new ArrayList<Feature>();
+
+		public TestPartition(IProgressMonitor monitor, int cancelAfter) {
+			this.monitor = monitor;
+			this.cancelAfter = cancelAfter;
+			for (int i = 0; i < POSITIONS; i++) {
+				Feature f = FeatureListFactory.eINSTANCE.createFeature();
+				f.setName("f" + i);
+				features.add(f);
+			}
+		}
+
+		@Override
+		public int size() {
+			return POSITIONS;
+		}
+
+		@Override
+		public String getName(int position) {
+			return features.get(position).getName();
+		}
+
+		@Override
+		public List<LocatedFeature> locate(int position) {
+			if (located.incrementAndGet() >= cancelAfter) {
+				monitor.setCanceled(true);
+			}
+			return create(position);
+		}
+
+		public List<LocatedFeature> create(int position) {
+			List<LocatedFeature> locatedFeatures = new ArrayList<LocatedFeature>();
+			for (int i = 0; i <= position % 3; i++) {
+				locatedFeatures.add(new LocatedFeature(features.get(position), TestElementsCreator.createElements(1)
+						.get(0), 1.0 / (i + 1)));
+			}
+			return locatedFeatures;
+		}
+	}
+
+}
@@ -0,0 +1,198 @@
+package org.but4reuse.feature.location.lsi.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import Jama.Matrix;
+import Jama.SingularValueDecomposition;
+
+/**
+ * Test for the sparse term-block matrix and the truncated SVD of the LSI
+ * feature location
+ * 
+ * @author jabier.martinez
+ */
+public class LSIEngineTest {
+
+	/**
+	 * The products of the sparse matrix must be the same as with the dense
+	 * matrix
+	 */
+	@Test
+	public void sameProductsAsDenseMatrix() {
+		Random random = new Random(0);
+		List<Map<String, Integer>> blocksWords = createBlocksWords(random, 12, 5);
+		TermBlockMatrix matrix = new TermBlockMatrix(blocksWords);
+		Matrix m = createDenseMatrix(matrix, blocksWords);
+		Assert.assertEquals(12, matrix.getNumberOfTerms());
+		Assert.assertEquals(5, matrix.getNumberOfBlocks());
+		Assert.assertEquals("t00", matrix.getTerms().get(0));
+		Assert.assertEquals(-1, matrix.getTermId("unknown"));
+
+		// M^t * q, the words outside the vocabulary are ignored
+		Map<String, Integer> query = createQuery(random, 12);
+		query.put("unknown", 3);
+		double[] expected = m.transpose().times(createDenseQuery(matrix, query)).getColumnPackedCopy();
+		Assert.assertArrayEquals(expected, matrix.transposeTimes(query), 1e-9);
+
+		// M^t * M * x
+		Matrix x = new Matrix(5, 3);
+		for (int i = 0; i < 5; i++) {
+			for (int k = 0; k < 3; k++) {
+				x.set(i, k, random.nextGaussian());
+			}
+		}
+		double[][] expectedGram = m.transpose().times(m).times(x).getArray();
+		double[][] gram = matrix.gramTimes(x.getArray());
+		for (int i = 0; i < expectedGram.length; i++) {
+			Assert.assertArrayEquals(expectedGram[i], gram[i], 1e-9);
+		}
+	}
+
+	/**
+	 * The cosines between the queries and the blocks in the reduced space must
+	 * be the same as with the dense SVD of Jama
+	 */
+	@Test
+	public void sameCosinesAsDenseSVD() {
+		Random random = new Random(0);
+		List<Map<String, Integer>> blocksWords = createBlocksWords(random, 12, 5);
+		TermBlockMatrix matrix = new TermBlockMatrix(blocksWords);
+		Matrix m = createDenseMatrix(matrix, blocksWords);
+		SingularValueDecomposition svd = m.svd();
+		for (int nbDim = 1; nbDim <= 5; nbDim++) {
+			LSIEngine engine = new LSIEngine(matrix, nbDim);
+			Assert.assertEquals(nbDim, engine.getNumberOfDimensions());
+			assertSameCosines(m, svd.getU(), svd.getS(), nbDim, matrix, engine, random, 1e-9);
+		}
+	}
+
+	/**
+	 * With more than 500 blocks the randomized SVD must give almost the same
+	 * cosines as the exact one when the matrix has a low rank structure
+	 */
+	@Test
+	public void randomizedCloseToExact() {
+		Random random = new Random(0);
+		// blocks that mix the vocabularies of a few topics
+		int nbTopics = 5;
+		int termsByTopic = 40;
+		List<Map<String, Integer>> blocksWords = new ArrayList<Map<String, Integer>>();
+		for (int b = 0; b < 600; b++) {
+			Map<String, Integer> words = new HashMap<String, Integer>();
+			for (int topic = 0; topic < nbTopics; topic++) {
+				int weight = random.nextInt(4);
+				for (int t = 0; t < termsByTopic && weight > 0; t++) {
+					words.put(getTerm(topic * termsByTopic + t), weight * (1 + t % 3));
+				}
+			}
+			if (words.isEmpty()) {
+				words.put(getTerm(0), 1);
+			}
+			blocksWords.add(words);
+		}
+		TermBlockMatrix matrix = new TermBlockMatrix(blocksWords);
+		LSIEngine engine = new LSIEngine(matrix, nbTopics);
+		Assert.assertEquals(nbTopics, engine.getNumberOfDimensions());
+
+		// Jama needs at least as many rows as columns, the right singular
+		// vectors of the transpose are the left singular vectors
+		Matrix m = createDenseMatrix(matrix, blocksWords);
+		SingularValueDecomposition transposeSvd = m.transpose().svd();
+		assertSameCosines(m, transposeSvd.getV(), transposeSvd.getS(), nbTopics, matrix, engine, random, 1e-6);
+	}
+
+	/**
+	 * Compare the cosines of the engine with the ones of the previous
+	 * implementation, where a document or a query d is Sk^-1 * Uk^t * d
+	 */
+	private void assertSameCosines(Matrix m, Matrix u, Matrix s, int nbDim, TermBlockMatrix matrix, LSIEngine engine,
+			Random random, double delta) {
+		Matrix skInverse = s.getMatrix(0, nbDim - 1, 0, nbDim - 1).inverse();
+		Matrix ukTranspose = u.getMatrix(0, u.getRowDimension() - 1, 0, nbDim - 1).transpose();
+		Matrix reduction = skInverse.times(ukTranspose);
+		for (int i = 0; i < 5; i++) {
+			Map<String, Integer> query = createQuery(random, matrix.getNumberOfTerms());
+			double[] expectedQuery = reduction.times(createDenseQuery(matrix, query)).getColumnPackedCopy();
+			double[] actualQuery = engine.project(query);
+			for (int b = 0; b < matrix.getNumberOfBlocks(); b++) {
+				double[] expectedBlock = reduction.times(m.getMatrix(0, m.getRowDimension() - 1, b, b))
+						.getColumnPackedCopy();
+				Assert.assertEquals(cosine(expectedQuery, expectedBlock),
+						cosine(actualQuery, engine.getBlockVector(b)), delta);
+			}
+		}
+	}
+
+	/**
+	 * Random blocks where each term appears with a probability of one half
+	 */
+	private List<Map<String, Integer>> createBlocksWords(Random random, int nbTerms, int nbBlocks) {
+		List<Map<String, Integer>> blocksWords = new ArrayList<Map<String, Integer>>();
+		for (int b = 0; b < nbBlocks; b++) {
+			blocksWords.add(new HashMap<String, Integer>());
+		}
+		for (int t = 0; t < nbTerms; t++) {
+			// each term in at least one block
+			blocksWords.get(random.nextInt(nbBlocks)).put(getTerm(t), 1 + random.nextInt(3));
+			for (int b = 0; b < nbBlocks; b++) {
+				if (random.nextBoolean()) {
+					blocksWords.get(b).put(getTerm(t), 1 + random.nextInt(3));
+				}
+			}
+		}
+		return blocksWords;
+	}
+
+	private Map<String, Integer> createQuery(Random random, int nbTerms) {
+		Map<String, Integer> query = new HashMap<String, Integer>();
+		for (int i = 0; i < 4; i++) {
+			query.put(getTerm(random.nextInt(nbTerms)), 1 + random.nextInt(2));
+		}
+		return query;
+	}
+
+	private String getTerm(int t) {
+		return t < 10 ? "t0" + t : "t" + t;
+	}
+
+	private Matrix createDenseMatrix(TermBlockMatrix matrix, List<Map<String, Integer>> blocksWords) {
+		Matrix m = new Matrix(matrix.getNumberOfTerms(), matrix.getNumberOfBlocks());
+		for (int b = 0; b < blocksWords.size(); b++) {
+			for (Map.Entry<String, Integer> entry : blocksWords.get(b).entrySet()) {
+				m.set(matrix.getTermId(entry.getKey()), b, entry.getValue());
+			}
+		}
+		return m;
+	}
+
+	private Matrix createDenseQuery(TermBlockMatrix matrix, Map<String, Integer> query) {
+		Matrix q = new Matrix(matrix.getNumberOfTerms(), 1);
+		for (Map.Entry<String, Integer> entry : query.entrySet()) {
+			int t = matrix.getTermId(entry.getKey());
+			if (t != -1) {
+				q.set(t, 0, entry.getValue());
+			}
+		}
+		return q;
+	}
+
+	private double cosine(double[] u, double[] v) {
+		double dot = 0;
+		double normU = 0;
+		double normV = 0;
+		for (int i = 0; i < u.length; i++) {
+			dot += u[i] * v[i];
+			normU += u[i] * u[i];
+			normV += v[i] * v[i];
+		}
+		return dot / Math.sqrt(normU * normV);
+	}
+
+}
@@ -0,0 +1,159 @@
+package org.but4reuse.feature.location.tf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.but4reuse.adaptedmodel.AdaptedArtefact;
+import org.but4reuse.adaptedmodel.AdaptedModel;
+import org.but4reuse.adaptedmodel.AdaptedModelFactory;
+import org.but4reuse.adaptedmodel.Block;
+import org.but4reuse.adaptedmodel.helpers.AdaptedModelHelper;
+import org.but4reuse.adapters.IElement;
+import org.but4reuse.artefactmodel.ArtefactModelFactory;
+import org.but4reuse.block.identification.impl.IntersectionsBlockIdentification;
+import org.but4reuse.featurelist.Feature;
+import org.but4reuse.featurelist.FeatureListFactory;
+import org.but4reuse.tests.utils.TestElement;
+import org.but4reuse.wordclouds.util.TermFrequencyUtils;
+import org.but4reuse.wordclouds.util.TermIndex;
+import org.but4reuse.wordclouds.util.TermVector;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mcavallo.opencloud.Cloud;
+
+/**
+ * The tf-idf scores of SFS_TFIDF with the term vectors must be the same as
+ * with the tf-idf clouds of each feature
+ * 
+ * @author jabier.martinez
+ */
+public class TfIdfVectorsTest {
+
+	private static final String[] VOCABULARY = { "open", "file", "window", "save", "print", "document", "color",
+			"font", "size", "zoom", "undo", "redo", "copy", "paste", "search" };
+
+	@Test
+	public void sameScoresAsClouds() {
+		Random random = new Random(0);
+		AdaptedModel adaptedModel = createAdaptedModel(random);
+		List<Feature> features = new ArrayList<Feature>();
+		for (int i = 0; i < 6; i++) {
+			Feature f = FeatureListFactory.eINSTANCE.createFeature();
+			f.setName(createText(random, 1 + random.nextInt(2)));
+			f.setDescription(createText(random, random.nextInt(4)));
+			features.add(f);
+		}
+		// same words as another feature so that the scores are tied
+		Feature copy = FeatureListFactory.eINSTANCE.createFeature();
+		copy.setName(features.get(0).getName());
+		copy.setDescription(features.get(0).getDescription());
+		features.add(copy);
+
+		TermIndex index = TermIndex.get(adaptedModel);
+		List<Cloud> clouds = new ArrayList<Cloud>();
+		List<List<String>> featuresWords = new ArrayList<List<String>>();
+		for (Feature f : features) {
+			clouds.add(TermFrequencyUtils.createFeatureTfIdfCloud(f, features));
+			featuresWords.add(TermFrequencyUtils.getFeatureTfIdfWords(f));
+		}
+		List<TermVector> vectors = TermFrequencyUtils.createFeaturesTfIdfVectors(featuresWords, index);
+
+		int ties = 0;
+		for (Block block : adaptedModel.getOwnedBlocks()) {
+			int blockId = index.getBlockId(block);
+			for (int e = index.getBlockStart(blockId); e < index.getBlockEnd(blockId); e++) {
+				IElement element = index.getElement(e);
+				double[] expected = new double[features.size()];
+				double[] actual = new double[features.size()];
+				for (int i = 0; i < features.size(); i++) {
+					expected[i] = TermFrequencyUtils.calculateTfIdf(clouds.get(i), element);
+					actual[i] = vectors.get(i).dot(index.getElementVector(e));
+				}
+				Assert.assertArrayEquals("Element " + element.getText(), expected, actual, 1e-9);
+				List<Integer> maxFeatures = getMaxFeatures(expected);
+				Assert.assertEquals("Element " + element.getText(), maxFeatures, getMaxFeatures(actual));
+				if (maxFeatures.size() > 1) {
+					ties++;
+				}
+			}
+		}
+		Assert.assertTrue(ties > 0);
+	}
+
+	/**
+	 * The features with the highest score as in SFS_TFIDF
+	 */
+	private List<Integer> getMaxFeatures(double[] scores) {
+		double maxTFIDFfound = 0.0;
+		List<Integer> maxFeatures = new ArrayList<Integer>();
+		for (int i = 0; i < scores.length; i++) {
+			if (scores[i] == maxTFIDFfound) {
+				maxFeatures.add(i);
+			} else if (scores[i] > maxTFIDFfound) {
+				maxFeatures.clear();
+				maxFeatures.add(i);
+				maxTFIDFfound = scores[i];
+			}
+		}
+		return maxFeatures;
+	}
+
+	/**
+	 * Three artefacts with 10, 30 and 60 elements, each element with a few
+	 * words of the vocabulary
+	 */
+	private AdaptedModel createAdaptedModel(Random random) {
+		List<String> texts = new ArrayList<String>();
+		for (int i = 0; i < 60; i++) {
+			texts.add(createText(random, 1 + random.nextInt(5)));
+		}
+		List<AdaptedArtefact> adaptedArtefacts = new ArrayList<AdaptedArtefact>();
+		for (int size : new int[] { 10, 30, 60 }) {
+			List<IElement> elements = new ArrayList<IElement>();
+			for (int i = 0; i < size; i++) {
+				elements.add(new TextElement(i, texts.get(i)));
+			}
+			AdaptedArtefact adaptedArtefact = AdaptedModelHelper.wrapElementsToCreateAdaptedArtefact(elements);
+			adaptedArtefact.setArtefact(ArtefactModelFactory.eINSTANCE.createArtefact());
+			adaptedArtefacts.add(adaptedArtefact);
+		}
+		List<Block> blocks = new IntersectionsBlockIdentification().identifyBlocks(adaptedArtefacts,
+				new NullProgressMonitor());
+		AdaptedModel adaptedModel = AdaptedModelFactory.eINSTANCE.createAdaptedModel();
+		adaptedModel.getOwnedAdaptedArtefacts().addAll(adaptedArtefacts);
+		adaptedModel.getOwnedBlocks().addAll(blocks);
+		return adaptedModel;
+	}
+
+	private String createText(Random random, int numberOfWords) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < numberOfWords; i++) {
+			text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+			text.append(" ");
+		}
+		return text.toString().trim();
+	}
+
+	/**
+	 * Test element with some text
+	 */
+	private static class TextElement extends TestElement {
+
+		private static final long serialVersionUID = 1L;
+
+		private String text;
+
+		public TextElement(int id, String text) {
+			this.id = id;
+			this.text = text;
+		}
+
+		@Override
+		public String getText() {
+			return text;
+		}
+	}
+
+}
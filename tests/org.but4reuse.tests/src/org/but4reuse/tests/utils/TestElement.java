@@ -10,6 +10,8 @@ import org.but4reuse.adapters.impl.AbstractElement;
  */
 public class TestElement extends AbstractElement {
 
+	private static final long serialVersionUID = 1L;
+
 	public int id;
 
 	@Override
@@ -22,6 +24,11 @@ public class TestElement extends AbstractElement {
 		return 0;
 	}
 
+	@Override
+	public Object getIdentityKey() {
+		return id;
+	}
+
 	@Override
 	public String getText() {
 		return Integer.toString(id);